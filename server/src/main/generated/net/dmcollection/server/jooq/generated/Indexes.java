@@ -7,17 +7,23 @@ package net.dmcollection.server.jooq.generated;
 import javax.annotation.processing.Generated;
 
 import net.dmcollection.server.jooq.generated.tables.Ability;
+import net.dmcollection.server.jooq.generated.tables.Card;
 import net.dmcollection.server.jooq.generated.tables.CardCivGroup;
+import net.dmcollection.server.jooq.generated.tables.CardPrivateTag;
 import net.dmcollection.server.jooq.generated.tables.CardSet;
 import net.dmcollection.server.jooq.generated.tables.CardSide;
 import net.dmcollection.server.jooq.generated.tables.CardSideCardType;
 import net.dmcollection.server.jooq.generated.tables.CardSideRace;
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
+import net.dmcollection.server.jooq.generated.tables.CollectionSnapshot;
 import net.dmcollection.server.jooq.generated.tables.Deck;
 import net.dmcollection.server.jooq.generated.tables.DeckVersion;
 import net.dmcollection.server.jooq.generated.tables.DeckVersionEntry;
 import net.dmcollection.server.jooq.generated.tables.Printing;
+import net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag;
+import net.dmcollection.server.jooq.generated.tables.PrintingSearch;
 import net.dmcollection.server.jooq.generated.tables.PrintingSide;
+import net.dmcollection.server.jooq.generated.tables.PrintingSideAbility;
 import net.dmcollection.server.jooq.generated.tables.WishlistEntry;
 
 import org.jooq.Index;
@@ -43,28 +49,39 @@ public class Indexes {
     // INDEX definitions
     // -------------------------------------------------------------------------
 
-    public static final Index IDX_ABILITY_SEARCH_TEXT = Internal.createIndex(DSL.name("idx_ability_search_text"), Ability.ABILITY, new OrderField[] { Ability.ABILITY.SEARCH_TEXT }, false);
+    public static final Index IDX_ABILITY_SEARCH_TEXT_TRGM = Internal.createIndex(DSL.name("idx_ability_search_text_trgm"), Ability.ABILITY, new OrderField[] { Ability.ABILITY.SEARCH_TEXT }, false);
     public static final Index IDX_CARD_CIV_GROUP_CARD_ID = Internal.createIndex(DSL.name("idx_card_civ_group_card_id"), CardCivGroup.CARD_CIV_GROUP, new OrderField[] { CardCivGroup.CARD_CIV_GROUP.CARD_ID }, false);
-    public static final Index IDX_CARD_CIV_GROUP_CIV_COUNT = Internal.createIndex(DSL.name("idx_card_civ_group_civ_count"), CardCivGroup.CARD_CIV_GROUP, new OrderField[] { CardCivGroup.CARD_CIV_GROUP.CIV_COUNT }, false);
-    public static final Index IDX_CARD_CIV_GROUP_CIVS = Internal.createIndex(DSL.name("idx_card_civ_group_civs"), CardCivGroup.CARD_CIV_GROUP, new OrderField[] { CardCivGroup.CARD_CIV_GROUP.CIVILIZATION_IDS }, false);
+    public static final Index IDX_CARD_NAME_TRGM = Internal.createIndex(DSL.name("idx_card_name_trgm"), Card.CARD, new OrderField[] { Card.CARD.NAME }, false);
+    public static final Index IDX_CARD_PRIVATE_TAG_PRIVATE_TAG_ID = Internal.createIndex(DSL.name("idx_card_private_tag_private_tag_id"), CardPrivateTag.CARD_PRIVATE_TAG, new OrderField[] { CardPrivateTag.CARD_PRIVATE_TAG.PRIVATE_TAG_ID }, false);
     public static final Index IDX_CARD_SET_RELEASE_DATE = Internal.createIndex(DSL.name("idx_card_set_release_date"), CardSet.CARD_SET, new OrderField[] { CardSet.CARD_SET.RELEASE_DATE }, false);
     public static final Index IDX_CARD_SIDE_CARD_ID = Internal.createIndex(DSL.name("idx_card_side_card_id"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.CARD_ID }, false);
     public static final Index IDX_CARD_SIDE_CARD_TYPE_TYPE_ID = Internal.createIndex(DSL.name("idx_card_side_card_type_type_id"), CardSideCardType.CARD_SIDE_CARD_TYPE, new OrderField[] { CardSideCardType.CARD_SIDE_CARD_TYPE.CARD_TYPE_ID }, false);
     public static final Index IDX_CARD_SIDE_COST_FILTER = Internal.createIndex(DSL.name("idx_card_side_cost_filter"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.COST_FILTER }, false);
     public static final Index IDX_CARD_SIDE_NAME = Internal.createIndex(DSL.name("idx_card_side_name"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.NAME }, false);
     public static final Index IDX_CARD_SIDE_NAME_READING = Internal.createIndex(DSL.name("idx_card_side_name_reading"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.NAME_READING }, false);
+    public static final Index IDX_CARD_SIDE_NAME_READING_TRGM = Internal.createIndex(DSL.name("idx_card_side_name_reading_trgm"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.NAME_READING }, false);
     public static final Index IDX_CARD_SIDE_POWER_FILTER = Internal.createIndex(DSL.name("idx_card_side_power_filter"), CardSide.CARD_SIDE, new OrderField[] { CardSide.CARD_SIDE.POWER_FILTER }, false);
     public static final Index IDX_CARD_SIDE_RACE_RACE_ID = Internal.createIndex(DSL.name("idx_card_side_race_race_id"), CardSideRace.CARD_SIDE_RACE, new OrderField[] { CardSideRace.CARD_SIDE_RACE.RACE_ID }, false);
-    public static final Index IDX_COLLECTION_HISTORY_CHANGED_AT = Internal.createIndex(DSL.name("idx_collection_history_changed_at"), CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, new OrderField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.CHANGED_AT }, false);
     public static final Index IDX_COLLECTION_HISTORY_PRINTING_ID = Internal.createIndex(DSL.name("idx_collection_history_printing_id"), CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, new OrderField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.PRINTING_ID }, false);
-    public static final Index IDX_COLLECTION_HISTORY_USER_ID = Internal.createIndex(DSL.name("idx_collection_history_user_id"), CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, new OrderField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.USER_ID }, false);
+    public static final Index IDX_COLLECTION_HISTORY_USER_CHANGED_AT = Internal.createIndex(DSL.name("idx_collection_history_user_changed_at"), CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, new OrderField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.USER_ID, CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.CHANGED_AT }, false);
+    public static final Index IDX_COLLECTION_HISTORY_USER_VERSION = Internal.createIndex(DSL.name("idx_collection_history_user_version"), CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, new OrderField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.USER_ID, CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.ID }, false);
+    public static final Index IDX_COLLECTION_SNAPSHOT_USER_HISTORY = Internal.createIndex(DSL.name("idx_collection_snapshot_user_history"), CollectionSnapshot.COLLECTION_SNAPSHOT, new OrderField[] { CollectionSnapshot.COLLECTION_SNAPSHOT.USER_ID, CollectionSnapshot.COLLECTION_SNAPSHOT.HISTORY_ID }, false);
     public static final Index IDX_DECK_USER_ID = Internal.createIndex(DSL.name("idx_deck_user_id"), Deck.DECK, new OrderField[] { Deck.DECK.USER_ID }, false);
     public static final Index IDX_DECK_VERSION_DECK_ID = Internal.createIndex(DSL.name("idx_deck_version_deck_id"), DeckVersion.DECK_VERSION, new OrderField[] { DeckVersion.DECK_VERSION.DECK_ID }, false);
     public static final Index IDX_DECK_VERSION_ENTRY_VERSION_ID = Internal.createIndex(DSL.name("idx_deck_version_entry_version_id"), DeckVersionEntry.DECK_VERSION_ENTRY, new OrderField[] { DeckVersionEntry.DECK_VERSION_ENTRY.DECK_VERSION_ID }, false);
     public static final Index IDX_PRINTING_CARD_ID = Internal.createIndex(DSL.name("idx_printing_card_id"), Printing.PRINTING, new OrderField[] { Printing.PRINTING.CARD_ID }, false);
     public static final Index IDX_PRINTING_ILLUSTRATOR_ID = Internal.createIndex(DSL.name("idx_printing_illustrator_id"), Printing.PRINTING, new OrderField[] { Printing.PRINTING.ILLUSTRATOR_ID }, false);
+    public static final Index IDX_PRINTING_PRIVATE_TAG_PRIVATE_TAG_ID = Internal.createIndex(DSL.name("idx_printing_private_tag_private_tag_id"), PrintingPrivateTag.PRINTING_PRIVATE_TAG, new OrderField[] { PrintingPrivateTag.PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID }, false);
     public static final Index IDX_PRINTING_RARITY_ID = Internal.createIndex(DSL.name("idx_printing_rarity_id"), Printing.PRINTING, new OrderField[] { Printing.PRINTING.RARITY_ID }, false);
+    public static final Index IDX_PRINTING_SEARCH_CARD_ID = Internal.createIndex(DSL.name("idx_printing_search_card_id"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.CARD_ID }, false);
+    public static final Index IDX_PRINTING_SEARCH_NAME_READINGS_TRGM = Internal.createIndex(DSL.name("idx_printing_search_name_readings_trgm"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.NAME_READINGS }, false);
+    public static final Index IDX_PRINTING_SEARCH_NAME_TRGM = Internal.createIndex(DSL.name("idx_printing_search_name_trgm"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.NAME }, false);
+    public static final Index IDX_PRINTING_SEARCH_RACE_IDS = Internal.createIndex(DSL.name("idx_printing_search_race_ids"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.RACE_IDS }, false);
+    public static final Index IDX_PRINTING_SEARCH_RELEASE = Internal.createIndex(DSL.name("idx_printing_search_release"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.RELEASE_DATE.desc(), PrintingSearch.PRINTING_SEARCH.OFFICIAL_SITE_ID, PrintingSearch.PRINTING_SEARCH.PRINTING_ID }, false);
+    public static final Index IDX_PRINTING_SEARCH_SET_ID = Internal.createIndex(DSL.name("idx_printing_search_set_id"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.SET_ID }, false);
+    public static final Index IDX_PRINTING_SEARCH_TYPE_IDS = Internal.createIndex(DSL.name("idx_printing_search_type_ids"), PrintingSearch.PRINTING_SEARCH, new OrderField[] { PrintingSearch.PRINTING_SEARCH.TYPE_IDS }, false);
     public static final Index IDX_PRINTING_SET_ID = Internal.createIndex(DSL.name("idx_printing_set_id"), Printing.PRINTING, new OrderField[] { Printing.PRINTING.SET_ID }, false);
+    public static final Index IDX_PRINTING_SIDE_ABILITY_ABILITY_ID = Internal.createIndex(DSL.name("idx_printing_side_ability_ability_id"), PrintingSideAbility.PRINTING_SIDE_ABILITY, new OrderField[] { PrintingSideAbility.PRINTING_SIDE_ABILITY.ABILITY_ID }, false);
     public static final Index IDX_PRINTING_SIDE_PRINTING_ID = Internal.createIndex(DSL.name("idx_printing_side_printing_id"), PrintingSide.PRINTING_SIDE, new OrderField[] { PrintingSide.PRINTING_SIDE.PRINTING_ID }, false);
     public static final Index IDX_WISHLIST_ENTRY_WISHLIST_ID = Internal.createIndex(DSL.name("idx_wishlist_entry_wishlist_id"), WishlistEntry.WISHLIST_ENTRY, new OrderField[] { WishlistEntry.WISHLIST_ENTRY.WISHLIST_ID }, false);
     public static final Index UQ_DECK_ONE_DRAFT = Internal.createIndex(DSL.name("uq_deck_one_draft"), DeckVersion.DECK_VERSION, new OrderField[] { DeckVersion.DECK_VERSION.DECK_ID }, true);
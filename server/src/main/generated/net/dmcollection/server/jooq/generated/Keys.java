@@ -21,6 +21,8 @@ import net.dmcollection.server.jooq.generated.tables.CardSideSoul;
 import net.dmcollection.server.jooq.generated.tables.CardType;
 import net.dmcollection.server.jooq.generated.tables.CollectionEntry;
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
+import net.dmcollection.server.jooq.generated.tables.CollectionSnapshot;
+import net.dmcollection.server.jooq.generated.tables.CollectionSummary;
 import net.dmcollection.server.jooq.generated.tables.Deck;
 import net.dmcollection.server.jooq.generated.tables.DeckVersion;
 import net.dmcollection.server.jooq.generated.tables.DeckVersionEntry;
@@ -28,6 +30,7 @@ import net.dmcollection.server.jooq.generated.tables.Illustrator;
 import net.dmcollection.server.jooq.generated.tables.KeywordAbility;
 import net.dmcollection.server.jooq.generated.tables.Printing;
 import net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag;
+import net.dmcollection.server.jooq.generated.tables.PrintingSearch;
 import net.dmcollection.server.jooq.generated.tables.PrintingSide;
 import net.dmcollection.server.jooq.generated.tables.PrintingSideAbility;
 import net.dmcollection.server.jooq.generated.tables.PrivateTag;
@@ -55,6 +58,8 @@ import net.dmcollection.server.jooq.generated.tables.records.CardSideSoulRecord;
 import net.dmcollection.server.jooq.generated.tables.records.CardTypeRecord;
 import net.dmcollection.server.jooq.generated.tables.records.CollectionEntryRecord;
 import net.dmcollection.server.jooq.generated.tables.records.CollectionHistoryEntryRecord;
+import net.dmcollection.server.jooq.generated.tables.records.CollectionSnapshotRecord;
+import net.dmcollection.server.jooq.generated.tables.records.CollectionSummaryRecord;
 import net.dmcollection.server.jooq.generated.tables.records.DeckRecord;
 import net.dmcollection.server.jooq.generated.tables.records.DeckVersionEntryRecord;
 import net.dmcollection.server.jooq.generated.tables.records.DeckVersionRecord;
@@ -62,6 +67,7 @@ import net.dmcollection.server.jooq.generated.tables.records.IllustratorRecord;
 import net.dmcollection.server.jooq.generated.tables.records.KeywordAbilityRecord;
 import net.dmcollection.server.jooq.generated.tables.records.PrintingPrivateTagRecord;
 import net.dmcollection.server.jooq.generated.tables.records.PrintingRecord;
+import net.dmcollection.server.jooq.generated.tables.records.PrintingSearchRecord;
 import net.dmcollection.server.jooq.generated.tables.records.PrintingSideAbilityRecord;
 import net.dmcollection.server.jooq.generated.tables.records.PrintingSideRecord;
 import net.dmcollection.server.jooq.generated.tables.records.PrivateTagRecord;
@@ -125,7 +131,9 @@ public class Keys {
     public static final UniqueKey<CardTypeRecord> CARD_TYPE_PKEY = Internal.createUniqueKey(CardType.CARD_TYPE, DSL.name("card_type_pkey"), new TableField[] { CardType.CARD_TYPE.ID }, true);
     public static final UniqueKey<CollectionEntryRecord> COLLECTION_ENTRY_PKEY = Internal.createUniqueKey(CollectionEntry.COLLECTION_ENTRY, DSL.name("collection_entry_pkey"), new TableField[] { CollectionEntry.COLLECTION_ENTRY.ID }, true);
     public static final UniqueKey<CollectionEntryRecord> COLLECTION_ENTRY_USER_ID_PRINTING_ID_KEY = Internal.createUniqueKey(CollectionEntry.COLLECTION_ENTRY, DSL.name("collection_entry_user_id_printing_id_key"), new TableField[] { CollectionEntry.COLLECTION_ENTRY.USER_ID, CollectionEntry.COLLECTION_ENTRY.PRINTING_ID }, true);
-    public static final UniqueKey<CollectionHistoryEntryRecord> COLLECTION_HISTORY_ENTRY_PKEY = Internal.createUniqueKey(CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, DSL.name("collection_history_entry_pkey"), new TableField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.ID }, true);
+    public static final UniqueKey<CollectionHistoryEntryRecord> COLLECTION_HISTORY_ENTRY_PKEY = Internal.createUniqueKey(CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, DSL.name("collection_history_entry_pkey"), new TableField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.ID, CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.CHANGED_AT }, true);
+    public static final UniqueKey<CollectionSnapshotRecord> COLLECTION_SNAPSHOT_PKEY = Internal.createUniqueKey(CollectionSnapshot.COLLECTION_SNAPSHOT, DSL.name("collection_snapshot_pkey"), new TableField[] { CollectionSnapshot.COLLECTION_SNAPSHOT.ID }, true);
+    public static final UniqueKey<CollectionSummaryRecord> COLLECTION_SUMMARY_PKEY = Internal.createUniqueKey(CollectionSummary.COLLECTION_SUMMARY, DSL.name("collection_summary_pkey"), new TableField[] { CollectionSummary.COLLECTION_SUMMARY.USER_ID }, true);
     public static final UniqueKey<DeckRecord> DECK_PKEY = Internal.createUniqueKey(Deck.DECK, DSL.name("deck_pkey"), new TableField[] { Deck.DECK.ID }, true);
     public static final UniqueKey<DeckVersionRecord> DECK_VERSION_PKEY = Internal.createUniqueKey(DeckVersion.DECK_VERSION, DSL.name("deck_version_pkey"), new TableField[] { DeckVersion.DECK_VERSION.ID }, true);
     public static final UniqueKey<DeckVersionEntryRecord> DECK_VERSION_ENTRY_DECK_VERSION_ID_CARD_ID_PRINTING_ID_KEY = Internal.createUniqueKey(DeckVersionEntry.DECK_VERSION_ENTRY, DSL.name("deck_version_entry_deck_version_id_card_id_printing_id_key"), new TableField[] { DeckVersionEntry.DECK_VERSION_ENTRY.DECK_VERSION_ID, DeckVersionEntry.DECK_VERSION_ENTRY.CARD_ID, DeckVersionEntry.DECK_VERSION_ENTRY.PRINTING_ID }, true);
@@ -137,6 +145,7 @@ public class Keys {
     public static final UniqueKey<PrintingRecord> PRINTING_OFFICIAL_SITE_ID_KEY = Internal.createUniqueKey(Printing.PRINTING, DSL.name("printing_official_site_id_key"), new TableField[] { Printing.PRINTING.OFFICIAL_SITE_ID }, true);
     public static final UniqueKey<PrintingRecord> PRINTING_PKEY = Internal.createUniqueKey(Printing.PRINTING, DSL.name("printing_pkey"), new TableField[] { Printing.PRINTING.ID }, true);
     public static final UniqueKey<PrintingPrivateTagRecord> PRINTING_PRIVATE_TAG_PKEY = Internal.createUniqueKey(PrintingPrivateTag.PRINTING_PRIVATE_TAG, DSL.name("printing_private_tag_pkey"), new TableField[] { PrintingPrivateTag.PRINTING_PRIVATE_TAG.PRINTING_ID, PrintingPrivateTag.PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID }, true);
+    public static final UniqueKey<PrintingSearchRecord> PRINTING_SEARCH_PKEY = Internal.createUniqueKey(PrintingSearch.PRINTING_SEARCH, DSL.name("printing_search_pkey"), new TableField[] { PrintingSearch.PRINTING_SEARCH.PRINTING_ID }, true);
     public static final UniqueKey<PrintingSideRecord> PRINTING_SIDE_PKEY = Internal.createUniqueKey(PrintingSide.PRINTING_SIDE, DSL.name("printing_side_pkey"), new TableField[] { PrintingSide.PRINTING_SIDE.ID }, true);
     public static final UniqueKey<PrintingSideRecord> PRINTING_SIDE_PRINTING_ID_CARD_SIDE_ID_KEY = Internal.createUniqueKey(PrintingSide.PRINTING_SIDE, DSL.name("printing_side_printing_id_card_side_id_key"), new TableField[] { PrintingSide.PRINTING_SIDE.PRINTING_ID, PrintingSide.PRINTING_SIDE.CARD_SIDE_ID }, true);
     public static final UniqueKey<PrintingSideAbilityRecord> PRINTING_SIDE_ABILITY_PKEY = Internal.createUniqueKey(PrintingSideAbility.PRINTING_SIDE_ABILITY, DSL.name("printing_side_ability_pkey"), new TableField[] { PrintingSideAbility.PRINTING_SIDE_ABILITY.PRINTING_SIDE_ID, PrintingSideAbility.PRINTING_SIDE_ABILITY.ABILITY_ID, PrintingSideAbility.PRINTING_SIDE_ABILITY.POSITION }, true);
@@ -188,6 +197,8 @@ public class Keys {
     public static final ForeignKey<CollectionEntryRecord, AppUserRecord> COLLECTION_ENTRY__COLLECTION_ENTRY_USER_ID_FKEY = Internal.createForeignKey(CollectionEntry.COLLECTION_ENTRY, DSL.name("collection_entry_user_id_fkey"), new TableField[] { CollectionEntry.COLLECTION_ENTRY.USER_ID }, Keys.APP_USER_PKEY, new TableField[] { AppUser.APP_USER.ID }, true, ForeignKeyRule.NO_ACTION, ForeignKeyRule.NO_ACTION);
     public static final ForeignKey<CollectionHistoryEntryRecord, PrintingRecord> COLLECTION_HISTORY_ENTRY__COLLECTION_HISTORY_ENTRY_PRINTING_ID_FKEY = Internal.createForeignKey(CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, DSL.name("collection_history_entry_printing_id_fkey"), new TableField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.PRINTING_ID }, Keys.PRINTING_PKEY, new TableField[] { Printing.PRINTING.ID }, true, ForeignKeyRule.NO_ACTION, ForeignKeyRule.NO_ACTION);
     public static final ForeignKey<CollectionHistoryEntryRecord, AppUserRecord> COLLECTION_HISTORY_ENTRY__COLLECTION_HISTORY_ENTRY_USER_ID_FKEY = Internal.createForeignKey(CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY, DSL.name("collection_history_entry_user_id_fkey"), new TableField[] { CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY.USER_ID }, Keys.APP_USER_PKEY, new TableField[] { AppUser.APP_USER.ID }, true, ForeignKeyRule.NO_ACTION, ForeignKeyRule.NO_ACTION);
+    public static final ForeignKey<CollectionSnapshotRecord, AppUserRecord> COLLECTION_SNAPSHOT__COLLECTION_SNAPSHOT_USER_ID_FKEY = Internal.createForeignKey(CollectionSnapshot.COLLECTION_SNAPSHOT, DSL.name("collection_snapshot_user_id_fkey"), new TableField[] { CollectionSnapshot.COLLECTION_SNAPSHOT.USER_ID }, Keys.APP_USER_PKEY, new TableField[] { AppUser.APP_USER.ID }, true, ForeignKeyRule.CASCADE, ForeignKeyRule.NO_ACTION);
+    public static final ForeignKey<CollectionSummaryRecord, AppUserRecord> COLLECTION_SUMMARY__COLLECTION_SUMMARY_USER_ID_FKEY = Internal.createForeignKey(CollectionSummary.COLLECTION_SUMMARY, DSL.name("collection_summary_user_id_fkey"), new TableField[] { CollectionSummary.COLLECTION_SUMMARY.USER_ID }, Keys.APP_USER_PKEY, new TableField[] { AppUser.APP_USER.ID }, true, ForeignKeyRule.CASCADE, ForeignKeyRule.NO_ACTION);
     public static final ForeignKey<DeckRecord, AppUserRecord> DECK__DECK_USER_ID_FKEY = Internal.createForeignKey(Deck.DECK, DSL.name("deck_user_id_fkey"), new TableField[] { Deck.DECK.USER_ID }, Keys.APP_USER_PKEY, new TableField[] { AppUser.APP_USER.ID }, true, ForeignKeyRule.NO_ACTION, ForeignKeyRule.NO_ACTION);
     public static final ForeignKey<DeckVersionRecord, DeckRecord> DECK_VERSION__DECK_VERSION_DECK_ID_FKEY = Internal.createForeignKey(DeckVersion.DECK_VERSION, DSL.name("deck_version_deck_id_fkey"), new TableField[] { DeckVersion.DECK_VERSION.DECK_ID }, Keys.DECK_PKEY, new TableField[] { Deck.DECK.ID }, true, ForeignKeyRule.CASCADE, ForeignKeyRule.NO_ACTION);
     public static final ForeignKey<DeckVersionEntryRecord, CardRecord> DECK_VERSION_ENTRY__DECK_VERSION_ENTRY_CARD_ID_FKEY = Internal.createForeignKey(DeckVersionEntry.DECK_VERSION_ENTRY, DSL.name("deck_version_entry_card_id_fkey"), new TableField[] { DeckVersionEntry.DECK_VERSION_ENTRY.CARD_ID }, Keys.CARD_PKEY, new TableField[] { Card.CARD.ID }, true, ForeignKeyRule.NO_ACTION, ForeignKeyRule.NO_ACTION);
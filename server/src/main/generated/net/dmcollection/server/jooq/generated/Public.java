@@ -24,6 +24,8 @@ import net.dmcollection.server.jooq.generated.tables.CardSideSoul;
 import net.dmcollection.server.jooq.generated.tables.CardType;
 import net.dmcollection.server.jooq.generated.tables.CollectionEntry;
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
+import net.dmcollection.server.jooq.generated.tables.CollectionSnapshot;
+import net.dmcollection.server.jooq.generated.tables.CollectionSummary;
 import net.dmcollection.server.jooq.generated.tables.Deck;
 import net.dmcollection.server.jooq.generated.tables.DeckVersion;
 import net.dmcollection.server.jooq.generated.tables.DeckVersionEntry;
@@ -31,6 +33,7 @@ import net.dmcollection.server.jooq.generated.tables.Illustrator;
 import net.dmcollection.server.jooq.generated.tables.KeywordAbility;
 import net.dmcollection.server.jooq.generated.tables.Printing;
 import net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag;
+import net.dmcollection.server.jooq.generated.tables.PrintingSearch;
 import net.dmcollection.server.jooq.generated.tables.PrintingSide;
 import net.dmcollection.server.jooq.generated.tables.PrintingSideAbility;
 import net.dmcollection.server.jooq.generated.tables.PrivateTag;
@@ -145,6 +148,16 @@ public class Public extends SchemaImpl {
      */
     public final CollectionHistoryEntry COLLECTION_HISTORY_ENTRY = CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
 
+    /**
+     * The table <code>public.collection_snapshot</code>.
+     */
+    public final CollectionSnapshot COLLECTION_SNAPSHOT = CollectionSnapshot.COLLECTION_SNAPSHOT;
+
+    /**
+     * The table <code>public.collection_summary</code>.
+     */
+    public final CollectionSummary COLLECTION_SUMMARY = CollectionSummary.COLLECTION_SUMMARY;
+
     /**
      * The table <code>public.deck</code>.
      */
@@ -180,6 +193,11 @@ public class Public extends SchemaImpl {
      */
     public final PrintingPrivateTag PRINTING_PRIVATE_TAG = PrintingPrivateTag.PRINTING_PRIVATE_TAG;
 
+    /**
+     * The table <code>public.printing_search</code>.
+     */
+    public final PrintingSearch PRINTING_SEARCH = PrintingSearch.PRINTING_SEARCH;
+
     /**
      * The table <code>public.printing_side</code>.
      */
@@ -271,6 +289,8 @@ public class Public extends SchemaImpl {
             CardType.CARD_TYPE,
             CollectionEntry.COLLECTION_ENTRY,
             CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY,
+            CollectionSnapshot.COLLECTION_SNAPSHOT,
+            CollectionSummary.COLLECTION_SUMMARY,
             Deck.DECK,
             DeckVersion.DECK_VERSION,
             DeckVersionEntry.DECK_VERSION_ENTRY,
@@ -278,6 +298,7 @@ public class Public extends SchemaImpl {
             KeywordAbility.KEYWORD_ABILITY,
             Printing.PRINTING,
             PrintingPrivateTag.PRINTING_PRIVATE_TAG,
+            PrintingSearch.PRINTING_SEARCH,
             PrintingSide.PRINTING_SIDE,
             PrintingSideAbility.PRINTING_SIDE_ABILITY,
             PrivateTag.PRIVATE_TAG,
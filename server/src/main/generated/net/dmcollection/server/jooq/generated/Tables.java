@@ -21,6 +21,8 @@ import net.dmcollection.server.jooq.generated.tables.CardSideSoul;
 import net.dmcollection.server.jooq.generated.tables.CardType;
 import net.dmcollection.server.jooq.generated.tables.CollectionEntry;
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
+import net.dmcollection.server.jooq.generated.tables.CollectionSnapshot;
+import net.dmcollection.server.jooq.generated.tables.CollectionSummary;
 import net.dmcollection.server.jooq.generated.tables.Deck;
 import net.dmcollection.server.jooq.generated.tables.DeckVersion;
 import net.dmcollection.server.jooq.generated.tables.DeckVersionEntry;
@@ -28,6 +30,7 @@ import net.dmcollection.server.jooq.generated.tables.Illustrator;
 import net.dmcollection.server.jooq.generated.tables.KeywordAbility;
 import net.dmcollection.server.jooq.generated.tables.Printing;
 import net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag;
+import net.dmcollection.server.jooq.generated.tables.PrintingSearch;
 import net.dmcollection.server.jooq.generated.tables.PrintingSide;
 import net.dmcollection.server.jooq.generated.tables.PrintingSideAbility;
 import net.dmcollection.server.jooq.generated.tables.PrivateTag;
@@ -130,6 +133,16 @@ public class Tables {
      */
     public static final CollectionHistoryEntry COLLECTION_HISTORY_ENTRY = CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
 
+    /**
+     * The table <code>public.collection_snapshot</code>.
+     */
+    public static final CollectionSnapshot COLLECTION_SNAPSHOT = CollectionSnapshot.COLLECTION_SNAPSHOT;
+
+    /**
+     * The table <code>public.collection_summary</code>.
+     */
+    public static final CollectionSummary COLLECTION_SUMMARY = CollectionSummary.COLLECTION_SUMMARY;
+
     /**
      * The table <code>public.deck</code>.
      */
@@ -165,6 +178,11 @@ public class Tables {
      */
     public static final PrintingPrivateTag PRINTING_PRIVATE_TAG = PrintingPrivateTag.PRINTING_PRIVATE_TAG;
 
+    /**
+     * The table <code>public.printing_search</code>.
+     */
+    public static final PrintingSearch PRINTING_SEARCH = PrintingSearch.PRINTING_SEARCH;
+
     /**
      * The table <code>public.printing_side</code>.
      */
@@ -160,7 +160,7 @@ public class Ability extends TableImpl<AbilityRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.IDX_ABILITY_SEARCH_TEXT);
+        return Arrays.asList(Indexes.IDX_ABILITY_SEARCH_TEXT_TRGM);
     }
 
     @Override
@@ -15,6 +15,7 @@ import net.dmcollection.server.jooq.generated.Keys;
 import net.dmcollection.server.jooq.generated.Public;
 import net.dmcollection.server.jooq.generated.tables.CollectionEntry.CollectionEntryPath;
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry.CollectionHistoryEntryPath;
+import net.dmcollection.server.jooq.generated.tables.CollectionSummary.CollectionSummaryPath;
 import net.dmcollection.server.jooq.generated.tables.Deck.DeckPath;
 import net.dmcollection.server.jooq.generated.tables.Printing.PrintingPath;
 import net.dmcollection.server.jooq.generated.tables.PrivateTag.PrivateTagPath;
@@ -212,6 +213,19 @@ public class AppUser extends TableImpl<AppUserRecord> {
         return _collectionHistoryEntry;
     }
 
+    private transient CollectionSummaryPath _collectionSummary;
+
+    /**
+     * Get the implicit to-many join path to the
+     * <code>public.collection_summary</code> table
+     */
+    public CollectionSummaryPath collectionSummary() {
+        if (_collectionSummary == null)
+            _collectionSummary = new CollectionSummaryPath(this, null, Keys.COLLECTION_SUMMARY__COLLECTION_SUMMARY_USER_ID_FKEY.getInverseKey());
+
+        return _collectionSummary;
+    }
+
     private transient DeckPath _deck;
 
     /**
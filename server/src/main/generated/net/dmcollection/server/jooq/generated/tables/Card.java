@@ -10,6 +10,7 @@ import java.util.List;
 
 import javax.annotation.processing.Generated;
 
+import net.dmcollection.server.jooq.generated.Indexes;
 import net.dmcollection.server.jooq.generated.Keys;
 import net.dmcollection.server.jooq.generated.Public;
 import net.dmcollection.server.jooq.generated.tables.CardCivGroup.CardCivGroupPath;
@@ -30,6 +31,7 @@ import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.ForeignKey;
 import org.jooq.Identity;
+import org.jooq.Index;
 import org.jooq.InverseForeignKey;
 import org.jooq.Name;
 import org.jooq.Path;
@@ -197,6 +199,11 @@ public class Card extends TableImpl<CardRecord> {
         return aliased() ? null : Public.PUBLIC;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.asList(Indexes.IDX_CARD_NAME_TRGM);
+    }
+
     @Override
     public Identity<CardRecord, Integer> getIdentity() {
         return (Identity<CardRecord, Integer>) super.getIdentity();
@@ -94,6 +94,11 @@ public class CardCivGroup extends TableImpl<CardCivGroupRecord> {
      */
     public final TableField<CardCivGroupRecord, Boolean> INCLUDES_COLORLESS_SIDE = createField(DSL.name("includes_colorless_side"), SQLDataType.BOOLEAN.nullable(false).defaultValue(DSL.field(DSL.raw("false"), SQLDataType.BOOLEAN)), this, "");
 
+    /**
+     * The column <code>public.card_civ_group.civ_mask</code>.
+     */
+    public final TableField<CardCivGroupRecord, Short> CIV_MASK = createField(DSL.name("civ_mask"), SQLDataType.SMALLINT.nullable(false).defaultValue(DSL.field(DSL.raw("0"), SQLDataType.SMALLINT)), this, "");
+
     private CardCivGroup(Name alias, Table<CardCivGroupRecord> aliased) {
         this(alias, aliased, (Field<?>[]) null, null);
     }
@@ -170,7 +175,7 @@ public class CardCivGroup extends TableImpl<CardCivGroupRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.IDX_CARD_CIV_GROUP_CARD_ID, Indexes.IDX_CARD_CIV_GROUP_CIV_COUNT, Indexes.IDX_CARD_CIV_GROUP_CIVS);
+        return Arrays.asList(Indexes.IDX_CARD_CIV_GROUP_CARD_ID);
     }
 
     @Override
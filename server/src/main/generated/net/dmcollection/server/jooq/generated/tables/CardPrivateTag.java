@@ -10,6 +10,7 @@ import java.util.List;
 
 import javax.annotation.processing.Generated;
 
+import net.dmcollection.server.jooq.generated.Indexes;
 import net.dmcollection.server.jooq.generated.Keys;
 import net.dmcollection.server.jooq.generated.Public;
 import net.dmcollection.server.jooq.generated.tables.Card.CardPath;
@@ -19,6 +20,7 @@ import net.dmcollection.server.jooq.generated.tables.records.CardPrivateTagRecor
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.ForeignKey;
+import org.jooq.Index;
 import org.jooq.InverseForeignKey;
 import org.jooq.Name;
 import org.jooq.Path;
@@ -151,6 +153,11 @@ public class CardPrivateTag extends TableImpl<CardPrivateTagRecord> {
         return aliased() ? null : Public.PUBLIC;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.asList(Indexes.IDX_CARD_PRIVATE_TAG_PRIVATE_TAG_ID);
+    }
+
     @Override
     public UniqueKey<CardPrivateTagRecord> getPrimaryKey() {
         return Keys.CARD_PRIVATE_TAG_PKEY;
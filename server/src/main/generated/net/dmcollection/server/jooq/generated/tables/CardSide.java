@@ -148,6 +148,11 @@ public class CardSide extends TableImpl<CardSideRecord> {
      */
     public final TableField<CardSideRecord, Integer> POWER_FILTER = createField(DSL.name("power_filter"), SQLDataType.INTEGER, this, "");
 
+    /**
+     * The column <code>public.card_side.civ_mask</code>.
+     */
+    public final TableField<CardSideRecord, Short> CIV_MASK = createField(DSL.name("civ_mask"), SQLDataType.SMALLINT.nullable(false).defaultValue(DSL.field(DSL.raw("0"), SQLDataType.SMALLINT)), this, "");
+
     private CardSide(Name alias, Table<CardSideRecord> aliased) {
         this(alias, aliased, (Field<?>[]) null, null);
     }
@@ -224,7 +229,7 @@ public class CardSide extends TableImpl<CardSideRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.IDX_CARD_SIDE_CARD_ID, Indexes.IDX_CARD_SIDE_COST_FILTER, Indexes.IDX_CARD_SIDE_NAME, Indexes.IDX_CARD_SIDE_NAME_READING, Indexes.IDX_CARD_SIDE_POWER_FILTER);
+        return Arrays.asList(Indexes.IDX_CARD_SIDE_CARD_ID, Indexes.IDX_CARD_SIDE_COST_FILTER, Indexes.IDX_CARD_SIDE_NAME, Indexes.IDX_CARD_SIDE_NAME_READING, Indexes.IDX_CARD_SIDE_NAME_READING_TRGM, Indexes.IDX_CARD_SIDE_POWER_FILTER);
     }
 
     @Override
@@ -75,7 +75,7 @@ public class CollectionHistoryEntry extends TableImpl<CollectionHistoryEntryReco
     /**
      * The column <code>public.collection_history_entry.id</code>.
      */
-    public final TableField<CollectionHistoryEntryRecord, Long> ID = createField(DSL.name("id"), SQLDataType.BIGINT.nullable(false).generatedAlwaysAsIdentity(), this, "");
+    public final TableField<CollectionHistoryEntryRecord, Long> ID = createField(DSL.name("id"), SQLDataType.BIGINT.nullable(false).identity(true), this, "");
 
     /**
      * The column <code>public.collection_history_entry.user_id</code>.
@@ -185,7 +185,7 @@ public class CollectionHistoryEntry extends TableImpl<CollectionHistoryEntryReco
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.IDX_COLLECTION_HISTORY_CHANGED_AT, Indexes.IDX_COLLECTION_HISTORY_PRINTING_ID, Indexes.IDX_COLLECTION_HISTORY_USER_ID);
+        return Arrays.asList(Indexes.IDX_COLLECTION_HISTORY_PRINTING_ID, Indexes.IDX_COLLECTION_HISTORY_USER_CHANGED_AT, Indexes.IDX_COLLECTION_HISTORY_USER_VERSION);
     }
 
     @Override
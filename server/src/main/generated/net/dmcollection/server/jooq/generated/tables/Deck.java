@@ -101,6 +101,16 @@ public class Deck extends TableImpl<DeckRecord> {
      */
     public final TableField<DeckRecord, OffsetDateTime> UPDATED_AT = createField(DSL.name("updated_at"), SQLDataType.TIMESTAMPWITHTIMEZONE(6).nullable(false).defaultValue(DSL.field(DSL.raw("now()"), SQLDataType.TIMESTAMPWITHTIMEZONE)), this, "");
 
+    /**
+     * The column <code>public.deck.unique_count</code>.
+     */
+    public final TableField<DeckRecord, Long> UNIQUE_COUNT = createField(DSL.name("unique_count"), SQLDataType.BIGINT.nullable(false).defaultValue(DSL.field(DSL.raw("0"), SQLDataType.BIGINT)), this, "");
+
+    /**
+     * The column <code>public.deck.total_count</code>.
+     */
+    public final TableField<DeckRecord, Long> TOTAL_COUNT = createField(DSL.name("total_count"), SQLDataType.BIGINT.nullable(false).defaultValue(DSL.field(DSL.raw("0"), SQLDataType.BIGINT)), this, "");
+
     private Deck(Name alias, Table<DeckRecord> aliased) {
         this(alias, aliased, (Field<?>[]) null, null);
     }
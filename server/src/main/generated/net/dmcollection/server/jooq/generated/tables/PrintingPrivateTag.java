@@ -10,6 +10,7 @@ import java.util.List;
 
 import javax.annotation.processing.Generated;
 
+import net.dmcollection.server.jooq.generated.Indexes;
 import net.dmcollection.server.jooq.generated.Keys;
 import net.dmcollection.server.jooq.generated.Public;
 import net.dmcollection.server.jooq.generated.tables.Printing.PrintingPath;
@@ -19,6 +20,7 @@ import net.dmcollection.server.jooq.generated.tables.records.PrintingPrivateTagR
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.ForeignKey;
+import org.jooq.Index;
 import org.jooq.InverseForeignKey;
 import org.jooq.Name;
 import org.jooq.Path;
@@ -153,6 +155,11 @@ public class PrintingPrivateTag extends TableImpl<PrintingPrivateTagRecord> {
         return aliased() ? null : Public.PUBLIC;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.asList(Indexes.IDX_PRINTING_PRIVATE_TAG_PRIVATE_TAG_ID);
+    }
+
     @Override
     public UniqueKey<PrintingPrivateTagRecord> getPrimaryKey() {
         return Keys.PRINTING_PRIVATE_TAG_PKEY;
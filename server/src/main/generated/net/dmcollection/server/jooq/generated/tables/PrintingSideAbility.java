@@ -10,6 +10,7 @@ import java.util.List;
 
 import javax.annotation.processing.Generated;
 
+import net.dmcollection.server.jooq.generated.Indexes;
 import net.dmcollection.server.jooq.generated.Keys;
 import net.dmcollection.server.jooq.generated.Public;
 import net.dmcollection.server.jooq.generated.tables.Ability.AbilityPath;
@@ -19,6 +20,7 @@ import net.dmcollection.server.jooq.generated.tables.records.PrintingSideAbility
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.ForeignKey;
+import org.jooq.Index;
 import org.jooq.InverseForeignKey;
 import org.jooq.Name;
 import org.jooq.Path;
@@ -163,6 +165,11 @@ public class PrintingSideAbility extends TableImpl<PrintingSideAbilityRecord> {
         return aliased() ? null : Public.PUBLIC;
     }
 
+    @Override
+    public List<Index> getIndexes() {
+        return Arrays.asList(Indexes.IDX_PRINTING_SIDE_ABILITY_ABILITY_ID);
+    }
+
     @Override
     public UniqueKey<PrintingSideAbilityRecord> getPrimaryKey() {
         return Keys.PRINTING_SIDE_ABILITY_PKEY;
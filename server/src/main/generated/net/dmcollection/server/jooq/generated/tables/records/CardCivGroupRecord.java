@@ -102,6 +102,21 @@ public class CardCivGroupRecord extends UpdatableRecordImpl<CardCivGroupRecord>
         return (Boolean) get(4);
     }
 
+    /**
+     * Setter for <code>public.card_civ_group.civ_mask</code>.
+     */
+    public CardCivGroupRecord setCivMask(Short value) {
+        set(5, value);
+        return this;
+    }
+
+    /**
+     * Getter for <code>public.card_civ_group.civ_mask</code>.
+     */
+    public Short getCivMask() {
+        return (Short) get(5);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -125,7 +140,7 @@ public class CardCivGroupRecord extends UpdatableRecordImpl<CardCivGroupRecord>
     /**
      * Create a detached, initialised CardCivGroupRecord
      */
-    public CardCivGroupRecord(Integer id, Integer cardId, Short[] civilizationIds, Short civCount, Boolean includesColorlessSide) {
+    public CardCivGroupRecord(Integer id, Integer cardId, Short[] civilizationIds, Short civCount, Boolean includesColorlessSide, Short civMask) {
         super(CardCivGroup.CARD_CIV_GROUP);
 
         setId(id);
@@ -133,6 +148,7 @@ public class CardCivGroupRecord extends UpdatableRecordImpl<CardCivGroupRecord>
         setCivilizationIds(civilizationIds);
         setCivCount(civCount);
         setIncludesColorlessSide(includesColorlessSide);
+        setCivMask(civMask);
         resetTouchedOnNotNull();
     }
 }
@@ -237,6 +237,21 @@ public class CardSideRecord extends UpdatableRecordImpl<CardSideRecord> {
         return (Integer) get(13);
     }
 
+    /**
+     * Setter for <code>public.card_side.civ_mask</code>.
+     */
+    public CardSideRecord setCivMask(Short value) {
+        set(14, value);
+        return this;
+    }
+
+    /**
+     * Getter for <code>public.card_side.civ_mask</code>.
+     */
+    public Short getCivMask() {
+        return (Short) get(14);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -260,7 +275,7 @@ public class CardSideRecord extends UpdatableRecordImpl<CardSideRecord> {
     /**
      * Create a detached, initialised CardSideRecord
      */
-    public CardSideRecord(Integer id, Integer cardId, Short sideOrder, String name, String nameReading, Integer cost, Boolean costIsInfinity, Integer power, Boolean powerIsInfinity, String powerModifier, Short[] civilizationIds, String sideType, Integer costFilter, Integer powerFilter) {
+    public CardSideRecord(Integer id, Integer cardId, Short sideOrder, String name, String nameReading, Integer cost, Boolean costIsInfinity, Integer power, Boolean powerIsInfinity, String powerModifier, Short[] civilizationIds, String sideType, Integer costFilter, Integer powerFilter, Short civMask) {
         super(CardSide.CARD_SIDE);
 
         setId(id);
@@ -277,6 +292,7 @@ public class CardSideRecord extends UpdatableRecordImpl<CardSideRecord> {
         setSideType(sideType);
         setCostFilter(costFilter);
         setPowerFilter(powerFilter);
+        setCivMask(civMask);
         resetTouchedOnNotNull();
     }
 }
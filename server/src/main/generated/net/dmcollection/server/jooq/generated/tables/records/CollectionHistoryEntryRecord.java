@@ -11,7 +11,7 @@ import javax.annotation.processing.Generated;
 
 import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
 
-import org.jooq.Record1;
+import org.jooq.Record2;
 import org.jooq.impl.UpdatableRecordImpl;
 
 
@@ -140,8 +140,8 @@ public class CollectionHistoryEntryRecord extends UpdatableRecordImpl<Collection
     // -------------------------------------------------------------------------
 
     @Override
-    public Record1<Long> key() {
-        return (Record1) super.key();
+    public Record2<Long, OffsetDateTime> key() {
+        return (Record2) super.key();
     }
 
     // -------------------------------------------------------------------------
@@ -120,6 +120,36 @@ public class DeckRecord extends UpdatableRecordImpl<DeckRecord> {
         return (OffsetDateTime) get(5);
     }
 
+    /**
+     * Setter for <code>public.deck.unique_count</code>.
+     */
+    public DeckRecord setUniqueCount(Long value) {
+        set(6, value);
+        return this;
+    }
+
+    /**
+     * Getter for <code>public.deck.unique_count</code>.
+     */
+    public Long getUniqueCount() {
+        return (Long) get(6);
+    }
+
+    /**
+     * Setter for <code>public.deck.total_count</code>.
+     */
+    public DeckRecord setTotalCount(Long value) {
+        set(7, value);
+        return this;
+    }
+
+    /**
+     * Getter for <code>public.deck.total_count</code>.
+     */
+    public Long getTotalCount() {
+        return (Long) get(7);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -143,7 +173,7 @@ public class DeckRecord extends UpdatableRecordImpl<DeckRecord> {
     /**
      * Create a detached, initialised DeckRecord
      */
-    public DeckRecord(UUID id, UUID userId, String name, String description, OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+    public DeckRecord(UUID id, UUID userId, String name, String description, OffsetDateTime createdAt, OffsetDateTime updatedAt, Long uniqueCount, Long totalCount) {
         super(Deck.DECK);
 
         setId(id);
@@ -152,6 +182,8 @@ public class DeckRecord extends UpdatableRecordImpl<DeckRecord> {
         setDescription(description);
         setCreatedAt(createdAt);
         setUpdatedAt(updatedAt);
+        setUniqueCount(uniqueCount);
+        setTotalCount(totalCount);
         resetTouchedOnNotNull();
     }
 }
@@ -3,9 +3,11 @@ package net.dmcollection.server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties({AppProperties.class})
+@EnableScheduling
 public class ServerApplication {
 
   static void main(String[] args) {
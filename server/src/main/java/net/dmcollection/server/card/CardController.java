@@ -1,20 +1,42 @@
 package net.dmcollection.server.card;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import net.dmcollection.server.AppProperties;
+import net.dmcollection.server.card.CardService.CardDto;
 import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.internal.CardDetailCache;
 import net.dmcollection.server.card.internal.CardQueryService;
+import net.dmcollection.server.card.internal.CardQueryService.ScrollResult;
 import net.dmcollection.server.user.CurrentUserId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 @Controller
 public class CardController {
@@ -22,17 +44,25 @@ public class CardController {
   private static final Logger log = LoggerFactory.getLogger(CardController.class);
   private final CardService cardService;
   private final CardQueryService cardQueryService;
+  private final CardDetailCache cardDetailCache;
   private final AppProperties appProperties;
+  private final ObjectMapper objectMapper;
 
   public CardController(
-      CardService cardService, CardQueryService cardQueryService, AppProperties appProperties) {
+      CardService cardService,
+      CardQueryService cardQueryService,
+      CardDetailCache cardDetailCache,
+      AppProperties appProperties,
+      ObjectMapper objectMapper) {
     this.cardService = cardService;
     this.cardQueryService = cardQueryService;
+    this.cardDetailCache = cardDetailCache;
     this.appProperties = appProperties;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping("/api/cards/{pageNumber}")
-  ResponseEntity<PagedModel<CardStub>> getCards(
+  ResponseEntity<SearchPagedModel<CardStub>> getCards(
       @CurrentUserId UUID currentUserId,
       @PathVariable int pageNumber,
       @ModelAttribute SearchFilterApi searchParams) {
@@ -46,18 +76,133 @@ public class CardController {
             .toSearchFilter(pageNumber, pageSize)
             .withCollectionFilter(currentUserId, false);
     try {
-      return ResponseEntity.ok(
-          new PagedModel<>(cardQueryService.search(searchFilter).pageOfCards()));
+      var result = cardQueryService.search(searchFilter);
+      return ResponseEntity.ok(new SearchPagedModel<>(result.pageOfCards(), result.totalExact()));
     } catch (RuntimeException e) {
       log.error("Error searching for {}", searchFilter, e);
       return ResponseEntity.internalServerError().build();
     }
   }
 
+  @GetMapping("/api/cards/scroll")
+  ResponseEntity<ScrollResult> scrollCards(
+      @CurrentUserId UUID currentUserId,
+      @RequestParam(required = false) String cursor,
+      @ModelAttribute SearchFilterApi searchParams) {
+    Integer pageSize = searchParams.pageSize();
+    if (pageSize == null) {
+      pageSize =
+          Math.min(appProperties.cardPage().defaultSize(), appProperties.cardPage().maxSize());
+    }
+    var searchFilter =
+        searchParams.toSearchFilter(0, pageSize).withCollectionFilter(currentUserId, false);
+    try {
+      return ResponseEntity.ok(cardQueryService.scroll(searchFilter, cursor));
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid cursor {}: {}", cursor, e.getMessage());
+      return ResponseEntity.badRequest().build();
+    } catch (RuntimeException e) {
+      log.error("Error searching for {}", searchFilter, e);
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  /**
+   * All cards matching the search as newline-delimited JSON, one card per line, written while they
+   * are read from the database. The page size is ignored. Gzip-compressed when the client accepts
+   * it.
+   */
+  @GetMapping("/api/cards/stream")
+  public void streamCards(
+      @CurrentUserId UUID currentUserId,
+      @ModelAttribute SearchFilterApi searchParams,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) {
+    var searchFilter = searchParams.toSearchFilter().withCollectionFilter(currentUserId, false);
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    try (OutputStream out = StreamedResponses.body(response, acceptEncoding);
+        JsonGenerator json = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+      json.setRootValueSeparator(null);
+      cardQueryService.stream(
+          searchFilter,
+          card -> {
+            try {
+              json.writePOJO(card);
+              json.writeRaw('\n');
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (IOException | UncheckedIOException e) {
+      // Writing failed, mostly because the client went away; nothing can be sent anymore
+      log.debug("Could not write card stream: {}", e.getMessage());
+    } catch (RuntimeException e) {
+      log.error("Error streaming {}", searchFilter, e);
+      if (!response.isCommitted()) {
+        response.reset();
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+      }
+    }
+  }
+
   @GetMapping("/api/card/{id}")
-  ResponseEntity<CardService.CardDto> getCard(@PathVariable String id) {
-    var cardDto = cardService.getCardDto(id);
-    return cardDto.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+  ResponseEntity<CardDto> getCard(@PathVariable String id, WebRequest request) {
+    var key = cardDetailCache.keyFor(id);
+    if (key == null) {
+      var cardDto = cardService.getCardDto(id);
+      return cardDto.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    // The client can only hold this ETag from an earlier 200 for the same card and version
+    if (request.checkNotModified(key.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(key.etag())
+          .cacheControl(CacheControl.noCache())
+          .build();
+    }
+    var cardDto = cardDetailCache.get(key);
+    if (cardDto == null) {
+      var loaded = cardService.getCardDto(id);
+      if (loaded.isEmpty()) {
+        return ResponseEntity.notFound().build();
+      }
+      cardDto = loaded.get();
+      cardDetailCache.put(key, cardDto);
+    }
+    return ResponseEntity.ok().eTag(key.etag()).cacheControl(CacheControl.noCache()).body(cardDto);
+  }
+
+  /**
+   * Details of several cards at once, in the requested order. Unknown ids are left out. At most
+   * {@code dmcollection.card-page.max-size} ids per request.
+   */
+  @PostMapping("/api/cards/details")
+  ResponseEntity<List<CardDto>> getCardDetails(@RequestBody List<String> dmIds) {
+    var requested = new LinkedHashSet<>(dmIds);
+    if (requested.size() > appProperties.cardPage().maxSize()) {
+      return ResponseEntity.badRequest().build();
+    }
+    Map<String, CardDto> found = new HashMap<>();
+    List<String> missing = new ArrayList<>();
+    for (String dmId : requested) {
+      var key = cardDetailCache.keyFor(dmId);
+      CardDto cached = key != null ? cardDetailCache.get(key) : null;
+      if (cached != null) {
+        found.put(dmId, cached);
+      } else {
+        missing.add(dmId);
+      }
+    }
+    cardService
+        .getCardDtos(missing)
+        .forEach(
+            (dmId, cardDto) -> {
+              found.put(dmId, cardDto);
+              var key = cardDetailCache.keyFor(dmId);
+              if (key != null) {
+                cardDetailCache.put(key, cardDto);
+              }
+            });
+    return ResponseEntity.ok(requested.stream().map(found::get).filter(Objects::nonNull).toList());
   }
 
   @GetMapping("/api/cards")
@@ -12,6 +12,9 @@ import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTIN
 import static net.dmcollection.server.jooq.generated.tables.PrintingSideAbility.PRINTING_SIDE_ABILITY;
 import static net.dmcollection.server.jooq.generated.tables.Race.RACE;
 import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
+import static org.jooq.Records.mapping;
+import static org.jooq.impl.DSL.multiset;
+import static org.jooq.impl.DSL.select;
 import static org.springframework.web.util.HtmlUtils.htmlEscape;
 
 import java.nio.charset.StandardCharsets;
@@ -20,21 +23,34 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Record1;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CardService {
 
   private final DSLContext dsl;
-
-  public CardService(DSLContext dsl) {
+  private final boolean singleQueryDetail;
+
+  /**
+   * @param singleQueryDetail Whether card details are loaded in a single query, or with the
+   *     previous one query per table.
+   */
+  public CardService(
+      DSLContext dsl,
+      @Value("${dmcollection.card-detail.single-query:true}") boolean singleQueryDetail) {
     this.dsl = dsl;
+    this.singleQueryDetail = singleQueryDetail;
   }
 
   public record CardStub(
@@ -78,6 +94,20 @@ public class CardService {
 
   private record AbilityRow(String text, short position, short indentLevel) {}
 
+  private record DetailSide(
+      short sideOrder,
+      String name,
+      Integer cost,
+      boolean costIsInfinity,
+      Integer power,
+      boolean powerIsInfinity,
+      String powerModifier,
+      short civMask,
+      String imageFilename,
+      List<String> types,
+      List<String> races,
+      List<AbilityRow> abilities) {}
+
   public List<CardStub> getByIds(List<Long> printingIds) {
     List<Integer> ids = printingIds.stream().map(Long::intValue).toList();
 
@@ -123,6 +153,178 @@ public class CardService {
   }
 
   public Optional<CardDto> getCardDto(String dmId) {
+    if (!singleQueryDetail) {
+      return fetchCardDtoStepwise(dmId);
+    }
+    return Optional.ofNullable(fetchCardDtos(List.of(dmId)).get(dmId));
+  }
+
+  /**
+   * @return The details of the cards with the given official site ids, by official site id. Unknown
+   *     ids are left out.
+   */
+  public Map<String, CardDto> getCardDtos(Collection<String> dmIds) {
+    if (dmIds.isEmpty()) {
+      return Map.of();
+    }
+    if (!singleQueryDetail) {
+      Map<String, CardDto> cards = new LinkedHashMap<>();
+      for (String dmId : dmIds) {
+        fetchCardDtoStepwise(dmId).ifPresent(card -> cards.put(dmId, card));
+      }
+      return cards;
+    }
+    return fetchCardDtos(dmIds);
+  }
+
+  /** Loads the printings together with their sides and the sides' types, races and abilities. */
+  private Map<String, CardDto> fetchCardDtos(Collection<String> dmIds) {
+    var abilities =
+        multiset(
+                select(
+                        ABILITY.TEXT,
+                        PRINTING_SIDE_ABILITY.POSITION,
+                        PRINTING_SIDE_ABILITY.INDENT_LEVEL)
+                    .from(PRINTING_SIDE_ABILITY)
+                    .join(ABILITY)
+                    .on(ABILITY.ID.eq(PRINTING_SIDE_ABILITY.ABILITY_ID))
+                    .where(PRINTING_SIDE_ABILITY.PRINTING_SIDE_ID.eq(PRINTING_SIDE.ID))
+                    .orderBy(PRINTING_SIDE_ABILITY.POSITION))
+            .convertFrom(r -> r.map(mapping(AbilityRow::new)));
+    var types =
+        multiset(
+                select(CARD_TYPE.NAME)
+                    .from(CARD_SIDE_CARD_TYPE)
+                    .join(CARD_TYPE)
+                    .on(CARD_TYPE.ID.eq(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID))
+                    .where(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
+                    .orderBy(CARD_SIDE_CARD_TYPE.POSITION))
+            .convertFrom(r -> r.map(Record1::value1));
+    var races =
+        multiset(
+                select(RACE.NAME)
+                    .from(CARD_SIDE_RACE)
+                    .join(RACE)
+                    .on(RACE.ID.eq(CARD_SIDE_RACE.RACE_ID))
+                    .where(CARD_SIDE_RACE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
+                    .orderBy(CARD_SIDE_RACE.POSITION))
+            .convertFrom(r -> r.map(Record1::value1));
+    var sides =
+        multiset(
+                select(
+                        CARD_SIDE.SIDE_ORDER,
+                        CARD_SIDE.NAME,
+                        CARD_SIDE.COST,
+                        CARD_SIDE.COST_IS_INFINITY,
+                        CARD_SIDE.POWER,
+                        CARD_SIDE.POWER_IS_INFINITY,
+                        CARD_SIDE.POWER_MODIFIER,
+                        CARD_SIDE.CIV_MASK,
+                        PRINTING_SIDE.IMAGE_FILENAME,
+                        types,
+                        races,
+                        abilities)
+                    .from(PRINTING_SIDE)
+                    .join(CARD_SIDE)
+                    .on(CARD_SIDE.ID.eq(PRINTING_SIDE.CARD_SIDE_ID))
+                    .where(PRINTING_SIDE.PRINTING_ID.eq(PRINTING.ID))
+                    .orderBy(CARD_SIDE.SIDE_ORDER))
+            .as("sides")
+            .convertFrom(r -> r.map(mapping(DetailSide::new)));
+
+    return dsl.select(
+            PRINTING.ID,
+            PRINTING.OFFICIAL_SITE_ID,
+            PRINTING.COLLECTOR_NUMBER,
+            CARD.NAME,
+            CARD.DECK_ZONE,
+            CARD_SET.ID,
+            CARD_SET.CODE,
+            CARD_SET.NAME,
+            RARITY.NAME,
+            sides)
+        .from(PRINTING)
+        .join(CARD)
+        .on(CARD.ID.eq(PRINTING.CARD_ID))
+        .join(CARD_SET)
+        .on(CARD_SET.ID.eq(PRINTING.SET_ID))
+        .leftJoin(RARITY)
+        .on(RARITY.ID.eq(PRINTING.RARITY_ID))
+        .where(PRINTING.OFFICIAL_SITE_ID.in(dmIds))
+        .fetchMap(PRINTING.OFFICIAL_SITE_ID, r -> toCardDto(r, sides));
+  }
+
+  private static CardDto toCardDto(Record printingRecord, Field<List<DetailSide>> sides) {
+    int printingId = printingRecord.get(PRINTING.ID);
+    String officialSiteId = printingRecord.get(PRINTING.OFFICIAL_SITE_ID);
+    String collectorNumber = printingRecord.get(PRINTING.COLLECTOR_NUMBER);
+    String rarityName = printingRecord.get(RARITY.NAME);
+    String deckZone = printingRecord.get(CARD.DECK_ZONE);
+    String cardName = printingRecord.get(CARD.NAME);
+    SetDto setDto =
+        new SetDto(
+            printingRecord.get(CARD_SET.ID).longValue(),
+            printingRecord.get(CARD_SET.CODE),
+            printingRecord.get(CARD_SET.NAME));
+    List<DetailSide> sideRows = printingRecord.get(sides);
+
+    if (sideRows.isEmpty()) {
+      return new CardDto(
+          (long) printingId,
+          cardName,
+          htmlEscape(officialSiteId, StandardCharsets.UTF_8.name()),
+          null,
+          rarityName,
+          setDto,
+          deckZone,
+          Set.of(),
+          null);
+    }
+
+    Set<String> allCivilizations = new LinkedHashSet<>();
+    List<CardFacetDto> facets = new ArrayList<>(sideRows.size());
+
+    for (DetailSide side : sideRows) {
+      List<String> civNames = civilizationNames(civilizationIds(side.civMask()));
+      allCivilizations.addAll(civNames);
+
+      String typeStr = null;
+      if (!side.types().isEmpty()) {
+        typeStr = htmlEscape(String.join("／", side.types()), StandardCharsets.UTF_8.name());
+      }
+
+      List<String> races =
+          side.races().stream()
+              .map(name -> htmlEscape(name, StandardCharsets.UTF_8.name()))
+              .toList();
+
+      facets.add(
+          new CardFacetDto(
+              (int) side.sideOrder(),
+              side.name(),
+              formatCost(side.cost(), side.costIsInfinity()),
+              civNames,
+              formatPower(side.power(), side.powerIsInfinity(), side.powerModifier()),
+              typeStr,
+              races,
+              buildEffects(side.abilities()),
+              side.imageFilename()));
+    }
+
+    return new CardDto(
+        (long) printingId,
+        cardName,
+        htmlEscape(officialSiteId, StandardCharsets.UTF_8.name()),
+        collectorNumber != null ? htmlEscape(collectorNumber, StandardCharsets.UTF_8.name()) : null,
+        rarityName,
+        setDto,
+        deckZone,
+        allCivilizations,
+        facets);
+  }
+
+  /** One query per table, used if {@code dmcollection.card-detail.single-query} is off. */
+  private Optional<CardDto> fetchCardDtoStepwise(String dmId) {
     // Phase 1: Main printing data
     var printingRecord =
         dsl.select(
@@ -278,7 +480,7 @@ public class CardService {
                             r.get(PRINTING_SIDE_ABILITY.INDENT_LEVEL))));
 
     // Assemble facets
-    Set<String> allCivilizations = new java.util.LinkedHashSet<>();
+    Set<String> allCivilizations = new LinkedHashSet<>();
     List<CardFacetDto> facets = new ArrayList<>(sideRows.size());
 
     for (SideRow side : sideRows) {
@@ -366,6 +568,17 @@ public class CardService {
     return sides.stream().map(SideData::imageFilename).filter(Objects::nonNull).toList();
   }
 
+  /** The civilization ids of a side's civ mask, see {@code card_side.civ_mask}. */
+  private static List<Short> civilizationIds(short civMask) {
+    List<Short> ids = new ArrayList<>();
+    for (Civilization civ : Civilization.values()) {
+      if (civ != Civilization.ZERO && (civMask & (1 << civ.ordinal())) != 0) {
+        ids.add((short) civ.ordinal());
+      }
+    }
+    return ids;
+  }
+
   private static List<String> civilizationNames(List<Short> civilizationIds) {
     if (civilizationIds == null || civilizationIds.isEmpty()) {
       return List.of(Civilization.ZERO.toString());
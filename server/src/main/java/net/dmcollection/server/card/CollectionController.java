@@ -1,20 +1,26 @@
 package net.dmcollection.server.card;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 import net.dmcollection.server.AppProperties;
+import net.dmcollection.server.card.CollectionService.CollectionCardStub;
 import net.dmcollection.server.card.CollectionService.CollectionDto;
 import net.dmcollection.server.card.CollectionService.CollectionInfo;
+import net.dmcollection.server.card.CollectionService.StubChanges;
+import net.dmcollection.server.card.internal.CardQueryService.ScrollResult;
 import net.dmcollection.server.card.internal.SearchFilter;
-import net.dmcollection.server.card.serialization.collection.format.v2.V2CollectionExport;
+import net.dmcollection.server.card.serialization.collection.format.Header;
 import net.dmcollection.server.user.CurrentUserId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,20 +36,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 public class CollectionController {
 
   private static final Logger log = LoggerFactory.getLogger(CollectionController.class);
   private final CollectionService collectionService;
+  private final CollectionWriteBuffer writeBuffer;
   private final AppProperties appProperties;
-  private final ObjectMapper objectMapper;
 
   public CollectionController(
-      CollectionService collectionService, AppProperties appProperties, ObjectMapper objectMapper) {
+      CollectionService collectionService,
+      CollectionWriteBuffer writeBuffer,
+      AppProperties appProperties) {
     this.collectionService = collectionService;
+    this.writeBuffer = writeBuffer;
     this.appProperties = appProperties;
-    this.objectMapper = objectMapper;
   }
 
   @GetMapping(value = {"/api/collection", "/api/collection/{pageNumber}"})
@@ -65,37 +75,57 @@ public class CollectionController {
     return ResponseEntity.ok(collectionService.getPrimaryCollection(currentUserId, searchFilter));
   }
 
-  @GetMapping("/api/collection/export")
-  public ResponseEntity<byte[]> exportCollection(@CurrentUserId UUID currentUserId) {
+  @GetMapping("/api/collection/scroll")
+  ResponseEntity<ScrollResult> scrollPrimaryCollection(
+      @CurrentUserId UUID currentUserId,
+      @RequestParam(required = false) String cursor,
+      @ModelAttribute SearchFilterApi searchParams) {
+    Integer pageSize = searchParams.pageSize();
+    if (pageSize == null) {
+      pageSize =
+          Math.min(appProperties.cardPage().defaultSize(), appProperties.cardPage().maxSize());
+    }
     try {
-      V2CollectionExport export = collectionService.exportCollection(currentUserId);
-      String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-      byte[] jsonBytes = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(export);
-      String filename = export.version().type() + "-export-" + timestamp + ".json";
-
-      HttpHeaders headers = new HttpHeaders();
-      headers.setContentType(MediaType.APPLICATION_JSON);
-      headers.setContentDisposition(
-          ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build());
-      headers.setContentLength(jsonBytes.length);
-      return new ResponseEntity<>(jsonBytes, headers, HttpStatus.OK);
-
-    } catch (JsonProcessingException e) {
-      log.error("Error serializing collection data to JSON: ", e);
-      return ResponseEntity.internalServerError().build();
+      return ResponseEntity.ok(
+          collectionService.scrollPrimaryCollection(
+              currentUserId, searchParams.toSearchFilter(0, pageSize), cursor));
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid cursor {}: {}", cursor, e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Streams the export to the response while it is read from the database. Gzip-compressed when
+   * the client accepts it.
+   */
+  @GetMapping("/api/collection/export")
+  public void exportCollection(
+      @CurrentUserId UUID currentUserId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) {
+    String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    String filename = Header.EXPORT_TYPE_COLLECTION + "-export-" + timestamp + ".json";
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    var disposition = ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8);
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+    try (OutputStream out = StreamedResponses.body(response, acceptEncoding)) {
+      collectionService.exportCollection(currentUserId, out);
     } catch (Exception e) {
       log.error("An unexpected error occurred during export: ", e);
-      return ResponseEntity.internalServerError().build();
+      if (!response.isCommitted()) {
+        response.reset();
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+      }
     }
   }
 
   @PostMapping(
       value = "/api/collection/import",
       consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-  public ResponseEntity<?> importCollection(
-      @RequestBody byte[] fileBytes, @CurrentUserId UUID currentUserId) {
+  public ResponseEntity<?> importCollection(InputStream file, @CurrentUserId UUID currentUserId) {
     try {
-      collectionService.importCollection(currentUserId, fileBytes);
+      collectionService.importCollection(currentUserId, file);
       return ResponseEntity.ok().build();
     } catch (IllegalArgumentException e) {
       log.warn("Unrecognized collection import format: {}", e.getMessage());
@@ -126,27 +156,60 @@ public class CollectionController {
         .orElse(ResponseEntity.notFound().build());
   }
 
+  /** Goes through the {@link CollectionWriteBuffer}, which may write the amount later. */
   @PutMapping("/api/collectionStub/cards/{cardId}")
   ResponseEntity<CollectionService.CollectionCardStub> setSingleCardAmount(
       @CurrentUserId UUID currentUserId,
       @PathVariable Long cardId,
       @Valid @RequestBody AmountRequest request) {
-    return collectionService
+    return writeBuffer
         .setSingleCardAmount(currentUserId, cardId, request.amount())
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
   }
 
+  /**
+   * The collection's amounts, or with {@code since} only those changed after that version. See
+   * {@link StubChanges}.
+   */
+  @GetMapping("/api/collectionStub")
+  ResponseEntity<StubChanges> getStubChanges(
+      @CurrentUserId UUID currentUserId, @RequestParam(required = false) Long since) {
+    return ResponseEntity.ok(collectionService.getStubChanges(currentUserId, since));
+  }
+
+  /**
+   * Returns the new version with the changed amount, or with {@code since} all amounts changed
+   * after that version.
+   */
   @PutMapping("/api/collectionStub")
-  ResponseEntity<Map<Long, Integer>> setCardAmountOnStub(
-      @CurrentUserId UUID currentUserId, @Valid @RequestBody SetCardAmountRequest request) {
+  ResponseEntity<StubChanges> setCardAmountOnStub(
+      @CurrentUserId UUID currentUserId,
+      @RequestParam(required = false) Long since,
+      @Valid @RequestBody SetCardAmountRequest request) {
     return collectionService
-        .setCardAmountOnStub(currentUserId, request.cardId(), request.amount())
+        .setCardAmountOnStub(currentUserId, request.cardId(), request.amount(), since)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /** Sets the amounts of several cards in one transaction. */
+  @PutMapping("/api/collection/batch")
+  ResponseEntity<List<CollectionCardStub>> setCardAmounts(
+      @CurrentUserId UUID currentUserId, @Valid @RequestBody BatchAmountRequest request) {
+    var changes =
+        request.cards().stream()
+            .map(card -> new CollectionCardStub(card.cardId(), card.amount()))
+            .toList();
+    return collectionService
+        .setCardAmounts(currentUserId, changes)
         .map(ResponseEntity::ok)
         .orElse(ResponseEntity.notFound().build());
   }
 
   record SetCardAmountRequest(long cardId, @Min(0) int amount) {}
 
+  record BatchAmountRequest(@NotNull @Size(max = 1000) List<@Valid SetCardAmountRequest> cards) {}
+
   record AmountRequest(@Min(0) int amount) {}
 }
@@ -0,0 +1,46 @@
+package net.dmcollection.server.card;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import net.dmcollection.server.card.CollectionHistoryService.Bucket;
+import net.dmcollection.server.card.CollectionHistoryService.PastCollection;
+import net.dmcollection.server.card.CollectionHistoryService.Timeline;
+import net.dmcollection.server.user.CurrentUserId;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+public class CollectionHistoryController {
+
+  private final CollectionHistoryService collectionHistoryService;
+
+  public CollectionHistoryController(CollectionHistoryService collectionHistoryService) {
+    this.collectionHistoryService = collectionHistoryService;
+  }
+
+  /**
+   * The collection's changes summed up per bucket, newest first. Older pages continue with the
+   * returned {@link Timeline#nextBefore()}.
+   */
+  @GetMapping("/api/collection/history")
+  ResponseEntity<Timeline> getTimeline(
+      @CurrentUserId UUID currentUserId,
+      @RequestParam(defaultValue = "DAY") Bucket bucket,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime before,
+      @RequestParam(defaultValue = "30") int size) {
+    return ResponseEntity.ok(
+        collectionHistoryService.getTimeline(currentUserId, bucket, before, size));
+  }
+
+  /** The collection's amounts as they were at {@code time}. */
+  @GetMapping("/api/collection/history/at")
+  ResponseEntity<PastCollection> getCollectionAt(
+      @CurrentUserId UUID currentUserId,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime time) {
+    return ResponseEntity.ok(collectionHistoryService.getCollectionAt(currentUserId, time));
+  }
+}
@@ -0,0 +1,168 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.greatest;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.max;
+import static org.jooq.impl.DSL.sum;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import net.dmcollection.server.card.internal.CollectionSnapshots;
+import net.dmcollection.server.card.internal.CollectionSnapshots.CollectionState;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Reads a user's collection history: a timeline of their changes and past collections. */
+@Service
+public class CollectionHistoryService {
+
+  public static final int MAX_BUCKETS = 100;
+
+  /** Length of the timeline's buckets. Buckets start at UTC boundaries, weeks on Mondays. */
+  public enum Bucket {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    Bucket(ChronoUnit unit) {
+      this.unit = unit;
+    }
+
+    /** Start of the bucket containing {@code time}. */
+    OffsetDateTime startOf(OffsetDateTime time) {
+      OffsetDateTime utc = time.withOffsetSameInstant(ZoneOffset.UTC);
+      return switch (this) {
+        case HOUR -> utc.truncatedTo(ChronoUnit.HOURS);
+        case DAY -> utc.truncatedTo(ChronoUnit.DAYS);
+        case WEEK ->
+            utc.truncatedTo(ChronoUnit.DAYS)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        case MONTH -> utc.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+      };
+    }
+
+    /** Name of the unit for Postgres' {@code date_trunc}. */
+    String sqlName() {
+      return name().toLowerCase();
+    }
+  }
+
+  /**
+   * Changes of a collection within one bucket.
+   *
+   * @param changes Number of history entries.
+   * @param added Cards added, summed over all entries.
+   * @param removed Cards removed, summed over all entries.
+   */
+  public record TimelineBucket(OffsetDateTime start, int changes, long added, long removed) {}
+
+  /**
+   * @param buckets The buckets with changes, newest first.
+   * @param nextBefore {@code before} for the next older page, whose newest bucket has changes, or
+   *     {@code null} if there are no older changes.
+   */
+  public record Timeline(List<TimelineBucket> buckets, OffsetDateTime nextBefore) {}
+
+  /**
+   * A collection as it was at a point in time.
+   *
+   * @param version The collection version then, see {@link CollectionService.StubChanges}.
+   * @param amounts Quantity by printing id.
+   */
+  public record PastCollection(OffsetDateTime at, long version, Map<Long, Integer> amounts) {}
+
+  private final DSLContext dsl;
+  private final CollectionSnapshots collectionSnapshots;
+
+  public CollectionHistoryService(DSLContext dsl, CollectionSnapshots collectionSnapshots) {
+    this.dsl = dsl;
+    this.collectionSnapshots = collectionSnapshots;
+  }
+
+  /**
+   * One page of the timeline: the {@code size} buckets before {@code before}, or up to and
+   * including the current bucket. Only the history within these buckets is read.
+   *
+   * @param before A bucket start, usually {@link Timeline#nextBefore()} of the previous page, or
+   *     {@code null} for the newest page.
+   */
+  @Transactional(readOnly = true)
+  public Timeline getTimeline(UUID userId, Bucket bucket, OffsetDateTime before, int size) {
+    size = Math.clamp(size, 1, MAX_BUCKETS);
+    OffsetDateTime newest =
+        before != null
+            ? bucket.startOf(before).minus(1, bucket.unit)
+            : bucket.startOf(OffsetDateTime.now());
+    OffsetDateTime from = newest.minus(size - 1, bucket.unit);
+    OffsetDateTime to = newest.plus(1, bucket.unit);
+
+    Field<OffsetDateTime> start =
+        field(
+                "date_trunc({0}, {1}, 'UTC')",
+                OffsetDateTime.class,
+                inline(bucket.sqlName()),
+                COLLECTION_HISTORY_ENTRY.CHANGED_AT)
+            .as("bucket_start");
+    Field<Integer> delta =
+        COLLECTION_HISTORY_ENTRY.NEW_QTY.minus(COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY);
+    List<TimelineBucket> buckets =
+        dsl.select(
+                start,
+                count(),
+                sum(greatest(delta, inline(0))),
+                sum(greatest(delta.neg(), inline(0))))
+            .from(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.ge(from))
+            .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.lt(to))
+            .groupBy(start)
+            .orderBy(start.desc())
+            .fetch(
+                r ->
+                    new TimelineBucket(
+                        r.value1(),
+                        r.value2(),
+                        r.get(2, Long.class),
+                        r.get(3, Long.class)));
+
+    // The next page ends with the newest older change, skipping the empty buckets in between
+    OffsetDateTime newestOlder =
+        dsl.select(max(COLLECTION_HISTORY_ENTRY.CHANGED_AT))
+            .from(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.lt(from))
+            .fetchSingle()
+            .value1();
+    return new Timeline(
+        buckets,
+        newestOlder != null ? bucket.startOf(newestOlder).plus(1, bucket.unit) : null);
+  }
+
+  /**
+   * The collection with all changes made at or before {@code at}, rebuilt from the latest
+   * snapshot before then.
+   */
+  @Transactional(readOnly = true)
+  public PastCollection getCollectionAt(UUID userId, OffsetDateTime at) {
+    CollectionState state = collectionSnapshots.stateAt(userId, at);
+    Map<Long, Integer> amounts =
+        state.amounts().entrySet().stream()
+            .collect(Collectors.toMap(e -> e.getKey().longValue(), Map.Entry::getValue));
+    return new PastCollection(at, state.version(), amounts);
+  }
+}
@@ -2,22 +2,40 @@ package net.dmcollection.server.card;
 
 import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
 import static net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.tables.CollectionSummary.COLLECTION_SUMMARY;
 import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
 import static org.jooq.impl.DSL.coalesce;
-import static org.jooq.impl.DSL.count;
-import static org.jooq.impl.DSL.sum;
+import static org.jooq.impl.DSL.deleteFrom;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.insertInto;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.sequence;
+import static org.jooq.impl.DSL.val;
+import static org.jooq.impl.DSL.when;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import net.dmcollection.server.card.CardService.CardStub;
 import net.dmcollection.server.card.internal.CardQueryService;
+import net.dmcollection.server.card.internal.CardQueryService.ScrollResult;
 import net.dmcollection.server.card.internal.CardQueryService.SearchResult;
+import net.dmcollection.server.card.internal.CollectionSnapshots;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
 import net.dmcollection.server.card.internal.SearchFilter;
+import net.dmcollection.server.card.internal.SummaryCounters;
+import net.dmcollection.server.card.serialization.ImportProgress;
+import net.dmcollection.server.card.serialization.collection.CollectionImporter;
 import net.dmcollection.server.card.serialization.collection.V1Importer;
 import net.dmcollection.server.card.serialization.collection.V2Exporter;
 import net.dmcollection.server.card.serialization.collection.V2Importer;
@@ -25,6 +43,9 @@ import net.dmcollection.server.card.serialization.collection.format.v1.V1Collect
 import net.dmcollection.server.card.serialization.collection.format.v2.V2CollectionExport;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.ResultQuery;
+import org.jooq.Sequence;
 import org.springframework.data.web.PagedModel;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,16 +53,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class CollectionService {
 
-  private static final Field<Long> UNIQUE_COUNT = count().cast(Long.class).as("unique_count");
-  private static final Field<Long> TOTAL_COUNT =
-      coalesce(sum(COLLECTION_ENTRY.QUANTITY), 0).cast(Long.class).as("total_count");
+  private static final Sequence<Long> HISTORY_ID =
+      sequence(name("collection_history_entry_id_seq"), Long.class);
 
   private final DSLContext dsl;
   private final CardQueryService cardQueryService;
   private final V2Exporter exporter;
   private final V1Importer v1Importer;
   private final V2Importer v2Importer;
-  private final ObjectMapper objectMapper;
+  private final CollectionImporter collectionImporter;
+  private final SummaryCounters summaryCounters;
+  private final OwnedPrintingCache ownedPrintingCache;
+  private final CollectionSnapshots collectionSnapshots;
 
   public CollectionService(
       DSLContext dsl,
@@ -49,13 +72,19 @@ public class CollectionService {
       V2Exporter exporter,
       V1Importer v1Importer,
       V2Importer v2Importer,
-      ObjectMapper objectMapper) {
+      CollectionImporter collectionImporter,
+      SummaryCounters summaryCounters,
+      OwnedPrintingCache ownedPrintingCache,
+      CollectionSnapshots collectionSnapshots) {
     this.dsl = dsl;
     this.cardQueryService = cardQueryService;
     this.exporter = exporter;
     this.v1Importer = v1Importer;
     this.v2Importer = v2Importer;
-    this.objectMapper = objectMapper;
+    this.collectionImporter = collectionImporter;
+    this.summaryCounters = summaryCounters;
+    this.ownedPrintingCache = ownedPrintingCache;
+    this.collectionSnapshots = collectionSnapshots;
   }
 
   public record CollectionInfo(long uniqueCardCount, long totalCardCount, UUID ownerId) {}
@@ -64,20 +93,38 @@ public class CollectionService {
 
   public record CollectionCardStub(long cardId, int amount) {}
 
+  /**
+   * Amounts of a collection as of a version. The version is the id of the user's latest collection
+   * history entry, kept in their collection summary, so it grows with every change. Writers take
+   * their history ids only after they updated the summary, whose row lock they then hold until
+   * commit, so a user's entries become visible in the order of their ids, and no entry below a
+   * version a client has seen can appear later.
+   *
+   * @param amounts By printing id. Either the whole collection, or only the printings changed since
+   *     an earlier version, where 0 means removed.
+   */
+  public record StubChanges(long version, Map<Long, Integer> amounts) {}
+
   public V2CollectionExport exportCollection(UUID userId) {
     return exporter.export(userId);
   }
 
-  public void importCollection(UUID userId, byte[] fileBytes) throws IOException {
-    JsonNode root = objectMapper.readTree(fileBytes);
-    JsonNode versionNode = root.get("version");
-    if (versionNode != null && versionNode.isNumber()) {
-      importCollection(userId, readAs(root, V1CollectionExport.class));
-    } else if (versionNode != null && versionNode.isObject()) {
-      importCollection(userId, readAs(root, V2CollectionExport.class));
-    } else {
-      throw new IllegalArgumentException("Unknown collection export format");
-    }
+  public void exportCollection(UUID userId, OutputStream out) throws IOException {
+    exporter.export(userId, out);
+  }
+
+  /**
+   * Imports a V1 or V2 export file while reading it.
+   *
+   * @throws IllegalArgumentException If the file is not a collection export.
+   */
+  public void importCollection(UUID userId, InputStream file) throws IOException {
+    importCollection(userId, file, new ImportProgress());
+  }
+
+  public void importCollection(UUID userId, InputStream file, ImportProgress progress)
+      throws IOException {
+    collectionImporter.importCollection(userId, file, progress);
   }
 
   public void importCollection(UUID userId, V1CollectionExport toImport) {
@@ -88,13 +135,6 @@ public class CollectionService {
     v2Importer.importCollection(toImport, userId);
   }
 
-  private <T> T readAs(JsonNode node, Class<T> type) throws IOException {
-    return objectMapper
-        .readerFor(type)
-        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-        .readValue(node);
-  }
-
   public CollectionDto getPrimaryCollection(UUID userId, SearchFilter searchFilter) {
     searchFilter = searchFilter.withCollectionFilter(userId, true);
     SearchResult searchResult = cardQueryService.search(searchFilter);
@@ -104,6 +144,11 @@ public class CollectionService {
     return new CollectionDto(ci, new PagedModel<>(searchResult.pageOfCards()));
   }
 
+  public ScrollResult scrollPrimaryCollection(
+      UUID userId, SearchFilter searchFilter, String cursor) {
+    return cardQueryService.scroll(searchFilter.withCollectionFilter(userId, true), cursor);
+  }
+
   public Map<Long, Integer> getPrimaryStub(UUID userId) {
     return dsl.select(COLLECTION_ENTRY.PRINTING_ID, COLLECTION_ENTRY.QUANTITY)
         .from(COLLECTION_ENTRY)
@@ -113,14 +158,39 @@ public class CollectionService {
             r -> r.get(COLLECTION_ENTRY.QUANTITY));
   }
 
+  /**
+   * @param sinceVersion A version the client already has, or {@code null} for the whole
+   *     collection.
+   */
+  @Transactional(readOnly = true)
+  public StubChanges getStubChanges(UUID userId, Long sinceVersion) {
+    long version = summaryCounters.collectionVersion(userId);
+    if (sinceVersion == null) {
+      return new StubChanges(version, getPrimaryStub(userId));
+    }
+    return new StubChanges(version, getChangedAmounts(userId, sinceVersion, version));
+  }
+
+  /**
+   * @param sinceVersion A version the client already has. If {@code null}, only the changed
+   *     printing is returned.
+   */
   @Transactional
-  public Optional<Map<Long, Integer>> setCardAmountOnStub(
-      UUID userId, Long printingId, int amount) {
+  public Optional<StubChanges> setCardAmountOnStub(
+      UUID userId, Long printingId, int amount, Long sinceVersion) {
     if (!printingExists(printingId)) {
       return Optional.empty();
     }
-    upsertCollectionEntry(userId, printingId.intValue(), amount);
-    return Optional.of(getPrimaryStub(userId));
+    Written written = upsertCollectionEntry(userId, printingId.intValue(), amount);
+    long version =
+        written.version() != null
+            ? written.version()
+            : summaryCounters.collectionVersion(userId);
+    if (sinceVersion == null) {
+      return Optional.of(new StubChanges(version, Map.of(printingId, written.newQty())));
+    }
+    return Optional.of(
+        new StubChanges(version, getChangedAmounts(userId, sinceVersion, version)));
   }
 
   @Transactional
@@ -129,8 +199,7 @@ public class CollectionService {
     if (!printingExists(printingId)) {
       return Optional.empty();
     }
-    upsertCollectionEntry(userId, printingId.intValue(), amount);
-    int actualAmount = getQuantity(userId, printingId.intValue());
+    int actualAmount = upsertCollectionEntry(userId, printingId.intValue(), amount).newQty();
     return Optional.of(new CollectionCardStub(printingId, actualAmount));
   }
 
@@ -151,38 +220,229 @@ public class CollectionService {
     return Optional.of(getCollectionInfo(userId));
   }
 
-  private boolean printingExists(Long printingId) {
+  /**
+   * Sets the amounts of several printings in one go. If a printing occurs more than once, its last
+   * amount wins. Nothing is changed if any of the printings does not exist.
+   *
+   * @return The new amount of each distinct printing, or empty if a printing does not exist.
+   */
+  @Transactional
+  public Optional<List<CollectionCardStub>> setCardAmounts(
+      UUID userId, List<CollectionCardStub> changes) {
+    Map<Integer, Integer> amounts = new LinkedHashMap<>();
+    for (CollectionCardStub change : changes) {
+      amounts.put((int) change.cardId(), Math.max(change.amount(), 0));
+    }
+    if (amounts.isEmpty()) {
+      return Optional.of(List.of());
+    }
+    if (dsl.fetchCount(PRINTING, PRINTING.ID.in(amounts.keySet())) != amounts.size()) {
+      return Optional.empty();
+    }
+    // Locks the entries in printing order, as does the sorted upsert for new ones, so that writers
+    // of one collection wait for each other instead of deadlocking
+    dsl.select(COLLECTION_ENTRY.PRINTING_ID)
+        .from(COLLECTION_ENTRY)
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .and(COLLECTION_ENTRY.PRINTING_ID.in(amounts.keySet()))
+        .orderBy(COLLECTION_ENTRY.PRINTING_ID)
+        .forUpdate()
+        .execute();
+
+    // printing id -> quantity before this update, for the entries that existed
+    Map<Integer, Integer> previous = new HashMap<>();
+    List<Integer> removed = new ArrayList<>();
+    var upsert =
+        dsl.insertInto(
+            COLLECTION_ENTRY,
+            COLLECTION_ENTRY.USER_ID,
+            COLLECTION_ENTRY.PRINTING_ID,
+            COLLECTION_ENTRY.QUANTITY);
+    boolean anyUpserted = false;
+    for (var amount : new TreeMap<>(amounts).entrySet()) {
+      if (amount.getValue() == 0) {
+        removed.add(amount.getKey());
+      } else {
+        upsert = upsert.values(userId, amount.getKey(), amount.getValue());
+        anyUpserted = true;
+      }
+    }
+    if (anyUpserted) {
+      // old.* in RETURNING is the row before the update, or null for new rows (Postgres 18)
+      Field<Integer> oldQuantity = field("old.quantity", Integer.class);
+      upsert
+          .onConflict(COLLECTION_ENTRY.USER_ID, COLLECTION_ENTRY.PRINTING_ID)
+          .doUpdate()
+          .set(COLLECTION_ENTRY.QUANTITY, field("excluded.quantity", Integer.class))
+          .returningResult(COLLECTION_ENTRY.PRINTING_ID, oldQuantity)
+          .fetch()
+          .forEach(
+              r -> {
+                if (r.value2() != null) {
+                  previous.put(r.value1(), r.value2());
+                }
+              });
+    }
+    if (!removed.isEmpty()) {
+      dsl.deleteFrom(COLLECTION_ENTRY)
+          .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+          .and(COLLECTION_ENTRY.PRINTING_ID.in(removed))
+          .returningResult(COLLECTION_ENTRY.PRINTING_ID, COLLECTION_ENTRY.QUANTITY)
+          .fetch()
+          .forEach(r -> previous.put(r.value1(), r.value2()));
+    }
+
+    var history =
+        dsl.insertInto(
+            COLLECTION_HISTORY_ENTRY,
+            COLLECTION_HISTORY_ENTRY.USER_ID,
+            COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+            COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY,
+            COLLECTION_HISTORY_ENTRY.NEW_QTY);
+    boolean anyChanged = false;
+    long uniqueDelta = 0;
+    long totalDelta = 0;
+    List<CollectionCardStub> result = new ArrayList<>(amounts.size());
+    for (var amount : amounts.entrySet()) {
+      int previousQty = previous.getOrDefault(amount.getKey(), 0);
+      int newQty = amount.getValue();
+      if (previousQty != newQty) {
+        history = history.values(userId, amount.getKey(), previousQty, newQty);
+        anyChanged = true;
+        uniqueDelta += (newQty > 0 ? 1 : 0) - (previousQty > 0 ? 1 : 0);
+        totalDelta += newQty - previousQty;
+      }
+      result.add(new CollectionCardStub(amount.getKey(), newQty));
+    }
+    if (anyChanged) {
+      // Locks the summary before the history ids are taken
+      summaryCounters.addToCollection(userId, uniqueDelta, totalDelta);
+      List<Long> ids =
+          history.returningResult(COLLECTION_HISTORY_ENTRY.ID).fetch(COLLECTION_HISTORY_ENTRY.ID);
+      long version = Collections.max(ids);
+      long sinceSnapshot = summaryCounters.setCollectionVersion(userId, version, ids.size());
+      ownedPrintingCache.collectionChanged(userId);
+      collectionSnapshots.takeIfDue(userId, version, sinceSnapshot);
+    }
+    return Optional.of(result);
+  }
+
+  public boolean printingExists(Long printingId) {
     return dsl.fetchExists(
         dsl.selectOne().from(PRINTING).where(PRINTING.ID.eq(printingId.intValue())));
   }
 
-  private void upsertCollectionEntry(UUID userId, int printingId, int amount) {
-    int previousQty = getQuantity(userId, printingId);
+  /**
+   * @param version The collection version after the write, or {@code null} if the quantity did not
+   *     change.
+   */
+  private record Written(int newQty, Long version) {}
 
-    if (amount <= 0) {
-      dsl.deleteFrom(COLLECTION_ENTRY)
-          .where(COLLECTION_ENTRY.USER_ID.eq(userId))
-          .and(COLLECTION_ENTRY.PRINTING_ID.eq(printingId))
-          .execute();
-    } else {
-      dsl.insertInto(COLLECTION_ENTRY)
-          .set(COLLECTION_ENTRY.USER_ID, userId)
-          .set(COLLECTION_ENTRY.PRINTING_ID, printingId)
-          .set(COLLECTION_ENTRY.QUANTITY, amount)
-          .onConflict(COLLECTION_ENTRY.USER_ID, COLLECTION_ENTRY.PRINTING_ID)
-          .doUpdate()
-          .set(COLLECTION_ENTRY.QUANTITY, amount)
-          .execute();
-    }
+  /**
+   * Upserts the entry, or deletes it for amounts of zero, and if the quantity changed adjusts the
+   * collection summary and writes a history entry, all in one statement. The previous quantity is
+   * taken from the modified row (Postgres 18 {@code RETURNING old.*}). The summary upsert takes
+   * the history id under the summary's row lock, stores it as the collection version and counts the
+   * entry toward the next snapshot; the history entry is then written with that id.
+   */
+  private Written upsertCollectionEntry(UUID userId, int printingId, int amount) {
+    int newQty = Math.max(amount, 0);
+    ResultQuery<Record1<Integer>> write =
+        newQty > 0
+            ? insertInto(
+                    COLLECTION_ENTRY,
+                    COLLECTION_ENTRY.USER_ID,
+                    COLLECTION_ENTRY.PRINTING_ID,
+                    COLLECTION_ENTRY.QUANTITY)
+                .values(userId, printingId, newQty)
+                .onConflict(COLLECTION_ENTRY.USER_ID, COLLECTION_ENTRY.PRINTING_ID)
+                .doUpdate()
+                .set(COLLECTION_ENTRY.QUANTITY, field("excluded.quantity", Integer.class))
+                .returningResult(field("old.quantity", Integer.class).as("previous_qty"))
+            : deleteFrom(COLLECTION_ENTRY)
+                .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+                .and(COLLECTION_ENTRY.PRINTING_ID.eq(printingId))
+                .returningResult(COLLECTION_ENTRY.QUANTITY.as("previous_qty"));
+    var written = name("written").as(write);
+    var change =
+        name("change")
+            .as(
+                select(
+                    coalesce(
+                            field(
+                                select(written.field("previous_qty", Integer.class))
+                                    .from(written)),
+                            val(0))
+                        .as("previous_qty")));
+    Field<Integer> previousQty = change.field("previous_qty", Integer.class);
+
+    // An id taken for the insert is skipped if the summary exists, as it was taken before the lock
+    Field<Long> nextHistoryId = HISTORY_ID.nextval();
+    var summary =
+        name("summary")
+            .as(
+                insertInto(
+                        COLLECTION_SUMMARY,
+                        COLLECTION_SUMMARY.USER_ID,
+                        COLLECTION_SUMMARY.UNIQUE_COUNT,
+                        COLLECTION_SUMMARY.TOTAL_COUNT,
+                        COLLECTION_SUMMARY.VERSION,
+                        COLLECTION_SUMMARY.SINCE_SNAPSHOT)
+                    .select(
+                        select(
+                                val(userId),
+                                val(newQty > 0 ? 1L : 0L)
+                                    .minus(when(previousQty.gt(0), 1L).otherwise(0L)),
+                                val((long) newQty).minus(previousQty.cast(Long.class)),
+                                nextHistoryId,
+                                val(1L))
+                            .from(change)
+                            .where(previousQty.ne(newQty)))
+                    .onConflict(COLLECTION_SUMMARY.USER_ID)
+                    .doUpdate()
+                    .set(
+                        COLLECTION_SUMMARY.UNIQUE_COUNT,
+                        COLLECTION_SUMMARY.UNIQUE_COUNT.plus(
+                            field("excluded.unique_count", Long.class)))
+                    .set(
+                        COLLECTION_SUMMARY.TOTAL_COUNT,
+                        COLLECTION_SUMMARY.TOTAL_COUNT.plus(
+                            field("excluded.total_count", Long.class)))
+                    .set(COLLECTION_SUMMARY.VERSION, nextHistoryId)
+                    .set(
+                        COLLECTION_SUMMARY.SINCE_SNAPSHOT,
+                        COLLECTION_SUMMARY.SINCE_SNAPSHOT.plus(1L))
+                    .returningResult(
+                        COLLECTION_SUMMARY.VERSION, COLLECTION_SUMMARY.SINCE_SNAPSHOT));
+    Field<Long> version = summary.field(COLLECTION_SUMMARY.VERSION);
+    var history =
+        name("history")
+            .as(
+                insertInto(
+                        COLLECTION_HISTORY_ENTRY,
+                        COLLECTION_HISTORY_ENTRY.ID,
+                        COLLECTION_HISTORY_ENTRY.USER_ID,
+                        COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+                        COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY,
+                        COLLECTION_HISTORY_ENTRY.NEW_QTY)
+                    .select(
+                        select(version, val(userId), val(printingId), previousQty, val(newQty))
+                            .from(change)
+                            .crossJoin(summary))
+                    .returningResult(COLLECTION_HISTORY_ENTRY.ID));
 
-    if (previousQty != amount) {
-      dsl.insertInto(COLLECTION_HISTORY_ENTRY)
-          .set(COLLECTION_HISTORY_ENTRY.USER_ID, userId)
-          .set(COLLECTION_HISTORY_ENTRY.PRINTING_ID, printingId)
-          .set(COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY, previousQty)
-          .set(COLLECTION_HISTORY_ENTRY.NEW_QTY, amount)
-          .execute();
+    // The history is written although the query does not read it, as are all modifying CTEs
+    var summarized =
+        dsl.with(written, change, summary, history)
+            .select(version, summary.field(COLLECTION_SUMMARY.SINCE_SNAPSHOT))
+            .from(summary)
+            .fetchOne();
+    if (summarized == null) {
+      return new Written(newQty, null);
     }
+    ownedPrintingCache.collectionChanged(userId);
+    collectionSnapshots.takeIfDue(userId, summarized.value1(), summarized.value2());
+    return new Written(newQty, summarized.value1());
   }
 
   private int getQuantity(UUID userId, int printingId) {
@@ -195,12 +455,29 @@ public class CollectionService {
     return qty != null ? qty : 0;
   }
 
+  /** Current amounts of the printings with history entries in (sinceVersion, version]. */
+  private Map<Long, Integer> getChangedAmounts(UUID userId, long sinceVersion, long version) {
+    return dsl.selectDistinct(
+            COLLECTION_HISTORY_ENTRY.PRINTING_ID, coalesce(COLLECTION_ENTRY.QUANTITY, 0))
+        .from(COLLECTION_HISTORY_ENTRY)
+        .leftJoin(COLLECTION_ENTRY)
+        .on(COLLECTION_ENTRY.USER_ID.eq(COLLECTION_HISTORY_ENTRY.USER_ID))
+        .and(COLLECTION_ENTRY.PRINTING_ID.eq(COLLECTION_HISTORY_ENTRY.PRINTING_ID))
+        .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+        .and(COLLECTION_HISTORY_ENTRY.ID.gt(sinceVersion))
+        .and(COLLECTION_HISTORY_ENTRY.ID.le(version))
+        .fetchMap(r -> r.value1().longValue(), r -> r.value2());
+  }
+
   private CollectionInfo getCollectionInfo(UUID userId) {
     var result =
-        dsl.select(UNIQUE_COUNT, TOTAL_COUNT)
-            .from(COLLECTION_ENTRY)
-            .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        dsl.select(COLLECTION_SUMMARY.UNIQUE_COUNT, COLLECTION_SUMMARY.TOTAL_COUNT)
+            .from(COLLECTION_SUMMARY)
+            .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
             .fetchOne();
-    return new CollectionInfo(result.get(UNIQUE_COUNT), result.get(TOTAL_COUNT), userId);
+    if (result == null) {
+      return new CollectionInfo(0, 0, userId);
+    }
+    return new CollectionInfo(result.value1(), result.value2(), userId);
   }
 }
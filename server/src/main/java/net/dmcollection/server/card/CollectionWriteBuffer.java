@@ -0,0 +1,164 @@
+package net.dmcollection.server.card;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import net.dmcollection.server.card.CollectionService.CollectionCardStub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind buffer for single amounts set in quick succession. Amounts are kept per user and
+ * written together through {@link CollectionService#setCardAmounts}, so a printing set several
+ * times gets one write and one history entry for its last amount. A user's amounts are written
+ * once the oldest is {@code window} old, once {@code max-pending} printings are waiting, and before
+ * any other request of that user ({@link CollectionWriteBufferInterceptor}), so reads see them.
+ *
+ * <p>Amounts whose write fails stay buffered and are retried with the next flush. They are written
+ * on shutdown, but lost if the server dies within the window.
+ */
+@Service
+public class CollectionWriteBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(CollectionWriteBuffer.class);
+
+  private record Pending(Instant since, Map<Integer, Integer> amounts) {}
+
+  /** Counts the flushes holding or waiting for it, so that it is removed after the last. */
+  private static final class FlushLock {
+    private int flushes;
+  }
+
+  private final CollectionService collectionService;
+  private final boolean enabled;
+  private final Duration window;
+  private final int maxPending;
+  private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+  // Keeps a user's flushes in order, so that older amounts never overwrite newer ones
+  private final Map<UUID, FlushLock> flushLocks = new ConcurrentHashMap<>();
+
+  public CollectionWriteBuffer(
+      CollectionService collectionService,
+      @Value("${dmcollection.write-buffer.enabled:false}") boolean enabled,
+      @Value("${dmcollection.write-buffer.window:PT2S}") Duration window,
+      @Value("${dmcollection.write-buffer.max-pending:50}") int maxPending) {
+    this.collectionService = collectionService;
+    this.enabled = enabled;
+    this.window = window;
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Buffers the amount, or writes it right away if the buffer is disabled.
+   *
+   * @return The amount as it will be stored, or empty if the printing does not exist.
+   */
+  public Optional<CollectionCardStub> setSingleCardAmount(
+      UUID userId, Long printingId, int amount) {
+    if (!enabled) {
+      return collectionService.setSingleCardAmount(userId, printingId, amount);
+    }
+    if (!collectionService.printingExists(printingId)) {
+      return Optional.empty();
+    }
+    int actualAmount = Math.max(amount, 0);
+    Pending current =
+        pending.compute(
+            userId,
+            (id, existing) -> {
+              Pending next =
+                  existing != null ? existing : new Pending(Instant.now(), new LinkedHashMap<>());
+              next.amounts().put(printingId.intValue(), actualAmount);
+              return next;
+            });
+    if (current.amounts().size() >= maxPending) {
+      flush(userId);
+    }
+    return Optional.of(new CollectionCardStub(printingId, actualAmount));
+  }
+
+  public boolean hasPending() {
+    return !pending.isEmpty();
+  }
+
+  /** Writes the user's buffered amounts. */
+  public void flush(UUID userId) {
+    FlushLock lock =
+        flushLocks.compute(
+            userId,
+            (id, existing) -> {
+              FlushLock next = existing != null ? existing : new FlushLock();
+              next.flushes++;
+              return next;
+            });
+    try {
+      synchronized (lock) {
+        Pending toWrite = pending.remove(userId);
+        if (toWrite == null) {
+          return;
+        }
+        List<CollectionCardStub> changes =
+            toWrite.amounts().entrySet().stream()
+                .map(amount -> new CollectionCardStub(amount.getKey(), amount.getValue()))
+                .toList();
+        try {
+          collectionService.setCardAmounts(userId, changes);
+        } catch (RuntimeException e) {
+          restore(userId, toWrite);
+          throw e;
+        }
+      }
+    } finally {
+      flushLocks.computeIfPresent(
+          userId, (id, existing) -> --existing.flushes == 0 ? null : existing);
+    }
+  }
+
+  /**
+   * Puts amounts that could not be written back, so that a later flush retries them. Amounts
+   * buffered since are newer and take precedence.
+   */
+  private void restore(UUID userId, Pending failed) {
+    pending.merge(
+        userId,
+        failed,
+        (newer, older) -> {
+          Map<Integer, Integer> amounts = new LinkedHashMap<>(older.amounts());
+          amounts.putAll(newer.amounts());
+          return new Pending(older.since(), amounts);
+        });
+  }
+
+  @Scheduled(fixedDelayString = "${dmcollection.write-buffer.window:PT2S}")
+  public void flushDue() {
+    Instant due = Instant.now().minus(window);
+    flushWhere(p -> !p.since().isAfter(due));
+  }
+
+  @PreDestroy
+  public void flushAll() {
+    flushWhere(p -> true);
+  }
+
+  private void flushWhere(Predicate<Pending> condition) {
+    for (var entry : pending.entrySet()) {
+      if (condition.test(entry.getValue())) {
+        try {
+          flush(entry.getKey());
+        } catch (RuntimeException e) {
+          log.error("Could not write buffered amounts of user {}: ", entry.getKey(), e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package net.dmcollection.server.card;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.dmcollection.server.user.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Writes the user's buffered amounts before their API requests, except those setting single
+ * amounts, which go to the {@link CollectionWriteBuffer}.
+ */
+public class CollectionWriteBufferInterceptor implements HandlerInterceptor {
+
+  private static final Logger log = LoggerFactory.getLogger(CollectionWriteBufferInterceptor.class);
+
+  private static final String BUFFERED_PATH = "/api/collectionStub/cards/";
+
+  private final CollectionWriteBuffer writeBuffer;
+
+  public CollectionWriteBufferInterceptor(CollectionWriteBuffer writeBuffer) {
+    this.writeBuffer = writeBuffer;
+  }
+
+  /**
+   * A failed write does not fail the request: the amounts stay buffered, and the request reads
+   * the collection without them.
+   */
+  @Override
+  public boolean preHandle(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull Object handler) {
+    if (!writeBuffer.hasPending()
+        || !(request.getUserPrincipal() instanceof Authentication authentication)
+        || !(authentication.getPrincipal() instanceof User user)) {
+      return true;
+    }
+    if ("PUT".equals(request.getMethod()) && request.getServletPath().startsWith(BUFFERED_PATH)) {
+      return true;
+    }
+    try {
+      writeBuffer.flush(user.getId());
+    } catch (RuntimeException e) {
+      log.error("Could not write buffered amounts of user {}: ", user.getId(), e);
+    }
+    return true;
+  }
+}
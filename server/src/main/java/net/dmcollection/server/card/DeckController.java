@@ -1,20 +1,20 @@
 package net.dmcollection.server.card;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import net.dmcollection.server.card.DeckService.DeckDto;
 import net.dmcollection.server.card.DeckService.DeckInfo;
+import net.dmcollection.server.card.serialization.ImportProgress;
 import net.dmcollection.server.card.serialization.deck.format.v1.DeckExport;
 import net.dmcollection.server.user.CurrentUserId;
 import org.slf4j.Logger;
@@ -150,30 +150,13 @@ public class DeckController {
   }
 
   @PostMapping(value = "/api/decks/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-  public ResponseEntity<Void> importDecks(
-      @RequestBody byte[] fileBytes, @CurrentUserId UUID currentUserId) {
+  public ResponseEntity<Void> importDecks(InputStream file, @CurrentUserId UUID currentUserId) {
     try {
-      DeckExport toImport =
-          objectMapper
-              .reader()
-              .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-              .readValue(fileBytes, DeckExport.class);
-      deckService.importDeck(currentUserId, toImport);
+      deckService.importDecks(currentUserId, file, new ImportProgress());
       return ResponseEntity.ok().build();
-    } catch (IOException e) {
-      try {
-        List<DeckExport> toImport =
-            Arrays.asList(
-                objectMapper
-                    .reader()
-                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-                    .readValue(fileBytes, DeckExport[].class));
-        toImport.forEach(i -> deckService.importDeck(currentUserId, i));
-        return ResponseEntity.ok().build();
-      } catch (IOException _) {
-        log.error("Error reading uploaded file: ", e);
-        return ResponseEntity.badRequest().build();
-      }
+    } catch (IllegalArgumentException | IOException e) {
+      log.error("Error reading uploaded file: ", e);
+      return ResponseEntity.badRequest().build();
     }
   }
 }
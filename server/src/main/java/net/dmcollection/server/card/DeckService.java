@@ -6,11 +6,15 @@ import static net.dmcollection.server.jooq.generated.tables.DeckVersion.DECK_VER
 import static net.dmcollection.server.jooq.generated.tables.DeckVersionEntry.DECK_VERSION_ENTRY;
 import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
 import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTING_SIDE;
-import static org.jooq.impl.DSL.coalesce;
-import static org.jooq.impl.DSL.count;
 import static org.jooq.impl.DSL.currentOffsetDateTime;
-import static org.jooq.impl.DSL.sum;
-
+import static org.jooq.impl.DSL.field;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,10 +28,12 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.serialization.ImportProgress;
 import net.dmcollection.server.card.serialization.deck.format.v1.DeckCardExport;
 import net.dmcollection.server.card.serialization.deck.format.v1.DeckExport;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageImpl;
@@ -41,17 +47,19 @@ public class DeckService {
 
   private static final Logger log = LoggerFactory.getLogger(DeckService.class);
   private static final int EXPORT_FORMAT_VERSION = 2;
-  private static final Field<Long> UNIQUE_COUNT =
-      count(DECK_VERSION_ENTRY.ID).cast(Long.class).as("unique_count");
-  private static final Field<Long> TOTAL_COUNT =
-      coalesce(sum(DECK_VERSION_ENTRY.QUANTITY), 0).cast(Long.class).as("total_count");
+  private static final List<Field<?>> DECK_INFO_FIELDS =
+      List.of(
+          DECK.ID, DECK.NAME, DECK.UPDATED_AT, DECK.USER_ID, DECK.UNIQUE_COUNT, DECK.TOTAL_COUNT);
 
   private final DSLContext dsl;
   private final CollectionService collectionService;
+  private final ObjectMapper objectMapper;
 
-  public DeckService(DSLContext dsl, CollectionService collectionService) {
+  public DeckService(
+      DSLContext dsl, CollectionService collectionService, ObjectMapper objectMapper) {
     this.dsl = dsl;
     this.collectionService = collectionService;
+    this.objectMapper = objectMapper;
   }
 
   public record DeckInfo(
@@ -65,24 +73,11 @@ public class DeckService {
   public record DeckDto(DeckInfo info, PagedModel<CardStub> cardPage) {}
 
   public List<DeckInfo> getDecks(UUID userId) {
-    return dsl.select(DECK.ID, DECK.NAME, DECK.UPDATED_AT, DECK.USER_ID, UNIQUE_COUNT, TOTAL_COUNT)
+    return dsl.select(DECK_INFO_FIELDS)
         .from(DECK)
-        .leftJoin(DECK_VERSION)
-        .on(DECK_VERSION.DECK_ID.eq(DECK.ID).and(DECK_VERSION.IS_DRAFT.isTrue()))
-        .leftJoin(DECK_VERSION_ENTRY)
-        .on(DECK_VERSION_ENTRY.DECK_VERSION_ID.eq(DECK_VERSION.ID))
         .where(DECK.USER_ID.eq(userId))
-        .groupBy(DECK.ID)
         .orderBy(DECK.UPDATED_AT.desc())
-        .fetch(
-            r ->
-                new DeckInfo(
-                    r.get(DECK.ID),
-                    r.get(DECK.NAME),
-                    r.get(UNIQUE_COUNT),
-                    r.get(TOTAL_COUNT),
-                    r.get(DECK.UPDATED_AT).toLocalDateTime(),
-                    r.get(DECK.USER_ID)));
+        .fetch(DeckService::toDeckInfo);
   }
 
   @Transactional
@@ -169,31 +164,43 @@ public class DeckService {
       return Optional.empty();
     }
 
+    int previousQty;
+    int newQty = Math.max(amount, 0);
     if (amount <= 0) {
-      dsl.deleteFrom(DECK_VERSION_ENTRY)
-          .where(
-              DECK_VERSION_ENTRY
-                  .DECK_VERSION_ID
-                  .eq(draftVersionId)
-                  .and(DECK_VERSION_ENTRY.PRINTING_ID.eq(printingId.intValue())))
-          .execute();
+      previousQty =
+          dsl.deleteFrom(DECK_VERSION_ENTRY)
+              .where(
+                  DECK_VERSION_ENTRY
+                      .DECK_VERSION_ID
+                      .eq(draftVersionId)
+                      .and(DECK_VERSION_ENTRY.PRINTING_ID.eq(printingId.intValue())))
+              .returningResult(DECK_VERSION_ENTRY.QUANTITY)
+              .fetchOptional(DECK_VERSION_ENTRY.QUANTITY)
+              .orElse(0);
     } else {
-      dsl.insertInto(DECK_VERSION_ENTRY)
-          .set(DECK_VERSION_ENTRY.DECK_VERSION_ID, draftVersionId)
-          .set(DECK_VERSION_ENTRY.CARD_ID, cardId)
-          .set(DECK_VERSION_ENTRY.PRINTING_ID, printingId.intValue())
-          .set(DECK_VERSION_ENTRY.QUANTITY, amount)
-          .onConflict(
-              DECK_VERSION_ENTRY.DECK_VERSION_ID,
-              DECK_VERSION_ENTRY.CARD_ID,
-              DECK_VERSION_ENTRY.PRINTING_ID)
-          .doUpdate()
-          .set(DECK_VERSION_ENTRY.QUANTITY, amount)
-          .execute();
+      var oldQuantity = field("old.quantity", Integer.class);
+      Integer replaced =
+          dsl.insertInto(DECK_VERSION_ENTRY)
+              .set(DECK_VERSION_ENTRY.DECK_VERSION_ID, draftVersionId)
+              .set(DECK_VERSION_ENTRY.CARD_ID, cardId)
+              .set(DECK_VERSION_ENTRY.PRINTING_ID, printingId.intValue())
+              .set(DECK_VERSION_ENTRY.QUANTITY, amount)
+              .onConflict(
+                  DECK_VERSION_ENTRY.DECK_VERSION_ID,
+                  DECK_VERSION_ENTRY.CARD_ID,
+                  DECK_VERSION_ENTRY.PRINTING_ID)
+              .doUpdate()
+              .set(DECK_VERSION_ENTRY.QUANTITY, amount)
+              .returningResult(oldQuantity)
+              .fetchOne(oldQuantity);
+      previousQty = replaced == null ? 0 : replaced;
     }
 
+    int uniqueDelta = (newQty > 0 ? 1 : 0) - (previousQty > 0 ? 1 : 0);
     dsl.update(DECK)
         .set(DECK.UPDATED_AT, currentOffsetDateTime())
+        .set(DECK.UNIQUE_COUNT, DECK.UNIQUE_COUNT.plus(uniqueDelta))
+        .set(DECK.TOTAL_COUNT, DECK.TOTAL_COUNT.plus(newQty - previousQty))
         .where(DECK.ID.eq(deckId))
         .execute();
 
@@ -227,8 +234,41 @@ public class DeckService {
     return decks.stream().map(d -> forExport(d.id(), d.name())).toList();
   }
 
+  /**
+   * Imports a file holding one deck export or an array of them, all or none.
+   *
+   * @throws IllegalArgumentException If the file holds neither.
+   */
+  @Transactional
+  public void importDecks(UUID userId, InputStream file, ImportProgress progress)
+      throws IOException {
+    JsonNode root = objectMapper.readTree(file);
+    ObjectReader reader =
+        objectMapper
+            .readerFor(DeckExport.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    List<DeckExport> toImport = new ArrayList<>();
+    if (root != null && root.isArray()) {
+      for (JsonNode deck : root) {
+        toImport.add(reader.readValue(deck));
+      }
+    } else if (root != null && root.isObject()) {
+      toImport.add(reader.readValue(root));
+    } else {
+      throw new IllegalArgumentException("Unknown deck export format");
+    }
+    for (DeckExport deck : toImport) {
+      importDeck(userId, deck, progress);
+    }
+  }
+
   @Transactional
   public void importDeck(UUID userId, DeckExport toImport) {
+    importDeck(userId, toImport, new ImportProgress());
+  }
+
+  @Transactional
+  public void importDeck(UUID userId, DeckExport toImport, ImportProgress progress) {
     // Create new deck with draft version
     UUID deckId =
         dsl.insertInto(DECK)
@@ -244,6 +284,8 @@ public class DeckService {
             .returningResult(DECK_VERSION.ID)
             .fetchOne(DECK_VERSION.ID);
 
+    progress.addParsed(toImport.cards().size());
+
     // Collect shortNames for lookup
     List<String> shortNames =
         toImport.cards().stream().map(DeckCardExport::shortName).filter(Objects::nonNull).toList();
@@ -277,18 +319,27 @@ public class DeckService {
             DECK_VERSION_ENTRY.QUANTITY);
 
     int matched = 0;
+    long total = 0;
     for (DeckCardExport card : toImport.cards()) {
       PrintingLookup lookup = lookupByShortName.get(card.shortName());
       if (lookup != null && card.amount() > 0) {
         insert = insert.values(draftVersionId, lookup.cardId(), lookup.printingId(), card.amount());
         matched++;
+        total += card.amount();
       } else if (lookup == null) {
         log.warn("Deck import: no printing found for shortName '{}'", card.shortName());
+        progress.addUnmatched(1);
       }
     }
+    progress.addMatched(matched);
 
     if (matched > 0) {
-      insert.execute();
+      progress.addWritten(insert.execute());
+      dsl.update(DECK)
+          .set(DECK.UNIQUE_COUNT, (long) matched)
+          .set(DECK.TOTAL_COUNT, total)
+          .where(DECK.ID.eq(deckId))
+          .execute();
     }
   }
 
@@ -451,24 +502,20 @@ public class DeckService {
   }
 
   private DeckInfo getDeckInfo(UUID deckId) {
-    var result =
-        dsl.select(DECK.ID, DECK.NAME, DECK.UPDATED_AT, DECK.USER_ID, UNIQUE_COUNT, TOTAL_COUNT)
-            .from(DECK)
-            .leftJoin(DECK_VERSION)
-            .on(DECK_VERSION.DECK_ID.eq(DECK.ID).and(DECK_VERSION.IS_DRAFT.isTrue()))
-            .leftJoin(DECK_VERSION_ENTRY)
-            .on(DECK_VERSION_ENTRY.DECK_VERSION_ID.eq(DECK_VERSION.ID))
-            .where(DECK.ID.eq(deckId))
-            .groupBy(DECK.ID)
-            .fetchOne();
+    return dsl.select(DECK_INFO_FIELDS)
+        .from(DECK)
+        .where(DECK.ID.eq(deckId))
+        .fetchOne(DeckService::toDeckInfo);
+  }
 
+  private static DeckInfo toDeckInfo(Record r) {
     return new DeckInfo(
-        result.get(DECK.ID),
-        result.get(DECK.NAME),
-        result.get(UNIQUE_COUNT),
-        result.get(TOTAL_COUNT),
-        result.get(DECK.UPDATED_AT).toLocalDateTime(),
-        result.get(DECK.USER_ID));
+        r.get(DECK.ID),
+        r.get(DECK.NAME),
+        r.get(DECK.UNIQUE_COUNT),
+        r.get(DECK.TOTAL_COUNT),
+        r.get(DECK.UPDATED_AT).toLocalDateTime(),
+        r.get(DECK.USER_ID));
   }
 
   private int compareCivs(Set<Civilization> c1, Set<Civilization> c2) {
@@ -0,0 +1,68 @@
+package net.dmcollection.server.card;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+import net.dmcollection.server.card.ImportJobService.ImportJobStatus;
+import net.dmcollection.server.card.ImportJobService.Type;
+import net.dmcollection.server.user.CurrentUserId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+
+@Controller
+public class ImportJobController {
+
+  private static final Logger log = LoggerFactory.getLogger(ImportJobController.class);
+  private final ImportJobService importJobService;
+
+  public ImportJobController(ImportJobService importJobService) {
+    this.importJobService = importJobService;
+  }
+
+  @PostMapping(
+      value = "/api/collection/import/jobs",
+      consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  ResponseEntity<ImportJobStatus> importCollection(
+      InputStream file, @CurrentUserId UUID currentUserId) {
+    return submit(currentUserId, Type.COLLECTION, file);
+  }
+
+  @PostMapping(
+      value = "/api/decks/import/jobs",
+      consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  ResponseEntity<ImportJobStatus> importDecks(InputStream file, @CurrentUserId UUID currentUserId) {
+    return submit(currentUserId, Type.DECKS, file);
+  }
+
+  @GetMapping("/api/import/jobs/{id}")
+  ResponseEntity<ImportJobStatus> getJob(@CurrentUserId UUID currentUserId, @PathVariable UUID id) {
+    return importJobService
+        .getStatus(currentUserId, id)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  private ResponseEntity<ImportJobStatus> submit(UUID userId, Type type, InputStream file) {
+    try {
+      return importJobService
+          .submit(userId, type, file)
+          .map(
+              job ->
+                  ResponseEntity.accepted()
+                      .location(URI.create("/api/import/jobs/" + job.id()))
+                      .body(job))
+          .orElse(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    } catch (IOException e) {
+      log.error("Error storing uploaded file: ", e);
+      return ResponseEntity.badRequest().build();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package net.dmcollection.server.card;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import net.dmcollection.server.card.serialization.ImportProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs collection and deck imports in the background. The upload is stored in a temporary file
+ * and imported on a virtual thread; at most {@code max-concurrent} imports run at the same time,
+ * the others wait. A user can have {@code max-per-user} jobs waiting or running. Finished jobs
+ * can be polled for an hour.
+ */
+@Service
+public class ImportJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+  private static final Duration RETENTION = Duration.ofHours(1);
+
+  public enum Type {
+    COLLECTION,
+    DECKS
+  }
+
+  public enum State {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+  }
+
+  public record ImportJobStatus(
+      UUID id,
+      Type type,
+      State state,
+      long parsed,
+      long matched,
+      long unmatched,
+      long written,
+      String error) {}
+
+  private static final class Job {
+    final UUID id = UUID.randomUUID();
+    final UUID userId;
+    final Type type;
+    final ImportProgress progress = new ImportProgress();
+    volatile State state = State.QUEUED;
+    volatile String error;
+    volatile Instant finishedAt;
+
+    Job(UUID userId, Type type) {
+      this.userId = userId;
+      this.type = type;
+    }
+
+    boolean isActive() {
+      return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    ImportJobStatus status() {
+      return new ImportJobStatus(
+          id,
+          type,
+          state,
+          progress.parsed(),
+          progress.matched(),
+          progress.unmatched(),
+          progress.written(),
+          error);
+    }
+  }
+
+  private final CollectionService collectionService;
+  private final DeckService deckService;
+  private final Semaphore running;
+  private final int maxPerUser;
+  private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public ImportJobService(
+      CollectionService collectionService,
+      DeckService deckService,
+      @Value("${dmcollection.import-jobs.max-concurrent:4}") int maxConcurrent,
+      @Value("${dmcollection.import-jobs.max-per-user:1}") int maxPerUser) {
+    this.collectionService = collectionService;
+    this.deckService = deckService;
+    this.running = new Semaphore(maxConcurrent, true);
+    this.maxPerUser = maxPerUser;
+  }
+
+  /**
+   * Stores the upload and starts importing it.
+   *
+   * @return The queued job, or empty if the user already has as many jobs as allowed.
+   */
+  public Optional<ImportJobStatus> submit(UUID userId, Type type, InputStream upload)
+      throws IOException {
+    Job job = register(userId, type);
+    if (job == null) {
+      return Optional.empty();
+    }
+    Path file;
+    try {
+      file = Files.createTempFile("dmcollection-import-", ".json");
+      Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      jobs.remove(job.id);
+      throw e;
+    }
+    executor.execute(() -> run(job, file));
+    return Optional.of(job.status());
+  }
+
+  public Optional<ImportJobStatus> getStatus(UUID userId, UUID jobId) {
+    return Optional.ofNullable(jobs.get(jobId))
+        .filter(job -> job.userId.equals(userId))
+        .map(Job::status);
+  }
+
+  private synchronized Job register(UUID userId, Type type) {
+    Instant expired = Instant.now().minus(RETENTION);
+    jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expired));
+    long active =
+        jobs.values().stream().filter(job -> job.userId.equals(userId) && job.isActive()).count();
+    if (active >= maxPerUser) {
+      return null;
+    }
+    Job job = new Job(userId, type);
+    jobs.put(job.id, job);
+    return job;
+  }
+
+  private void run(Job job, Path file) {
+    try {
+      running.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      finish(job, file, "Import was cancelled");
+      return;
+    }
+    String error = null;
+    try (InputStream in = Files.newInputStream(file)) {
+      job.state = State.RUNNING;
+      switch (job.type) {
+        case COLLECTION -> collectionService.importCollection(job.userId, in, job.progress);
+        case DECKS -> deckService.importDecks(job.userId, in, job.progress);
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      log.warn("Import job {} could not read the uploaded file: {}", job.id, e.getMessage());
+      error = "Unrecognized file format";
+    } catch (RuntimeException e) {
+      log.error("Import job {} failed: ", job.id, e);
+      error = "Import failed";
+    } finally {
+      running.release();
+    }
+    finish(job, file, error);
+  }
+
+  private void finish(Job job, Path file, String error) {
+    job.error = error;
+    job.state = error == null ? State.DONE : State.FAILED;
+    job.finishedAt = Instant.now();
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete import upload {}", file, e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+}
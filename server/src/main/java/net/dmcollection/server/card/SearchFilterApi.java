@@ -8,6 +8,8 @@ import net.dmcollection.server.card.internal.SearchFilter.CardType;
 import net.dmcollection.server.card.internal.SearchFilter.FilterState;
 import net.dmcollection.server.card.internal.SearchFilter.Range;
 import net.dmcollection.server.card.internal.SearchFilter.RarityFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagMatch;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,6 +33,8 @@ public record SearchFilterApi(
     String species,
     String name,
     String effect,
+    Set<Integer> tags,
+    TagMatch tagMatch,
     Integer pageSize,
     String sort) {
 
@@ -64,6 +68,7 @@ public record SearchFilterApi(
         name,
         effect,
         null,
+        tags != null && !tags.isEmpty() ? new TagFilter(tags, tagMatch) : null,
         pageable);
   }
 
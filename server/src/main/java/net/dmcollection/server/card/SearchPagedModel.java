@@ -0,0 +1,37 @@
+package net.dmcollection.server.card;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+
+/**
+ * Page of search results that also tells whether {@code page.totalElements} is an exact count or
+ * an estimate.
+ */
+public class SearchPagedModel<T> extends PagedModel<T> {
+
+  private final boolean totalExact;
+
+  public SearchPagedModel(Page<T> page, boolean totalExact) {
+    super(page);
+    this.totalExact = totalExact;
+  }
+
+  @JsonProperty
+  public boolean isTotalExact() {
+    return totalExact;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof SearchPagedModel<?> that
+        && totalExact == that.totalExact
+        && super.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), totalExact);
+  }
+}
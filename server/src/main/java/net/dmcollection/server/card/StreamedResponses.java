@@ -0,0 +1,50 @@
+package net.dmcollection.server.card;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+
+/** Bodies that controllers write to the response while they are produced. */
+final class StreamedResponses {
+
+  private StreamedResponses() {}
+
+  /**
+   * The response's body, gzip-compressed if {@code acceptEncoding} allows it. Has to be closed, to
+   * finish the compressed stream.
+   */
+  static OutputStream body(HttpServletResponse response, String acceptEncoding)
+      throws IOException {
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    OutputStream out = response.getOutputStream();
+    if (!acceptsGzip(acceptEncoding)) {
+      return out;
+    }
+    response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    return new GZIPOutputStream(out);
+  }
+
+  /** Whether gzip or {@code *} is listed, without a quality of 0. */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.startsWith("q=") && param.substring(2).matches("0(\\.0{0,3})?")) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+}
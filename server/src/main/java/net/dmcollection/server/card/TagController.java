@@ -0,0 +1,80 @@
+package net.dmcollection.server.card;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+import net.dmcollection.server.card.TagService.TagInfo;
+import net.dmcollection.server.user.CurrentUserId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@Controller
+public class TagController {
+
+  private final TagService tagService;
+
+  public TagController(TagService tagService) {
+    this.tagService = tagService;
+  }
+
+  @GetMapping("/api/tags")
+  ResponseEntity<List<TagInfo>> getTags(@CurrentUserId UUID currentUserId) {
+    return ResponseEntity.ok(tagService.getTags(currentUserId));
+  }
+
+  @PostMapping("/api/tags")
+  ResponseEntity<TagInfo> createTag(
+      @CurrentUserId UUID currentUserId, @Valid @RequestBody NameRequest request) {
+    return tagService
+        .createTag(currentUserId, request.name())
+        .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+        .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  record NameRequest(@NotBlank String name) {}
+
+  @PostMapping("/api/tag/{id}")
+  ResponseEntity<TagInfo> renameTag(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @Valid @RequestBody NameRequest request) {
+    return tagService
+        .renameTag(currentUserId, id, request.name())
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  @DeleteMapping("/api/tag/{id}")
+  ResponseEntity<Void> deleteTag(@CurrentUserId UUID currentUserId, @PathVariable int id) {
+    if (tagService.deleteTag(currentUserId, id)) {
+      return ResponseEntity.noContent().build();
+    } else {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /** Tags or untags the given printings, or with {@code wholeCard} their cards. */
+  @PutMapping("/api/tag/{id}/cards")
+  ResponseEntity<TagInfo> setTagged(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @Valid @RequestBody TagRequest request) {
+    return tagService
+        .setTagged(currentUserId, id, request.cardIds(), request.wholeCard(), request.tagged())
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  record TagRequest(
+      @NotNull @Size(max = 1000) List<Long> cardIds, boolean wholeCard, boolean tagged) {}
+}
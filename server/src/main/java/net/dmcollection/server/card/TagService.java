@@ -0,0 +1,173 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.jooq.generated.tables.CardPrivateTag.CARD_PRIVATE_TAG;
+import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag.PRINTING_PRIVATE_TAG;
+import static net.dmcollection.server.jooq.generated.tables.PrivateTag.PRIVATE_TAG;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectCount;
+import static org.jooq.impl.DSL.selectDistinct;
+import static org.jooq.impl.DSL.val;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import net.dmcollection.server.card.internal.PrivateTagCache;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.springframework.stereotype.Service;
+
+/**
+ * Private tags a user puts on printings or on whole cards, to search by them. Changes are not
+ * transactional so that the user's cached tags are dropped after they are committed.
+ */
+@Service
+public class TagService {
+
+  private static final Field<Integer> PRINTING_COUNT =
+      field(
+              selectCount()
+                  .from(PRINTING_PRIVATE_TAG)
+                  .where(PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID.eq(PRIVATE_TAG.ID)))
+          .as("printing_count");
+  private static final Field<Integer> CARD_COUNT =
+      field(
+              selectCount()
+                  .from(CARD_PRIVATE_TAG)
+                  .where(CARD_PRIVATE_TAG.PRIVATE_TAG_ID.eq(PRIVATE_TAG.ID)))
+          .as("card_count");
+
+  private final DSLContext dsl;
+  private final PrivateTagCache privateTagCache;
+
+  public TagService(DSLContext dsl, PrivateTagCache privateTagCache) {
+    this.dsl = dsl;
+    this.privateTagCache = privateTagCache;
+  }
+
+  /**
+   * @param printingCount Printings tagged individually.
+   * @param cardCount Cards tagged in all their printings.
+   */
+  public record TagInfo(int id, String name, int printingCount, int cardCount) {}
+
+  public List<TagInfo> getTags(UUID userId) {
+    return dsl.select(PRIVATE_TAG.ID, PRIVATE_TAG.NAME, PRINTING_COUNT, CARD_COUNT)
+        .from(PRIVATE_TAG)
+        .where(PRIVATE_TAG.USER_ID.eq(userId))
+        .orderBy(PRIVATE_TAG.NAME)
+        .fetch(TagService::toTagInfo);
+  }
+
+  /**
+   * @return The new tag, or empty if the user already has one with that name.
+   */
+  public Optional<TagInfo> createTag(UUID userId, String name) {
+    return dsl.insertInto(PRIVATE_TAG)
+        .set(PRIVATE_TAG.USER_ID, userId)
+        .set(PRIVATE_TAG.NAME, name)
+        .onConflictDoNothing()
+        .returningResult(PRIVATE_TAG.ID, PRIVATE_TAG.NAME)
+        .fetchOptional(r -> new TagInfo(r.get(PRIVATE_TAG.ID), r.get(PRIVATE_TAG.NAME), 0, 0));
+  }
+
+  /**
+   * @return The renamed tag, or empty if it does not exist or the user already has one with that
+   *     name.
+   */
+  public Optional<TagInfo> renameTag(UUID userId, int tagId, String name) {
+    boolean nameTaken =
+        dsl.fetchExists(
+            PRIVATE_TAG,
+            PRIVATE_TAG
+                .USER_ID
+                .eq(userId)
+                .and(PRIVATE_TAG.NAME.eq(name))
+                .and(PRIVATE_TAG.ID.ne(tagId)));
+    if (nameTaken) {
+      return Optional.empty();
+    }
+    int updated =
+        dsl.update(PRIVATE_TAG)
+            .set(PRIVATE_TAG.NAME, name)
+            .where(PRIVATE_TAG.ID.eq(tagId).and(PRIVATE_TAG.USER_ID.eq(userId)))
+            .execute();
+    if (updated == 0) {
+      return Optional.empty();
+    }
+    return getTag(userId, tagId);
+  }
+
+  public boolean deleteTag(UUID userId, int tagId) {
+    boolean deleted =
+        dsl.deleteFrom(PRIVATE_TAG)
+                .where(PRIVATE_TAG.ID.eq(tagId).and(PRIVATE_TAG.USER_ID.eq(userId)))
+                .execute()
+            > 0;
+    if (deleted) {
+      privateTagCache.invalidate(userId);
+    }
+    return deleted;
+  }
+
+  /**
+   * Tags or untags printings in bulk. With {@code wholeCard} the tag applies to the cards of the
+   * printings instead, and with that to all their printings. Unknown printings are ignored.
+   *
+   * @return The updated tag, or empty if it does not exist.
+   */
+  public Optional<TagInfo> setTagged(
+      UUID userId, int tagId, List<Long> printingIds, boolean wholeCard, boolean tagged) {
+    if (!dsl.fetchExists(
+        PRIVATE_TAG, PRIVATE_TAG.ID.eq(tagId).and(PRIVATE_TAG.USER_ID.eq(userId)))) {
+      return Optional.empty();
+    }
+    List<Integer> ids = printingIds.stream().map(Long::intValue).toList();
+
+    if (wholeCard && tagged) {
+      dsl.insertInto(CARD_PRIVATE_TAG, CARD_PRIVATE_TAG.CARD_ID, CARD_PRIVATE_TAG.PRIVATE_TAG_ID)
+          .select(
+              selectDistinct(PRINTING.CARD_ID, val(tagId))
+                  .from(PRINTING)
+                  .where(PRINTING.ID.in(ids)))
+          .onConflictDoNothing()
+          .execute();
+    } else if (wholeCard) {
+      dsl.deleteFrom(CARD_PRIVATE_TAG)
+          .where(CARD_PRIVATE_TAG.PRIVATE_TAG_ID.eq(tagId))
+          .and(
+              CARD_PRIVATE_TAG.CARD_ID.in(
+                  select(PRINTING.CARD_ID).from(PRINTING).where(PRINTING.ID.in(ids))))
+          .execute();
+    } else if (tagged) {
+      dsl.insertInto(
+              PRINTING_PRIVATE_TAG,
+              PRINTING_PRIVATE_TAG.PRINTING_ID,
+              PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID)
+          .select(select(PRINTING.ID, val(tagId)).from(PRINTING).where(PRINTING.ID.in(ids)))
+          .onConflictDoNothing()
+          .execute();
+    } else {
+      dsl.deleteFrom(PRINTING_PRIVATE_TAG)
+          .where(PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID.eq(tagId))
+          .and(PRINTING_PRIVATE_TAG.PRINTING_ID.in(ids))
+          .execute();
+    }
+    privateTagCache.invalidate(userId);
+    return getTag(userId, tagId);
+  }
+
+  private Optional<TagInfo> getTag(UUID userId, int tagId) {
+    return dsl.select(PRIVATE_TAG.ID, PRIVATE_TAG.NAME, PRINTING_COUNT, CARD_COUNT)
+        .from(PRIVATE_TAG)
+        .where(PRIVATE_TAG.ID.eq(tagId).and(PRIVATE_TAG.USER_ID.eq(userId)))
+        .fetchOptional(TagService::toTagInfo);
+  }
+
+  private static TagInfo toTagInfo(Record r) {
+    return new TagInfo(
+        r.get(PRIVATE_TAG.ID), r.get(PRIVATE_TAG.NAME), r.get(PRINTING_COUNT), r.get(CARD_COUNT));
+  }
+}
@@ -0,0 +1,122 @@
+package net.dmcollection.server.card;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.UUID;
+import net.dmcollection.server.AppProperties;
+import net.dmcollection.server.card.WishlistService.WishlistDto;
+import net.dmcollection.server.card.WishlistService.WishlistInfo;
+import net.dmcollection.server.card.internal.SearchFilter;
+import net.dmcollection.server.user.CurrentUserId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@Controller
+public class WishlistController {
+
+  private final WishlistService wishlistService;
+  private final AppProperties appProperties;
+
+  public WishlistController(WishlistService wishlistService, AppProperties appProperties) {
+    this.wishlistService = wishlistService;
+    this.appProperties = appProperties;
+  }
+
+  @GetMapping("/api/wishlists")
+  ResponseEntity<List<WishlistInfo>> getWishlists(@CurrentUserId UUID currentUserId) {
+    return ResponseEntity.ok(wishlistService.getWishlists(currentUserId));
+  }
+
+  @PostMapping("/api/wishlists")
+  ResponseEntity<WishlistInfo> createWishlist(
+      @CurrentUserId UUID currentUserId, @Valid @RequestBody NameRequest request) {
+    return wishlistService
+        .createWishlist(currentUserId, request.name())
+        .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+        .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  record NameRequest(@NotBlank String name) {}
+
+  @GetMapping(value = {"/api/wishlist/{id}", "/api/wishlist/{id}/{pageNumber}"})
+  ResponseEntity<WishlistDto> getWishlist(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @PathVariable(required = false) Integer pageNumber,
+      @ModelAttribute SearchFilterApi searchParams) {
+    return wishlistService
+        .getWishlistCards(currentUserId, id, toSearchFilter(searchParams, pageNumber), false)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /** Only the entries the collection does not fulfill yet, with the copies still missing. */
+  @GetMapping(value = {"/api/wishlist/{id}/missing", "/api/wishlist/{id}/missing/{pageNumber}"})
+  ResponseEntity<WishlistDto> getMissingCards(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @PathVariable(required = false) Integer pageNumber,
+      @ModelAttribute SearchFilterApi searchParams) {
+    return wishlistService
+        .getWishlistCards(currentUserId, id, toSearchFilter(searchParams, pageNumber), true)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  @PostMapping("/api/wishlist/{id}")
+  ResponseEntity<WishlistInfo> renameWishlist(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @Valid @RequestBody NameRequest request) {
+    return wishlistService
+        .renameWishlist(currentUserId, id, request.name())
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  @DeleteMapping("/api/wishlist/{id}")
+  ResponseEntity<Void> deleteWishlist(@CurrentUserId UUID currentUserId, @PathVariable int id) {
+    if (wishlistService.deleteWishlist(currentUserId, id)) {
+      return ResponseEntity.noContent().build();
+    } else {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /** With {@code anyPrinting}, the entry is for the printing's card in any printing. */
+  @PutMapping("/api/wishlist/{id}/cards/{cardId}")
+  ResponseEntity<WishlistInfo> setCardAmount(
+      @CurrentUserId UUID currentUserId,
+      @PathVariable int id,
+      @PathVariable Long cardId,
+      @Valid @RequestBody AmountRequest request) {
+    return wishlistService
+        .setCardAmount(currentUserId, id, cardId, request.anyPrinting(), request.amount())
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  record AmountRequest(@Min(0) int amount, boolean anyPrinting) {}
+
+  private SearchFilter toSearchFilter(SearchFilterApi searchParams, Integer pageNumber) {
+    if (pageNumber == null) {
+      return searchParams.toSearchFilter();
+    }
+    Integer pageSize = searchParams.pageSize();
+    if (pageSize == null) {
+      pageSize =
+          Math.min(appProperties.cardPage().defaultSize(), appProperties.cardPage().maxSize());
+    }
+    return searchParams.toSearchFilter(pageNumber, pageSize);
+  }
+}
@@ -0,0 +1,357 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
+import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static net.dmcollection.server.jooq.generated.tables.Wishlist.WISHLIST;
+import static net.dmcollection.server.jooq.generated.tables.WishlistEntry.WISHLIST_ENTRY;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectCount;
+import static org.jooq.impl.DSL.sum;
+import static org.jooq.impl.DSL.val;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.internal.SearchFilter;
+import net.dmcollection.server.card.internal.query.SearchFilterTranslator;
+import net.dmcollection.server.card.internal.query.SearchFilterTranslator.TranslatedFilter;
+import org.jooq.CommonTableExpression;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.OrderField;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class WishlistService {
+
+  private static final Field<Integer> ENTRY_COUNT =
+      field(
+              selectCount()
+                  .from(WISHLIST_ENTRY)
+                  .where(WISHLIST_ENTRY.WISHLIST_ID.eq(WISHLIST.ID)))
+          .as("entry_count");
+
+  private final DSLContext dsl;
+  private final SearchFilterTranslator searchFilterTranslator;
+
+  public WishlistService(DSLContext dsl, SearchFilterTranslator searchFilterTranslator) {
+    this.dsl = dsl;
+    this.searchFilterTranslator = searchFilterTranslator;
+  }
+
+  public record WishlistInfo(int id, String name, int entryCount, UUID ownerId) {}
+
+  /**
+   * A wishlist entry with the amount the user owns.
+   *
+   * @param anyPrinting Whether any printing of the card fulfills the entry. {@code card} is then
+   *     its newest printing matching the search.
+   * @param owned Copies in the collection: of the printing, or of all printings of the card.
+   */
+  public record WishlistCard(
+      long entryId, boolean anyPrinting, int wanted, int owned, int missing, CardStub card) {}
+
+  /**
+   * @param totalMissing Copies missing for all entries matching the search, not only this page.
+   */
+  public record WishlistDto(
+      WishlistInfo info, long totalMissing, PagedModel<WishlistCard> cardPage) {}
+
+  public List<WishlistInfo> getWishlists(UUID userId) {
+    return dsl.select(WISHLIST.ID, WISHLIST.NAME, ENTRY_COUNT, WISHLIST.USER_ID)
+        .from(WISHLIST)
+        .where(WISHLIST.USER_ID.eq(userId))
+        .orderBy(WISHLIST.NAME)
+        .fetch(WishlistService::toWishlistInfo);
+  }
+
+  /**
+   * @return The new wishlist, or empty if the user already has one with that name.
+   */
+  public Optional<WishlistInfo> createWishlist(UUID userId, String name) {
+    return dsl.insertInto(WISHLIST)
+        .set(WISHLIST.USER_ID, userId)
+        .set(WISHLIST.NAME, name)
+        .onConflictDoNothing()
+        .returningResult(WISHLIST.ID, WISHLIST.NAME, WISHLIST.USER_ID)
+        .fetchOptional(
+            r ->
+                new WishlistInfo(
+                    r.get(WISHLIST.ID), r.get(WISHLIST.NAME), 0, r.get(WISHLIST.USER_ID)));
+  }
+
+  /**
+   * @return The renamed wishlist, or empty if it does not exist or the user already has one with
+   *     that name.
+   */
+  @Transactional
+  public Optional<WishlistInfo> renameWishlist(UUID userId, int wishlistId, String name) {
+    boolean nameTaken =
+        dsl.fetchExists(
+            WISHLIST,
+            WISHLIST
+                .USER_ID
+                .eq(userId)
+                .and(WISHLIST.NAME.eq(name))
+                .and(WISHLIST.ID.ne(wishlistId)));
+    if (nameTaken) {
+      return Optional.empty();
+    }
+    int updated =
+        dsl.update(WISHLIST)
+            .set(WISHLIST.NAME, name)
+            .where(WISHLIST.ID.eq(wishlistId).and(WISHLIST.USER_ID.eq(userId)))
+            .execute();
+    if (updated == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(getWishlistInfo(wishlistId));
+  }
+
+  public boolean deleteWishlist(UUID userId, int wishlistId) {
+    return dsl.deleteFrom(WISHLIST)
+            .where(WISHLIST.ID.eq(wishlistId).and(WISHLIST.USER_ID.eq(userId)))
+            .execute()
+        > 0;
+  }
+
+  /**
+   * Sets how many copies of a printing the user wants, or with {@code anyPrinting} how many copies
+   * of its card in any printing. An amount of zero removes the entry.
+   *
+   * @return The updated wishlist, or empty if the wishlist or the printing does not exist.
+   */
+  @Transactional
+  public Optional<WishlistInfo> setCardAmount(
+      UUID userId, int wishlistId, Long printingId, boolean anyPrinting, int amount) {
+    if (!dsl.fetchExists(WISHLIST, WISHLIST.ID.eq(wishlistId).and(WISHLIST.USER_ID.eq(userId)))) {
+      return Optional.empty();
+    }
+    Integer cardId =
+        dsl.select(PRINTING.CARD_ID)
+            .from(PRINTING)
+            .where(PRINTING.ID.eq(printingId.intValue()))
+            .fetchOne(PRINTING.CARD_ID);
+    if (cardId == null) {
+      return Optional.empty();
+    }
+    Integer entryPrintingId = anyPrinting ? null : printingId.intValue();
+
+    if (amount <= 0) {
+      dsl.deleteFrom(WISHLIST_ENTRY)
+          .where(WISHLIST_ENTRY.WISHLIST_ID.eq(wishlistId))
+          .and(WISHLIST_ENTRY.CARD_ID.eq(cardId))
+          .and(WISHLIST_ENTRY.PRINTING_ID.isNotDistinctFrom(entryPrintingId))
+          .execute();
+    } else {
+      dsl.insertInto(
+              WISHLIST_ENTRY,
+              WISHLIST_ENTRY.WISHLIST_ID,
+              WISHLIST_ENTRY.CARD_ID,
+              WISHLIST_ENTRY.PRINTING_ID,
+              WISHLIST_ENTRY.QUANTITY)
+          .values(wishlistId, cardId, entryPrintingId, amount)
+          .onConflict(
+              WISHLIST_ENTRY.WISHLIST_ID, WISHLIST_ENTRY.CARD_ID, WISHLIST_ENTRY.PRINTING_ID)
+          .doUpdate()
+          .set(WISHLIST_ENTRY.QUANTITY, amount)
+          .execute();
+    }
+    return Optional.of(getWishlistInfo(wishlistId));
+  }
+
+  /**
+   * The wishlist's entries with the amounts the user owns, restricted and sorted by the search
+   * filter. A card-level entry matches if any printing of its card does.
+   *
+   * @param onlyMissing Leave out the entries the collection already fulfills.
+   * @return The page of entries, or empty if the wishlist does not exist.
+   */
+  public Optional<WishlistDto> getWishlistCards(
+      UUID userId, int wishlistId, SearchFilter searchFilter, boolean onlyMissing) {
+    var info =
+        dsl.select(WISHLIST.ID, WISHLIST.NAME, ENTRY_COUNT, WISHLIST.USER_ID)
+            .from(WISHLIST)
+            .where(WISHLIST.ID.eq(wishlistId).and(WISHLIST.USER_ID.eq(userId)))
+            .fetchOptional(WishlistService::toWishlistInfo);
+    if (info.isEmpty()) {
+      return Optional.empty();
+    }
+    if (searchFilter.isInvalid()) {
+      return Optional.of(
+          new WishlistDto(info.get(), 0, new PagedModel<>(new PageImpl<>(List.of()))));
+    }
+
+    // Tags and amounts in the filter refer to the wishlist owner
+    searchFilter = searchFilter.withCollectionFilter(userId, false);
+    TranslatedFilter translated = searchFilterTranslator.translate(searchFilter);
+    var entries = matchingEntries(userId, wishlistId, translated, onlyMissing);
+    Field<Integer> entryId = entries.field("entry_id", Integer.class);
+    Field<Integer> printingId = entries.field("printing_id", Integer.class);
+    Field<Integer> wishedPrintingId = entries.field("wished_printing_id", Integer.class);
+    Field<Integer> wanted = entries.field("wanted", Integer.class);
+    Field<Integer> owned = entries.field("owned", Integer.class);
+
+    Pageable pageable = searchFilter.pageable();
+    List<OrderField<?>> orderBy = new ArrayList<>(translated.orderBy());
+    orderBy.add(entryId);
+    var ordered =
+        dsl.with(entries)
+            .select(
+                entryId,
+                wishedPrintingId,
+                wanted,
+                owned,
+                PRINTING_SEARCH.PRINTING_ID,
+                PRINTING_SEARCH.OFFICIAL_SITE_ID,
+                PRINTING_SEARCH.COLLECTOR_NUMBER,
+                PRINTING_SEARCH.CIV_MASK,
+                PRINTING_SEARCH.IMAGE_FILENAMES)
+            .from(entries)
+            .join(PRINTING_SEARCH)
+            .on(PRINTING_SEARCH.PRINTING_ID.eq(printingId))
+            .orderBy(orderBy);
+    var query =
+        pageable.isPaged()
+            ? ordered.limit(pageable.getPageSize()).offset((int) pageable.getOffset())
+            : ordered;
+    List<WishlistCard> cards =
+        query.fetch(
+            r ->
+                new WishlistCard(
+                    r.get(entryId),
+                    r.get(wishedPrintingId) == null,
+                    r.get(wanted),
+                    r.get(owned),
+                    Math.max(r.get(wanted) - r.get(owned), 0),
+                    toCardStub(r, r.get(wanted), r.get(owned))));
+
+    Field<Integer> missing = wanted.minus(owned);
+    Record2<Integer, BigDecimal> totals =
+        dsl.with(entries)
+            .select(count(), sum(missing).filterWhere(missing.gt(0)))
+            .from(entries)
+            .fetchOne();
+    long totalMissing = totals.value2() != null ? totals.value2().longValue() : 0;
+    return Optional.of(
+        new WishlistDto(
+            info.get(),
+            totalMissing,
+            new PagedModel<>(new PageImpl<>(cards, pageable, totals.value1()))));
+  }
+
+  /**
+   * One row per entry matching the filter: the printing to show for it, and the copies wanted and
+   * owned. Amounts owned per card are summed once for all card-level entries, rather than looked up
+   * per entry.
+   */
+  private CommonTableExpression<?> matchingEntries(
+      UUID userId, int wishlistId, TranslatedFilter translated, boolean onlyMissing) {
+    var ownedCards =
+        select(PRINTING.CARD_ID, sum(COLLECTION_ENTRY.QUANTITY).cast(Integer.class).as("quantity"))
+            .from(COLLECTION_ENTRY)
+            .join(PRINTING)
+            .on(PRINTING.ID.eq(COLLECTION_ENTRY.PRINTING_ID))
+            .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+            .and(
+                PRINTING.CARD_ID.in(
+                    select(WISHLIST_ENTRY.CARD_ID)
+                        .from(WISHLIST_ENTRY)
+                        .where(WISHLIST_ENTRY.WISHLIST_ID.eq(wishlistId))
+                        .and(WISHLIST_ENTRY.PRINTING_ID.isNull())))
+            .groupBy(PRINTING.CARD_ID)
+            .asTable("owned_card");
+    Field<Integer> owned =
+        coalesce(
+            COLLECTION_ENTRY.QUANTITY, ownedCards.field("quantity", Integer.class), val(0));
+
+    return name("wishlist_card")
+        .as(
+            dsl.selectDistinct(
+                    WISHLIST_ENTRY.ID.as("entry_id"),
+                    WISHLIST_ENTRY.PRINTING_ID.as("wished_printing_id"),
+                    WISHLIST_ENTRY.QUANTITY.as("wanted"),
+                    owned.as("owned"),
+                    PRINTING_SEARCH.PRINTING_ID)
+                .on(WISHLIST_ENTRY.ID)
+                .from(WISHLIST_ENTRY)
+                .join(PRINTING_SEARCH)
+                .on(
+                    PRINTING_SEARCH
+                        .CARD_ID
+                        .eq(WISHLIST_ENTRY.CARD_ID)
+                        .and(
+                            WISHLIST_ENTRY
+                                .PRINTING_ID
+                                .isNull()
+                                .or(PRINTING_SEARCH.PRINTING_ID.eq(WISHLIST_ENTRY.PRINTING_ID))))
+                .leftJoin(COLLECTION_ENTRY)
+                .on(
+                    COLLECTION_ENTRY
+                        .USER_ID
+                        .eq(userId)
+                        .and(COLLECTION_ENTRY.PRINTING_ID.eq(WISHLIST_ENTRY.PRINTING_ID)))
+                .leftJoin(ownedCards)
+                .on(
+                    WISHLIST_ENTRY
+                        .PRINTING_ID
+                        .isNull()
+                        .and(ownedCards.field(PRINTING.CARD_ID).eq(WISHLIST_ENTRY.CARD_ID)))
+                .where(WISHLIST_ENTRY.WISHLIST_ID.eq(wishlistId))
+                .and(translated.civilizationCondition())
+                .and(translated.mainCondition())
+                .and(onlyMissing ? WISHLIST_ENTRY.QUANTITY.gt(owned) : noCondition())
+                // The newest matching printing represents a card-level entry
+                .orderBy(
+                    WISHLIST_ENTRY.ID,
+                    PRINTING_SEARCH.RELEASE_DATE.desc(),
+                    PRINTING_SEARCH.PRINTING_ID.desc()));
+  }
+
+  private WishlistInfo getWishlistInfo(int wishlistId) {
+    return dsl.select(WISHLIST.ID, WISHLIST.NAME, ENTRY_COUNT, WISHLIST.USER_ID)
+        .from(WISHLIST)
+        .where(WISHLIST.ID.eq(wishlistId))
+        .fetchOne(WishlistService::toWishlistInfo);
+  }
+
+  private static WishlistInfo toWishlistInfo(Record r) {
+    return new WishlistInfo(
+        r.get(WISHLIST.ID), r.get(WISHLIST.NAME), r.get(ENTRY_COUNT), r.get(WISHLIST.USER_ID));
+  }
+
+  private static CardStub toCardStub(Record r, int wanted, int owned) {
+    short civMask = r.get(PRINTING_SEARCH.CIV_MASK);
+    Set<Civilization> civilizations = EnumSet.noneOf(Civilization.class);
+    for (Civilization civ : Civilization.values()) {
+      if ((civMask & (1 << civ.ordinal())) != 0) {
+        civilizations.add(civ);
+      }
+    }
+    return new CardStub(
+        (long) r.get(PRINTING_SEARCH.PRINTING_ID),
+        r.get(PRINTING_SEARCH.OFFICIAL_SITE_ID),
+        r.get(PRINTING_SEARCH.COLLECTOR_NUMBER),
+        civilizations,
+        List.of(r.get(PRINTING_SEARCH.IMAGE_FILENAMES)),
+        wanted,
+        owned);
+  }
+}
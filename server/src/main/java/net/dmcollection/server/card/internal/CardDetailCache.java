@@ -0,0 +1,51 @@
+package net.dmcollection.server.card.internal;
+
+import net.dmcollection.server.card.CardService.CardDto;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps recently requested card details. They only change with the card data, so entries belong to
+ * a {@link CatalogVersion}. Until the version is known nothing is cached.
+ */
+@Component
+public class CardDetailCache {
+
+  private static final int MAX_ENTRIES = 5000;
+
+  /** A card as of a catalog version. */
+  public record Key(long catalogVersion, String dmId) {
+
+    /** Strong ETag of the card's details, which are the same for the whole catalog version. */
+    public String etag() {
+      return "\"" + Long.toString(catalogVersion, 36) + "\"";
+    }
+  }
+
+  private final CatalogVersion catalogVersion;
+  private final CatalogDataCache<String, CardDto> cards;
+
+  public CardDetailCache(CatalogVersion catalogVersion) {
+    this.catalogVersion = catalogVersion;
+    this.cards = new CatalogDataCache<>(catalogVersion, MAX_ENTRIES);
+  }
+
+  /**
+   * @return The key for the given card as of the current version, or {@code null} if cards can not
+   *     be cached right now.
+   */
+  public Key keyFor(String dmId) {
+    long version = catalogVersion.get();
+    if (version == 0) {
+      return null;
+    }
+    return new Key(version, dmId);
+  }
+
+  public CardDto get(Key key) {
+    return cards.get(key.catalogVersion(), key.dmId());
+  }
+
+  public void put(Key key, CardDto card) {
+    cards.put(key.catalogVersion(), key.dmId(), card);
+  }
+}
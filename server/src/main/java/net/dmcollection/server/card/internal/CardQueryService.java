@@ -1,217 +1,413 @@
 package net.dmcollection.server.card.internal;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
-import static net.dmcollection.server.jooq.generated.tables.CardCivGroup.CARD_CIV_GROUP;
-import static net.dmcollection.server.jooq.generated.tables.CardSet.CARD_SET;
-import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
 import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
-import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
-import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTING_SIDE;
-import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.noCondition;
 import static org.jooq.impl.DSL.sum;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import net.dmcollection.server.card.CardService.CardStub;
 import net.dmcollection.server.card.Civilization;
+import net.dmcollection.server.card.internal.CatalogIndex.IndexedPrinting;
+import net.dmcollection.server.card.internal.CatalogIndex.IndexedResult;
+import net.dmcollection.server.card.internal.OwnedPrintingCache.OwnedPrintings;
 import net.dmcollection.server.card.internal.SearchFilter.CollectionFilter;
+import net.dmcollection.server.card.internal.query.CollectionConditionBuilder;
 import net.dmcollection.server.card.internal.query.SearchFilterTranslator;
 import net.dmcollection.server.card.internal.query.SearchFilterTranslator.TranslatedFilter;
+import net.dmcollection.server.card.internal.query.SeekConditionBuilder;
+import net.dmcollection.server.card.internal.query.SeekCursor;
+import net.dmcollection.server.card.internal.query.SortBuilder.SortKey;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.SelectConditionStep;
+import org.jooq.SelectField;
 import org.jooq.SelectJoinStep;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CardQueryService {
 
   private static final Logger log = LoggerFactory.getLogger(CardQueryService.class);
 
-  private static final Field<Long> TOTAL_COUNT = count().over().cast(Long.class).as("total_count");
   private static final Field<Integer> AMOUNT_FIELD =
       coalesce(COLLECTION_ENTRY.QUANTITY, 0).as("amount");
-  private static final Field<Long> TOTAL_COLLECTED =
-      sum(COLLECTION_ENTRY.QUANTITY).over().cast(Long.class).as("total_collected");
+
+  /** Text searches narrow the catalog by themselves, so only much smaller collections drive. */
+  private static final int TEXT_SEARCH_FACTOR = 10;
+
+  private static final int STREAM_FETCH_SIZE = 500;
 
   private final DSLContext dsl;
   private final SearchFilterTranslator searchFilterTranslator;
+  private final CatalogIndex catalogIndex;
+  private final SearchTotalsCache totalsCache;
+  private final OwnedPrintingCache ownedPrintingCache;
+  private final SummaryCounters summaryCounters;
+  private final long estimateThreshold;
+  private final long collectionDrivenMaxEntries;
 
-  public CardQueryService(DSLContext dsl, SearchFilterTranslator searchFilterTranslator) {
+  public CardQueryService(
+      DSLContext dsl,
+      SearchFilterTranslator searchFilterTranslator,
+      CatalogIndex catalogIndex,
+      SearchTotalsCache totalsCache,
+      OwnedPrintingCache ownedPrintingCache,
+      SummaryCounters summaryCounters,
+      @Value("${dmcollection.search.total-estimate-threshold:0}") long estimateThreshold,
+      @Value("${dmcollection.search.collection-driven-max-entries:1000}")
+          long collectionDrivenMaxEntries) {
     this.dsl = dsl;
     this.searchFilterTranslator = searchFilterTranslator;
+    this.catalogIndex = catalogIndex;
+    this.totalsCache = totalsCache;
+    this.ownedPrintingCache = ownedPrintingCache;
+    this.summaryCounters = summaryCounters;
+    this.estimateThreshold = estimateThreshold;
+    this.collectionDrivenMaxEntries = collectionDrivenMaxEntries;
+  }
+
+  /**
+   * @param totalCollected Sum of the collected amounts of all matching cards. Only computed for
+   *     searches restricted to the collection.
+   * @param totalExact Whether the page's total is an exact count or a planner estimate.
+   */
+  public record SearchResult(Page<CardStub> pageOfCards, long totalCollected, boolean totalExact) {}
+
+  /**
+   * @param nextCursor Cursor for the page after this one, or {@code null} if this is the last page.
+   */
+  public record ScrollResult(List<CardStub> cards, String nextCursor) {}
+
+  private record PrintingRow(
+      int printingId,
+      String officialSiteId,
+      String collectorNumber,
+      short civMask,
+      String[] imageFilenames,
+      int amount) {
+
+    CardStub toCardStub() {
+      Set<Civilization> civilizations = EnumSet.noneOf(Civilization.class);
+      for (Civilization civ : Civilization.values()) {
+        if ((civMask & (1 << civ.ordinal())) != 0) {
+          civilizations.add(civ);
+        }
+      }
+      return new CardStub(
+          (long) printingId,
+          officialSiteId,
+          collectorNumber,
+          civilizations,
+          List.of(imageFilenames),
+          amount,
+          amount);
+    }
   }
 
-  public record SearchResult(Page<CardStub> pageOfCards, long totalCollected) {}
+  private record Totals(long count, long collected, boolean exact) {}
 
   public SearchResult search(@NonNull SearchFilter searchFilter) {
     if (searchFilter.isInvalid()) {
       log.warn("Invalid search filter: {}", searchFilter);
-      return new SearchResult(new PageImpl<>(List.of()), 0);
+      return new SearchResult(new PageImpl<>(List.of()), 0, true);
     }
     log.debug("Searching with filter: {}", searchFilter);
 
-    TranslatedFilter translated = searchFilterTranslator.translate(searchFilter);
+    CollectionFilter collectionFilter = searchFilter.collectionFilter();
+    if (catalogIndex.canAnswer(searchFilter)) {
+      OwnedPrintings owned =
+          collectionFilter != null && collectionFilter.userId() != null
+              ? ownedPrintingCache.get(collectionFilter.userId())
+              : null;
+      Optional<IndexedResult> indexed = catalogIndex.search(searchFilter, owned);
+      if (indexed.isPresent()) {
+        return new SearchResult(
+            withAmounts(indexed.get().page(), owned), indexed.get().totalCollected(), true);
+      }
+    }
+
+    TranslatedFilter translated = translate(searchFilter);
+    boolean hasCollection = collectionFilter != null;
+    Pageable pageable = searchFilter.pageable();
+
+    // Totals are counted separately, so that the page query can stop after the requested rows
+    var ordered =
+        filtered(printingFields(hasCollection), translated, collectionFilter, noCondition())
+            .orderBy(translated.orderBy());
+    var query =
+        pageable.isPaged()
+            ? ordered.limit(pageable.getPageSize()).offset((int) pageable.getOffset())
+            : ordered;
+    List<PrintingRow> rows = query.fetch(r -> toPrintingRow(r, hasCollection));
+
+    Totals totals = totals(searchFilter, translated, rows);
+    List<CardStub> content = rows.stream().map(PrintingRow::toCardStub).toList();
+    return new SearchResult(
+        new PageImpl<>(content, pageable, totals.count()), totals.collected(), totals.exact());
+  }
+
+  /**
+   * Totals of a search, given its page. They come from the page itself if it is the last one, from
+   * the cache for catalog searches seen before, or from a count query. If enabled, large catalog
+   * searches use the planner's row estimate instead of counting, which is cached like a count.
+   */
+  private Totals totals(
+      SearchFilter searchFilter, TranslatedFilter translated, List<PrintingRow> rows) {
+    Pageable pageable = searchFilter.pageable();
+    CollectionFilter collectionFilter = searchFilter.collectionFilter();
+    boolean collectionSearch = collectionFilter != null && collectionFilter.searchCollection();
+
+    boolean lastPage = pageable.isUnpaged() || rows.size() < pageable.getPageSize();
+    if (lastPage && (pageable.isUnpaged() || pageable.getOffset() == 0)) {
+      long collected =
+          collectionSearch ? rows.stream().mapToLong(PrintingRow::amount).sum() : 0;
+      return new Totals(rows.size(), collected, true);
+    }
+    if (collectionSearch) {
+      return countTotals(translated, collectionFilter);
+    }
+    if (lastPage && !rows.isEmpty()) {
+      return new Totals(pageable.getOffset() + rows.size(), 0, true);
+    }
+
+    SearchTotalsCache.Key key = totalsCache.keyFor(searchFilter);
+    SearchTotalsCache.Total cached = key != null ? totalsCache.get(key) : null;
+    if (cached != null) {
+      return new Totals(cached.count(), 0, cached.exact());
+    }
+    Totals totals = null;
+    if (estimateThreshold > 0) {
+      var query = filtered(List.of(PRINTING_SEARCH.PRINTING_ID), translated, null, noCondition());
+      double estimate = dsl.explain(query).rows();
+      if (estimate >= estimateThreshold) {
+        totals = new Totals(Math.round(estimate), 0, false);
+      }
+    }
+    if (totals == null) {
+      totals = countTotals(translated, null);
+    }
+    if (key != null) {
+      totalsCache.put(key, new SearchTotalsCache.Total(totals.count(), totals.exact()));
+    }
+    return totals;
+  }
+
+  private Totals countTotals(TranslatedFilter translated, CollectionFilter collectionFilter) {
+    List<SelectField<?>> fields =
+        collectionFilter != null
+            ? List.of(count(), sum(COLLECTION_ENTRY.QUANTITY))
+            : List.of(count());
+    Record r = filtered(fields, translated, collectionFilter, noCondition()).fetchOne();
+    long collected = collectionFilter != null ? valueOrZero(r.get(1, Long.class)) : 0;
+    return new Totals(r.get(0, Long.class), collected, true);
+  }
+
+  /**
+   * Keyset paginated search. Instead of skipping {@code offset} rows, each page continues after the
+   * sort key values of the previous page's last row, so that deep pages cost the same as the first
+   * one. The page number of the filter's pageable is ignored, only its size and sort are used.
+   *
+   * @param cursor The {@link ScrollResult#nextCursor()} of the previous page, or {@code null} for
+   *     the first page.
+   * @throws IllegalArgumentException if the cursor is malformed or was made for a different sort.
+   */
+  public ScrollResult scroll(@NonNull SearchFilter searchFilter, String cursor) {
+    if (searchFilter.isInvalid()) {
+      log.warn("Invalid search filter: {}", searchFilter);
+      return new ScrollResult(List.of(), null);
+    }
+    log.debug("Scrolling with filter: {} after {}", searchFilter, cursor);
+
+    TranslatedFilter translated = translate(searchFilter);
     CollectionFilter collectionFilter = searchFilter.collectionFilter();
     boolean hasCollection = collectionFilter != null;
     Pageable pageable = searchFilter.pageable();
+    List<SortKey> sortKeys = translated.sortKeys();
+    String signature = SeekCursor.signature(sortKeys);
 
-    // Phase 1: Filter and paginate
-    var civSubquery =
-        dsl.selectDistinct(CARD.ID)
-            .from(CARD)
-            .join(CARD_CIV_GROUP)
-            .on(CARD_CIV_GROUP.CARD_ID.eq(CARD.ID))
-            .where(translated.civilizationCondition());
+    Condition seekCondition = noCondition();
+    if (cursor != null && !cursor.isBlank()) {
+      SeekCursor previous = SeekCursor.decode(cursor);
+      if (!previous.sort().equals(signature)) {
+        throw new IllegalArgumentException("Cursor was made for a different sort");
+      }
+      seekCondition = SeekConditionBuilder.build(sortKeys, previous.values());
+    }
+
+    List<SelectField<?>> fields = new ArrayList<>(printingFields(hasCollection));
+    List<Field<?>> keyFields = new ArrayList<>(sortKeys.size());
+    for (int i = 0; i < sortKeys.size(); i++) {
+      Field<?> keyField = sortKeys.get(i).field().as("seek_" + i);
+      keyFields.add(keyField);
+      fields.add(keyField);
+    }
+
+    var ordered =
+        filtered(fields, translated, collectionFilter, seekCondition)
+            .orderBy(translated.orderBy());
+    // One extra row tells whether there is a next page
+    var query = pageable.isPaged() ? ordered.limit(pageable.getPageSize() + 1) : ordered;
+
+    List<PrintingRow> rows = new ArrayList<>();
+    Record lastRow = null;
+    String nextCursor = null;
+    for (Record r : query.fetch()) {
+      if (pageable.isPaged() && rows.size() == pageable.getPageSize()) {
+        nextCursor = cursorOf(lastRow, signature, keyFields);
+        break;
+      }
+      rows.add(toPrintingRow(r, hasCollection));
+      lastRow = r;
+    }
+    return new ScrollResult(rows.stream().map(PrintingRow::toCardStub).toList(), nextCursor);
+  }
+
+  /**
+   * Passes every card matching the search to {@code sink}, in the search's order. The filter's
+   * pageable only contributes its sort. Rows are fetched in batches through a server-side cursor,
+   * so that large result sets are never held in memory at once.
+   */
+  @Transactional(readOnly = true)
+  public void stream(@NonNull SearchFilter searchFilter, Consumer<CardStub> sink) {
+    if (searchFilter.isInvalid()) {
+      log.warn("Invalid search filter: {}", searchFilter);
+      return;
+    }
+    log.debug("Streaming with filter: {}", searchFilter);
+
+    TranslatedFilter translated = translate(searchFilter);
+    CollectionFilter collectionFilter = searchFilter.collectionFilter();
+    boolean hasCollection = collectionFilter != null;
+    try (var rows =
+        filtered(printingFields(hasCollection), translated, collectionFilter, noCondition())
+            .orderBy(translated.orderBy())
+            .fetchSize(STREAM_FETCH_SIZE)
+            .fetchLazy()) {
+      for (Record r : rows) {
+        sink.accept(toPrintingRow(r, hasCollection).toCardStub());
+      }
+    }
+  }
+
+  /**
+   * Translates the filter and picks how a collection search finds the collected printings. Small
+   * collections drive the search: their printing ids are looked up in the catalog by key. The ids
+   * come from the {@link OwnedPrintingCache} as one array instead of a join with collection_entry,
+   * whose rows the cache already holds. Large collections are checked against the filtered
+   * catalog. The collection size comes from its summary.
+   */
+  private TranslatedFilter translate(SearchFilter searchFilter) {
+    TranslatedFilter translated = searchFilterTranslator.translate(searchFilter);
+    CollectionFilter collectionFilter = searchFilter.collectionFilter();
+    if (collectionFilter == null
+        || !collectionFilter.searchCollection()
+        || collectionFilter.userId() == null) {
+      return translated;
+    }
+    boolean textSearch =
+        (searchFilter.nameSearch() != null && !searchFilter.nameSearch().isEmpty())
+            || (searchFilter.effectSearch() != null && !searchFilter.effectSearch().isEmpty());
+    long maxEntries =
+        textSearch ? collectionDrivenMaxEntries / TEXT_SEARCH_FACTOR : collectionDrivenMaxEntries;
+    if (summaryCounters.collectionUniqueCount(collectionFilter.userId()) >= maxEntries) {
+      return translated;
+    }
+    OwnedPrintings owned = ownedPrintingCache.get(collectionFilter.userId());
+    return translated.withCollectionCondition(
+        CollectionConditionBuilder.build(owned.printingIds()));
+  }
 
-    SelectJoinStep<? extends Record> fromClause;
+  private List<SelectField<?>> printingFields(boolean hasCollection) {
+    List<SelectField<?>> fields =
+        new ArrayList<>(
+            List.of(
+                PRINTING_SEARCH.PRINTING_ID,
+                PRINTING_SEARCH.OFFICIAL_SITE_ID,
+                PRINTING_SEARCH.COLLECTOR_NUMBER,
+                PRINTING_SEARCH.CIV_MASK,
+                PRINTING_SEARCH.IMAGE_FILENAMES));
     if (hasCollection) {
+      fields.add(AMOUNT_FIELD);
+    }
+    return fields;
+  }
+
+  private SelectConditionStep<Record> filtered(
+      Collection<SelectField<?>> fields,
+      TranslatedFilter translated,
+      CollectionFilter collectionFilter,
+      Condition seekCondition) {
+    SelectJoinStep<Record> fromClause = dsl.select(fields).from(PRINTING_SEARCH);
+    if (collectionFilter != null) {
       fromClause =
-          dsl.select(
-                  PRINTING.ID,
-                  PRINTING.OFFICIAL_SITE_ID,
-                  PRINTING.COLLECTOR_NUMBER,
-                  TOTAL_COUNT,
-                  AMOUNT_FIELD,
-                  TOTAL_COLLECTED)
-              .from(PRINTING)
-              .join(CARD)
-              .on(CARD.ID.eq(PRINTING.CARD_ID))
-              .join(CARD_SET)
-              .on(CARD_SET.ID.eq(PRINTING.SET_ID))
-              .leftJoin(RARITY)
-              .on(RARITY.ID.eq(PRINTING.RARITY_ID))
+          fromClause
               .leftJoin(COLLECTION_ENTRY)
               .on(
                   COLLECTION_ENTRY
                       .PRINTING_ID
-                      .eq(PRINTING.ID)
+                      .eq(PRINTING_SEARCH.PRINTING_ID)
                       .and(COLLECTION_ENTRY.USER_ID.eq(collectionFilter.userId())));
-    } else {
-      fromClause =
-          dsl.select(PRINTING.ID, PRINTING.OFFICIAL_SITE_ID, PRINTING.COLLECTOR_NUMBER, TOTAL_COUNT)
-              .from(PRINTING)
-              .join(CARD)
-              .on(CARD.ID.eq(PRINTING.CARD_ID))
-              .join(CARD_SET)
-              .on(CARD_SET.ID.eq(PRINTING.SET_ID))
-              .leftJoin(RARITY)
-              .on(RARITY.ID.eq(PRINTING.RARITY_ID));
     }
 
-    SelectConditionStep<? extends Record> filtered =
-        fromClause.where(PRINTING.CARD_ID.in(civSubquery)).and(translated.mainCondition());
-
-    var ordered = filtered.orderBy(translated.orderBy());
-
-    var query =
-        pageable.isPaged()
-            ? ordered.limit(pageable.getPageSize()).offset((int) pageable.getOffset())
-            : ordered;
-
-    // Execute and collect results
-    record PrintingRow(
-        int printingId,
-        String officialSiteId,
-        String collectorNumber,
-        long totalCount,
-        int amount,
-        long totalCollected) {}
-
-    Map<Integer, PrintingRow> matchedPrintings = new LinkedHashMap<>();
-    query.forEach(
-        r -> {
-          int printingId = r.get(PRINTING.ID);
-          matchedPrintings.putIfAbsent(
-              printingId,
-              new PrintingRow(
-                  printingId,
-                  r.get(PRINTING.OFFICIAL_SITE_ID),
-                  r.get(PRINTING.COLLECTOR_NUMBER),
-                  r.get(TOTAL_COUNT),
-                  hasCollection ? r.get(AMOUNT_FIELD) : 0,
-                  hasCollection ? valueOrZero(r.get(TOTAL_COLLECTED)) : 0));
-        });
-
-    if (matchedPrintings.isEmpty()) {
-      return new SearchResult(new PageImpl<>(List.of(), pageable, 0), 0);
-    }
-
-    long totalCount = matchedPrintings.values().iterator().next().totalCount();
-    long totalCollected =
-        hasCollection ? matchedPrintings.values().iterator().next().totalCollected() : 0;
-
-    // Phase 2: Enrich with side data
-    record SideData(List<Short> civilizationIds, String imageFilename) {}
-
-    Map<Integer, List<SideData>> sidesByPrinting = new LinkedHashMap<>();
-    dsl.select(
-            PRINTING.ID,
-            CARD_SIDE.SIDE_ORDER,
-            CARD_SIDE.CIVILIZATION_IDS,
-            PRINTING_SIDE.IMAGE_FILENAME)
-        .from(PRINTING_SIDE)
-        .join(PRINTING)
-        .on(PRINTING.ID.eq(PRINTING_SIDE.PRINTING_ID))
-        .join(CARD_SIDE)
-        .on(CARD_SIDE.ID.eq(PRINTING_SIDE.CARD_SIDE_ID))
-        .where(PRINTING.ID.in(matchedPrintings.keySet()))
-        .orderBy(PRINTING.ID, CARD_SIDE.SIDE_ORDER)
-        .forEach(
-            r ->
-                sidesByPrinting
-                    .computeIfAbsent(r.get(PRINTING.ID), k -> new ArrayList<>())
-                    .add(
-                        new SideData(
-                            Arrays.stream(r.get(CARD_SIDE.CIVILIZATION_IDS)).toList(),
-                            r.get(PRINTING_SIDE.IMAGE_FILENAME))));
-
-    // Phase 3: Assemble CardStub records
-    List<CardStub> pageContent = new ArrayList<>(matchedPrintings.size());
-    for (PrintingRow row : matchedPrintings.values()) {
-      List<SideData> sides = sidesByPrinting.getOrDefault(row.printingId(), List.of());
-
-      Set<Civilization> civilizations = EnumSet.noneOf(Civilization.class);
-      for (SideData side : sides) {
-        if (side.civilizationIds() == null || side.civilizationIds().isEmpty()) {
-          civilizations.add(Civilization.ZERO);
-        } else {
-          for (short civId : side.civilizationIds()) {
-            civilizations.add(Civilization.values()[civId]);
-          }
-        }
-      }
+    return fromClause
+        .where(translated.civilizationCondition())
+        .and(translated.collectionCondition())
+        .and(translated.mainCondition())
+        .and(seekCondition);
+  }
 
-      List<String> imageFiles =
-          sides.stream().map(SideData::imageFilename).filter(Objects::nonNull).toList();
+  private static PrintingRow toPrintingRow(Record r, boolean hasCollection) {
+    return new PrintingRow(
+        r.get(PRINTING_SEARCH.PRINTING_ID),
+        r.get(PRINTING_SEARCH.OFFICIAL_SITE_ID),
+        r.get(PRINTING_SEARCH.COLLECTOR_NUMBER),
+        r.get(PRINTING_SEARCH.CIV_MASK),
+        r.get(PRINTING_SEARCH.IMAGE_FILENAMES),
+        hasCollection ? r.get(AMOUNT_FIELD) : 0);
+  }
 
-      pageContent.add(
-          new CardStub(
-              (long) row.printingId(),
-              row.officialSiteId(),
-              row.collectorNumber(),
-              civilizations,
-              imageFiles,
-              row.amount(),
-              row.amount()));
+  private static String cursorOf(Record row, String signature, List<Field<?>> keyFields) {
+    List<String> values = new ArrayList<>(keyFields.size());
+    for (Field<?> keyField : keyFields) {
+      Object value = row.get(keyField);
+      values.add(value != null ? value.toString() : null);
     }
+    return new SeekCursor(signature, values).encode();
+  }
 
-    return new SearchResult(new PageImpl<>(pageContent, pageable, totalCount), totalCollected);
+  /** Overlays the user's collected amounts onto a page answered by the catalog index. */
+  private static Page<CardStub> withAmounts(Page<IndexedPrinting> page, OwnedPrintings owned) {
+    return page.map(
+        printing -> {
+          int amount = owned != null ? owned.amount(printing.printingId()) : 0;
+          return new CardStub(
+              (long) printing.printingId(),
+              printing.officialSiteId(),
+              printing.collectorNumber(),
+              printing.civilizations(),
+              printing.imageFiles(),
+              amount,
+              amount);
+        });
   }
 
   private static long valueOrZero(Long value) {
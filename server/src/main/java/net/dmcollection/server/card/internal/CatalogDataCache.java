@@ -0,0 +1,42 @@
+package net.dmcollection.server.card.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The most recently used entries derived from the catalog. All entries belong to one {@link
+ * CatalogVersion}; they are dropped once an entry of a newer version is put.
+ */
+class CatalogDataCache<K, V> {
+
+  private final CatalogVersion catalogVersion;
+  private final Map<K, V> entries;
+  private long entriesVersion;
+
+  CatalogDataCache(CatalogVersion catalogVersion, int maxEntries) {
+    this.catalogVersion = catalogVersion;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  synchronized V get(long version, K key) {
+    return version == entriesVersion ? entries.get(key) : null;
+  }
+
+  /** Ignored if {@code version} is no longer the current one. */
+  synchronized void put(long version, K key, V value) {
+    if (version != catalogVersion.get()) {
+      return;
+    }
+    if (version != entriesVersion) {
+      entries.clear();
+      entriesVersion = version;
+    }
+    entries.put(key, value);
+  }
+}
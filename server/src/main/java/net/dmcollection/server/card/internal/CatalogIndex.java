@@ -0,0 +1,748 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
+import static net.dmcollection.server.jooq.generated.tables.CardCivGroup.CARD_CIV_GROUP;
+import static net.dmcollection.server.jooq.generated.tables.CardSet.CARD_SET;
+import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.CardSideCardType.CARD_SIDE_CARD_TYPE;
+import static net.dmcollection.server.jooq.generated.tables.CardSideRace.CARD_SIDE_RACE;
+import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTING_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.Race.RACE;
+import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.denseRank;
+import static org.jooq.impl.DSL.orderBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import net.dmcollection.server.card.Civilization;
+import net.dmcollection.server.card.internal.OwnedPrintingCache.OwnedPrintings;
+import net.dmcollection.server.card.internal.PrivateTagCache.TagSelection;
+import net.dmcollection.server.card.internal.SearchFilter.CardType;
+import net.dmcollection.server.card.internal.SearchFilter.CollectionFilter;
+import net.dmcollection.server.card.internal.SearchFilter.RarityFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagFilter;
+import net.dmcollection.server.card.internal.query.CardTypeResolver;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Immutable in-memory copy of the card catalog, rebuilt after each card data import.
+ *
+ * <p>Answers searches without effect text search without touching the database. Collection
+ * searches and sorting by amount use the user's {@link OwnedPrintings}. The filter semantics
+ * mirror {@link net.dmcollection.server.card.internal.query.SearchFilterTranslator} and the
+ * condition builders it delegates to. Until the first {@link #rebuild()} every search falls back
+ * to SQL.
+ */
+@Component
+public class CatalogIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(CatalogIndex.class);
+
+  private static final int NULL = Integer.MIN_VALUE;
+  private static final int COLOR_BITS = 0b111110;
+
+  private final DSLContext dsl;
+  private final CardTypeResolver cardTypeResolver;
+  private final RarityService rarityService;
+  private final PrivateTagCache privateTagCache;
+
+  private volatile Snapshot snapshot;
+
+  public CatalogIndex(
+      DSLContext dsl,
+      CardTypeResolver cardTypeResolver,
+      RarityService rarityService,
+      PrivateTagCache privateTagCache) {
+    this.dsl = dsl;
+    this.cardTypeResolver = cardTypeResolver;
+    this.rarityService = rarityService;
+    this.privateTagCache = privateTagCache;
+  }
+
+  public record IndexedPrinting(
+      int printingId,
+      String officialSiteId,
+      String collectorNumber,
+      Set<Civilization> civilizations,
+      List<String> imageFiles) {}
+
+  /**
+   * @param totalCollected Sum of the collected amounts of all matches of a collection search.
+   */
+  public record IndexedResult(Page<IndexedPrinting> page, long totalCollected) {}
+
+  public boolean isLoaded() {
+    return snapshot != null;
+  }
+
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public void rebuild() {
+    long start = System.nanoTime();
+    Snapshot loaded = Snapshot.load(dsl);
+    this.snapshot = loaded;
+    log.info(
+        "Built catalog index with {} printings, {} cards in {} ms",
+        loaded.printingIds.length,
+        loaded.cardCount,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /** Whether the index is loaded and the filter does not need the database. */
+  public boolean canAnswer(SearchFilter filter) {
+    return snapshot != null && (filter.effectSearch() == null || filter.effectSearch().isEmpty());
+  }
+
+  /**
+   * Searches the in-memory catalog.
+   *
+   * @param owned The collection of the filter's user, if it has one.
+   * @return the matching page, or empty if the index can not answer the filter, or it needs the
+   *     user's collection and none was given.
+   */
+  public Optional<IndexedResult> search(SearchFilter filter, OwnedPrintings owned) {
+    Snapshot current = snapshot;
+    if (current == null || !canAnswer(filter) || (owned == null && needsCollection(filter))) {
+      return Optional.empty();
+    }
+    return Optional.of(current.search(filter, resolveCriteria(filter, owned)));
+  }
+
+  private static boolean needsCollection(SearchFilter filter) {
+    CollectionFilter collectionFilter = filter.collectionFilter();
+    if (collectionFilter == null || collectionFilter.userId() == null) {
+      return false;
+    }
+    if (collectionFilter.searchCollection()) {
+      return true;
+    }
+    for (Sort.Order order : filter.pageable().getSort()) {
+      if (order.getProperty().equals("AMOUNT")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Lookups that depend on services rather than on the snapshot itself. */
+  private record Criteria(
+      CardTypeResolver.IncludedExcluded cardTypes,
+      Short raritySortOrder,
+      TagSelection tags,
+      OwnedPrintings owned) {}
+
+  private Criteria resolveCriteria(SearchFilter filter, OwnedPrintings owned) {
+    CardType cardType = filter.cardType();
+    RarityFilter rarityFilter = filter.rarityFilter();
+    TagFilter tagFilter = filter.tagFilter();
+    CollectionFilter collectionFilter = filter.collectionFilter();
+    return new Criteria(
+        cardType != null ? cardTypeResolver.resolve(cardType) : null,
+        rarityFilter != null ? (short) rarityService.getOrder(rarityFilter.rarityCode()) : null,
+        tagFilter != null && !tagFilter.tagIds().isEmpty()
+            ? privateTagCache.select(
+                collectionFilter != null ? collectionFilter.userId() : null, tagFilter)
+            : null,
+        collectionFilter != null && collectionFilter.userId() != null ? owned : null);
+  }
+
+  private static final class Snapshot {
+
+    // Cards
+    private final int cardCount;
+    private final BitSet twinpactCards;
+    private final String[] lowerCaseNames;
+    private final String[][] lowerCaseReadings;
+
+    // Civilization groups: bit 0 = includes colorless side, bits 1-5 = civilization ids
+    private final int[] groupCard;
+    private final int[] groupMask;
+
+    // Sides
+    private final int[] sideCard;
+    private final int[] sideCost;
+    private final int[] sidePower;
+    private final Map<Integer, BitSet> sidesByType;
+    private final String[] raceNames;
+    private final BitSet[] sidesByRace;
+
+    // Printings, in default sort order (release date desc, official site id asc, id asc)
+    private final int[] printingIds;
+    private final int[] printingCard;
+    private final int[] printingSet;
+    private final int[] rarityOrder;
+    private final int[] releaseDay;
+    private final int[] officialRank;
+    private final int[] cardSortCost;
+    private final int[] cardSortPower;
+    private final IndexedPrinting[] printings;
+
+    private Snapshot(
+        int cardCount,
+        BitSet twinpactCards,
+        String[] lowerCaseNames,
+        String[][] lowerCaseReadings,
+        int[] groupCard,
+        int[] groupMask,
+        int[] sideCard,
+        int[] sideCost,
+        int[] sidePower,
+        Map<Integer, BitSet> sidesByType,
+        String[] raceNames,
+        BitSet[] sidesByRace,
+        int[] printingIds,
+        int[] printingCard,
+        int[] printingSet,
+        int[] rarityOrder,
+        int[] releaseDay,
+        int[] officialRank,
+        int[] cardSortCost,
+        int[] cardSortPower,
+        IndexedPrinting[] printings) {
+      this.cardCount = cardCount;
+      this.twinpactCards = twinpactCards;
+      this.lowerCaseNames = lowerCaseNames;
+      this.lowerCaseReadings = lowerCaseReadings;
+      this.groupCard = groupCard;
+      this.groupMask = groupMask;
+      this.sideCard = sideCard;
+      this.sideCost = sideCost;
+      this.sidePower = sidePower;
+      this.sidesByType = sidesByType;
+      this.raceNames = raceNames;
+      this.sidesByRace = sidesByRace;
+      this.printingIds = printingIds;
+      this.printingCard = printingCard;
+      this.printingSet = printingSet;
+      this.rarityOrder = rarityOrder;
+      this.releaseDay = releaseDay;
+      this.officialRank = officialRank;
+      this.cardSortCost = cardSortCost;
+      this.cardSortPower = cardSortPower;
+      this.printings = printings;
+    }
+
+    static Snapshot load(DSLContext dsl) {
+      // Cards
+      Map<Integer, Integer> cardIndex = new HashMap<>();
+      List<String> names = new ArrayList<>();
+      List<Integer> sortCosts = new ArrayList<>();
+      List<Integer> sortPowers = new ArrayList<>();
+      BitSet twinpactCards = new BitSet();
+      dsl.select(CARD.ID, CARD.NAME, CARD.IS_TWINPACT, CARD.SORT_COST, CARD.SORT_POWER)
+          .from(CARD)
+          .forEach(
+              r -> {
+                int index = names.size();
+                cardIndex.put(r.get(CARD.ID), index);
+                names.add(r.get(CARD.NAME).toLowerCase(Locale.ROOT));
+                sortCosts.add(r.get(CARD.SORT_COST));
+                sortPowers.add(r.get(CARD.SORT_POWER));
+                if (r.get(CARD.IS_TWINPACT)) {
+                  twinpactCards.set(index);
+                }
+              });
+
+      // Civilization groups
+      List<int[]> groups = new ArrayList<>();
+      dsl.select(CARD_CIV_GROUP.CARD_ID, CARD_CIV_GROUP.CIV_MASK)
+          .from(CARD_CIV_GROUP)
+          .forEach(
+              r ->
+                  groups.add(
+                      new int[] {
+                        cardIndex.get(r.get(CARD_CIV_GROUP.CARD_ID)),
+                        r.get(CARD_CIV_GROUP.CIV_MASK)
+                      }));
+
+      // Sides
+      Map<Integer, Integer> sideIndex = new HashMap<>();
+      List<int[]> sides = new ArrayList<>();
+      Map<Integer, List<String>> readings = new HashMap<>();
+      dsl.select(
+              CARD_SIDE.ID,
+              CARD_SIDE.CARD_ID,
+              CARD_SIDE.NAME_READING,
+              CARD_SIDE.COST_FILTER,
+              CARD_SIDE.POWER_FILTER)
+          .from(CARD_SIDE)
+          .forEach(
+              r -> {
+                int card = cardIndex.get(r.get(CARD_SIDE.CARD_ID));
+                sideIndex.put(r.get(CARD_SIDE.ID), sides.size());
+                sides.add(
+                    new int[] {
+                      card,
+                      orNull(r.get(CARD_SIDE.COST_FILTER)),
+                      orNull(r.get(CARD_SIDE.POWER_FILTER))
+                    });
+                if (r.get(CARD_SIDE.NAME_READING) != null) {
+                  readings
+                      .computeIfAbsent(card, _ -> new ArrayList<>())
+                      .add(r.get(CARD_SIDE.NAME_READING).toLowerCase(Locale.ROOT));
+                }
+              });
+      String[][] lowerCaseReadings = new String[names.size()][];
+      for (int c = 0; c < lowerCaseReadings.length; c++) {
+        lowerCaseReadings[c] = readings.getOrDefault(c, List.of()).toArray(String[]::new);
+      }
+
+      Map<Integer, BitSet> sidesByType = new HashMap<>();
+      dsl.select(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID, CARD_SIDE_CARD_TYPE.CARD_TYPE_ID)
+          .from(CARD_SIDE_CARD_TYPE)
+          .forEach(
+              r ->
+                  sidesByType
+                      .computeIfAbsent(
+                          r.get(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID).intValue(), _ -> new BitSet())
+                      .set(sideIndex.get(r.get(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID))));
+
+      Map<String, BitSet> sidesByRace = new HashMap<>();
+      dsl.select(CARD_SIDE_RACE.CARD_SIDE_ID, RACE.NAME)
+          .from(CARD_SIDE_RACE)
+          .join(RACE)
+          .on(RACE.ID.eq(CARD_SIDE_RACE.RACE_ID))
+          .forEach(
+              r ->
+                  sidesByRace
+                      .computeIfAbsent(r.get(RACE.NAME), _ -> new BitSet())
+                      .set(sideIndex.get(r.get(CARD_SIDE_RACE.CARD_SIDE_ID))));
+
+      // Printings; the official site id rank comes from the database so that the index sorts
+      // with the same collation as the SQL path.
+      Field<Short> effectiveRarity = coalesce(RARITY.SORT_ORDER, (short) 0);
+      Field<Integer> officialIdRank =
+          denseRank().over(orderBy(PRINTING.OFFICIAL_SITE_ID)).as("official_id_rank");
+      record PrintingRow(
+          int id,
+          int card,
+          int set,
+          String officialSiteId,
+          String collectorNumber,
+          int rarityOrder,
+          int releaseDay,
+          int officialRank) {}
+      List<PrintingRow> printingRows = new ArrayList<>();
+      dsl.select(
+              PRINTING.ID,
+              PRINTING.CARD_ID,
+              PRINTING.SET_ID,
+              PRINTING.OFFICIAL_SITE_ID,
+              PRINTING.COLLECTOR_NUMBER,
+              CARD_SET.RELEASE_DATE,
+              effectiveRarity,
+              officialIdRank)
+          .from(PRINTING)
+          .join(CARD_SET)
+          .on(CARD_SET.ID.eq(PRINTING.SET_ID))
+          .leftJoin(RARITY)
+          .on(RARITY.ID.eq(PRINTING.RARITY_ID))
+          .orderBy(
+              CARD_SET.RELEASE_DATE.desc(),
+              PRINTING.OFFICIAL_SITE_ID.asc().nullsLast(),
+              PRINTING.ID.asc())
+          .forEach(
+              r -> {
+                String officialSiteId = r.get(PRINTING.OFFICIAL_SITE_ID);
+                printingRows.add(
+                    new PrintingRow(
+                        r.get(PRINTING.ID),
+                        cardIndex.get(r.get(PRINTING.CARD_ID)),
+                        r.get(PRINTING.SET_ID),
+                        officialSiteId,
+                        r.get(PRINTING.COLLECTOR_NUMBER),
+                        r.get(effectiveRarity),
+                        (int) r.get(CARD_SET.RELEASE_DATE).toEpochDay(),
+                        officialSiteId != null ? r.get(officialIdRank) : NULL));
+              });
+
+      // Civilizations and images as shown on card stubs
+      record StubSide(int civMask, String imageFilename) {}
+      Map<Integer, List<StubSide>> stubSides = new HashMap<>();
+      dsl.select(PRINTING_SIDE.PRINTING_ID, CARD_SIDE.CIV_MASK, PRINTING_SIDE.IMAGE_FILENAME)
+          .from(PRINTING_SIDE)
+          .join(CARD_SIDE)
+          .on(CARD_SIDE.ID.eq(PRINTING_SIDE.CARD_SIDE_ID))
+          .orderBy(PRINTING_SIDE.PRINTING_ID, CARD_SIDE.SIDE_ORDER)
+          .forEach(
+              r ->
+                  stubSides
+                      .computeIfAbsent(r.get(PRINTING_SIDE.PRINTING_ID), _ -> new ArrayList<>())
+                      .add(
+                          new StubSide(
+                              r.get(CARD_SIDE.CIV_MASK),
+                              r.get(PRINTING_SIDE.IMAGE_FILENAME))));
+
+      int printingCount = printingRows.size();
+      int[] printingIds = new int[printingCount];
+      int[] printingCard = new int[printingCount];
+      int[] printingSet = new int[printingCount];
+      int[] rarityOrder = new int[printingCount];
+      int[] releaseDay = new int[printingCount];
+      int[] officialRank = new int[printingCount];
+      int[] cardSortCost = new int[printingCount];
+      int[] cardSortPower = new int[printingCount];
+      IndexedPrinting[] printings = new IndexedPrinting[printingCount];
+      for (int p = 0; p < printingCount; p++) {
+        PrintingRow row = printingRows.get(p);
+        printingIds[p] = row.id();
+        printingCard[p] = row.card();
+        printingSet[p] = row.set();
+        rarityOrder[p] = row.rarityOrder();
+        releaseDay[p] = row.releaseDay();
+        officialRank[p] = row.officialRank();
+        cardSortCost[p] = orNull(sortCosts.get(row.card()));
+        cardSortPower[p] = orNull(sortPowers.get(row.card()));
+
+        Set<Civilization> civilizations = EnumSet.noneOf(Civilization.class);
+        List<String> imageFiles = new ArrayList<>();
+        for (StubSide side : stubSides.getOrDefault(row.id(), List.of())) {
+          civilizations.addAll(civilizations(side.civMask()));
+          if (side.imageFilename() != null) {
+            imageFiles.add(side.imageFilename());
+          }
+        }
+        printings[p] =
+            new IndexedPrinting(
+                row.id(),
+                row.officialSiteId(),
+                row.collectorNumber(),
+                Collections.unmodifiableSet(civilizations),
+                List.copyOf(imageFiles));
+      }
+
+      String[] raceNames = sidesByRace.keySet().toArray(String[]::new);
+      BitSet[] raceSides = new BitSet[raceNames.length];
+      for (int i = 0; i < raceNames.length; i++) {
+        raceSides[i] = sidesByRace.get(raceNames[i]);
+      }
+
+      return new Snapshot(
+          names.size(),
+          twinpactCards,
+          names.toArray(String[]::new),
+          lowerCaseReadings,
+          groups.stream().mapToInt(g -> g[0]).toArray(),
+          groups.stream().mapToInt(g -> g[1]).toArray(),
+          sides.stream().mapToInt(s -> s[0]).toArray(),
+          sides.stream().mapToInt(s -> s[1]).toArray(),
+          sides.stream().mapToInt(s -> s[2]).toArray(),
+          Map.copyOf(sidesByType),
+          raceNames,
+          raceSides,
+          printingIds,
+          printingCard,
+          printingSet,
+          rarityOrder,
+          releaseDay,
+          officialRank,
+          cardSortCost,
+          cardSortPower,
+          printings);
+    }
+
+    IndexedResult search(SearchFilter filter, Criteria criteria) {
+      BitSet cards = matchingCards(filter, criteria);
+      Integer setId = filter.setId() != null ? filter.setId().intValue() : null;
+      RarityFilter rarityFilter = filter.rarityFilter();
+      OwnedPrintings owned = criteria.owned();
+      boolean collectionSearch = owned != null && filter.collectionFilter().searchCollection();
+
+      int[] matches = new int[printingIds.length];
+      int count = 0;
+      long collected = 0;
+      for (int p = 0; p < printingIds.length; p++) {
+        if (!cards.get(printingCard[p])) {
+          continue;
+        }
+        if (setId != null && printingSet[p] != setId) {
+          continue;
+        }
+        if (rarityFilter != null
+            && !inRarityRange(rarityOrder[p], criteria.raritySortOrder(), rarityFilter)) {
+          continue;
+        }
+        if (criteria.tags() != null && !criteria.tags().matches(printingIds[p])) {
+          continue;
+        }
+        if (collectionSearch) {
+          if (!owned.contains(printingIds[p])) {
+            continue;
+          }
+          collected += owned.amount(printingIds[p]);
+        }
+        matches[count++] = p;
+      }
+      matches = Arrays.copyOf(matches, count);
+
+      Pageable pageable = filter.pageable();
+      Sort sort = pageable.getSort();
+      if (sort.isSorted()) {
+        matches =
+            Arrays.stream(matches)
+                .boxed()
+                .sorted(comparator(sort, owned))
+                .mapToInt(i -> i)
+                .toArray();
+      }
+
+      int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), count) : 0;
+      int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), count) : count;
+      List<IndexedPrinting> content = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        content.add(printings[matches[i]]);
+      }
+      return new IndexedResult(new PageImpl<>(content, pageable, count), collected);
+    }
+
+    private BitSet matchingCards(SearchFilter filter, Criteria criteria) {
+      BitSet cards = new BitSet(cardCount);
+      cards.set(0, cardCount);
+
+      switch (filter.twinpact()) {
+        case IN -> {}
+        case ONLY -> cards.and(twinpactCards);
+        case EX -> cards.andNot(twinpactCards);
+      }
+      if (filter.needsCivFilter()) {
+        cards.and(civilizationMatches(filter));
+      }
+      if (filter.minCost() != null || filter.maxCost() != null) {
+        cards.and(rangeMatches(sideCost, filter.minCost(), filter.maxCost()));
+      }
+      if (filter.minPower() != null || filter.maxPower() != null) {
+        cards.and(rangeMatches(sidePower, filter.minPower(), filter.maxPower()));
+      }
+      if (filter.speciesSearch() != null && !filter.speciesSearch().isEmpty()) {
+        cards.and(speciesMatches(filter.speciesSearch()));
+      }
+      if (criteria.cardTypes() != null) {
+        Set<Integer> included = criteria.cardTypes().included();
+        Set<Integer> excluded = criteria.cardTypes().excluded();
+        if (!included.isEmpty() || !excluded.isEmpty()) {
+          cards.and(cardTypeMatches(included, excluded));
+        }
+      }
+      if (filter.nameSearch() != null && !filter.nameSearch().isEmpty()) {
+        cards.and(nameMatches(filter.nameSearch()));
+      }
+      return cards;
+    }
+
+    /** Same branches as {@code CivilizationConditionBuilder}, applied to each civ group. */
+    private BitSet civilizationMatches(SearchFilter filter) {
+      Set<Civilization> included = filter.includedCivs();
+      Set<Civilization> excluded = filter.excludedCivs();
+      boolean includeMono = filter.includeMono();
+      boolean includeRainbow = filter.includeRainbow();
+      boolean matchExact = filter.matchExactRainbowCivs();
+
+      BitSet result = new BitSet(cardCount);
+      boolean allIncluded = included.size() == Civilization.values().length;
+      if ((included.isEmpty() && excluded.isEmpty())
+          || (allIncluded && excluded.isEmpty() && includeMono && includeRainbow && !matchExact)) {
+        result.set(0, cardCount);
+        return result;
+      }
+      boolean colorlessBranch = included.contains(Civilization.ZERO) && includeMono;
+      int colorMask = civMask(included) & COLOR_BITS;
+      int excludedMask = civMask(excluded) & COLOR_BITS;
+      boolean colorBranches = colorMask != 0 && (includeMono || includeRainbow);
+      boolean anyBranch = colorlessBranch || colorBranches;
+
+      for (int g = 0; g < groupCard.length; g++) {
+        int mask = groupMask[g];
+        int colors = mask & COLOR_BITS;
+        int civCount = Integer.bitCount(colors);
+        boolean overlaps = allIncluded || (colors & colorMask) != 0;
+
+        boolean matches = !anyBranch;
+        if (colorlessBranch && (mask & 1) != 0) {
+          matches = true;
+        }
+        if (colorMask != 0) {
+          if (includeMono && civCount == 1 && overlaps) {
+            matches = true;
+          }
+          if (includeRainbow) {
+            if (matchExact ? colors == colorMask : civCount > 1 && overlaps) {
+              matches = true;
+            }
+          }
+        }
+        if (matches && (colors & excludedMask) == 0) {
+          result.set(groupCard[g]);
+        }
+      }
+      return result;
+    }
+
+    private BitSet rangeMatches(int[] sideValues, Integer min, Integer max) {
+      BitSet result = new BitSet(cardCount);
+      for (int s = 0; s < sideValues.length; s++) {
+        int value = sideValues[s];
+        if (value != NULL
+            && (min == null || value >= min)
+            && (max == null || value <= max)) {
+          result.set(sideCard[s]);
+        }
+      }
+      return result;
+    }
+
+    private BitSet speciesMatches(String speciesSearch) {
+      BitSet sides = new BitSet(sideCard.length);
+      for (int i = 0; i < raceNames.length; i++) {
+        if (raceNames[i].contains(speciesSearch)) {
+          sides.or(sidesByRace[i]);
+        }
+      }
+      return cardsOf(sides);
+    }
+
+    private BitSet cardTypeMatches(Set<Integer> included, Set<Integer> excluded) {
+      BitSet sides = new BitSet(sideCard.length);
+      if (included.isEmpty()) {
+        sides.set(0, sideCard.length);
+      } else {
+        for (int typeId : included) {
+          sides.or(sidesByType.getOrDefault(typeId, new BitSet()));
+        }
+      }
+      for (int typeId : excluded) {
+        sides.andNot(sidesByType.getOrDefault(typeId, new BitSet()));
+      }
+      return cardsOf(sides);
+    }
+
+    private BitSet nameMatches(String nameSearch) {
+      boolean exact = nameSearch.startsWith("\"") && nameSearch.endsWith("\"");
+      String needle =
+          (exact ? nameSearch.substring(1, nameSearch.length() - 1) : nameSearch)
+              .toLowerCase(Locale.ROOT);
+      BitSet result = new BitSet(cardCount);
+      for (int c = 0; c < cardCount; c++) {
+        if (exact ? lowerCaseNames[c].equals(needle) : nameOrReadingContains(c, needle)) {
+          result.set(c);
+        }
+      }
+      return result;
+    }
+
+    private boolean nameOrReadingContains(int card, String needle) {
+      if (lowerCaseNames[card].contains(needle)) {
+        return true;
+      }
+      for (String reading : lowerCaseReadings[card]) {
+        if (reading.contains(needle)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private BitSet cardsOf(BitSet sides) {
+      BitSet result = new BitSet(cardCount);
+      for (int s = sides.nextSetBit(0); s >= 0; s = sides.nextSetBit(s + 1)) {
+        result.set(sideCard[s]);
+      }
+      return result;
+    }
+
+    private static boolean inRarityRange(int order, short sortOrder, RarityFilter rarityFilter) {
+      return switch (rarityFilter.range()) {
+        case EQ -> order == sortOrder;
+        case LE -> order <= sortOrder;
+        case GE -> order >= sortOrder;
+      };
+    }
+
+    /** Same keys as {@code SortBuilder}: nulls last, official site id and id as tie breakers. */
+    private Comparator<Integer> comparator(Sort sort, OwnedPrintings owned) {
+      Comparator<Integer> comparator = (a, b) -> 0;
+      for (Sort.Order order : sort) {
+        int[] values =
+            switch (order.getProperty()) {
+              case "COST", "sort_cost" -> cardSortCost;
+              case "POWER_SORT", "sort_power" -> cardSortPower;
+              case "ORDER" -> rarityOrder;
+              case "RELEASE", "release_date" -> releaseDay;
+              case "OFFICIAL_ID", "official_site_id" -> officialRank;
+              case "AMOUNT" -> amounts(owned);
+              default -> null;
+            };
+        if (values != null) {
+          comparator = comparator.thenComparing(byKey(values, order.isAscending()));
+        }
+      }
+      return comparator
+          .thenComparing(byKey(officialRank, true))
+          .thenComparingInt(p -> printingIds[p]);
+    }
+
+    /** Collected amount by printing index, 0 for printings not collected or without a user. */
+    private int[] amounts(OwnedPrintings owned) {
+      int[] amounts = new int[printingIds.length];
+      if (owned != null) {
+        for (int p = 0; p < printingIds.length; p++) {
+          amounts[p] = owned.amount(printingIds[p]);
+        }
+      }
+      return amounts;
+    }
+
+    private static Comparator<Integer> byKey(int[] values, boolean ascending) {
+      return (a, b) -> {
+        int left = values[a];
+        int right = values[b];
+        if (left == NULL || right == NULL) {
+          return left == right ? 0 : left == NULL ? 1 : -1;
+        }
+        return ascending ? Integer.compare(left, right) : Integer.compare(right, left);
+      };
+    }
+  }
+
+  private static int orNull(Integer value) {
+    return value != null ? value : NULL;
+  }
+
+  private static int civMask(Set<Civilization> civilizations) {
+    int mask = 0;
+    for (Civilization civ : civilizations) {
+      mask |= 1 << civ.ordinal();
+    }
+    return mask;
+  }
+
+  private static Set<Civilization> civilizations(int mask) {
+    Set<Civilization> result = EnumSet.noneOf(Civilization.class);
+    for (Civilization civ : Civilization.values()) {
+      if ((mask & (1 << civ.ordinal())) != 0) {
+        result.add(civ);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,29 @@
+package net.dmcollection.server.card.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the card data, which caches of catalog data and card ETags are keyed by. It is unknown
+ * (0) until the card data has been imported or found to be current, so that nothing is cached
+ * before.
+ */
+@Component
+public class CatalogVersion {
+
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * @return The current version, or 0 if it is not known yet.
+   */
+  public long get() {
+    return version.get();
+  }
+
+  /** Starts a new version. */
+  public void changed() {
+    // Based on the clock so that versions, and the ETags derived from them, stay unique across
+    // restarts
+    version.updateAndGet(v -> Math.max(v + 1, System.currentTimeMillis()));
+  }
+}
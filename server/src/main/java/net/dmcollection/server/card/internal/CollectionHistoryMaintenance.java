@@ -0,0 +1,208 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
+import static org.jooq.impl.DSL.arrayAgg;
+import static org.jooq.impl.DSL.arrayGet;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.deleteFrom;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.max;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.update;
+import static org.jooq.impl.DSL.val;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Upkeep of {@code collection_history_entry}, which is partitioned by month of {@code changed_at}.
+ * Creates the partitions of the coming months, and compacts history older than the retention
+ * period: all changes of a user to a printing on one UTC day are merged into one net change. The
+ * merged entry keeps the id of the day's last change, so collection versions, snapshots and past
+ * collections at the end of each day stay correct.
+ */
+@Component
+public class CollectionHistoryMaintenance {
+
+  private static final Logger log = LoggerFactory.getLogger(CollectionHistoryMaintenance.class);
+
+  private static final DateTimeFormatter PARTITION_SUFFIX =
+      DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+  private static final CollectionHistoryEntry DEFAULT_PARTITION =
+      COLLECTION_HISTORY_ENTRY.rename(COLLECTION_HISTORY_ENTRY.getName() + "_default");
+
+  private final DSLContext dsl;
+  private final int partitionsAhead;
+  private final Duration retention;
+  private final Duration compactionLookback;
+
+  public CollectionHistoryMaintenance(
+      DSLContext dsl,
+      @Value("${dmcollection.collection-history.partitions-ahead:3}") int partitionsAhead,
+      @Value("${dmcollection.collection-history.retention:P90D}") Duration retention,
+      @Value("${dmcollection.collection-history.compaction-lookback:P31D}")
+          Duration compactionLookback) {
+    this.dsl = dsl;
+    this.partitionsAhead = partitionsAhead;
+    this.retention = retention;
+    this.compactionLookback = compactionLookback;
+  }
+
+  /**
+   * Creates the upcoming partitions, then compacts. Both run in one transaction, so compaction
+   * never runs while the default partition is detached.
+   */
+  @Scheduled(cron = "${dmcollection.collection-history.maintenance-cron:-}")
+  @Transactional
+  public void maintain() {
+    createPartitions();
+    int removed = compact();
+    log.info("Compacted {} collection history entries", removed);
+  }
+
+  /**
+   * Creates the partitions of this month and the next {@code partitionsAhead} months. Entries the
+   * default partition caught for a new partition's month are moved into it, as the partition can
+   * not be created while the default partition holds entries of its range.
+   */
+  @Transactional
+  public void createPartitions() {
+    OffsetDateTime month =
+        OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+    for (int i = 0; i <= partitionsAhead; i++) {
+      OffsetDateTime start = month.plusMonths(i);
+      OffsetDateTime end = start.plusMonths(1);
+      String partition = COLLECTION_HISTORY_ENTRY.getName() + PARTITION_SUFFIX.format(start);
+      if (dsl.fetchValue("select to_regclass({0})", val(partition)) != null) {
+        continue;
+      }
+      boolean caught =
+          dsl.fetchExists(
+              DEFAULT_PARTITION,
+              DEFAULT_PARTITION.CHANGED_AT.ge(start).and(DEFAULT_PARTITION.CHANGED_AT.lt(end)));
+      if (caught) {
+        dsl.execute(
+            "ALTER TABLE {0} DETACH PARTITION {1}", COLLECTION_HISTORY_ENTRY, DEFAULT_PARTITION);
+      }
+      dsl.execute(
+          "CREATE TABLE {0} PARTITION OF {1} FOR VALUES FROM ({2}) TO ({3})",
+          name(partition),
+          COLLECTION_HISTORY_ENTRY,
+          inline(start.toString()),
+          inline(end.toString()));
+      if (caught) {
+        int moved =
+            dsl.execute(
+                """
+                WITH moved AS (
+                  DELETE FROM {1} WHERE {2} >= {3} AND {2} < {4} RETURNING *
+                )
+                INSERT INTO {0} OVERRIDING SYSTEM VALUE SELECT * FROM moved
+                """,
+                COLLECTION_HISTORY_ENTRY,
+                DEFAULT_PARTITION,
+                DEFAULT_PARTITION.CHANGED_AT.getUnqualifiedName(),
+                val(start),
+                val(end));
+        dsl.execute(
+            "ALTER TABLE {0} ATTACH PARTITION {1} DEFAULT",
+            COLLECTION_HISTORY_ENTRY,
+            DEFAULT_PARTITION);
+        log.warn("Moved {} collection history entries from the default partition", moved);
+      }
+    }
+  }
+
+  /**
+   * Compacts the days that left the retention period within the lookback, which covers missed
+   * runs. Days compacted before have nothing left to merge.
+   *
+   * @return The number of entries removed.
+   */
+  public int compact() {
+    OffsetDateTime to =
+        OffsetDateTime.now(ZoneOffset.UTC).minus(retention).truncatedTo(ChronoUnit.DAYS);
+    return compact(to.minus(compactionLookback).truncatedTo(ChronoUnit.DAYS), to);
+  }
+
+  /**
+   * Merges the changes of each user, printing and UTC day within [from, to) into one entry, from
+   * the first change's previous quantity to the last change's new quantity.
+   *
+   * @return The number of entries removed.
+   */
+  public int compact(OffsetDateTime from, OffsetDateTime to) {
+    Field<OffsetDateTime> day =
+        field(
+            "date_trunc('day', {0}, 'UTC')",
+            OffsetDateTime.class,
+            COLLECTION_HISTORY_ENTRY.CHANGED_AT);
+    Condition inRange =
+        COLLECTION_HISTORY_ENTRY
+            .CHANGED_AT
+            .ge(from)
+            .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.lt(to));
+    var runs =
+        name("runs")
+            .as(
+                select(
+                        COLLECTION_HISTORY_ENTRY.USER_ID,
+                        COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+                        day.as("change_day"),
+                        max(COLLECTION_HISTORY_ENTRY.ID).as("last_id"),
+                        arrayGet(
+                                arrayAgg(COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY)
+                                    .orderBy(COLLECTION_HISTORY_ENTRY.ID),
+                                1)
+                            .as("first_previous_qty"))
+                    .from(COLLECTION_HISTORY_ENTRY)
+                    .where(inRange)
+                    .groupBy(
+                        COLLECTION_HISTORY_ENTRY.USER_ID, COLLECTION_HISTORY_ENTRY.PRINTING_ID, day)
+                    .having(count().gt(1)));
+    Field<Long> lastId = runs.field("last_id", Long.class);
+
+    var merged =
+        name("merged")
+            .as(
+                update(COLLECTION_HISTORY_ENTRY)
+                    .set(
+                        COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY,
+                        runs.field("first_previous_qty", Integer.class))
+                    .from(runs)
+                    .where(COLLECTION_HISTORY_ENTRY.ID.eq(lastId))
+                    .and(inRange)
+                    .returningResult(COLLECTION_HISTORY_ENTRY.ID));
+    var removed =
+        name("removed")
+            .as(
+                deleteFrom(COLLECTION_HISTORY_ENTRY)
+                    .using(runs)
+                    .where(
+                        COLLECTION_HISTORY_ENTRY.USER_ID.eq(
+                            runs.field(COLLECTION_HISTORY_ENTRY.USER_ID)))
+                    .and(
+                        COLLECTION_HISTORY_ENTRY.PRINTING_ID.eq(
+                            runs.field(COLLECTION_HISTORY_ENTRY.PRINTING_ID)))
+                    .and(day.eq(runs.field("change_day", OffsetDateTime.class)))
+                    .and(COLLECTION_HISTORY_ENTRY.ID.lt(lastId))
+                    .and(inRange)
+                    .returningResult(COLLECTION_HISTORY_ENTRY.ID));
+    return dsl.with(runs, merged, removed).selectCount().from(removed).fetchSingle(0, int.class);
+  }
+}
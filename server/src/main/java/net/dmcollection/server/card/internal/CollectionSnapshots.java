@@ -0,0 +1,133 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
+import static net.dmcollection.server.jooq.generated.tables.CollectionHistoryEntry.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.tables.CollectionSnapshot.COLLECTION_SNAPSHOT;
+import static net.dmcollection.server.jooq.generated.tables.CollectionSummary.COLLECTION_SUMMARY;
+import static org.jooq.impl.DSL.arrayAgg;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.val;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.jooq.DSLContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies of each user's whole collection, taken every {@code
+ * dmcollection.collection-history.snapshot-interval} history entries, so that the collection at a
+ * point in time is rebuilt from the latest snapshot before it and the history after that snapshot
+ * instead of the user's whole history.
+ */
+@Component
+public class CollectionSnapshots {
+
+  private final DSLContext dsl;
+  private final long interval;
+
+  public CollectionSnapshots(
+      DSLContext dsl,
+      @Value("${dmcollection.collection-history.snapshot-interval:1000}") long interval) {
+    this.dsl = dsl;
+    this.interval = interval;
+  }
+
+  /**
+   * @param version Id of the latest history entry included, or 0 for the empty collection before
+   *     any history.
+   * @param amounts Quantity by printing id.
+   */
+  public record CollectionState(long version, Map<Integer, Integer> amounts) {}
+
+  /**
+   * Snapshots the user's collection if at least {@code interval} history entries were written
+   * since their last snapshot, and resets the count in their collection summary. To be called in
+   * the transaction that wrote the entries, after writing them and updating the summary.
+   *
+   * @param version The collection version after the write.
+   * @param sinceSnapshot The summary's count of history entries since the last snapshot, including
+   *     the write's.
+   */
+  public void takeIfDue(UUID userId, long version, long sinceSnapshot) {
+    if (interval <= 0 || sinceSnapshot < interval) {
+      return;
+    }
+    dsl.insertInto(
+            COLLECTION_SNAPSHOT,
+            COLLECTION_SNAPSHOT.USER_ID,
+            COLLECTION_SNAPSHOT.HISTORY_ID,
+            COLLECTION_SNAPSHOT.PRINTING_IDS,
+            COLLECTION_SNAPSHOT.QUANTITIES)
+        .select(
+            select(
+                    val(userId),
+                    val(version),
+                    coalesce(
+                        arrayAgg(COLLECTION_ENTRY.PRINTING_ID)
+                            .orderBy(COLLECTION_ENTRY.PRINTING_ID),
+                        new Integer[0]),
+                    coalesce(
+                        arrayAgg(COLLECTION_ENTRY.QUANTITY).orderBy(COLLECTION_ENTRY.PRINTING_ID),
+                        new Integer[0]))
+                .from(COLLECTION_ENTRY)
+                .where(COLLECTION_ENTRY.USER_ID.eq(userId)))
+        .execute();
+    dsl.update(COLLECTION_SUMMARY)
+        .set(COLLECTION_SUMMARY.SINCE_SNAPSHOT, 0L)
+        .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+        .execute();
+  }
+
+  /**
+   * The user's collection with all history entries changed at or before {@code at}: their latest
+   * snapshot taken by then, with the history entries after it replayed.
+   */
+  public CollectionState stateAt(UUID userId, OffsetDateTime at) {
+    long version = 0;
+    Map<Integer, Integer> amounts = new HashMap<>();
+    var snapshot =
+        dsl.select(
+                COLLECTION_SNAPSHOT.HISTORY_ID,
+                COLLECTION_SNAPSHOT.PRINTING_IDS,
+                COLLECTION_SNAPSHOT.QUANTITIES)
+            .from(COLLECTION_SNAPSHOT)
+            .where(COLLECTION_SNAPSHOT.USER_ID.eq(userId))
+            .and(COLLECTION_SNAPSHOT.TAKEN_AT.le(at))
+            .orderBy(COLLECTION_SNAPSHOT.HISTORY_ID.desc())
+            .limit(1)
+            .fetchOne();
+    if (snapshot != null) {
+      version = snapshot.value1();
+      Integer[] printingIds = snapshot.value2();
+      Integer[] quantities = snapshot.value3();
+      for (int i = 0; i < printingIds.length; i++) {
+        amounts.put(printingIds[i], quantities[i]);
+      }
+    }
+
+    var tail =
+        dsl.select(
+                COLLECTION_HISTORY_ENTRY.ID,
+                COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+                COLLECTION_HISTORY_ENTRY.NEW_QTY)
+            .from(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .and(COLLECTION_HISTORY_ENTRY.ID.gt(version))
+            .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.le(at))
+            .orderBy(COLLECTION_HISTORY_ENTRY.ID)
+            .fetch();
+    for (var entry : tail) {
+      version = entry.value1();
+      if (entry.value3() > 0) {
+        amounts.put(entry.value2(), entry.value3());
+      } else {
+        amounts.remove(entry.value2());
+      }
+    }
+    return new CollectionState(version, amounts);
+  }
+}
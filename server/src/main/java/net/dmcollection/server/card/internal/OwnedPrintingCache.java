@@ -0,0 +1,84 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The printings in each user's collection, as a bitmap of printing ids with their amounts, so that
+ * collection searches answered by the {@link CatalogIndex} need no database access. A user's
+ * collection is loaded by their first search and dropped whenever it changes. Only the most
+ * recently used collections are kept.
+ */
+@Component
+public class OwnedPrintingCache {
+
+  private static final int MAX_USERS = 1000;
+
+  /** A user's collection. Never modified once cached. */
+  public record OwnedPrintings(BitSet printingIds, Map<Integer, Integer> amounts) {
+
+    public boolean contains(int printingId) {
+      return printingIds.get(printingId);
+    }
+
+    public int amount(int printingId) {
+      return printingIds.get(printingId) ? amounts.get(printingId) : 0;
+    }
+  }
+
+  private final DSLContext dsl;
+  private final UserDataCache<OwnedPrintings> byUser;
+
+  public OwnedPrintingCache(DSLContext dsl) {
+    this.dsl = dsl;
+    this.byUser = new UserDataCache<>(MAX_USERS, this::load);
+  }
+
+  public OwnedPrintings get(UUID userId) {
+    return byUser.get(userId);
+  }
+
+  /**
+   * Drops the user's collection, to be called by every change to it. Inside a transaction it is
+   * dropped again once the transaction has completed, in case it was loaded in between.
+   */
+  public void collectionChanged(UUID userId) {
+    byUser.remove(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              byUser.remove(userId);
+            }
+          });
+    }
+  }
+
+  /** Drops all collections, as an import may remove printings and with them collection entries. */
+  public void catalogChanged() {
+    byUser.clear();
+  }
+
+  private OwnedPrintings load(UUID userId) {
+    BitSet printingIds = new BitSet();
+    Map<Integer, Integer> amounts = new HashMap<>();
+    dsl.select(COLLECTION_ENTRY.PRINTING_ID, COLLECTION_ENTRY.QUANTITY)
+        .from(COLLECTION_ENTRY)
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .forEach(
+            r -> {
+              printingIds.set(r.value1());
+              amounts.put(r.value1(), r.value2());
+            });
+    return new OwnedPrintings(printingIds, amounts);
+  }
+}
@@ -0,0 +1,197 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
+import static net.dmcollection.server.jooq.generated.tables.CardCivGroup.CARD_CIV_GROUP;
+import static net.dmcollection.server.jooq.generated.tables.CardSet.CARD_SET;
+import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.CardSideCardType.CARD_SIDE_CARD_TYPE;
+import static net.dmcollection.server.jooq.generated.tables.CardSideRace.CARD_SIDE_RACE;
+import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTING_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.array;
+import static org.jooq.impl.DSL.boolOr;
+import static org.jooq.impl.DSL.cardinality;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.condition;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectDistinct;
+import static org.jooq.impl.DSL.stringAgg;
+import static org.jooq.impl.DSL.val;
+import static org.jooq.impl.DSL.when;
+
+import net.dmcollection.server.card.Civilization;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains {@code printing_search}, the denormalized table card searches run against. It is
+ * derived entirely from the catalog tables and rebuilt as a whole after they change.
+ */
+@Component
+public class PrintingSearchProjection {
+
+  private static final Logger log = LoggerFactory.getLogger(PrintingSearchProjection.class);
+
+  /** Side order and card type id are packed into one int, see the migration. */
+  private static final int SIDE_TYPE_KEY_FACTOR = 65536;
+
+  private final DSLContext dsl;
+
+  public PrintingSearchProjection(DSLContext dsl) {
+    this.dsl = dsl;
+  }
+
+  @Transactional
+  public void rebuild() {
+    dsl.deleteFrom(PRINTING_SEARCH).execute();
+    int rows =
+        dsl.insertInto(
+                PRINTING_SEARCH,
+                PRINTING_SEARCH.PRINTING_ID,
+                PRINTING_SEARCH.CARD_ID,
+                PRINTING_SEARCH.SET_ID,
+                PRINTING_SEARCH.RELEASE_DATE,
+                PRINTING_SEARCH.RARITY_ORDER,
+                PRINTING_SEARCH.OFFICIAL_SITE_ID,
+                PRINTING_SEARCH.COLLECTOR_NUMBER,
+                PRINTING_SEARCH.IS_TWINPACT,
+                PRINTING_SEARCH.SORT_COST,
+                PRINTING_SEARCH.SORT_POWER,
+                PRINTING_SEARCH.NAME,
+                PRINTING_SEARCH.NAME_READINGS,
+                PRINTING_SEARCH.COST_FILTERS,
+                PRINTING_SEARCH.POWER_FILTERS,
+                PRINTING_SEARCH.TYPE_IDS,
+                PRINTING_SEARCH.SIDE_TYPE_KEYS,
+                PRINTING_SEARCH.RACE_IDS,
+                PRINTING_SEARCH.CIV_MASK,
+                PRINTING_SEARCH.IMAGE_FILENAMES,
+                PRINTING_SEARCH.CIV_GROUP_MASKS)
+            .select(
+                select(
+                        PRINTING.ID,
+                        PRINTING.CARD_ID,
+                        PRINTING.SET_ID,
+                        CARD_SET.RELEASE_DATE,
+                        coalesce(RARITY.SORT_ORDER, (short) 0),
+                        PRINTING.OFFICIAL_SITE_ID,
+                        PRINTING.COLLECTOR_NUMBER,
+                        CARD.IS_TWINPACT,
+                        CARD.SORT_COST,
+                        CARD.SORT_POWER,
+                        CARD.NAME,
+                        nameReadings(),
+                        sideValues(CARD_SIDE.COST_FILTER),
+                        sideValues(CARD_SIDE.POWER_FILTER),
+                        typeIds(),
+                        sideTypeKeys(),
+                        raceIds(),
+                        civMask(),
+                        imageFilenames(),
+                        civGroupMasks())
+                    .from(PRINTING)
+                    .join(CARD)
+                    .on(CARD.ID.eq(PRINTING.CARD_ID))
+                    .join(CARD_SET)
+                    .on(CARD_SET.ID.eq(PRINTING.SET_ID))
+                    .leftJoin(RARITY)
+                    .on(RARITY.ID.eq(PRINTING.RARITY_ID)))
+            .execute();
+    log.info("Rebuilt printing search: {} printings", rows);
+  }
+
+  private static Field<String> nameReadings() {
+    return field(
+        select(stringAgg(CARD_SIDE.NAME_READING, "\n").orderBy(CARD_SIDE.SIDE_ORDER))
+            .from(CARD_SIDE)
+            .where(CARD_SIDE.CARD_ID.eq(PRINTING.CARD_ID)));
+  }
+
+  private static Field<Integer[]> sideValues(Field<Integer> sideField) {
+    return array(
+        select(sideField)
+            .from(CARD_SIDE)
+            .where(CARD_SIDE.CARD_ID.eq(PRINTING.CARD_ID))
+            .and(sideField.isNotNull())
+            .orderBy(CARD_SIDE.SIDE_ORDER));
+  }
+
+  private static Field<Short[]> typeIds() {
+    return array(
+        selectDistinct(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID)
+            .from(CARD_SIDE_CARD_TYPE)
+            .join(CARD_SIDE)
+            .on(CARD_SIDE.ID.eq(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID))
+            .where(CARD_SIDE.CARD_ID.eq(PRINTING.CARD_ID)));
+  }
+
+  private static Field<Integer[]> sideTypeKeys() {
+    Field<Integer> key =
+        CARD_SIDE
+            .SIDE_ORDER
+            .cast(SQLDataType.INTEGER)
+            .mul(SIDE_TYPE_KEY_FACTOR)
+            .plus(coalesce(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID.cast(SQLDataType.INTEGER), 0));
+    return array(
+        select(key)
+            .from(CARD_SIDE)
+            .leftJoin(CARD_SIDE_CARD_TYPE)
+            .on(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
+            .where(CARD_SIDE.CARD_ID.eq(PRINTING.CARD_ID)));
+  }
+
+  private static Field<Short[]> raceIds() {
+    return array(
+        selectDistinct(CARD_SIDE_RACE.RACE_ID)
+            .from(CARD_SIDE_RACE)
+            .join(CARD_SIDE)
+            .on(CARD_SIDE.ID.eq(CARD_SIDE_RACE.CARD_SIDE_ID))
+            .where(CARD_SIDE.CARD_ID.eq(PRINTING.CARD_ID)));
+  }
+
+  /** Civs of the sides the printing shows: bit n for civ id n, bit 0 for a colorless side. */
+  private static Field<Short> civMask() {
+    Field<Integer> mask = val(0);
+    for (Civilization civ : Civilization.values()) {
+      Condition onSide =
+          civ == Civilization.ZERO
+              ? cardinality(CARD_SIDE.CIVILIZATION_IDS).eq(0)
+              : val((short) civ.ordinal()).eq(any(CARD_SIDE.CIVILIZATION_IDS));
+      mask = mask.plus(when(condition(boolOr(onSide)), 1 << civ.ordinal()).else_(0));
+    }
+    return field(
+        select(mask.cast(SQLDataType.SMALLINT))
+            .from(PRINTING_SIDE)
+            .join(CARD_SIDE)
+            .on(CARD_SIDE.ID.eq(PRINTING_SIDE.CARD_SIDE_ID))
+            .where(PRINTING_SIDE.PRINTING_ID.eq(PRINTING.ID)));
+  }
+
+  private static Field<Short[]> civGroupMasks() {
+    return array(
+        select(CARD_CIV_GROUP.CIV_MASK)
+            .from(CARD_CIV_GROUP)
+            .where(CARD_CIV_GROUP.CARD_ID.eq(PRINTING.CARD_ID)));
+  }
+
+  private static Field<String[]> imageFilenames() {
+    return array(
+        select(PRINTING_SIDE.IMAGE_FILENAME)
+            .from(PRINTING_SIDE)
+            .join(CARD_SIDE)
+            .on(CARD_SIDE.ID.eq(PRINTING_SIDE.CARD_SIDE_ID))
+            .where(PRINTING_SIDE.PRINTING_ID.eq(PRINTING.ID))
+            .and(PRINTING_SIDE.IMAGE_FILENAME.isNotNull())
+            .orderBy(CARD_SIDE.SIDE_ORDER));
+  }
+}
@@ -0,0 +1,91 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.CardPrivateTag.CARD_PRIVATE_TAG;
+import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingPrivateTag.PRINTING_PRIVATE_TAG;
+import static net.dmcollection.server.jooq.generated.tables.PrivateTag.PRIVATE_TAG;
+import static org.jooq.impl.DSL.select;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import net.dmcollection.server.card.internal.SearchFilter.TagFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagMatch;
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * The printings tagged with each private tag of a user, as bitmaps of printing ids. Card tags
+ * count for all printings of the card. A user's tags are loaded by their first tag search and
+ * dropped when they change, so that tag filters need no joins. The bitmaps are never modified once
+ * cached. Only the tags of the most recently searching users are kept.
+ */
+@Component
+public class PrivateTagCache {
+
+  private static final int MAX_USERS = 1000;
+
+  /** Printings matched by a tag filter, or with {@code exclude} the printings it leaves out. */
+  public record TagSelection(BitSet printingIds, boolean exclude) {
+
+    public boolean matches(int printingId) {
+      return printingIds.get(printingId) != exclude;
+    }
+  }
+
+  private final DSLContext dsl;
+  private final UserDataCache<Map<Integer, BitSet>> byUser;
+
+  public PrivateTagCache(DSLContext dsl) {
+    this.dsl = dsl;
+    this.byUser = new UserDataCache<>(MAX_USERS, this::load);
+  }
+
+  /** Tags that are not the user's are treated as tagging nothing. */
+  public TagSelection select(UUID userId, TagFilter filter) {
+    Map<Integer, BitSet> tags = userId != null ? byUser.get(userId) : Map.of();
+    BitSet selected = null;
+    for (Integer tagId : filter.tagIds()) {
+      BitSet tagged = tags.getOrDefault(tagId, new BitSet());
+      if (selected == null) {
+        selected = (BitSet) tagged.clone();
+      } else if (filter.match() == TagMatch.ALL) {
+        selected.and(tagged);
+      } else {
+        selected.or(tagged);
+      }
+    }
+    return new TagSelection(
+        selected != null ? selected : new BitSet(), filter.match() == TagMatch.NONE);
+  }
+
+  /** Drops the user's tags, to be called after they changed. */
+  public void invalidate(UUID userId) {
+    byUser.remove(userId);
+  }
+
+  /** Drops all tags, since card tags are resolved to the printings of the current catalog. */
+  public void catalogChanged() {
+    byUser.clear();
+  }
+
+  private Map<Integer, BitSet> load(UUID userId) {
+    Map<Integer, BitSet> tags = new HashMap<>();
+    dsl.select(PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID, PRINTING_PRIVATE_TAG.PRINTING_ID)
+        .from(PRINTING_PRIVATE_TAG)
+        .join(PRIVATE_TAG)
+        .on(PRIVATE_TAG.ID.eq(PRINTING_PRIVATE_TAG.PRIVATE_TAG_ID))
+        .where(PRIVATE_TAG.USER_ID.eq(userId))
+        .unionAll(
+            select(CARD_PRIVATE_TAG.PRIVATE_TAG_ID, PRINTING.ID)
+                .from(CARD_PRIVATE_TAG)
+                .join(PRIVATE_TAG)
+                .on(PRIVATE_TAG.ID.eq(CARD_PRIVATE_TAG.PRIVATE_TAG_ID))
+                .join(PRINTING)
+                .on(PRINTING.CARD_ID.eq(CARD_PRIVATE_TAG.CARD_ID))
+                .where(PRIVATE_TAG.USER_ID.eq(userId)))
+        .forEach(r -> tags.computeIfAbsent(r.value1(), id -> new BitSet()).set(r.value2()));
+    return tags;
+  }
+}
@@ -44,6 +44,8 @@ import org.springframework.lang.NonNull;
  *     included.
  * @param effectSearch A string contained in the effect text. Only cards with matching effects will
  *     be included. Searches both parent and child effects.
+ * @param tagFilter Include only cards by their private tags. The tags are those of the collection
+ *     filter's user; without a user no card is tagged.
  * @param pageable Spring pageable object for pagination and sorting. If null, no paging is used.
  */
 public record SearchFilter(
@@ -64,6 +66,7 @@ public record SearchFilter(
     String nameSearch,
     String effectSearch,
     CollectionFilter collectionFilter,
+    TagFilter tagFilter,
     Pageable pageable) {
 
   public SearchFilter {
@@ -172,6 +175,23 @@ public record SearchFilter(
 
   public record CollectionFilter(UUID userId, boolean searchCollection) {}
 
+  /** Cards tagged with any, all or none of the given tags. Card tags apply to all printings. */
+  public record TagFilter(Set<Integer> tagIds, TagMatch match) {
+
+    public TagFilter {
+      tagIds = Set.copyOf(tagIds);
+      if (match == null) {
+        match = TagMatch.ANY;
+      }
+    }
+  }
+
+  public enum TagMatch {
+    ANY,
+    ALL,
+    NONE
+  }
+
   public SearchFilter withCollectionFilter(UUID userId, boolean searchCollection) {
     return new SearchFilter(
         this.setId,
@@ -191,9 +211,37 @@ public record SearchFilter(
         this.nameSearch,
         this.effectSearch,
         new CollectionFilter(userId, searchCollection),
+        this.tagFilter,
         this.pageable);
   }
 
+  /**
+   * Copy of this filter without paging and sorting, and without a collection filter that only
+   * serves to look up amounts. Two searches with equal copies match the same cards.
+   */
+  public SearchFilter withoutPaging() {
+    return new SearchFilter(
+        this.setId,
+        this.includedCivs,
+        this.excludedCivs,
+        this.includeMono,
+        this.includeRainbow,
+        this.matchExactRainbowCivs,
+        this.minCost,
+        this.maxCost,
+        this.minPower,
+        this.maxPower,
+        this.twinpact,
+        this.cardType,
+        this.rarityFilter,
+        this.speciesSearch,
+        this.nameSearch,
+        this.effectSearch,
+        collectionFilter != null && collectionFilter.searchCollection() ? collectionFilter : null,
+        tagFilter,
+        null);
+  }
+
   public enum FilterState {
     IN, // include
     EX, // exclude
@@ -0,0 +1,51 @@
+package net.dmcollection.server.card.internal;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the total number of matches of catalog searches, so that paging through a result does
+ * not count or estimate it again for every page. Entries belong to a {@link CatalogVersion}. Until
+ * the version is known nothing is cached.
+ */
+@Component
+public class SearchTotalsCache {
+
+  private static final int MAX_ENTRIES = 1000;
+
+  /** A search filter as of a catalog version. */
+  public record Key(long catalogVersion, SearchFilter filter) {}
+
+  /**
+   * @param exact Whether the total was counted, or is the planner's estimate.
+   */
+  public record Total(long count, boolean exact) {}
+
+  private final CatalogVersion catalogVersion;
+  private final CatalogDataCache<SearchFilter, Total> totals;
+
+  public SearchTotalsCache(CatalogVersion catalogVersion) {
+    this.catalogVersion = catalogVersion;
+    this.totals = new CatalogDataCache<>(catalogVersion, MAX_ENTRIES);
+  }
+
+  /**
+   * @return The key for the given catalog search as of the current version, or {@code null} if
+   *     totals can not be cached right now. Searches by private tag are never cached, as tags
+   *     change independently of the catalog.
+   */
+  public Key keyFor(SearchFilter filter) {
+    long version = catalogVersion.get();
+    if (version == 0 || filter.tagFilter() != null) {
+      return null;
+    }
+    return new Key(version, filter.withoutPaging());
+  }
+
+  public Total get(Key key) {
+    return totals.get(key.catalogVersion(), key.filter());
+  }
+
+  public void put(Key key, Total total) {
+    totals.put(key.catalogVersion(), key.filter(), total);
+  }
+}
@@ -0,0 +1,233 @@
+package net.dmcollection.server.card.internal;
+
+import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
+import static net.dmcollection.server.jooq.generated.tables.CollectionSummary.COLLECTION_SUMMARY;
+import static net.dmcollection.server.jooq.generated.tables.Deck.DECK;
+import static net.dmcollection.server.jooq.generated.tables.DeckVersion.DECK_VERSION;
+import static net.dmcollection.server.jooq.generated.tables.DeckVersionEntry.DECK_VERSION_ENTRY;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.notExists;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.sum;
+
+import java.util.UUID;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Unique and total card counts of collections ({@code collection_summary}) and decks ({@code
+ * deck.unique_count}, {@code deck.total_count}). The code writing the entries keeps them up to
+ * date in the same transaction; {@link #repair()} recomputes them from the entries.
+ */
+@Component
+public class SummaryCounters {
+
+  private static final Logger log = LoggerFactory.getLogger(SummaryCounters.class);
+
+  private final DSLContext dsl;
+
+  public SummaryCounters(DSLContext dsl) {
+    this.dsl = dsl;
+  }
+
+  /**
+   * Adds to the counts of the user's collection, which locks its summary until the transaction
+   * ends, even if both deltas are 0. Writers of a collection take its history ids only while they
+   * hold this lock, so that a user's history ids are committed in ascending order and can serve as
+   * collection versions.
+   */
+  public void addToCollection(UUID userId, long uniqueDelta, long totalDelta) {
+    dsl.insertInto(
+            COLLECTION_SUMMARY,
+            COLLECTION_SUMMARY.USER_ID,
+            COLLECTION_SUMMARY.UNIQUE_COUNT,
+            COLLECTION_SUMMARY.TOTAL_COUNT)
+        .values(userId, uniqueDelta, totalDelta)
+        .onConflict(COLLECTION_SUMMARY.USER_ID)
+        .doUpdate()
+        .set(COLLECTION_SUMMARY.UNIQUE_COUNT, COLLECTION_SUMMARY.UNIQUE_COUNT.plus(uniqueDelta))
+        .set(COLLECTION_SUMMARY.TOTAL_COUNT, COLLECTION_SUMMARY.TOTAL_COUNT.plus(totalDelta))
+        .execute();
+  }
+
+  /** Number of distinct printings in the user's collection. */
+  public long collectionUniqueCount(UUID userId) {
+    Long uniqueCount =
+        dsl.select(COLLECTION_SUMMARY.UNIQUE_COUNT)
+            .from(COLLECTION_SUMMARY)
+            .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+            .fetchOne(COLLECTION_SUMMARY.UNIQUE_COUNT);
+    return uniqueCount != null ? uniqueCount : 0;
+  }
+
+  /** Id of the user's latest collection history entry, or 0 if they have none. */
+  public long collectionVersion(UUID userId) {
+    Long version =
+        dsl.select(COLLECTION_SUMMARY.VERSION)
+            .from(COLLECTION_SUMMARY)
+            .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+            .fetchOne(COLLECTION_SUMMARY.VERSION);
+    return version != null ? version : 0;
+  }
+
+  /**
+   * Sets the version of the user's collection to the id of their latest history entry, and counts
+   * the entries written toward the next snapshot. To be called after {@link #addToCollection}, in
+   * the same transaction.
+   *
+   * @return The number of history entries since the user's last snapshot.
+   */
+  public long setCollectionVersion(UUID userId, long version, int entries) {
+    return dsl.update(COLLECTION_SUMMARY)
+        .set(COLLECTION_SUMMARY.VERSION, version)
+        .set(COLLECTION_SUMMARY.SINCE_SNAPSHOT, COLLECTION_SUMMARY.SINCE_SNAPSHOT.plus(entries))
+        .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+        .returningResult(COLLECTION_SUMMARY.SINCE_SNAPSHOT)
+        .fetchSingle(COLLECTION_SUMMARY.SINCE_SNAPSHOT);
+  }
+
+  /** Replaces the counts of the user's collection. */
+  public void setCollection(UUID userId, long uniqueCount, long totalCount) {
+    dsl.insertInto(
+            COLLECTION_SUMMARY,
+            COLLECTION_SUMMARY.USER_ID,
+            COLLECTION_SUMMARY.UNIQUE_COUNT,
+            COLLECTION_SUMMARY.TOTAL_COUNT)
+        .values(userId, uniqueCount, totalCount)
+        .onConflict(COLLECTION_SUMMARY.USER_ID)
+        .doUpdate()
+        .set(COLLECTION_SUMMARY.UNIQUE_COUNT, uniqueCount)
+        .set(COLLECTION_SUMMARY.TOTAL_COUNT, totalCount)
+        .execute();
+  }
+
+  /**
+   * Recomputes all counters from the entries.
+   *
+   * @return The number of collections and decks whose counters were wrong.
+   */
+  @Scheduled(cron = "${dmcollection.summary-repair.cron:-}")
+  @Transactional
+  public int repair() {
+    int collections = repairCollections();
+    int decks = repairDecks();
+    if (collections + decks > 0) {
+      log.warn("Repaired counters of {} collections and {} decks", collections, decks);
+    } else {
+      log.info("Collection and deck counters are correct");
+    }
+    return collections + decks;
+  }
+
+  /**
+   * Compares each summary with the entries as of the same snapshot. A wrong summary is only
+   * replaced if it still holds the counts compared: if a writer changed it since, the entries were
+   * counted without that writer's change, and the next run checks again.
+   */
+  private int repairCollections() {
+    var counted =
+        select(
+                COLLECTION_ENTRY.USER_ID,
+                count().cast(Long.class).as("unique_count"),
+                sum(COLLECTION_ENTRY.QUANTITY).cast(Long.class).as("total_count"))
+            .from(COLLECTION_ENTRY)
+            .groupBy(COLLECTION_ENTRY.USER_ID)
+            .asTable("counted");
+    var seen = COLLECTION_SUMMARY.as("seen");
+    var compared =
+        select(
+                seen.USER_ID,
+                seen.UNIQUE_COUNT.as("seen_unique"),
+                seen.TOTAL_COUNT.as("seen_total"),
+                coalesce(counted.field("unique_count", Long.class), 0L).as("unique_count"),
+                coalesce(counted.field("total_count", Long.class), 0L).as("total_count"))
+            .from(seen)
+            .leftJoin(counted)
+            .on(counted.field(COLLECTION_ENTRY.USER_ID).eq(seen.USER_ID))
+            .asTable("compared");
+    Field<Long> seenUnique = compared.field("seen_unique", Long.class);
+    Field<Long> seenTotal = compared.field("seen_total", Long.class);
+    Field<Long> uniqueCount = compared.field("unique_count", Long.class);
+    Field<Long> totalCount = compared.field("total_count", Long.class);
+    int fixed =
+        dsl.update(COLLECTION_SUMMARY)
+            .set(COLLECTION_SUMMARY.UNIQUE_COUNT, uniqueCount)
+            .set(COLLECTION_SUMMARY.TOTAL_COUNT, totalCount)
+            .from(compared)
+            .where(COLLECTION_SUMMARY.USER_ID.eq(compared.field(seen.USER_ID)))
+            .and(seenUnique.ne(uniqueCount).or(seenTotal.ne(totalCount)))
+            // Rechecked against the latest row if a writer updated it concurrently
+            .and(COLLECTION_SUMMARY.UNIQUE_COUNT.eq(seenUnique))
+            .and(COLLECTION_SUMMARY.TOTAL_COUNT.eq(seenTotal))
+            .execute();
+    // Collections without a summary; one created concurrently is left alone
+    fixed +=
+        dsl.insertInto(
+                COLLECTION_SUMMARY,
+                COLLECTION_SUMMARY.USER_ID,
+                COLLECTION_SUMMARY.UNIQUE_COUNT,
+                COLLECTION_SUMMARY.TOTAL_COUNT)
+            .select(
+                select(
+                        COLLECTION_ENTRY.USER_ID,
+                        count().cast(Long.class),
+                        sum(COLLECTION_ENTRY.QUANTITY).cast(Long.class))
+                    .from(COLLECTION_ENTRY)
+                    .where(
+                        notExists(
+                            selectOne()
+                                .from(COLLECTION_SUMMARY)
+                                .where(COLLECTION_SUMMARY.USER_ID.eq(COLLECTION_ENTRY.USER_ID))))
+                    .groupBy(COLLECTION_ENTRY.USER_ID))
+            .onConflictDoNothing()
+            .execute();
+    return fixed;
+  }
+
+  /** Like {@link #repairCollections()}, for the counts of each deck's draft. */
+  private int repairDecks() {
+    var counted =
+        select(
+                DECK_VERSION.DECK_ID,
+                count().cast(Long.class).as("unique_count"),
+                sum(DECK_VERSION_ENTRY.QUANTITY).cast(Long.class).as("total_count"))
+            .from(DECK_VERSION)
+            .join(DECK_VERSION_ENTRY)
+            .on(DECK_VERSION_ENTRY.DECK_VERSION_ID.eq(DECK_VERSION.ID))
+            .where(DECK_VERSION.IS_DRAFT.isTrue())
+            .groupBy(DECK_VERSION.DECK_ID)
+            .asTable("counted");
+    var seen = DECK.as("seen");
+    var compared =
+        select(
+                seen.ID,
+                seen.UNIQUE_COUNT.as("seen_unique"),
+                seen.TOTAL_COUNT.as("seen_total"),
+                coalesce(counted.field("unique_count", Long.class), 0L).as("unique_count"),
+                coalesce(counted.field("total_count", Long.class), 0L).as("total_count"))
+            .from(seen)
+            .leftJoin(counted)
+            .on(counted.field(DECK_VERSION.DECK_ID).eq(seen.ID))
+            .asTable("compared");
+    Field<Long> seenUnique = compared.field("seen_unique", Long.class);
+    Field<Long> seenTotal = compared.field("seen_total", Long.class);
+    Field<Long> uniqueCount = compared.field("unique_count", Long.class);
+    Field<Long> totalCount = compared.field("total_count", Long.class);
+    return dsl.update(DECK)
+        .set(DECK.UNIQUE_COUNT, uniqueCount)
+        .set(DECK.TOTAL_COUNT, totalCount)
+        .from(compared)
+        .where(DECK.ID.eq(compared.field(seen.ID)))
+        .and(seenUnique.ne(uniqueCount).or(seenTotal.ne(totalCount)))
+        .and(DECK.UNIQUE_COUNT.eq(seenUnique))
+        .and(DECK.TOTAL_COUNT.eq(seenTotal))
+        .execute();
+  }
+}
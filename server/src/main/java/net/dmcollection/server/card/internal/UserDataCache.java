@@ -0,0 +1,59 @@
+package net.dmcollection.server.card.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The data of the most recently used users. Data is loaded outside the lock, and not kept if a
+ * change was signalled while loading, since it may be from before the change.
+ */
+class UserDataCache<V> {
+
+  private final Function<UUID, V> loader;
+  private final Map<UUID, V> entries;
+  private long changes;
+
+  UserDataCache(int maxUsers, Function<UUID, V> loader) {
+    this.loader = loader;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<UUID, V> eldest) {
+            return size() > maxUsers;
+          }
+        };
+  }
+
+  V get(UUID userId) {
+    long seenChanges;
+    synchronized (this) {
+      V cached = entries.get(userId);
+      if (cached != null) {
+        return cached;
+      }
+      seenChanges = changes;
+    }
+    V loaded = loader.apply(userId);
+    synchronized (this) {
+      if (changes == seenChanges) {
+        V cached = entries.putIfAbsent(userId, loaded);
+        if (cached != null) {
+          return cached;
+        }
+      }
+    }
+    return loaded;
+  }
+
+  synchronized void remove(UUID userId) {
+    changes++;
+    entries.remove(userId);
+  }
+
+  synchronized void clear() {
+    changes++;
+    entries.clear();
+  }
+}
@@ -1,12 +1,12 @@
 package net.dmcollection.server.card.internal.query;
 
 import static net.dmcollection.server.jooq.generated.tables.Ability.ABILITY;
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
 import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static net.dmcollection.server.jooq.generated.tables.PrintingSide.PRINTING_SIDE;
 import static net.dmcollection.server.jooq.generated.tables.PrintingSideAbility.PRINTING_SIDE_ABILITY;
 import static org.jooq.impl.DSL.noCondition;
-import static org.jooq.impl.DSL.selectDistinct;
+import static org.jooq.impl.DSL.select;
 
 import org.jooq.Condition;
 
@@ -14,20 +14,29 @@ public class AbilityTextConditionBuilder {
 
   private AbilityTextConditionBuilder() {}
 
+  /**
+   * Matching abilities are found first through the trigram index on their search text, then
+   * followed to their cards by key lookups. Abilities are deduplicated, so this touches far fewer
+   * rows than starting from the cards.
+   */
   public static Condition build(String abilityTextSearch) {
     if (abilityTextSearch == null || abilityTextSearch.isEmpty()) {
       return noCondition();
     }
 
-    return CARD.ID.in(
-        selectDistinct(CARD_SIDE.CARD_ID)
-            .from(CARD_SIDE)
-            .join(PRINTING_SIDE)
-            .on(PRINTING_SIDE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
-            .join(PRINTING_SIDE_ABILITY)
-            .on(PRINTING_SIDE_ABILITY.PRINTING_SIDE_ID.eq(PRINTING_SIDE.ID))
-            .join(ABILITY)
-            .on(ABILITY.ID.eq(PRINTING_SIDE_ABILITY.ABILITY_ID))
-            .where(ABILITY.SEARCH_TEXT.containsIgnoreCase(abilityTextSearch)));
+    var abilityIds =
+        select(ABILITY.ID)
+            .from(ABILITY)
+            .where(ABILITY.SEARCH_TEXT.containsIgnoreCase(abilityTextSearch));
+    var printingSideIds =
+        select(PRINTING_SIDE_ABILITY.PRINTING_SIDE_ID)
+            .from(PRINTING_SIDE_ABILITY)
+            .where(PRINTING_SIDE_ABILITY.ABILITY_ID.in(abilityIds));
+    var cardSideIds =
+        select(PRINTING_SIDE.CARD_SIDE_ID)
+            .from(PRINTING_SIDE)
+            .where(PRINTING_SIDE.ID.in(printingSideIds));
+    return PRINTING_SEARCH.CARD_ID.in(
+        select(CARD_SIDE.CARD_ID).from(CARD_SIDE).where(CARD_SIDE.ID.in(cardSideIds)));
   }
 }
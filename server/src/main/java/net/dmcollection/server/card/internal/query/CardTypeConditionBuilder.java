@@ -1,48 +1,59 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
-import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
-import static net.dmcollection.server.jooq.generated.tables.CardSideCardType.CARD_SIDE_CARD_TYPE;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static org.jooq.impl.DSL.arrayOverlap;
+import static org.jooq.impl.DSL.boolOr;
+import static org.jooq.impl.DSL.condition;
 import static org.jooq.impl.DSL.exists;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.noCondition;
-import static org.jooq.impl.DSL.notExists;
-import static org.jooq.impl.DSL.selectDistinct;
+import static org.jooq.impl.DSL.not;
 import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.unnest;
 
 import java.util.Set;
 import org.jooq.Condition;
+import org.jooq.Field;
 
 public class CardTypeConditionBuilder {
 
+  private static final int SIDE_TYPE_KEY_FACTOR = 65536;
+
   private CardTypeConditionBuilder() {}
 
+  /**
+   * Matches cards with a side that has one of the included types and none of the excluded ones.
+   * The side type keys are grouped by side to check both on the same side, see {@code
+   * printing_search.side_type_keys}.
+   */
   public static Condition build(Set<Integer> includedIds, Set<Integer> excludedIds) {
     if (includedIds.isEmpty() && excludedIds.isEmpty()) {
       return noCondition();
     }
 
+    Field<Integer> key = field(name("side_type", "k"), Integer.class);
+    Field<Integer> typeId = key.mod(SIDE_TYPE_KEY_FACTOR);
+
+    Condition prefilter = noCondition();
     Condition sidePredicate = noCondition();
 
     if (!includedIds.isEmpty()) {
-      sidePredicate =
-          sidePredicate.and(
-              exists(
-                  selectOne()
-                      .from(CARD_SIDE_CARD_TYPE)
-                      .where(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
-                      .and(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID.in(includedIds))));
+      Short[] included = includedIds.stream().map(Integer::shortValue).toArray(Short[]::new);
+      // Card level overlap first, so that the GIN index on type_ids narrows down the candidates
+      prefilter = arrayOverlap(PRINTING_SEARCH.TYPE_IDS, included);
+      sidePredicate = sidePredicate.and(condition(boolOr(typeId.in(includedIds))));
     }
 
     if (!excludedIds.isEmpty()) {
-      sidePredicate =
-          sidePredicate.and(
-              notExists(
-                  selectOne()
-                      .from(CARD_SIDE_CARD_TYPE)
-                      .where(CARD_SIDE_CARD_TYPE.CARD_SIDE_ID.eq(CARD_SIDE.ID))
-                      .and(CARD_SIDE_CARD_TYPE.CARD_TYPE_ID.in(excludedIds))));
+      sidePredicate = sidePredicate.and(not(condition(boolOr(typeId.in(excludedIds)))));
     }
 
-    return CARD.ID.in(selectDistinct(CARD_SIDE.CARD_ID).from(CARD_SIDE).where(sidePredicate));
+    return prefilter.and(
+        exists(
+            selectOne()
+                .from(unnest(PRINTING_SEARCH.SIDE_TYPE_KEYS).as("side_type", "k"))
+                .groupBy(key.div(SIDE_TYPE_KEY_FACTOR))
+                .having(sidePredicate)));
   }
 }
@@ -1,19 +1,32 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.CardCivGroup.CARD_CIV_GROUP;
-import static org.jooq.impl.DSL.arrayOverlap;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static org.jooq.impl.DSL.bitAnd;
+import static org.jooq.impl.DSL.exists;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.noCondition;
-import static org.jooq.impl.DSL.not;
 import static org.jooq.impl.DSL.or;
+import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.unnest;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import net.dmcollection.server.card.Civilization;
 import org.jooq.Condition;
+import org.jooq.Field;
 
+/**
+ * Matches cards with a civ group satisfying the filter. Groups are tested through their bitmask
+ * (bit n = civilization id n, bit 0 = includes a colorless side), read from {@code
+ * printing_search.civ_group_masks}.
+ */
 public class CivilizationConditionBuilder {
 
+  private static final short COLORLESS_BIT = 1;
+  private static final short COLOR_BITS = 0b111110;
+
   private CivilizationConditionBuilder() {}
 
   public static Condition build(
@@ -29,7 +42,7 @@ public class CivilizationConditionBuilder {
 
     boolean allIncluded = included.size() == Civilization.values().length;
     boolean hasColorless = included.contains(Civilization.ZERO);
-    Short[] colorCivIds = toColorIds(included);
+    short colorMask = colorMask(included);
 
     // When all civs included, no exclusions, both mono and rainbow → no filter needed
     if (allIncluded
@@ -40,20 +53,22 @@ public class CivilizationConditionBuilder {
       return noCondition();
     }
 
+    Field<Short> mask = field(name("civ_group", "mask"), Short.class);
+    Field<Short> colors = bitAnd(mask, COLOR_BITS);
     List<Condition> branches = new ArrayList<>();
 
     if (hasColorless && includeMono) {
-      branches.add(CARD_CIV_GROUP.INCLUDES_COLORLESS_SIDE.isTrue());
+      branches.add(bitAnd(mask, COLORLESS_BIT).ne((short) 0));
     }
 
-    if (colorCivIds.length > 0) {
+    if (colorMask != 0) {
       List<Condition> colorBranches = new ArrayList<>();
 
       if (includeMono) {
-        colorBranches.add(monoCondition(allIncluded, colorCivIds));
+        colorBranches.add(monoCondition(colors, allIncluded ? COLOR_BITS : colorMask));
       }
       if (includeRainbow) {
-        colorBranches.add(rainbowCondition(allIncluded, colorCivIds, matchExactRainbowCivs));
+        colorBranches.add(rainbowCondition(colors, allIncluded, colorMask, matchExactRainbowCivs));
       }
 
       if (!colorBranches.isEmpty()) {
@@ -64,46 +79,49 @@ public class CivilizationConditionBuilder {
     Condition result = branches.isEmpty() ? noCondition() : or(branches);
 
     if (!excluded.isEmpty()) {
-      result = result.and(excludedCondition(excluded));
+      result = result.and(bitAnd(colors, colorMask(excluded)).eq((short) 0));
     }
 
-    return result;
+    return exists(
+        selectOne()
+            .from(unnest(PRINTING_SEARCH.CIV_GROUP_MASKS).as("civ_group", "mask"))
+            .where(result));
   }
 
-  private static Condition monoCondition(boolean allIncluded, Short[] colorCivIds) {
-    if (allIncluded) {
-      return CARD_CIV_GROUP.CIV_COUNT.eq((short) 1);
-    }
-    return CARD_CIV_GROUP
-        .CIV_COUNT
-        .eq((short) 1)
-        .and(arrayOverlap(CARD_CIV_GROUP.CIVILIZATION_IDS, colorCivIds));
+  /** Exactly one color, and it is one of the selected ones. */
+  private static Condition monoCondition(Field<Short> colors, short selected) {
+    return colors.in(singleBits(selected));
   }
 
   private static Condition rainbowCondition(
-      boolean allIncluded, Short[] colorCivIds, boolean matchExact) {
+      Field<Short> colors, boolean allIncluded, short colorMask, boolean matchExact) {
     if (matchExact) {
-      return CARD_CIV_GROUP.CIVILIZATION_IDS.eq(colorCivIds);
+      return colors.eq(colorMask);
     }
+    Condition multicolored = colors.ne((short) 0).and(colors.notIn(singleBits(COLOR_BITS)));
     if (allIncluded) {
-      return CARD_CIV_GROUP.CIV_COUNT.gt((short) 1);
+      return multicolored;
     }
-    return CARD_CIV_GROUP
-        .CIV_COUNT
-        .gt((short) 1)
-        .and(arrayOverlap(CARD_CIV_GROUP.CIVILIZATION_IDS, colorCivIds));
+    return multicolored.and(bitAnd(colors, colorMask).ne((short) 0));
   }
 
-  private static Condition excludedCondition(Set<Civilization> excluded) {
-    Short[] excludedIds = toColorIds(excluded);
-    return not(arrayOverlap(CARD_CIV_GROUP.CIVILIZATION_IDS, excludedIds));
+  private static List<Short> singleBits(short mask) {
+    List<Short> bits = new ArrayList<>();
+    for (int bit = 1; bit <= COLOR_BITS; bit <<= 1) {
+      if ((mask & bit) != 0) {
+        bits.add((short) bit);
+      }
+    }
+    return bits;
   }
 
-  private static Short[] toColorIds(Set<Civilization> civs) {
-    return civs.stream()
-        .filter(c -> c != Civilization.ZERO)
-        .map(c -> (short) c.ordinal())
-        .sorted()
-        .toArray(Short[]::new);
+  private static short colorMask(Set<Civilization> civs) {
+    int mask = 0;
+    for (Civilization civ : civs) {
+      if (civ != Civilization.ZERO) {
+        mask |= 1 << civ.ordinal();
+      }
+    }
+    return (short) mask;
   }
 }
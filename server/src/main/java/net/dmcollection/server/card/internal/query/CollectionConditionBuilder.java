@@ -1,9 +1,12 @@
 package net.dmcollection.server.card.internal.query;
 
 import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
-import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.falseCondition;
 import static org.jooq.impl.DSL.noCondition;
 
+import java.util.BitSet;
 import java.util.UUID;
 import org.jooq.Condition;
 import org.jooq.impl.DSL;
@@ -20,6 +23,17 @@ public class CollectionConditionBuilder {
         DSL.select(COLLECTION_ENTRY.PRINTING_ID)
             .from(COLLECTION_ENTRY)
             .where(COLLECTION_ENTRY.USER_ID.eq(userId));
-    return inCollection ? PRINTING.ID.in(ownedPrintings) : PRINTING.ID.notIn(ownedPrintings);
+    return inCollection
+        ? PRINTING_SEARCH.PRINTING_ID.in(ownedPrintings)
+        : PRINTING_SEARCH.PRINTING_ID.notIn(ownedPrintings);
+  }
+
+  /** Matches the given owned printings, passed as one array parameter instead of a subquery. */
+  public static Condition build(BitSet ownedPrintingIds) {
+    if (ownedPrintingIds.isEmpty()) {
+      return falseCondition();
+    }
+    Integer[] printingIds = ownedPrintingIds.stream().boxed().toArray(Integer[]::new);
+    return PRINTING_SEARCH.PRINTING_ID.eq(any(printingIds));
   }
 }
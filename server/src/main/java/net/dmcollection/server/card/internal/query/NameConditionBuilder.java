@@ -1,6 +1,6 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.noCondition;
 
 import org.jooq.Condition;
@@ -9,14 +9,21 @@ public class NameConditionBuilder {
 
   private NameConditionBuilder() {}
 
+  /**
+   * A quoted search matches the full card name exactly (ignoring case). Otherwise the search is
+   * looked for in the card name and the readings of its sides, both backed by trigram indexes.
+   */
   public static Condition build(String nameSearch) {
     if (nameSearch == null || nameSearch.isEmpty()) {
       return noCondition();
     }
     if (nameSearch.startsWith("\"") && nameSearch.endsWith("\"")) {
       nameSearch = nameSearch.substring(1, nameSearch.length() - 1);
-      return CARD.NAME.equalIgnoreCase(nameSearch);
+      return PRINTING_SEARCH.NAME.equalIgnoreCase(nameSearch);
     }
-    return CARD.NAME.containsIgnoreCase(nameSearch);
+    return PRINTING_SEARCH
+        .NAME
+        .containsIgnoreCase(nameSearch)
+        .or(PRINTING_SEARCH.NAME_READINGS.containsIgnoreCase(nameSearch));
   }
 }
@@ -1,9 +1,11 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
-import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
+import static org.jooq.impl.DSL.exists;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.noCondition;
-import static org.jooq.impl.DSL.selectDistinct;
+import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.unnest;
 
 import org.jooq.Condition;
 import org.jooq.Field;
@@ -12,19 +14,24 @@ public class RangeConditionBuilder {
 
   private RangeConditionBuilder() {}
 
-  public static Condition build(Field<Integer> field, Integer min, Integer max) {
+  /**
+   * @param sideValues The values of each side, e.g. {@code printing_search.cost_filters}. Both
+   *     bounds must hold for the same side.
+   */
+  public static Condition build(Field<Integer[]> sideValues, Integer min, Integer max) {
     if (min == null && max == null) {
       return noCondition();
     }
 
+    Field<Integer> value = field(name("side_value", "v"), Integer.class);
     Condition sideCondition = noCondition();
     if (min != null) {
-      sideCondition = sideCondition.and(field.greaterOrEqual(min));
+      sideCondition = sideCondition.and(value.greaterOrEqual(min));
     }
     if (max != null) {
-      sideCondition = sideCondition.and(field.lessOrEqual(max));
+      sideCondition = sideCondition.and(value.lessOrEqual(max));
     }
 
-    return CARD.ID.in(selectDistinct(CARD_SIDE.CARD_ID).from(CARD_SIDE).where(sideCondition));
+    return exists(selectOne().from(unnest(sideValues).as("side_value", "v")).where(sideCondition));
   }
 }
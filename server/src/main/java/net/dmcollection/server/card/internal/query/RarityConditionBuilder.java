@@ -1,23 +1,19 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
-import static org.jooq.impl.DSL.coalesce;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 
 import net.dmcollection.server.card.internal.SearchFilter.Range;
 import org.jooq.Condition;
-import org.jooq.Field;
 
 public class RarityConditionBuilder {
 
   private RarityConditionBuilder() {}
 
   public static Condition build(short sortOrder, Range range) {
-    Field<Short> effectiveSortOrder = coalesce(RARITY.SORT_ORDER, (short) 0);
-
     return switch (range) {
-      case EQ -> effectiveSortOrder.eq(sortOrder);
-      case LE -> effectiveSortOrder.le(sortOrder);
-      case GE -> effectiveSortOrder.ge(sortOrder);
+      case EQ -> PRINTING_SEARCH.RARITY_ORDER.eq(sortOrder);
+      case LE -> PRINTING_SEARCH.RARITY_ORDER.le(sortOrder);
+      case GE -> PRINTING_SEARCH.RARITY_ORDER.ge(sortOrder);
     };
   }
 }
@@ -1,15 +1,18 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.CardSide.CARD_SIDE;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.noCondition;
 
 import java.util.List;
 import java.util.UUID;
+import net.dmcollection.server.card.internal.PrivateTagCache;
 import net.dmcollection.server.card.internal.RarityService;
 import net.dmcollection.server.card.internal.SearchFilter;
 import net.dmcollection.server.card.internal.SearchFilter.CardType;
 import net.dmcollection.server.card.internal.SearchFilter.CollectionFilter;
 import net.dmcollection.server.card.internal.SearchFilter.RarityFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagFilter;
+import net.dmcollection.server.card.internal.query.SortBuilder.SortKey;
 import org.jooq.Condition;
 import org.jooq.OrderField;
 import org.springframework.stereotype.Component;
@@ -19,14 +22,36 @@ public class SearchFilterTranslator {
 
   private final CardTypeResolver cardTypeResolver;
   private final RarityService rarityService;
+  private final PrivateTagCache privateTagCache;
 
-  public SearchFilterTranslator(CardTypeResolver cardTypeResolver, RarityService rarityService) {
+  public SearchFilterTranslator(
+      CardTypeResolver cardTypeResolver,
+      RarityService rarityService,
+      PrivateTagCache privateTagCache) {
     this.cardTypeResolver = cardTypeResolver;
     this.rarityService = rarityService;
+    this.privateTagCache = privateTagCache;
   }
 
+  /**
+   * @param collectionCondition Restricts a collection search to the user's collection, kept apart
+   *     so that it can be replaced by an equivalent condition.
+   */
   public record TranslatedFilter(
-      Condition civilizationCondition, Condition mainCondition, List<OrderField<?>> orderBy) {}
+      Condition civilizationCondition,
+      Condition collectionCondition,
+      Condition mainCondition,
+      List<SortKey> sortKeys) {
+
+    public List<OrderField<?>> orderBy() {
+      return sortKeys.stream().<OrderField<?>>map(SortKey::toSortField).toList();
+    }
+
+    public TranslatedFilter withCollectionCondition(Condition collectionCondition) {
+      return new TranslatedFilter(
+          civilizationCondition, collectionCondition, mainCondition, sortKeys);
+    }
+  }
 
   public TranslatedFilter translate(SearchFilter filter) {
     Condition civCondition = translateCivilization(filter);
@@ -37,21 +62,22 @@ public class SearchFilterTranslator {
             .and(SetConditionBuilder.build(filter.setId()))
             .and(
                 RangeConditionBuilder.build(
-                    CARD_SIDE.COST_FILTER, filter.minCost(), filter.maxCost()))
+                    PRINTING_SEARCH.COST_FILTERS, filter.minCost(), filter.maxCost()))
             .and(
                 RangeConditionBuilder.build(
-                    CARD_SIDE.POWER_FILTER, filter.minPower(), filter.maxPower()))
+                    PRINTING_SEARCH.POWER_FILTERS, filter.minPower(), filter.maxPower()))
             .and(translateRarity(filter.rarityFilter()))
             .and(RaceConditionBuilder.build(filter.speciesSearch()))
             .and(translateCardType(filter.cardType()))
             .and(NameConditionBuilder.build(filter.nameSearch()))
-            .and(AbilityTextConditionBuilder.build(filter.effectSearch()))
-            .and(translateCollection(filter.collectionFilter()));
+            .and(AbilityTextConditionBuilder.build(filter.effectSearch()));
 
     UUID userId = filter.collectionFilter() != null ? filter.collectionFilter().userId() : null;
-    List<OrderField<?>> orderBy = SortBuilder.build(filter.pageable().getSort(), userId);
+    main = main.and(translateTags(userId, filter.tagFilter()));
+    List<SortKey> sortKeys = SortBuilder.keys(filter.pageable().getSort(), userId);
 
-    return new TranslatedFilter(civCondition, main, orderBy);
+    return new TranslatedFilter(
+        civCondition, translateCollection(filter.collectionFilter()), main, sortKeys);
   }
 
   private Condition translateCivilization(SearchFilter filter) {
@@ -88,4 +114,11 @@ public class SearchFilterTranslator {
     }
     return CollectionConditionBuilder.build(collectionFilter.userId(), true);
   }
+
+  private Condition translateTags(UUID userId, TagFilter tagFilter) {
+    if (tagFilter == null || tagFilter.tagIds().isEmpty()) {
+      return noCondition();
+    }
+    return TagConditionBuilder.build(privateTagCache.select(userId, tagFilter));
+  }
 }
@@ -0,0 +1,127 @@
+package net.dmcollection.server.card.internal.query;
+
+import static org.jooq.impl.DSL.and;
+import static org.jooq.impl.DSL.falseCondition;
+import static org.jooq.impl.DSL.or;
+import static org.jooq.impl.DSL.row;
+import static org.jooq.impl.DSL.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.dmcollection.server.card.internal.query.SortBuilder.SortKey;
+import org.jooq.Condition;
+import org.jooq.Field;
+
+/**
+ * Builds the condition selecting all rows that come after a given row in the order of the sort
+ * keys.
+ *
+ * <p>Consecutive non-nullable keys with the same direction are compared as one row value, e.g.
+ * {@code (release_date, id) > (?, ?)}. Nullable keys and direction changes are expanded into the
+ * usual {@code a > ? or (a = ? and ...)} form, with nulls sorting last.
+ */
+public class SeekConditionBuilder {
+
+  private SeekConditionBuilder() {}
+
+  public static Condition build(List<SortKey> keys, List<String> values) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException("Cursor does not match the sort");
+    }
+
+    List<Segment> segments = segments(keys, values);
+    List<Condition> alternatives = new ArrayList<>();
+    List<Condition> equalSoFar = new ArrayList<>();
+    for (Segment segment : segments) {
+      alternatives.add(and(equalSoFar).and(segment.after()));
+      equalSoFar.add(segment.same());
+    }
+
+    Condition result = or(alternatives);
+    Segment leading = segments.getFirst();
+    if (!leading.nullable()) {
+      // Redundant bound on the leading key, lets Postgres range scan an index on it
+      result = leading.atOrAfter().and(result);
+    }
+    return result;
+  }
+
+  private static List<Segment> segments(List<SortKey> keys, List<String> values) {
+    List<Segment> segments = new ArrayList<>();
+    Segment current = null;
+    for (int i = 0; i < keys.size(); i++) {
+      SortKey key = keys.get(i);
+      Field<?> value = value(key.field(), values.get(i));
+      if (value == null && !key.nullable()) {
+        throw new IllegalArgumentException("Cursor has no value for " + key.name());
+      }
+      boolean extendsCurrent =
+          current != null
+              && !current.nullable()
+              && !key.nullable()
+              && current.ascending() == key.ascending();
+      if (extendsCurrent) {
+        current.fields().add(key.field());
+        current.values().add(value);
+      } else {
+        current =
+            new Segment(
+                new ArrayList<>(List.of(key.field())),
+                new ArrayList<>(List.of(value)),
+                key.ascending(),
+                key.nullable());
+        segments.add(current);
+      }
+    }
+    return segments;
+  }
+
+  private static <T> Field<T> value(Field<T> field, String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return val(value, field);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor value " + value, e);
+    }
+  }
+
+  /** Either a single nullable key or a run of non-nullable keys with the same direction. */
+  private record Segment(
+      List<Field<?>> fields, List<Field<?>> values, boolean ascending, boolean nullable) {
+
+    Condition after() {
+      if (nullable) {
+        return nullableAfter(fields.getFirst(), values.getFirst());
+      }
+      return ascending ? row(fields).gt(row(values)) : row(fields).lt(row(values));
+    }
+
+    Condition atOrAfter() {
+      return ascending ? row(fields).ge(row(values)) : row(fields).le(row(values));
+    }
+
+    Condition same() {
+      if (nullable) {
+        return nullableSame(fields.getFirst(), values.getFirst());
+      }
+      return row(fields).eq(row(values));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Condition nullableAfter(Field<T> field, Field<?> value) {
+      if (value == null) {
+        // Nulls sort last, so nothing comes after a null apart from other nulls
+        return falseCondition();
+      }
+      Field<T> typed = (Field<T>) value;
+      return (ascending ? field.gt(typed) : field.lt(typed)).or(field.isNull());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Condition nullableSame(Field<T> field, Field<?> value) {
+      return value == null ? field.isNull() : field.isNotDistinctFrom((Field<T>) value);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package net.dmcollection.server.card.internal.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import net.dmcollection.server.card.internal.query.SortBuilder.SortKey;
+
+/**
+ * Opaque position in a sorted search: the sort key values of the last row of a page, together
+ * with the sort they belong to.
+ */
+public record SeekCursor(String sort, List<String> values) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public static String signature(List<SortKey> keys) {
+    return keys.stream()
+        .map(key -> key.name() + (key.ascending() ? "+" : "-"))
+        .collect(Collectors.joining(","));
+  }
+
+  public String encode() {
+    try {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to encode cursor", e);
+    }
+  }
+
+  public static SeekCursor decode(String cursor) {
+    try {
+      SeekCursor decoded =
+          MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), SeekCursor.class);
+      if (decoded.sort() == null || decoded.values() == null) {
+        throw new IllegalArgumentException("Incomplete cursor");
+      }
+      return decoded;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed cursor", e);
+    }
+  }
+}
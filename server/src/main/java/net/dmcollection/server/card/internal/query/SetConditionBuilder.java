@@ -1,6 +1,6 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.noCondition;
 
 import org.jooq.Condition;
@@ -13,6 +13,6 @@ public class SetConditionBuilder {
     if (setId == null) {
       return noCondition();
     }
-    return PRINTING.SET_ID.eq(setId.intValue());
+    return PRINTING_SEARCH.SET_ID.eq(setId.intValue());
   }
 }
@@ -1,18 +1,16 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
-import static net.dmcollection.server.jooq.generated.tables.CardSet.CARD_SET;
 import static net.dmcollection.server.jooq.generated.tables.CollectionEntry.COLLECTION_ENTRY;
-import static net.dmcollection.server.jooq.generated.tables.Printing.PRINTING;
-import static net.dmcollection.server.jooq.generated.tables.Rarity.RARITY;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.coalesce;
 import static org.jooq.impl.DSL.val;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.jooq.Field;
-import org.jooq.OrderField;
 import org.jooq.SortField;
 import org.jooq.impl.DSL;
 import org.springframework.data.domain.Sort;
@@ -21,46 +19,69 @@ public class SortBuilder {
 
   private SortBuilder() {}
 
-  public static List<OrderField<?>> build(Sort sort, UUID userId) {
-    List<OrderField<?>> fields = new ArrayList<>();
+  /**
+   * One column of the search order. Nulls always sort last.
+   *
+   * @param name Stable name of the key, used to tie seek cursors to the sort they were made for.
+   * @param nullable Whether the column can be null, which rules out plain row-value comparisons.
+   */
+  public record SortKey(String name, Field<?> field, boolean ascending, boolean nullable) {
+
+    public SortField<?> toSortField() {
+      return ascending ? field.asc().nullsLast() : field.desc().nullsLast();
+    }
+  }
+
+  /**
+   * Resolves the sort into columns. The official site id and the printing id are always appended,
+   * so that the order is total and can be resumed from a row's key values.
+   */
+  public static List<SortKey> keys(Sort sort, UUID userId) {
+    Map<String, SortKey> keys = new LinkedHashMap<>();
 
     if (sort.isUnsorted()) {
-      fields.add(CARD_SET.RELEASE_DATE.desc());
-      fields.add(PRINTING.OFFICIAL_SITE_ID.asc().nullsLast());
-      return fields;
+      keys.put("RELEASE", new SortKey("RELEASE", PRINTING_SEARCH.RELEASE_DATE, false, false));
     }
 
     for (Sort.Order order : sort) {
-      Field<? extends Comparable<?>> column =
+      SortKey key =
           switch (order.getProperty()) {
-            case "COST", "sort_cost" -> CARD.SORT_COST;
-            case "POWER_SORT", "sort_power" -> CARD.SORT_POWER;
-            case "ORDER" -> coalesce(RARITY.SORT_ORDER, (short) 0);
-            case "RELEASE", "release_date" -> CARD_SET.RELEASE_DATE;
-            case "AMOUNT" ->
-                userId != null
-                    ? coalesce(
-                        DSL.select(COLLECTION_ENTRY.QUANTITY)
-                            .from(COLLECTION_ENTRY)
-                            .where(COLLECTION_ENTRY.USER_ID.eq(userId))
-                            .and(COLLECTION_ENTRY.PRINTING_ID.eq(PRINTING.ID))
-                            .asField(),
-                        0)
-                    : val(0);
-            case "OFFICIAL_ID", "official_site_id" -> PRINTING.OFFICIAL_SITE_ID;
+            case "COST", "sort_cost" ->
+                new SortKey("COST", PRINTING_SEARCH.SORT_COST, order.isAscending(), true);
+            case "POWER_SORT", "sort_power" ->
+                new SortKey("POWER_SORT", PRINTING_SEARCH.SORT_POWER, order.isAscending(), true);
+            case "ORDER" ->
+                new SortKey("ORDER", PRINTING_SEARCH.RARITY_ORDER, order.isAscending(), false);
+            case "RELEASE", "release_date" ->
+                new SortKey("RELEASE", PRINTING_SEARCH.RELEASE_DATE, order.isAscending(), false);
+            case "AMOUNT" -> new SortKey("AMOUNT", amount(userId), order.isAscending(), false);
+            case "OFFICIAL_ID", "official_site_id" ->
+                new SortKey(
+                    "OFFICIAL_ID", PRINTING_SEARCH.OFFICIAL_SITE_ID, order.isAscending(), true);
             default -> null;
           };
 
-      if (column == null) {
-        continue;
+      if (key != null) {
+        keys.putIfAbsent(key.name(), key);
       }
-
-      SortField<? extends Comparable<?>> sortField =
-          order.isAscending() ? column.asc().nullsLast() : column.desc().nullsLast();
-      fields.add(sortField);
     }
 
-    fields.add(PRINTING.OFFICIAL_SITE_ID.asc());
-    return fields;
+    keys.putIfAbsent(
+        "OFFICIAL_ID", new SortKey("OFFICIAL_ID", PRINTING_SEARCH.OFFICIAL_SITE_ID, true, true));
+    keys.putIfAbsent("ID", new SortKey("ID", PRINTING_SEARCH.PRINTING_ID, true, false));
+    return new ArrayList<>(keys.values());
+  }
+
+  private static Field<Integer> amount(UUID userId) {
+    if (userId == null) {
+      return val(0);
+    }
+    return coalesce(
+        DSL.select(COLLECTION_ENTRY.QUANTITY)
+            .from(COLLECTION_ENTRY)
+            .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+            .and(COLLECTION_ENTRY.PRINTING_ID.eq(PRINTING_SEARCH.PRINTING_ID))
+            .asField(),
+        0);
   }
 }
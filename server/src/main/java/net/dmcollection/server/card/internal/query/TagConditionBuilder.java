@@ -0,0 +1,31 @@
+package net.dmcollection.server.card.internal.query;
+
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.falseCondition;
+import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.not;
+
+import net.dmcollection.server.card.internal.PrivateTagCache.TagSelection;
+import org.jooq.Condition;
+
+/**
+ * Matches the printings of a tag selection. The printing ids are passed as one array parameter,
+ * so that tag filters add no joins to the search.
+ */
+public class TagConditionBuilder {
+
+  private TagConditionBuilder() {}
+
+  public static Condition build(TagSelection selection) {
+    if (selection == null) {
+      return noCondition();
+    }
+    Integer[] printingIds = selection.printingIds().stream().boxed().toArray(Integer[]::new);
+    if (printingIds.length == 0) {
+      return selection.exclude() ? noCondition() : falseCondition();
+    }
+    Condition tagged = PRINTING_SEARCH.PRINTING_ID.eq(any(printingIds));
+    return selection.exclude() ? not(tagged) : tagged;
+  }
+}
@@ -1,6 +1,6 @@
 package net.dmcollection.server.card.internal.query;
 
-import static net.dmcollection.server.jooq.generated.tables.Card.CARD;
+import static net.dmcollection.server.jooq.generated.tables.PrintingSearch.PRINTING_SEARCH;
 import static org.jooq.impl.DSL.noCondition;
 
 import net.dmcollection.server.card.internal.SearchFilter.FilterState;
@@ -13,8 +13,8 @@ public class TwinpactConditionBuilder {
   public static Condition build(FilterState twinpact) {
     return switch (twinpact) {
       case IN -> noCondition();
-      case ONLY -> CARD.IS_TWINPACT.isTrue();
-      case EX -> CARD.IS_TWINPACT.isFalse();
+      case ONLY -> PRINTING_SEARCH.IS_TWINPACT.isTrue();
+      case EX -> PRINTING_SEARCH.IS_TWINPACT.isFalse();
     };
   }
 }
@@ -0,0 +1,48 @@
+package net.dmcollection.server.card.serialization;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Counters of an import, updated by the importing thread and readable from any other. */
+public class ImportProgress {
+
+  private final AtomicLong parsed = new AtomicLong();
+  private final AtomicLong matched = new AtomicLong();
+  private final AtomicLong unmatched = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+
+  /** Printings read from the file. */
+  public long parsed() {
+    return parsed.get();
+  }
+
+  /** Printings that were found in the catalog. */
+  public long matched() {
+    return matched.get();
+  }
+
+  /** Printings that were not found in the catalog and are skipped. */
+  public long unmatched() {
+    return unmatched.get();
+  }
+
+  /** Entries that were written. */
+  public long written() {
+    return written.get();
+  }
+
+  public void addParsed(long count) {
+    parsed.addAndGet(count);
+  }
+
+  public void addMatched(long count) {
+    matched.addAndGet(count);
+  }
+
+  public void addUnmatched(long count) {
+    unmatched.addAndGet(count);
+  }
+
+  public void addWritten(long count) {
+    written.addAndGet(count);
+  }
+}
@@ -0,0 +1,99 @@
+package net.dmcollection.server.card.serialization.collection;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+
+/**
+ * Reads the printings of a V1 or V2 collection export token by token. V1 cards carry {@code
+ * shortName} and {@code amount}, V2 cards a {@code prints} array of {@code id} and {@code amount};
+ * the format is told apart by the {@code version} field, a number for V1 and an object for V2.
+ */
+final class CollectionImportParser {
+
+  @FunctionalInterface
+  interface PrintingConsumer {
+    void accept(String officialSiteId, int amount) throws IOException;
+  }
+
+  private CollectionImportParser() {}
+
+  /**
+   * Passes every printing of the export to {@code consumer} in file order.
+   *
+   * @throws IllegalArgumentException If the document is not a collection export.
+   */
+  static void parse(JsonParser json, PrintingConsumer consumer) throws IOException {
+    if (json.nextToken() != JsonToken.START_OBJECT) {
+      throw new IllegalArgumentException("Unknown collection export format");
+    }
+    JsonToken version = null;
+    while (json.nextToken() == JsonToken.FIELD_NAME) {
+      String field = json.currentName();
+      JsonToken value = json.nextToken();
+      switch (field) {
+        case "version" -> version = value;
+        case "cards" -> readCards(json, consumer);
+        default -> {}
+      }
+      json.skipChildren();
+    }
+    if (version != JsonToken.VALUE_NUMBER_INT && version != JsonToken.START_OBJECT) {
+      throw new IllegalArgumentException("Unknown collection export format");
+    }
+  }
+
+  private static void readCards(JsonParser json, PrintingConsumer consumer) throws IOException {
+    if (json.currentToken() != JsonToken.START_ARRAY) {
+      return;
+    }
+    while (json.nextToken() == JsonToken.START_OBJECT) {
+      String shortName = null;
+      int amount = 0;
+      while (json.nextToken() == JsonToken.FIELD_NAME) {
+        String field = json.currentName();
+        json.nextToken();
+        switch (field) {
+          case "shortName" -> shortName = json.getValueAsString();
+          case "amount" -> amount = json.getValueAsInt();
+          case "prints" -> readPrints(json, consumer);
+          default -> json.skipChildren();
+        }
+      }
+      if (shortName != null) {
+        consumer.accept(shortName, amount);
+      }
+    }
+    expectEndOfArray(json);
+  }
+
+  private static void readPrints(JsonParser json, PrintingConsumer consumer) throws IOException {
+    if (json.currentToken() != JsonToken.START_ARRAY) {
+      json.skipChildren();
+      return;
+    }
+    while (json.nextToken() == JsonToken.START_OBJECT) {
+      String id = null;
+      int amount = 0;
+      while (json.nextToken() == JsonToken.FIELD_NAME) {
+        String field = json.currentName();
+        json.nextToken();
+        switch (field) {
+          case "id" -> id = json.getValueAsString();
+          case "amount" -> amount = json.getValueAsInt();
+          default -> json.skipChildren();
+        }
+      }
+      if (id != null) {
+        consumer.accept(id, amount);
+      }
+    }
+    expectEndOfArray(json);
+  }
+
+  private static void expectEndOfArray(JsonParser json) {
+    if (json.currentToken() != JsonToken.END_ARRAY) {
+      throw new IllegalArgumentException("Unexpected " + json.currentToken() + " in card list");
+    }
+  }
+}
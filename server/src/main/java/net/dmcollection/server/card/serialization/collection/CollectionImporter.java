@@ -0,0 +1,348 @@
+package net.dmcollection.server.card.serialization.collection;
+
+import static net.dmcollection.server.card.serialization.collection.V2Importer.HISTORY_LABEL_IMPORT;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SUMMARY;
+import static net.dmcollection.server.jooq.generated.Tables.PRINTING;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.deleteFrom;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.insertInto;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.sum;
+import static org.jooq.impl.DSL.table;
+import static org.jooq.impl.DSL.val;
+import static org.jooq.impl.DSL.when;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import net.dmcollection.server.card.internal.CollectionSnapshots;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
+import net.dmcollection.server.card.internal.SummaryCounters;
+import net.dmcollection.server.card.serialization.ImportProgress;
+import net.dmcollection.server.card.serialization.collection.CollectionImportParser.PrintingConsumer;
+import net.dmcollection.server.card.serialization.collection.format.v2.V2Printing;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Replaces a user's collection with the printings of an export. The printings are streamed into a
+ * temporary staging table with {@code COPY}; resolving their official site ids and writing the
+ * changed entries, their history and the summary is then a single statement.
+ */
+@Component
+public class CollectionImporter {
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  // Temporary table the printings are staged in, created by stage()
+  private static final Table<?> STAGED = table(name("collection_import"));
+  private static final Field<String> STAGED_OFFICIAL_SITE_ID =
+      field(name("collection_import", "official_site_id"), String.class);
+  private static final Field<Integer> STAGED_QUANTITY =
+      field(name("collection_import", "quantity"), Integer.class);
+
+  private final DSLContext dsl;
+  private final DataSource dataSource;
+  private final ObjectMapper objectMapper;
+  private final OwnedPrintingCache ownedPrintingCache;
+  private final CollectionSnapshots collectionSnapshots;
+  private final SummaryCounters summaryCounters;
+
+  CollectionImporter(
+      DSLContext dsl,
+      DataSource dataSource,
+      ObjectMapper objectMapper,
+      OwnedPrintingCache ownedPrintingCache,
+      CollectionSnapshots collectionSnapshots,
+      SummaryCounters summaryCounters) {
+    this.dsl = dsl;
+    this.dataSource = dataSource;
+    this.objectMapper = objectMapper;
+    this.ownedPrintingCache = ownedPrintingCache;
+    this.collectionSnapshots = collectionSnapshots;
+    this.summaryCounters = summaryCounters;
+  }
+
+  @FunctionalInterface
+  interface PrintingSource {
+    void writeTo(PrintingConsumer consumer) throws IOException;
+  }
+
+  /**
+   * Imports a V1 or V2 export while it is being parsed.
+   *
+   * @throws IllegalArgumentException If the document is not a collection export.
+   */
+  @Transactional
+  public void importCollection(UUID userId, InputStream in, ImportProgress progress)
+      throws IOException {
+    try (JsonParser json = objectMapper.createParser(in)) {
+      stage(consumer -> CollectionImportParser.parse(json, consumer), progress);
+    }
+    countMatches(progress);
+    progress.addWritten(apply(userId));
+    ownedPrintingCache.collectionChanged(userId);
+  }
+
+  @Transactional
+  public void importCollection(UUID userId, Iterable<V2Printing> printings) {
+    try {
+      stage(
+          consumer -> {
+            for (V2Printing printing : printings) {
+              consumer.accept(printing.id(), printing.amount());
+            }
+          },
+          new ImportProgress());
+    } catch (IOException e) {
+      throw new DataAccessException("Could not stage collection import", e);
+    }
+    apply(userId);
+    ownedPrintingCache.collectionChanged(userId);
+  }
+
+  private void stage(PrintingSource source, ImportProgress progress) throws IOException {
+    dsl.execute(
+        """
+        CREATE TEMP TABLE IF NOT EXISTS collection_import (
+          official_site_id text NOT NULL,
+          quantity int NOT NULL
+        ) ON COMMIT DROP
+        """);
+    dsl.execute("TRUNCATE collection_import");
+
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      var copy =
+          new PGCopyOutputStream(
+              connection.unwrap(PGConnection.class),
+              "COPY collection_import (official_site_id, quantity) FROM STDIN",
+              COPY_BUFFER_SIZE);
+      try {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8));
+        source.writeTo(
+            (officialSiteId, amount) -> {
+              writeRow(writer, officialSiteId, amount);
+              progress.addParsed(1);
+            });
+        // ends the COPY
+        writer.close();
+      } catch (IOException | RuntimeException e) {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException("Could not stage collection import", e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /** One row in COPY text format. */
+  private static void writeRow(Writer writer, String officialSiteId, int amount)
+      throws IOException {
+    for (int i = 0; i < officialSiteId.length(); i++) {
+      char c = officialSiteId.charAt(i);
+      switch (c) {
+        case '\\' -> writer.write("\\\\");
+        case '\t' -> writer.write("\\t");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        default -> writer.write(c);
+      }
+    }
+    writer.write('\t');
+    writer.write(Integer.toString(amount));
+    writer.write('\n');
+  }
+
+  private void countMatches(ImportProgress progress) {
+    var counts =
+        dsl.select(
+                count(PRINTING.ID).as("matched"), count().minus(count(PRINTING.ID)).as("unmatched"))
+            .from(STAGED)
+            .leftJoin(PRINTING)
+            .on(PRINTING.OFFICIAL_SITE_ID.eq(STAGED_OFFICIAL_SITE_ID))
+            .fetchSingle();
+    progress.addMatched(counts.get("matched", Long.class));
+    progress.addUnmatched(counts.get("unmatched", Long.class));
+  }
+
+  /**
+   * Diffs the staged amounts against the collection in one pass and writes only the entries that
+   * differ, their history, and the summary if anything changed. Unchanged entries are left alone.
+   * Like the other writers of a collection, it locks the entries first and takes the history ids
+   * only once it holds the summary's lock.
+   *
+   * @return The number of changed entries.
+   */
+  private int apply(UUID userId) {
+    dsl.select(COLLECTION_ENTRY.PRINTING_ID)
+        .from(COLLECTION_ENTRY)
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .orderBy(COLLECTION_ENTRY.PRINTING_ID)
+        .forUpdate()
+        .execute();
+
+    var imported =
+        name("imported")
+            .as(
+                select(
+                        PRINTING.ID.as("printing_id"),
+                        sum(STAGED_QUANTITY).cast(Integer.class).as("quantity"))
+                    .from(STAGED)
+                    .join(PRINTING)
+                    .on(PRINTING.OFFICIAL_SITE_ID.eq(STAGED_OFFICIAL_SITE_ID))
+                    .where(STAGED_QUANTITY.gt(0))
+                    .groupBy(PRINTING.ID));
+    Field<Integer> importedPrintingId = imported.field("printing_id", Integer.class);
+    Field<Integer> importedQuantity = imported.field("quantity", Integer.class);
+
+    var existing =
+        select(COLLECTION_ENTRY.PRINTING_ID, COLLECTION_ENTRY.QUANTITY)
+            .from(COLLECTION_ENTRY)
+            .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+            .asTable("existing");
+    Field<Integer> existingPrintingId = existing.field(COLLECTION_ENTRY.PRINTING_ID);
+    Field<Integer> existingQuantity = coalesce(existing.field(COLLECTION_ENTRY.QUANTITY), 0);
+    Field<Integer> importedOrZero = coalesce(importedQuantity, 0);
+    var changes =
+        name("changes")
+            .as(
+                select(
+                        coalesce(importedPrintingId, existingPrintingId).as("printing_id"),
+                        importedOrZero.as("new_qty"))
+                    .from(imported)
+                    .fullJoin(existing)
+                    .on(existingPrintingId.eq(importedPrintingId))
+                    .where(existingQuantity.ne(importedOrZero)));
+    Field<Integer> changedPrintingId = changes.field("printing_id", Integer.class);
+    Field<Integer> changedQty = changes.field("new_qty", Integer.class);
+
+    // The quantities before are taken from the written rows (Postgres 18 RETURNING old.*)
+    var upserted =
+        name("upserted")
+            .as(
+                insertInto(
+                        COLLECTION_ENTRY,
+                        COLLECTION_ENTRY.USER_ID,
+                        COLLECTION_ENTRY.PRINTING_ID,
+                        COLLECTION_ENTRY.QUANTITY)
+                    .select(
+                        select(val(userId), changedPrintingId, changedQty)
+                            .from(changes)
+                            .where(changedQty.gt(0))
+                            .orderBy(changedPrintingId))
+                    .onConflict(COLLECTION_ENTRY.USER_ID, COLLECTION_ENTRY.PRINTING_ID)
+                    .doUpdate()
+                    .set(COLLECTION_ENTRY.QUANTITY, field("excluded.quantity", Integer.class))
+                    .returningResult(
+                        COLLECTION_ENTRY.PRINTING_ID,
+                        coalesce(field("old.quantity", Integer.class), 0).as("previous_qty"),
+                        COLLECTION_ENTRY.QUANTITY.as("new_qty")));
+    var deleted =
+        name("deleted")
+            .as(
+                deleteFrom(COLLECTION_ENTRY)
+                    .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+                    .and(
+                        COLLECTION_ENTRY.PRINTING_ID.in(
+                            select(changedPrintingId).from(changes).where(changedQty.eq(0))))
+                    .returningResult(
+                        COLLECTION_ENTRY.PRINTING_ID,
+                        COLLECTION_ENTRY.QUANTITY.as("previous_qty"),
+                        inline(0).as("new_qty")));
+    var written =
+        name("written")
+            .as(
+                select(upserted.fields())
+                    .from(upserted)
+                    .where(
+                        upserted
+                            .field("previous_qty", Integer.class)
+                            .ne(upserted.field("new_qty", Integer.class)))
+                    .unionAll(select(deleted.fields()).from(deleted)));
+    Field<Integer> printingId = written.field("printing_id", Integer.class);
+    Field<Integer> previousQty = written.field("previous_qty", Integer.class);
+    Field<Integer> newQty = written.field("new_qty", Integer.class);
+    Field<Integer> uniqueDelta =
+        when(newQty.gt(0), 1).otherwise(0).minus(when(previousQty.gt(0), 1).otherwise(0));
+
+    var summary =
+        name("summary")
+            .as(
+                insertInto(
+                        COLLECTION_SUMMARY,
+                        COLLECTION_SUMMARY.USER_ID,
+                        COLLECTION_SUMMARY.UNIQUE_COUNT,
+                        COLLECTION_SUMMARY.TOTAL_COUNT)
+                    .select(
+                        select(
+                                val(userId),
+                                sum(uniqueDelta).cast(Long.class),
+                                sum(newQty.minus(previousQty)).cast(Long.class))
+                            .from(written)
+                            .having(count().gt(0)))
+                    .onConflict(COLLECTION_SUMMARY.USER_ID)
+                    .doUpdate()
+                    .set(
+                        COLLECTION_SUMMARY.UNIQUE_COUNT,
+                        COLLECTION_SUMMARY.UNIQUE_COUNT.plus(
+                            field("excluded.unique_count", Long.class)))
+                    .set(
+                        COLLECTION_SUMMARY.TOTAL_COUNT,
+                        COLLECTION_SUMMARY.TOTAL_COUNT.plus(
+                            field("excluded.total_count", Long.class)))
+                    .returningResult(COLLECTION_SUMMARY.USER_ID));
+
+    // Joined with the summary, so that the history ids are taken under its lock
+    List<Long> ids =
+        dsl.with(imported, changes, upserted, deleted, written, summary)
+            .insertInto(
+                COLLECTION_HISTORY_ENTRY,
+                COLLECTION_HISTORY_ENTRY.USER_ID,
+                COLLECTION_HISTORY_ENTRY.LABEL,
+                COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+                COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY,
+                COLLECTION_HISTORY_ENTRY.NEW_QTY)
+            .select(
+                select(val(userId), val(HISTORY_LABEL_IMPORT), printingId, previousQty, newQty)
+                    .from(written)
+                    .crossJoin(summary)
+                    .orderBy(printingId))
+            .returningResult(COLLECTION_HISTORY_ENTRY.ID)
+            .fetch(COLLECTION_HISTORY_ENTRY.ID);
+    if (!ids.isEmpty()) {
+      long version = Collections.max(ids);
+      long sinceSnapshot = summaryCounters.setCollectionVersion(userId, version, ids.size());
+      collectionSnapshots.takeIfDue(userId, version, sinceSnapshot);
+    }
+    return ids.size();
+  }
+}
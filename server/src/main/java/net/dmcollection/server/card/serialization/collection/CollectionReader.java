@@ -4,17 +4,25 @@ import static net.dmcollection.server.jooq.generated.Tables.CARD;
 import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_ENTRY;
 import static net.dmcollection.server.jooq.generated.Tables.PRINTING;
 import static org.jooq.Records.mapping;
+import static org.jooq.impl.DSL.coalesce;
+import static org.jooq.impl.DSL.countDistinct;
 import static org.jooq.impl.DSL.multiset;
 import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.sum;
 
 import java.util.List;
 import java.util.UUID;
+import net.dmcollection.server.card.serialization.collection.format.MetaData;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record4;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CollectionReader {
 
+  private static final int FETCH_SIZE = 500;
+
   private final DSLContext dsl;
 
   public record Printing(String officialSiteId, int quantity) {}
@@ -49,4 +57,33 @@ public class CollectionReader {
         .orderBy(CARD.ID)
         .fetch(mapping(CollectionEntry::new));
   }
+
+  MetaData readMetaData(UUID userId) {
+    return dsl.select(
+            coalesce(sum(COLLECTION_ENTRY.QUANTITY), 0).cast(Integer.class),
+            countDistinct(PRINTING.CARD_ID))
+        .from(COLLECTION_ENTRY)
+        .join(PRINTING)
+        .on(PRINTING.ID.eq(COLLECTION_ENTRY.PRINTING_ID))
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .fetchOne(mapping(MetaData::new));
+  }
+
+  /**
+   * Card id, card name, printing id and quantity of every entry, ordered by card and printing like
+   * {@link #readCollection(UUID)}. Rows are fetched in batches through a server-side cursor, which
+   * needs a transaction; the caller closes the cursor.
+   */
+  Cursor<Record4<Integer, String, String, Integer>> openCollection(UUID userId) {
+    return dsl.select(CARD.ID, CARD.NAME, PRINTING.OFFICIAL_SITE_ID, COLLECTION_ENTRY.QUANTITY)
+        .from(COLLECTION_ENTRY)
+        .join(PRINTING)
+        .on(PRINTING.ID.eq(COLLECTION_ENTRY.PRINTING_ID))
+        .join(CARD)
+        .on(CARD.ID.eq(PRINTING.CARD_ID))
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .orderBy(CARD.ID, PRINTING.ID)
+        .fetchSize(FETCH_SIZE)
+        .fetchLazy();
+  }
 }
@@ -1,6 +1,12 @@
 package net.dmcollection.server.card.serialization.collection;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import net.dmcollection.server.card.serialization.collection.format.Header;
@@ -9,14 +15,17 @@ import net.dmcollection.server.card.serialization.collection.format.v2.V2Collect
 import net.dmcollection.server.card.serialization.collection.format.v2.V2CollectionExport;
 import net.dmcollection.server.card.serialization.collection.format.v2.V2Printing;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class V2Exporter {
 
   private final CollectionReader collectionReader;
+  private final ObjectMapper objectMapper;
 
-  V2Exporter(CollectionReader collectionReader) {
+  V2Exporter(CollectionReader collectionReader, ObjectMapper objectMapper) {
     this.collectionReader = collectionReader;
+    this.objectMapper = objectMapper;
   }
 
   public V2CollectionExport export(UUID userId) {
@@ -29,9 +38,46 @@ public class V2Exporter {
             .mapToInt(V2Printing::amount)
             .sum();
     var meta = new MetaData(total, unique);
-    var header =
-        new Header(
-            Header.EXPORT_FORMAT_VERSION, OffsetDateTime.now(), Header.EXPORT_TYPE_COLLECTION);
-    return new V2CollectionExport(header, meta, entries);
+    return new V2CollectionExport(header(), meta, entries);
+  }
+
+  /**
+   * Writes the same document as {@link #export(UUID)} to {@code out}, one card at a time, without
+   * holding the collection in memory. Closes {@code out}.
+   */
+  @Transactional(readOnly = true)
+  public void export(UUID userId, OutputStream out) throws IOException {
+    try (JsonGenerator json = objectMapper.createGenerator(out, JsonEncoding.UTF8);
+        var rows = collectionReader.openCollection(userId)) {
+      json.useDefaultPrettyPrinter();
+      json.writeStartObject();
+      json.writePOJOField("version", header());
+      json.writePOJOField("meta", collectionReader.readMetaData(userId));
+      json.writeArrayFieldStart("cards");
+
+      Integer cardId = null;
+      String cardName = null;
+      List<V2Printing> prints = new ArrayList<>();
+      for (var row : rows) {
+        if (cardId != null && !cardId.equals(row.value1())) {
+          json.writePOJO(new V2CollectionEntry(cardName, prints));
+          prints = new ArrayList<>();
+        }
+        cardId = row.value1();
+        cardName = row.value2();
+        prints.add(new V2Printing(row.value3(), row.value4()));
+      }
+      if (cardId != null) {
+        json.writePOJO(new V2CollectionEntry(cardName, prints));
+      }
+
+      json.writeEndArray();
+      json.writeEndObject();
+    }
+  }
+
+  private static Header header() {
+    return new Header(
+        Header.EXPORT_FORMAT_VERSION, OffsetDateTime.now(), Header.EXPORT_TYPE_COLLECTION);
   }
 }
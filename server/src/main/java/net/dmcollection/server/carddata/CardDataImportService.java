@@ -9,6 +9,8 @@ import static net.dmcollection.server.jooq.generated.Tables.CARD_SIDE;
 import static net.dmcollection.server.jooq.generated.Tables.CARD_SIDE_CARD_TYPE;
 import static net.dmcollection.server.jooq.generated.Tables.CARD_SIDE_RACE;
 import static net.dmcollection.server.jooq.generated.Tables.CARD_TYPE;
+import static net.dmcollection.server.jooq.generated.Tables.DECK;
+import static net.dmcollection.server.jooq.generated.Tables.DECK_VERSION;
 import static net.dmcollection.server.jooq.generated.Tables.DECK_VERSION_ENTRY;
 import static net.dmcollection.server.jooq.generated.Tables.ILLUSTRATOR;
 import static net.dmcollection.server.jooq.generated.Tables.PRINTING;
@@ -27,8 +29,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import net.dmcollection.server.card.RarityCode;
+import net.dmcollection.server.card.internal.CatalogVersion;
+import net.dmcollection.server.card.internal.PrintingSearchProjection;
 import net.dmcollection.server.carddata.CardDataJson.CardAliasJson;
 import net.dmcollection.server.carddata.CardDataJson.CardJson;
 import net.dmcollection.server.carddata.CardDataJson.CardSetJson;
@@ -46,6 +51,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class CardDataImportService {
@@ -53,9 +60,16 @@ public class CardDataImportService {
   private static final Logger log = LoggerFactory.getLogger(CardDataImportService.class);
 
   private final DSLContext dsl;
+  private final PrintingSearchProjection printingSearchProjection;
+  private final CatalogVersion catalogVersion;
 
-  public CardDataImportService(DSLContext dsl) {
+  public CardDataImportService(
+      DSLContext dsl,
+      PrintingSearchProjection printingSearchProjection,
+      CatalogVersion catalogVersion) {
     this.dsl = dsl;
+    this.printingSearchProjection = printingSearchProjection;
+    this.catalogVersion = catalogVersion;
   }
 
   static Map<String, String> rarityDescriptions;
@@ -108,6 +122,18 @@ public class CardDataImportService {
 
     cleanupOrphanedAbilities();
 
+    // search projection, in the same transaction so searches never see a partial catalog
+    printingSearchProjection.rebuild();
+
+    // Only once committed, so that nothing read before is cached under the new version
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            catalogVersion.changed();
+          }
+        });
+
     log.info(
         "Import complete: {} cards, {} printings", data.cards().size(), data.printings().size());
   }
@@ -200,15 +226,29 @@ public class CardDataImportService {
         .execute();
 
     // Re-point deck_version_entry (UNIQUE: deck_version_id, card_id, printing_id)
-    mergeQuantityEntries(
-        oldCardId,
-        survivorCardId,
-        DECK_VERSION_ENTRY,
-        DECK_VERSION_ENTRY.ID,
-        DECK_VERSION_ENTRY.CARD_ID,
-        DECK_VERSION_ENTRY.PRINTING_ID,
-        DECK_VERSION_ENTRY.QUANTITY,
-        DECK_VERSION_ENTRY.DECK_VERSION_ID);
+    List<UUID> mergedDeckVersionIds =
+        mergeQuantityEntries(
+            oldCardId,
+            survivorCardId,
+            DECK_VERSION_ENTRY,
+            DECK_VERSION_ENTRY.ID,
+            DECK_VERSION_ENTRY.CARD_ID,
+            DECK_VERSION_ENTRY.PRINTING_ID,
+            DECK_VERSION_ENTRY.QUANTITY,
+            DECK_VERSION_ENTRY.DECK_VERSION_ID);
+    // Each merged entry is one entry less in its version, with the same total; only the drafts'
+    // counts are kept on the deck
+    for (UUID deckVersionId : mergedDeckVersionIds) {
+      dsl.update(DECK)
+          .set(DECK.UNIQUE_COUNT, DECK.UNIQUE_COUNT.minus(1L))
+          .where(
+              DECK.ID.in(
+                  dsl.select(DECK_VERSION.DECK_ID)
+                      .from(DECK_VERSION)
+                      .where(DECK_VERSION.ID.eq(deckVersionId))
+                      .and(DECK_VERSION.IS_DRAFT.isTrue())))
+          .execute();
+    }
 
     // Re-point wishlist_entry (UNIQUE NULLS NOT DISTINCT: wishlist_id, card_id, printing_id)
     mergeQuantityEntries(
@@ -256,8 +296,11 @@ public class CardDataImportService {
   /**
    * Merges quantity-bearing entries from old card into survivor, handling unique constraint
    * conflicts by summing quantities.
+   *
+   * @return The parent ids of the old card's entries that were merged into an existing entry and
+   *     deleted, once per deleted entry.
    */
-  private <R extends org.jooq.Record, P> void mergeQuantityEntries(
+  private <R extends org.jooq.Record, P> List<P> mergeQuantityEntries(
       int oldCardId,
       int survivorCardId,
       Table<R> table,
@@ -273,6 +316,7 @@ public class CardDataImportService {
             .where(cardIdField.eq(oldCardId))
             .fetch();
 
+    List<P> mergedParentIds = new ArrayList<>();
     for (var row : oldEntries) {
       P parentId = row.get(parentIdField);
       int existingCount =
@@ -292,11 +336,13 @@ public class CardDataImportService {
             .and(printingIdField.isNotDistinctFrom(row.get(printingIdField)))
             .execute();
         dsl.deleteFrom(table).where(idField.eq(row.get(idField))).execute();
+        mergedParentIds.add(parentId);
       }
     }
 
     // Re-point remaining non-conflicting entries
     dsl.update(table).set(cardIdField, survivorCardId).where(cardIdField.eq(oldCardId)).execute();
+    return mergedParentIds;
   }
 
   private Set<String> extractCardTypes(CardDataJson data) {
@@ -529,7 +575,8 @@ public class CardDataImportService {
                       CARD_SIDE.POWER,
                       CARD_SIDE.POWER_IS_INFINITY,
                       CARD_SIDE.POWER_MODIFIER,
-                      CARD_SIDE.CIVILIZATION_IDS)
+                      CARD_SIDE.CIVILIZATION_IDS,
+                      CARD_SIDE.CIV_MASK)
                   .values(
                       DSL.val((Integer) null),
                       DSL.val((Short) null),
@@ -539,7 +586,8 @@ public class CardDataImportService {
                       DSL.val((Integer) null),
                       DSL.val((Boolean) null),
                       DSL.val((String) null),
-                      DSL.val((Short[]) null))
+                      DSL.val((Short[]) null),
+                      DSL.val((Short) null))
                   .onConflict(CARD_SIDE.CARD_ID, CARD_SIDE.SIDE_ORDER)
                   .doUpdate()
                   .set(CARD_SIDE.NAME, DSL.field("excluded.name", String.class))
@@ -554,7 +602,8 @@ public class CardDataImportService {
                   .set(CARD_SIDE.POWER_MODIFIER, DSL.field("excluded.power_modifier", String.class))
                   .set(
                       CARD_SIDE.CIVILIZATION_IDS,
-                      DSL.field("excluded.civilization_ids", Short[].class)));
+                      DSL.field("excluded.civilization_ids", Short[].class))
+                  .set(CARD_SIDE.CIV_MASK, DSL.field("excluded.civ_mask", Short.class)));
       for (var card : cards) {
         int cardId = cardIds.get(card.name());
         for (var side : card.sides()) {
@@ -568,7 +617,8 @@ public class CardDataImportService {
               side.power(),
               side.powerIsInfinity(),
               side.powerModifier(),
-              civIds);
+              civIds,
+              civMask(side.civilizationIds(), civIds.length == 0));
         }
       }
       batch.execute();
@@ -659,8 +709,13 @@ public class CardDataImportService {
                 .columns(
                     CARD_CIV_GROUP.CARD_ID,
                     CARD_CIV_GROUP.CIVILIZATION_IDS,
-                    CARD_CIV_GROUP.INCLUDES_COLORLESS_SIDE)
-                .values(DSL.val((Integer) null), DSL.val((Short[]) null), DSL.val((Boolean) null)));
+                    CARD_CIV_GROUP.INCLUDES_COLORLESS_SIDE,
+                    CARD_CIV_GROUP.CIV_MASK)
+                .values(
+                    DSL.val((Integer) null),
+                    DSL.val((Short[]) null),
+                    DSL.val((Boolean) null),
+                    DSL.val((Short) null)));
     boolean hasRows = false;
     for (var group : civGroups) {
       Integer cardId = cardIds.get(group.cardName());
@@ -670,7 +725,11 @@ public class CardDataImportService {
       List<Integer> colorCivIds =
           rawIds == null ? List.of() : rawIds.stream().filter(id -> id != 0).toList();
       Short[] civIds = toShortArray(colorCivIds);
-      batch.bind(cardId, civIds, group.includesColorlessSide());
+      batch.bind(
+          cardId,
+          civIds,
+          group.includesColorlessSide(),
+          civMask(colorCivIds, group.includesColorlessSide()));
       hasRows = true;
     }
     if (hasRows) batch.execute();
@@ -860,6 +919,17 @@ public class CardDataImportService {
     }
   }
 
+  /** Bit n for civilization id n, bit 0 for colorless. */
+  private static short civMask(List<Integer> civIds, boolean colorless) {
+    int mask = colorless ? 1 : 0;
+    if (civIds != null) {
+      for (int civId : civIds) {
+        mask |= 1 << civId;
+      }
+    }
+    return (short) mask;
+  }
+
   private static Short[] toShortArray(List<Integer> ints) {
     if (ints == null || ints.isEmpty()) return new Short[0];
     return ints.stream().map(Integer::shortValue).toArray(Short[]::new);
@@ -3,6 +3,10 @@ package net.dmcollection.server.carddata;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.file.Path;
+import net.dmcollection.server.card.internal.CatalogIndex;
+import net.dmcollection.server.card.internal.CatalogVersion;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
+import net.dmcollection.server.card.internal.PrivateTagCache;
 import net.dmcollection.server.card.internal.RarityService;
 import net.dmcollection.server.card.internal.query.CardTypeResolver;
 import org.slf4j.Logger;
@@ -24,24 +28,42 @@ public class CardDataStartupListener {
   private final String cardDataPath;
   private final CardTypeResolver cardTypeResolver;
   private final RarityService rarityService;
+  private final CatalogIndex catalogIndex;
+  private final CatalogVersion catalogVersion;
+  private final PrivateTagCache privateTagCache;
+  private final OwnedPrintingCache ownedPrintingCache;
+  private final boolean catalogIndexEnabled;
 
   public CardDataStartupListener(
       CardDataImportService importService,
       ObjectMapper objectMapper,
       @Value("${dmcollection.card-data-path:}") String cardDataPath,
       CardTypeResolver cardTypeResolver,
-      RarityService rarityService) {
+      RarityService rarityService,
+      CatalogIndex catalogIndex,
+      CatalogVersion catalogVersion,
+      PrivateTagCache privateTagCache,
+      OwnedPrintingCache ownedPrintingCache,
+      @Value("${dmcollection.catalog-index.enabled:true}") boolean catalogIndexEnabled) {
     this.importService = importService;
     this.objectMapper = objectMapper;
     this.cardDataPath = cardDataPath;
     this.cardTypeResolver = cardTypeResolver;
     this.rarityService = rarityService;
+    this.catalogIndex = catalogIndex;
+    this.catalogVersion = catalogVersion;
+    this.privateTagCache = privateTagCache;
+    this.ownedPrintingCache = ownedPrintingCache;
+    this.catalogIndexEnabled = catalogIndexEnabled;
   }
 
   @EventListener(ApplicationReadyEvent.class)
   public void onApplicationReady() {
     if (cardDataPath == null || cardDataPath.isBlank()) {
       log.info("No card-data-path configured, skipping card data import");
+      // The stored card data is the current catalog
+      catalogVersion.changed();
+      catalogLoaded();
       return;
     }
     try {
@@ -53,6 +75,17 @@ public class CardDataStartupListener {
       rarityService.loadRarities();
     } catch (IOException e) {
       log.error("Failed to load card data from {}", cardDataPath, e);
+      // The stored card data stays the current catalog
+      catalogVersion.changed();
+    }
+    catalogLoaded();
+  }
+
+  private void catalogLoaded() {
+    privateTagCache.catalogChanged();
+    ownedPrintingCache.catalogChanged();
+    if (catalogIndexEnabled) {
+      catalogIndex.rebuild();
     }
   }
 }
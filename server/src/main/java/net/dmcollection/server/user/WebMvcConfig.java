@@ -1,21 +1,33 @@
 package net.dmcollection.server.user;
 
 import java.util.List;
+import net.dmcollection.server.card.CollectionWriteBuffer;
+import net.dmcollection.server.card.CollectionWriteBufferInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
   private final UserService userService;
+  private final CollectionWriteBuffer collectionWriteBuffer;
 
-  public WebMvcConfig(UserService userService) {
+  public WebMvcConfig(UserService userService, CollectionWriteBuffer collectionWriteBuffer) {
     this.userService = userService;
+    this.collectionWriteBuffer = collectionWriteBuffer;
   }
 
   @Override
   public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
     resolvers.add(new CurrentUserIdResolver(userService));
   }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new CollectionWriteBufferInterceptor(collectionWriteBuffer))
+        .addPathPatterns("/api/**");
+  }
 }
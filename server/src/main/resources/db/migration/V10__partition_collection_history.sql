@@ -0,0 +1,69 @@
+-- ---------------------------------------------------------------------------
+-- Partitioned collection history
+-- ---------------------------------------------------------------------------
+-- collection_history_entry is partitioned by month of changed_at, so that old
+-- months stop changing and are vacuumed on their own. Partitions are named
+-- collection_history_entry_yYYYYmMM; CollectionHistoryMaintenance creates the
+-- upcoming ones, and the default partition catches rows of missing months.
+-- The primary key of a partitioned table has to include the partition key.
+
+SET LOCAL timezone = 'UTC';
+
+CREATE TABLE collection_history_entry_partitioned (
+    id              bigint      GENERATED ALWAYS AS IDENTITY,
+    user_id         uuid        NOT NULL
+        CONSTRAINT collection_history_entry_user_id_fkey REFERENCES app_user (id),
+    label           text,
+    printing_id     integer     NOT NULL
+        CONSTRAINT collection_history_entry_printing_id_fkey REFERENCES printing (id),
+    previous_qty    integer     NOT NULL,
+    new_qty         integer     NOT NULL,
+    changed_at      timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, changed_at)
+) PARTITION BY RANGE (changed_at);
+
+CREATE TABLE collection_history_entry_default
+    PARTITION OF collection_history_entry_partitioned DEFAULT;
+
+-- One partition per month from the oldest entry until three months ahead
+DO $$
+DECLARE
+    partition_start timestamptz := date_trunc('month',
+        coalesce((SELECT min(changed_at) FROM collection_history_entry), now()));
+BEGIN
+    WHILE partition_start <= date_trunc('month', now()) + interval '3 months' LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF collection_history_entry_partitioned '
+                || 'FOR VALUES FROM (%L) TO (%L)',
+            'collection_history_entry_' || to_char(partition_start, '"y"YYYY"m"MM'),
+            partition_start,
+            partition_start + interval '1 month');
+        partition_start := partition_start + interval '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO collection_history_entry_partitioned
+    (id, user_id, label, printing_id, previous_qty, new_qty, changed_at)
+OVERRIDING SYSTEM VALUE
+SELECT id, user_id, label, printing_id, previous_qty, new_qty, changed_at
+FROM collection_history_entry;
+
+SELECT setval(
+    pg_get_serial_sequence('collection_history_entry_partitioned', 'id'),
+    (SELECT coalesce(max(id), 0) + 1 FROM collection_history_entry),
+    false);
+
+DROP TABLE collection_history_entry;
+
+ALTER TABLE collection_history_entry_partitioned RENAME TO collection_history_entry;
+ALTER TABLE collection_history_entry
+    RENAME CONSTRAINT collection_history_entry_partitioned_pkey TO collection_history_entry_pkey;
+ALTER SEQUENCE collection_history_entry_partitioned_id_seq
+    RENAME TO collection_history_entry_id_seq;
+
+-- Time ranges are pruned to their partitions, so changed_at needs no index of its own
+CREATE INDEX idx_collection_history_printing_id ON collection_history_entry (printing_id);
+CREATE INDEX idx_collection_history_user_version ON collection_history_entry (user_id, id);
+CREATE INDEX idx_collection_history_user_changed_at
+    ON collection_history_entry (user_id, changed_at);
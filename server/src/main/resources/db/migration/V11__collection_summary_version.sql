@@ -0,0 +1,23 @@
+-- ---------------------------------------------------------------------------
+-- Collection version in the summary
+-- ---------------------------------------------------------------------------
+-- collection_summary.version is the id of the user's latest history entry, so
+-- that reading the version is a key lookup. Writers update the summary row
+-- before they take history ids, so that the row lock orders a user's ids. A
+-- single changed entry takes its id explicitly in the summary upsert, which
+-- needs the identity to accept given values.
+
+ALTER TABLE collection_summary ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+INSERT INTO collection_summary (user_id)
+SELECT DISTINCT user_id FROM collection_history_entry
+ON CONFLICT (user_id) DO NOTHING;
+
+UPDATE collection_summary s
+SET version = h.version
+FROM (SELECT user_id, max(id) AS version
+      FROM collection_history_entry
+      GROUP BY user_id) h
+WHERE h.user_id = s.user_id;
+
+ALTER TABLE collection_history_entry ALTER COLUMN id SET GENERATED BY DEFAULT;
@@ -0,0 +1,17 @@
+-- ---------------------------------------------------------------------------
+-- History entries since the last snapshot
+-- ---------------------------------------------------------------------------
+-- Writers add their history entries to collection_summary.since_snapshot in the
+-- statement that updates the summary anyway, and take a snapshot once it
+-- reaches the snapshot interval, which resets it. Writes no longer count the
+-- history since the latest snapshot to find out.
+
+ALTER TABLE collection_summary ADD COLUMN since_snapshot bigint NOT NULL DEFAULT 0;
+
+UPDATE collection_summary s
+SET since_snapshot = (
+  SELECT count(*)
+  FROM collection_history_entry h
+  WHERE h.user_id = s.user_id
+    AND h.id > coalesce(
+      (SELECT max(c.history_id) FROM collection_snapshot c WHERE c.user_id = s.user_id), 0));
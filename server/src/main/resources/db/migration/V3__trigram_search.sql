@@ -0,0 +1,12 @@
+-- Substring searches (ILIKE '%...%') on names, readings and ability text can't use
+-- B-tree indexes. Trigram GIN indexes serve them for search strings of 3+ characters.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_card_name_trgm ON card USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_card_side_name_reading_trgm ON card_side USING GIN (name_reading gin_trgm_ops);
+
+DROP INDEX idx_ability_search_text;
+CREATE INDEX idx_ability_search_text_trgm ON ability USING GIN (search_text gin_trgm_ops);
+
+-- Effect searches go from the matching abilities to the printing sides using them
+CREATE INDEX idx_printing_side_ability_ability_id ON printing_side_ability (ability_id);
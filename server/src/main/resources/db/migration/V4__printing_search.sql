@@ -0,0 +1,48 @@
+-- ---------------------------------------------------------------------------
+-- Printing Search (denormalized search projection)
+-- ---------------------------------------------------------------------------
+-- One row per printing with everything card searches filter, sort and display
+-- on, so that a search reads a single table instead of joining printing, card,
+-- card_set, rarity, card_side and the side junction tables.
+--
+-- Derived entirely from the catalog tables and rebuilt by the application at
+-- the end of every card data import. No foreign keys: the import rewrites
+-- printings, cards and sets before the projection catches up.
+--
+-- Side-level filters (cost, power, card type) must match on a single side, so
+-- they are kept per side rather than merged:
+--   cost_filters / power_filters  card_side.cost_filter / power_filter of every
+--                                 side that has one
+--   side_type_keys                side_order * 65536 + card_type_id for every
+--                                 side and type, 0 as type for untyped sides
+
+CREATE TABLE printing_search (
+    printing_id         integer     PRIMARY KEY,
+    card_id             integer     NOT NULL,
+    set_id              integer     NOT NULL,
+    release_date        date        NOT NULL,
+    rarity_order        smallint    NOT NULL,   -- rarity.sort_order, 0 = no rarity
+    official_site_id    text,
+    collector_number    text,
+    is_twinpact         boolean     NOT NULL,
+    sort_cost           integer,
+    sort_power          integer,
+    name                text        NOT NULL,
+    name_readings       text,                   -- readings of all sides, newline separated
+    cost_filters        integer[]   NOT NULL,
+    power_filters       integer[]   NOT NULL,
+    type_ids            smallint[]  NOT NULL,   -- card types of any side
+    side_type_keys      integer[]   NOT NULL,
+    race_ids            smallint[]  NOT NULL,   -- races of any side
+    civ_mask            smallint    NOT NULL,   -- civs of the printing's sides: bit n = civ id n, bit 0 = colorless side
+    image_filenames     text[]      NOT NULL    -- in side order, sides without image left out
+);
+
+-- Default order: newest first
+CREATE INDEX idx_printing_search_release ON printing_search (release_date DESC, official_site_id, printing_id);
+CREATE INDEX idx_printing_search_card_id ON printing_search (card_id);
+CREATE INDEX idx_printing_search_set_id ON printing_search (set_id);
+CREATE INDEX idx_printing_search_type_ids ON printing_search USING GIN (type_ids);
+CREATE INDEX idx_printing_search_race_ids ON printing_search USING GIN (race_ids);
+CREATE INDEX idx_printing_search_name_trgm ON printing_search USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_printing_search_name_readings_trgm ON printing_search USING GIN (name_readings gin_trgm_ops);
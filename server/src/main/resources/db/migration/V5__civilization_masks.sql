@@ -0,0 +1,30 @@
+-- ---------------------------------------------------------------------------
+-- Civilization bitmasks
+-- ---------------------------------------------------------------------------
+-- Civilization filters test a handful of bits instead of comparing arrays.
+-- Layout of every civ_mask: bit n = civilization id n (1–5), bit 0 = colorless
+--   card_side.civ_mask        bit 0 when the side has no civilizations
+--   card_civ_group.civ_mask   bit 0 when includes_colorless_side
+-- Written by the card data import next to civilization_ids.
+
+ALTER TABLE card_side ADD COLUMN civ_mask smallint NOT NULL DEFAULT 0;
+ALTER TABLE card_civ_group ADD COLUMN civ_mask smallint NOT NULL DEFAULT 0;
+
+UPDATE card_side
+SET civ_mask = (SELECT coalesce(sum(1 << id), 0) FROM unnest(civilization_ids) AS id)
+             + CASE WHEN cardinality(civilization_ids) = 0 THEN 1 ELSE 0 END;
+
+UPDATE card_civ_group
+SET civ_mask = (SELECT coalesce(sum(1 << id), 0) FROM unnest(civilization_ids) AS id)
+             + CASE WHEN includes_colorless_side THEN 1 ELSE 0 END;
+
+-- Replaced by the masks
+DROP INDEX idx_card_civ_group_civs;
+DROP INDEX idx_card_civ_group_civ_count;
+
+-- Civ groups of the printing's card, so that searches filter civilizations
+-- without looking up card_civ_group
+ALTER TABLE printing_search ADD COLUMN civ_group_masks smallint[] NOT NULL DEFAULT '{}';
+
+UPDATE printing_search ps
+SET civ_group_masks = ARRAY(SELECT g.civ_mask FROM card_civ_group g WHERE g.card_id = ps.card_id);
@@ -0,0 +1,4 @@
+-- The collection version of a user is the id of their latest history entry,
+-- and stub deltas read the entries after a version
+CREATE INDEX idx_collection_history_user_version ON collection_history_entry (user_id, id);
+DROP INDEX idx_collection_history_user_id;
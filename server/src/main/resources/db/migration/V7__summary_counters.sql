@@ -0,0 +1,30 @@
+-- ---------------------------------------------------------------------------
+-- Summary counters
+-- ---------------------------------------------------------------------------
+-- Unique and total card counts shown in the collection and deck headers.
+-- Kept up to date by the code writing collection_entry and the draft's
+-- deck_version_entry rows; SummaryCounters.repair() recomputes them.
+
+CREATE TABLE collection_summary (
+    user_id         uuid        PRIMARY KEY REFERENCES app_user (id) ON DELETE CASCADE,
+    unique_count    bigint      NOT NULL DEFAULT 0,
+    total_count     bigint      NOT NULL DEFAULT 0
+);
+
+INSERT INTO collection_summary (user_id, unique_count, total_count)
+SELECT user_id, count(*), sum(quantity)
+FROM collection_entry
+GROUP BY user_id;
+
+-- Counts of the deck's draft version
+ALTER TABLE deck ADD COLUMN unique_count bigint NOT NULL DEFAULT 0;
+ALTER TABLE deck ADD COLUMN total_count bigint NOT NULL DEFAULT 0;
+
+UPDATE deck d
+SET unique_count = s.unique_count, total_count = s.total_count
+FROM (SELECT v.deck_id, count(*) AS unique_count, sum(e.quantity) AS total_count
+      FROM deck_version v
+      JOIN deck_version_entry e ON e.deck_version_id = v.id
+      WHERE v.is_draft
+      GROUP BY v.deck_id) s
+WHERE s.deck_id = d.id;
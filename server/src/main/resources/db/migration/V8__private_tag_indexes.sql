@@ -0,0 +1,4 @@
+-- Tag searches load all printings and cards of a user's tags, and deleting a
+-- tag cascades to its links
+CREATE INDEX idx_card_private_tag_private_tag_id ON card_private_tag (private_tag_id);
+CREATE INDEX idx_printing_private_tag_private_tag_id ON printing_private_tag (private_tag_id);
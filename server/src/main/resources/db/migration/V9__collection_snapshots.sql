@@ -0,0 +1,20 @@
+-- ---------------------------------------------------------------------------
+-- Collection snapshots
+-- ---------------------------------------------------------------------------
+-- A user's whole collection after their history entry history_id, taken
+-- every so many history entries. The collection at a point in time is the
+-- latest snapshot before it plus the history entries after the snapshot.
+
+CREATE TABLE collection_snapshot (
+    id              bigint      GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    user_id         uuid        NOT NULL REFERENCES app_user (id) ON DELETE CASCADE,
+    history_id      bigint      NOT NULL,
+    taken_at        timestamptz NOT NULL DEFAULT now(),
+    printing_ids    integer[]   NOT NULL,
+    quantities      integer[]   NOT NULL
+);
+
+CREATE INDEX idx_collection_snapshot_user_history ON collection_snapshot (user_id, history_id);
+
+-- The history timeline reads a user's entries by time
+CREATE INDEX idx_collection_history_user_changed_at ON collection_history_entry (user_id, changed_at);
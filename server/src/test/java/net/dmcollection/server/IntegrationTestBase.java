@@ -3,9 +3,11 @@ package net.dmcollection.server;
 import static net.dmcollection.server.jooq.generated.Tables.APP_USER;
 
 import java.util.UUID;
+import net.dmcollection.server.card.internal.CatalogVersion;
 import net.dmcollection.server.card.internal.query.CardTypeResolver;
 import net.dmcollection.server.user.User;
 import org.jooq.DSLContext;
+import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
@@ -29,6 +31,13 @@ public abstract class IntegrationTestBase {
 
   @Autowired protected DSLContext dsl;
   @Autowired protected CardTypeResolver cardTypeResolver;
+  @Autowired protected CatalogVersion catalogVersion;
+
+  /** Each test brings its own cards, so nothing cached for another test may be served. */
+  @BeforeEach
+  void newCatalogVersion() {
+    catalogVersion.changed();
+  }
 
   protected User createUser(String namePrefix) {
     return dsl.insertInto(APP_USER)
@@ -18,6 +18,7 @@ import static net.dmcollection.server.jooq.generated.Tables.PRODUCT_TYPE;
 import static net.dmcollection.server.jooq.generated.Tables.RACE;
 import static net.dmcollection.server.jooq.generated.Tables.RARITY;
 import static net.dmcollection.server.jooq.generated.Tables.SET_GROUP;
+import static org.jooq.impl.DSL.val;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -35,11 +36,14 @@ import java.util.stream.Collectors;
 import net.dmcollection.server.card.CardService.CardStub;
 import net.dmcollection.server.card.Civilization;
 import net.dmcollection.server.card.RarityCode;
+import net.dmcollection.server.card.internal.PrintingSearchProjection;
 import net.dmcollection.server.card.internal.SearchFilter;
 import net.dmcollection.server.card.internal.SearchFilter.CardType;
 import net.dmcollection.server.card.internal.SearchFilter.FilterState;
 import net.dmcollection.server.card.internal.SearchFilter.Range;
 import net.dmcollection.server.card.internal.SearchFilter.RarityFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagMatch;
 import net.dmcollection.server.card.internal.query.CardTypeResolver;
 import org.jooq.DSLContext;
 import org.springframework.data.domain.Pageable;
@@ -59,6 +63,7 @@ public class TestFixtureBuilder {
   private final Map<String, Integer> abilities = new HashMap<>();
   private final Map<RarityCode, Short> rarities = new EnumMap<>(RarityCode.class);
   private final CardTypeResolver cardTypeResolver;
+  private final PrintingSearchProjection printingSearchProjection;
 
   private Short defaultProductTypeId;
   private Integer defaultSetGroupId;
@@ -79,6 +84,7 @@ public class TestFixtureBuilder {
   public TestFixtureBuilder(DSLContext dsl, CardTypeResolver cardTypeResolver) {
     this.dsl = dsl;
     this.cardTypeResolver = cardTypeResolver;
+    this.printingSearchProjection = new PrintingSearchProjection(dsl);
   }
 
   public static SearchBuilder search() {
@@ -214,6 +220,7 @@ public class TestFixtureBuilder {
         .set(CARD_SIDE_RACE.RACE_ID, raceId)
         .set(CARD_SIDE_RACE.POSITION, position)
         .execute();
+    refreshPrintingSearch();
   }
 
   public CardStub multiCard(String officialId, Civilization... civs) {
@@ -545,6 +552,7 @@ public class TestFixtureBuilder {
               .set(CARD_SIDE.POWER, powerIsInfinity ? null : power)
               .set(CARD_SIDE.POWER_IS_INFINITY, powerIsInfinity)
               .set(CARD_SIDE.CIVILIZATION_IDS, civIds)
+              .set(CARD_SIDE.CIV_MASK, civMask(civIds, civIds.length == 0))
               .returningResult(CARD_SIDE.ID)
               .fetchOne(CARD_SIDE.ID);
       cardSideIds.add(cardSideId);
@@ -647,9 +655,53 @@ public class TestFixtureBuilder {
             0,
             0);
     testCards.put((long) printingId, stub);
+    refreshPrintingSearch();
     return stub;
   }
 
+  /** Another printing of the card of {@code original}, in the given set. */
+  public CardStub reprint(CardStub original, String officialId, int setId) {
+    int cardSetId = ensureCardSet(setId);
+    Integer cardId =
+        dsl.select(PRINTING.CARD_ID)
+            .from(PRINTING)
+            .where(PRINTING.ID.eq(original.id().intValue()))
+            .fetchOne(PRINTING.CARD_ID);
+    Integer printingId =
+        dsl.insertInto(PRINTING)
+            .set(PRINTING.CARD_ID, cardId)
+            .set(PRINTING.SET_ID, cardSetId)
+            .set(PRINTING.OFFICIAL_SITE_ID, officialId)
+            .set(PRINTING.COLLECTOR_NUMBER, original.idText())
+            .returningResult(PRINTING.ID)
+            .fetchOne(PRINTING.ID);
+    dsl.insertInto(PRINTING_SIDE, PRINTING_SIDE.PRINTING_ID, PRINTING_SIDE.CARD_SIDE_ID)
+        .select(
+            dsl.select(val(printingId), CARD_SIDE.ID)
+                .from(CARD_SIDE)
+                .where(CARD_SIDE.CARD_ID.eq(cardId))
+                .orderBy(CARD_SIDE.SIDE_ORDER))
+        .execute();
+
+    CardStub stub =
+        new CardStub(
+            (long) printingId,
+            officialId,
+            original.idText(),
+            original.civilizations(),
+            List.of(),
+            0,
+            0);
+    testCards.put((long) printingId, stub);
+    refreshPrintingSearch();
+    return stub;
+  }
+
+  /** Rebuilds the search projection, needed after changing catalog data outside this builder. */
+  public void refreshPrintingSearch() {
+    printingSearchProjection.rebuild();
+  }
+
   private void insertCivGroups(int cardId, boolean twinpact, List<Set<Civilization>> facetCivs) {
     if (twinpact) {
       // Twinpact: single row with union of all sides' civilizations
@@ -668,6 +720,7 @@ public class TestFixtureBuilder {
           .set(CARD_CIV_GROUP.CARD_ID, cardId)
           .set(CARD_CIV_GROUP.CIVILIZATION_IDS, civIds)
           .set(CARD_CIV_GROUP.INCLUDES_COLORLESS_SIDE, includesColorlessSide)
+          .set(CARD_CIV_GROUP.CIV_MASK, civMask(civIds, includesColorlessSide))
           .execute();
     } else {
       // Non-twinpact: one row per side
@@ -681,11 +734,21 @@ public class TestFixtureBuilder {
             .set(CARD_CIV_GROUP.CARD_ID, cardId)
             .set(CARD_CIV_GROUP.CIVILIZATION_IDS, civIds)
             .set(CARD_CIV_GROUP.INCLUDES_COLORLESS_SIDE, includesColorlessSide)
+            .set(CARD_CIV_GROUP.CIV_MASK, civMask(civIds, includesColorlessSide))
             .execute();
       }
     }
   }
 
+  /** Bit n for civilization id n, bit 0 for colorless, as written by the import. */
+  private static short civMask(Short[] civIds, boolean colorless) {
+    int mask = colorless ? 1 : 0;
+    for (short civId : civIds) {
+      mask |= 1 << civId;
+    }
+    return (short) mask;
+  }
+
   private void ensureDefaultLookups() {
     if (defaultProductTypeId == null) {
       defaultProductTypeId =
@@ -830,6 +893,7 @@ public class TestFixtureBuilder {
     private String effectSearch = null;
     private RarityFilter rarity = null;
     private String nameSearch = null;
+    private TagFilter tagFilter = null;
     private Pageable pageable = null;
 
     private void makeCivSet() {
@@ -876,6 +940,11 @@ public class TestFixtureBuilder {
       return this;
     }
 
+    public SearchBuilder setTagFilter(TagMatch match, Integer... tagIds) {
+      this.tagFilter = new TagFilter(Set.of(tagIds), match);
+      return this;
+    }
+
     public SearchBuilder setPageable(Pageable pageable) {
       this.pageable = pageable;
       return this;
@@ -952,6 +1021,7 @@ public class TestFixtureBuilder {
           nameSearch,
           effectSearch,
           null,
+          tagFilter,
           pageable);
     }
   }
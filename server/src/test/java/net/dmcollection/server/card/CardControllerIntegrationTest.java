@@ -1,18 +1,27 @@
 package net.dmcollection.server.card;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import net.dmcollection.server.IntegrationTestBase;
 import net.dmcollection.server.TestFixtureBuilder;
 import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.internal.CardDetailCache;
 import net.dmcollection.server.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 class CardControllerIntegrationTest extends IntegrationTestBase {
 
   @Autowired MockMvc mockMvc;
+  @Autowired CardDetailCache cardDetailCache;
 
   TestFixtureBuilder fixtures;
   User testUser;
@@ -113,6 +123,98 @@ class CardControllerIntegrationTest extends IntegrationTestBase {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  void getCardReturnsETag() throws Exception {
+    fixtures.monoCard("ctrl-etag-1", Civilization.FIRE);
+
+    mockMvc
+        .perform(get("/api/card/ctrl-etag-1").with(user(testUser)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", cardDetailCache.keyFor("ctrl-etag-1").etag()))
+        .andExpect(header().string("Cache-Control", "no-cache"));
+  }
+
+  @Test
+  void getCardAnswersMatchingETagWithNotModified() throws Exception {
+    fixtures.monoCard("ctrl-etag-2", Civilization.FIRE);
+    String etag =
+        mockMvc
+            .perform(get("/api/card/ctrl-etag-2").with(user(testUser)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+    mockMvc
+        .perform(get("/api/card/ctrl-etag-2").header("If-None-Match", etag).with(user(testUser)))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", etag))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void getCardServesCachedCardUntilCatalogChanges() throws Exception {
+    fixtures.monoCard("ctrl-cached", Civilization.DARK);
+    mockMvc
+        .perform(get("/api/card/ctrl-cached").with(user(testUser)))
+        .andExpect(jsonPath("$.facets[0].civilizations[0]").value("闇"));
+    dsl.execute("UPDATE card_side SET name = 'renamed' WHERE name = 'ctrl-cached'");
+
+    mockMvc
+        .perform(get("/api/card/ctrl-cached").with(user(testUser)))
+        .andExpect(jsonPath("$.facets[0].name").value("ctrl-cached"));
+
+    String oldEtag = cardDetailCache.keyFor("ctrl-cached").etag();
+    catalogVersion.changed();
+    mockMvc
+        .perform(
+            get("/api/card/ctrl-cached").header("If-None-Match", oldEtag).with(user(testUser)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.facets[0].name").value("renamed"));
+  }
+
+  @Test
+  void getCardDetailsReturnsCardsInRequestedOrder() throws Exception {
+    fixtures.monoCard("ctrl-batch-1", Civilization.LIGHT);
+    fixtures.twinpact("ctrl-batch-2", Set.of(Civilization.FIRE), Set.of(Civilization.NATURE));
+    fixtures.monoCard("ctrl-batch-3", Civilization.WATER);
+    // Cached before the batch request
+    mockMvc.perform(get("/api/card/ctrl-batch-3").with(user(testUser)));
+
+    mockMvc
+        .perform(
+            post("/api/cards/details")
+                .with(user(testUser))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "[\"ctrl-batch-3\", \"nonexistent\", \"ctrl-batch-2\", \"ctrl-batch-1\","
+                        + " \"ctrl-batch-3\"]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].dmId").value("ctrl-batch-3"))
+        .andExpect(jsonPath("$[1].dmId").value("ctrl-batch-2"))
+        .andExpect(jsonPath("$[1].facets.length()").value(2))
+        .andExpect(jsonPath("$[2].dmId").value("ctrl-batch-1"));
+  }
+
+  @Test
+  void getCardDetailsRejectsTooManyIds() throws Exception {
+    String ids =
+        IntStream.rangeClosed(1, 101)
+            .mapToObj(i -> "\"id-" + i + "\"")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    mockMvc
+        .perform(
+            post("/api/cards/details")
+                .with(user(testUser))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   void getCardRequiresAuthentication() throws Exception {
     mockMvc.perform(get("/api/card/anything")).andExpect(status().isUnauthorized());
@@ -10,19 +10,36 @@ import static net.dmcollection.server.card.Civilization.LIGHT;
 import static net.dmcollection.server.card.Civilization.NATURE;
 import static net.dmcollection.server.card.Civilization.WATER;
 import static net.dmcollection.server.card.Civilization.ZERO;
+import static net.dmcollection.server.jooq.generated.Tables.CARD_SIDE;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.PRINTING;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jooq.impl.DSL.select;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import net.dmcollection.server.IntegrationTestBase;
 import net.dmcollection.server.TestFixtureBuilder;
 import net.dmcollection.server.card.CardService.CardStub;
 import net.dmcollection.server.card.internal.CardQueryService;
+import net.dmcollection.server.card.internal.CardQueryService.ScrollResult;
+import net.dmcollection.server.card.internal.CardQueryService.SearchResult;
+import net.dmcollection.server.card.internal.CatalogIndex;
+import net.dmcollection.server.card.internal.CatalogVersion;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
+import net.dmcollection.server.card.internal.PrivateTagCache;
+import net.dmcollection.server.card.internal.RarityService;
 import net.dmcollection.server.card.internal.SearchFilter;
 import net.dmcollection.server.card.internal.SearchFilter.CardType;
 import net.dmcollection.server.card.internal.SearchFilter.FilterState;
 import net.dmcollection.server.card.internal.SearchFilter.Range;
+import net.dmcollection.server.card.internal.SearchTotalsCache;
+import net.dmcollection.server.card.internal.SummaryCounters;
+import net.dmcollection.server.card.internal.query.SearchFilterTranslator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +53,11 @@ import org.springframework.transaction.annotation.Transactional;
 class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
   @Autowired CardQueryService cardQueryService;
+  @Autowired SearchFilterTranslator searchFilterTranslator;
+  @Autowired RarityService rarityService;
+  @Autowired PrivateTagCache privateTagCache;
+  @Autowired OwnedPrintingCache ownedPrintingCache;
+  @Autowired SummaryCounters summaryCounters;
 
   TestFixtureBuilder utils;
 
@@ -63,7 +85,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
     SearchFilter filter =
         search().addIncludedCivs(LIGHT).setIncludeMono(true).setIncludeRainbow(false).build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, mono);
   }
 
@@ -95,7 +117,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
     SearchFilter filter = search().setTwinpact(FilterState.ONLY).build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, twinpact);
   }
 
@@ -125,7 +147,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
     SearchFilter filter = search().setTwinpact(FilterState.EX).build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, mono);
   }
 
@@ -144,7 +166,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(true)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, lightAndDark);
   }
 
@@ -165,7 +187,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(true)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, lightAndDark);
   }
 
@@ -184,7 +206,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(true)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, rainbow, twinpact, twinpact2);
   }
 
@@ -205,7 +227,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(true)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, rainbow, twinpact2, twinpact3);
   }
 
@@ -230,7 +252,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(false)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(
         result,
         fire,
@@ -265,7 +287,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             .setMatchExactRainbowCivs(false)
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, rainbow, rainbow2, twinpact, twinpact2, twinpact3, twinpact4);
   }
 
@@ -284,7 +306,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
             List.of(9000),
             List.of(CREATURE));
     SearchFilter filter = search().build();
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, dm01);
   }
 
@@ -320,7 +342,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
     SearchFilter filter = search().build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, card1, card2, card3, card4);
   }
 
@@ -366,7 +388,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
                         .and(Sort.by("official_site_id").ascending())))
             .build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, card1, card2);
     filter =
         search()
@@ -378,7 +400,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
                         .descending()
                         .and(Sort.by("official_site_id").ascending())))
             .build();
-    result = cardQueryService.search(filter).pageOfCards();
+    result = searchCards(filter);
     assertPageEquals(result, card3, card4);
   }
 
@@ -400,7 +422,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
     SearchFilter filter = search().setSetId((long) utils.getCardSetId(2)).build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, expected);
   }
 
@@ -412,7 +434,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
 
     SearchFilter filter = search().addIncludedCivs(WATER).setIncludeMono(true).build();
 
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertThat(result.getTotalElements()).isZero();
   }
 
@@ -871,6 +893,34 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
     assertQueryFinds(filter, card, card2);
   }
 
+  @Test
+  void findsCardsByNameReading() {
+    var card = utils.monoCard("超神星DEATH・ドラゲリオン", 8, 11000, DARK);
+    var card2 = utils.monoCard("超神星ライラ・ボルストーム", 5, 18000, FIRE);
+    setNameReading(card, "ちょうしんせいデス・ドラゲリオン");
+    setNameReading(card2, "ちょうしんせいライラ・ボルストーム");
+
+    SearchFilter filter = search().setNameSearch("ちょうしんせい").build();
+    assertQueryFinds(filter, card, card2);
+
+    filter = search().setNameSearch("デス").build();
+    assertQueryFinds(filter, card);
+
+    // Quoted searches only match the full name
+    filter = search().setNameSearch("\"ちょうしんせいデス・ドラゲリオン\"").build();
+    assertQueryFindsNothing(filter);
+  }
+
+  private void setNameReading(CardStub card, String reading) {
+    var cardId =
+        select(PRINTING.CARD_ID).from(PRINTING).where(PRINTING.ID.eq(card.id().intValue()));
+    dsl.update(CARD_SIDE)
+        .set(CARD_SIDE.NAME_READING, reading)
+        .where(CARD_SIDE.CARD_ID.eq(cardId))
+        .execute();
+    utils.refreshPrintingSearch();
+  }
+
   @Test
   void ignoresEmptyNameSearch() {
     var card = utils.monoCard("超神星DEATH・ドラゲリオン", 8, 11000, DARK);
@@ -1094,12 +1144,370 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
     assertQueryFindsInOrder(filter, fiveCost, threeCost, oneCost, zeroCost, nullCost);
   }
 
+  @Test
+  void countsTotalsOfEveryPage() {
+    var user = createUser("totals-");
+    for (int i = 1; i <= 5; i++) {
+      collect(user.getId(), utils.monoCard("TOTAL-" + i, i, FIRE), i);
+    }
+
+    for (int page = 0; page < 4; page++) {
+      var result =
+          cardQueryService.search(search().setPageable(PageRequest.of(page, 2)).build());
+      assertThat(result.pageOfCards().getTotalElements()).isEqualTo(5);
+      assertThat(result.totalExact()).isTrue();
+
+      var collected =
+          cardQueryService.search(
+              search()
+                  .setPageable(PageRequest.of(page, 2))
+                  .build()
+                  .withCollectionFilter(user.getId(), true));
+      assertThat(collected.pageOfCards().getTotalElements()).isEqualTo(5);
+      assertThat(collected.totalCollected()).isEqualTo(15);
+    }
+  }
+
+  @Test
+  void searchesCollectionAndSortsByAmountInBothPaths() {
+    var user = createUser("owned-");
+    var fire = utils.monoCard("OWNED-1", 1, FIRE);
+    var water = utils.monoCard("OWNED-2", 2, WATER);
+    utils.monoCard("OWNED-3", 3, DARK);
+    collect(user.getId(), fire, 1);
+    collect(user.getId(), water, 3);
+
+    Sort byAmount = Sort.by("AMOUNT").descending();
+    Page<CardStub> collected =
+        searchCards(
+            search()
+                .setPageable(PageRequest.of(0, 1, byAmount))
+                .build()
+                .withCollectionFilter(user.getId(), true));
+    assertThat(collected.getContent()).extracting(CardStub::id).containsExactly(water.id());
+    assertThat(collected.getTotalElements()).isEqualTo(2);
+
+    Page<CardStub> all =
+        searchCards(
+            search()
+                .setPageable(Pageable.unpaged(byAmount))
+                .build()
+                .withCollectionFilter(user.getId(), false));
+    assertThat(all.getContent()).extracting(CardStub::amount).startsWith(3, 1, 0);
+
+    collect(user.getId(), utils.monoCard("OWNED-4", 4, DARK), 5);
+    collected =
+        searchCards(
+            search()
+                .setPageable(PageRequest.of(0, 1, byAmount))
+                .build()
+                .withCollectionFilter(user.getId(), true));
+    assertThat(collected.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void collectionSearchStrategiesFindTheSameCards() {
+    var user = createUser("strategy-");
+    for (int i = 1; i <= 6; i++) {
+      var card = utils.monoCard("STRATEGY-" + i, i, i % 2 == 0 ? FIRE : WATER);
+      if (i != 3) {
+        collect(user.getId(), card, i);
+      }
+    }
+    var emptyUser = createUser("strategy-empty-");
+    var unloaded = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    var catalogDriven = queryService(unloaded, uncachedTotals(), 0, 0);
+    var collectionDriven = queryService(unloaded, uncachedTotals(), 0, Long.MAX_VALUE);
+
+    List<SearchFilter> filters =
+        List.of(
+            search().setPageable(PageRequest.of(0, 2, Sort.by("AMOUNT").descending())).build(),
+            search().setPageable(PageRequest.of(1, 2, Sort.by("sort_cost"))).build(),
+            search().addIncludedCivs(FIRE).setPageable(Pageable.unpaged()).build(),
+            search().setNameSearch("STRATEGY-4").setPageable(Pageable.unpaged()).build());
+    for (SearchFilter filter : filters) {
+      for (UUID userId : List.of(user.getId(), emptyUser.getId())) {
+        SearchFilter collectionFilter = filter.withCollectionFilter(userId, true);
+        SearchResult expected = catalogDriven.search(collectionFilter);
+        SearchResult actual = collectionDriven.search(collectionFilter);
+
+        assertThat(actual.pageOfCards().getContent())
+            .usingRecursiveComparison()
+            .isEqualTo(expected.pageOfCards().getContent());
+        assertThat(actual.pageOfCards().getTotalElements())
+            .isEqualTo(expected.pageOfCards().getTotalElements());
+        assertThat(actual.totalCollected()).isEqualTo(expected.totalCollected());
+        assertThat(collectionDriven.scroll(collectionFilter, null).cards())
+            .usingRecursiveComparison()
+            .isEqualTo(catalogDriven.scroll(collectionFilter, null).cards());
+      }
+    }
+    assertThat(
+            collectionDriven
+                .search(filters.getFirst().withCollectionFilter(user.getId(), true))
+                .totalCollected())
+        .isEqualTo(1 + 2 + 4 + 5 + 6);
+  }
+
+  @Test
+  void streamsTheCardsOfAnUnpagedSearch() {
+    var user = createUser("stream-");
+    for (int i = 1; i <= 5; i++) {
+      var card = utils.monoCard("STREAM-" + i, i, i % 2 == 0 ? FIRE : WATER);
+      collect(user.getId(), card, i);
+    }
+    utils.monoCard("STREAM-6", 6, DARK);
+
+    List<SearchFilter> filters =
+        List.of(
+            search().setPageable(Pageable.unpaged(Sort.by("sort_cost").descending())).build(),
+            search().addIncludedCivs(FIRE).setPageable(Pageable.unpaged()).build(),
+            search()
+                .setPageable(Pageable.unpaged(Sort.by("AMOUNT").descending()))
+                .build()
+                .withCollectionFilter(user.getId(), true));
+    for (SearchFilter filter : filters) {
+      List<CardStub> streamed = new ArrayList<>();
+      cardQueryService.stream(filter, streamed::add);
+      assertThat(streamed)
+          .usingRecursiveComparison()
+          .isEqualTo(searchCards(filter).getContent());
+    }
+  }
+
+  @Test
+  void cachesCatalogTotalsUntilCatalogChanges() {
+    var catalogIndex = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    var catalogVersion = new CatalogVersion();
+    var totalsCache = new SearchTotalsCache(catalogVersion);
+    var service =
+        queryService(catalogIndex, totalsCache, 0, DEFAULT_COLLECTION_DRIVEN_MAX_ENTRIES);
+    for (int i = 1; i <= 3; i++) {
+      utils.monoCard("CACHED-" + i, FIRE);
+    }
+    var firstPage = search().setPageable(PageRequest.of(0, 2)).build();
+    var secondPage = search().setPageable(PageRequest.of(1, 1)).build();
+
+    // Nothing is cached before the catalog version is known
+    assertThat(service.search(firstPage).pageOfCards().getTotalElements()).isEqualTo(3);
+    utils.monoCard("CACHED-4", FIRE);
+    assertThat(service.search(firstPage).pageOfCards().getTotalElements()).isEqualTo(4);
+
+    catalogVersion.changed();
+    assertThat(service.search(firstPage).pageOfCards().getTotalElements()).isEqualTo(4);
+    utils.monoCard("CACHED-5", FIRE);
+    // Same filter with a different page still hits the cache
+    assertThat(service.search(secondPage).pageOfCards().getTotalElements()).isEqualTo(4);
+
+    catalogVersion.changed();
+    assertThat(service.search(secondPage).pageOfCards().getTotalElements()).isEqualTo(5);
+  }
+
+  @Test
+  void estimatesLargeTotalsIfEnabled() {
+    var catalogIndex = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    var service =
+        queryService(catalogIndex, uncachedTotals(), 1, DEFAULT_COLLECTION_DRIVEN_MAX_ENTRIES);
+    for (int i = 1; i <= 3; i++) {
+      utils.monoCard("ESTIMATE-" + i, FIRE);
+    }
+
+    var firstPage = service.search(search().setPageable(PageRequest.of(0, 2)).build());
+    assertThat(firstPage.pageOfCards().getContent()).hasSize(2);
+    assertThat(firstPage.totalExact()).isFalse();
+
+    // A page that is not full is known to be the last one
+    var lastPage = service.search(search().setPageable(PageRequest.of(1, 2)).build());
+    assertThat(lastPage.pageOfCards().getTotalElements()).isEqualTo(3);
+    assertThat(lastPage.totalExact()).isTrue();
+  }
+
+  @Test
+  void cachesEstimatedTotals() {
+    var catalogIndex = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    var catalogVersion = new CatalogVersion();
+    catalogVersion.changed();
+    var totalsCache = new SearchTotalsCache(catalogVersion);
+    var service =
+        queryService(catalogIndex, totalsCache, 1, DEFAULT_COLLECTION_DRIVEN_MAX_ENTRIES);
+    for (int i = 1; i <= 3; i++) {
+      utils.monoCard("ESTIMATE-" + i, FIRE);
+    }
+    var firstPage = search().setPageable(PageRequest.of(0, 2)).build();
+
+    long estimate = service.search(firstPage).pageOfCards().getTotalElements();
+
+    var cached = totalsCache.get(totalsCache.keyFor(firstPage));
+    assertThat(cached).isEqualTo(new SearchTotalsCache.Total(estimate, false));
+    var again = service.search(firstPage);
+    assertThat(again.pageOfCards().getTotalElements()).isEqualTo(estimate);
+    assertThat(again.totalExact()).isFalse();
+  }
+
+  @Test
+  void scrollingVisitsAllCardsInSearchOrder() {
+    utils.monoCard("SCROLL-1", 3, FIRE);
+    utils.monoCard("SCROLL-2", null, WATER);
+    utils.monoCard("SCROLL-3", 3, 2000, DARK);
+    utils.monoCard("SCROLL-4", 1, null, LIGHT);
+    utils.monoCard("SCROLL-5", 7, 9000, NATURE);
+    utils.card(
+        "SCROLL-6",
+        false,
+        RarityCode.SR,
+        2,
+        List.of("SCROLL-6.jpg"),
+        List.of(Set.of(FIRE)),
+        List.of(3),
+        List.of(5000),
+        List.of(CREATURE));
+    utils.card(
+        "SCROLL-7",
+        false,
+        RarityCode.VR,
+        3,
+        List.of("SCROLL-7.jpg"),
+        List.of(Set.of(WATER)),
+        null,
+        null,
+        List.of(SPELL));
+
+    for (Sort sort :
+        List.of(
+            Sort.unsorted(),
+            Sort.by(Sort.Order.desc("RELEASE"), Sort.Order.asc("OFFICIAL_ID")),
+            Sort.by("sort_cost").ascending(),
+            Sort.by("sort_cost").descending(),
+            Sort.by("sort_power").ascending(),
+            Sort.by(Sort.Order.desc("ORDER"), Sort.Order.asc("COST")),
+            Sort.by("OFFICIAL_ID").descending())) {
+      for (int pageSize : new int[] {1, 2, 3, 7}) {
+        assertScrollMatchesSearch(search(), sort, pageSize, null, false);
+      }
+    }
+  }
+
+  @Test
+  void scrollsCollectionByAmount() {
+    var user = createUser("scroll-");
+    var one = utils.monoCard("AMT-1", FIRE);
+    var two = utils.monoCard("AMT-2", WATER);
+    var three = utils.monoCard("AMT-3", DARK);
+    utils.monoCard("AMT-4", LIGHT);
+    collect(user.getId(), one, 2);
+    collect(user.getId(), two, 5);
+    collect(user.getId(), three, 2);
+
+    for (Sort sort : List.of(Sort.by("AMOUNT").descending(), Sort.by("AMOUNT").ascending())) {
+      assertScrollMatchesSearch(search(), sort, 2, user.getId(), false);
+      assertScrollMatchesSearch(search(), sort, 1, user.getId(), true);
+    }
+  }
+
+  @Test
+  void rejectsCursorForDifferentSort() {
+    utils.monoCard("CUR-1", FIRE);
+    utils.monoCard("CUR-2", WATER);
+
+    var byCost = search().setPageable(PageRequest.of(0, 1, Sort.by("sort_cost"))).build();
+    var byRelease = search().setPageable(PageRequest.of(0, 1)).build();
+    String cursor = cardQueryService.scroll(byCost, null).nextCursor();
+
+    assertThat(cursor).isNotNull();
+    assertThatThrownBy(() -> cardQueryService.scroll(byRelease, cursor))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> cardQueryService.scroll(byCost, "not a cursor"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void collect(UUID userId, CardStub card, int quantity) {
+    dsl.insertInto(COLLECTION_ENTRY)
+        .set(COLLECTION_ENTRY.USER_ID, userId)
+        .set(COLLECTION_ENTRY.PRINTING_ID, card.id().intValue())
+        .set(COLLECTION_ENTRY.QUANTITY, quantity)
+        .execute();
+    ownedPrintingCache.collectionChanged(userId);
+  }
+
+  /** Scrolls through all pages and compares the result with a single unpaged search. */
+  private void assertScrollMatchesSearch(
+      TestFixtureBuilder.SearchBuilder builder,
+      Sort sort,
+      int pageSize,
+      UUID userId,
+      boolean searchCollection) {
+    SearchFilter unpaged = builder.setPageable(Pageable.unpaged(sort)).build();
+    SearchFilter paged = builder.setPageable(PageRequest.of(0, pageSize, sort)).build();
+    if (userId != null) {
+      unpaged = unpaged.withCollectionFilter(userId, searchCollection);
+      paged = paged.withCollectionFilter(userId, searchCollection);
+    }
+    List<CardStub> expected = cardQueryService.search(unpaged).pageOfCards().getContent();
+
+    List<CardStub> scrolled = new ArrayList<>();
+    String cursor = null;
+    do {
+      ScrollResult page = cardQueryService.scroll(paged, cursor);
+      assertThat(page.cards()).hasSizeLessThanOrEqualTo(pageSize);
+      scrolled.addAll(page.cards());
+      cursor = page.nextCursor();
+    } while (cursor != null);
+
+    assertThat(scrolled).usingRecursiveComparison().isEqualTo(expected);
+  }
+
+  /**
+   * Searches via SQL and via a freshly built catalog index, asserting that both return the same
+   * page.
+   */
+  private Page<CardStub> searchCards(SearchFilter filter) {
+    SearchResult viaSql = cardQueryService.search(filter);
+
+    CatalogIndex catalogIndex =
+        new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    catalogIndex.rebuild();
+    SearchResult viaIndex =
+        queryService(catalogIndex, uncachedTotals(), 0, DEFAULT_COLLECTION_DRIVEN_MAX_ENTRIES)
+            .search(filter);
+
+    assertThat(viaIndex.pageOfCards().getContent())
+        .usingRecursiveComparison()
+        .isEqualTo(viaSql.pageOfCards().getContent());
+    assertThat(viaIndex.pageOfCards().getTotalElements())
+        .isEqualTo(viaSql.pageOfCards().getTotalElements());
+    assertThat(viaIndex.totalCollected()).isEqualTo(viaSql.totalCollected());
+    return viaSql.pageOfCards();
+  }
+
+  private static final long DEFAULT_COLLECTION_DRIVEN_MAX_ENTRIES = 1000;
+
+  /** Caches nothing, as its catalog version never becomes known. */
+  private static SearchTotalsCache uncachedTotals() {
+    return new SearchTotalsCache(new CatalogVersion());
+  }
+
+  private CardQueryService queryService(
+      CatalogIndex catalogIndex,
+      SearchTotalsCache totalsCache,
+      long estimateThreshold,
+      long collectionDrivenMaxEntries) {
+    return new CardQueryService(
+        dsl,
+        searchFilterTranslator,
+        catalogIndex,
+        totalsCache,
+        ownedPrintingCache,
+        summaryCounters,
+        estimateThreshold,
+        collectionDrivenMaxEntries);
+  }
+
   private void assertQueryFindsAllCards(SearchFilter filter) {
     assertQueryFinds(filter, utils.getTestCards().values().toArray(new CardStub[0]));
   }
 
   private void assertQueryFindsInOrder(SearchFilter filter, CardStub... expectedCards) {
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertThat(result.getContent())
         .usingRecursiveComparison()
         .isEqualTo(Arrays.asList(expectedCards));
@@ -1111,7 +1519,7 @@ class CardQueryServiceIntegrationTest extends IntegrationTestBase {
   }
 
   private void assertQueryFinds(SearchFilter filter, CardStub... expectedCards) {
-    Page<CardStub> result = cardQueryService.search(filter).pageOfCards();
+    Page<CardStub> result = searchCards(filter);
     assertPageEquals(result, expectedCards);
   }
 
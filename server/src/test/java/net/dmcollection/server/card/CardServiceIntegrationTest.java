@@ -0,0 +1,75 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.card.Civilization.DARK;
+import static net.dmcollection.server.card.Civilization.FIRE;
+import static net.dmcollection.server.card.Civilization.LIGHT;
+import static net.dmcollection.server.card.Civilization.NATURE;
+import static net.dmcollection.server.card.Civilization.WATER;
+import static net.dmcollection.server.card.Civilization.ZERO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.TestFixtureBuilder;
+import net.dmcollection.server.card.CardService.CardStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+class CardServiceIntegrationTest extends IntegrationTestBase {
+
+  TestFixtureBuilder fixtures;
+  CardService singleQuery;
+  CardService stepwise;
+
+  @BeforeEach
+  void setup() {
+    fixtures = new TestFixtureBuilder(dsl, cardTypeResolver);
+    singleQuery = new CardService(dsl, true);
+    stepwise = new CardService(dsl, false);
+  }
+
+  @Test
+  void singleQueryDetailMatchesStepwiseDetail() {
+    fixtures.monoCard("detail-mono", 3, 2000, LIGHT, "effect", "species");
+    fixtures.monoCard(
+        "detail-children", 5, null, WATER, List.of(List.of("parent", "child 1", "child 2")));
+    fixtures.monoCard("detail-colorless", "colorless effect");
+    fixtures.multiCard("detail-rainbow", 4, 3000, DARK, FIRE, NATURE);
+    fixtures.twinpact("detail-twinpact", Set.of(FIRE), Set.of(FIRE, NATURE));
+    fixtures.twoSided("detail-two-sided", Set.of(ZERO), Set.of(DARK));
+    fixtures.createFoursides();
+    CardStub species = fixtures.monoCard("detail-species", NATURE);
+    fixtures.addSpecies(species, "first");
+    fixtures.addSpecies(species, "second");
+
+    assertThat(fixtures.getTestCards()).hasSize(8);
+    for (CardStub card : fixtures.getTestCards().values()) {
+      var expected = stepwise.getCardDto(card.dmId());
+      assertThat(expected).isPresent();
+      assertThat(singleQuery.getCardDto(card.dmId())).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void batchDetailsMatchSingleDetails() {
+    fixtures.monoCard("batch-mono", 3, 2000, LIGHT, "effect", "species");
+    fixtures.twinpact("batch-twinpact", Set.of(FIRE), Set.of(WATER));
+    fixtures.createFoursides();
+    List<String> dmIds = List.of("batch-mono", "batch-twinpact", "dmbd13-001", "unknown");
+
+    var batch = singleQuery.getCardDtos(dmIds);
+
+    assertThat(batch).containsOnlyKeys("batch-mono", "batch-twinpact", "dmbd13-001");
+    assertThat(stepwise.getCardDtos(dmIds)).isEqualTo(batch);
+    batch.forEach((dmId, card) -> assertThat(singleQuery.getCardDto(dmId)).contains(card));
+  }
+
+  @Test
+  void unknownCardIsEmptyOnBothPaths() {
+    assertThat(singleQuery.getCardDto("does-not-exist")).isEmpty();
+    assertThat(stepwise.getCardDto("does-not-exist")).isEmpty();
+  }
+}
@@ -0,0 +1,112 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.card.Civilization.LIGHT;
+import static net.dmcollection.server.card.Civilization.WATER;
+import static net.dmcollection.server.jooq.generated.Tables.ABILITY;
+import static net.dmcollection.server.jooq.generated.Tables.APP_USER;
+import static net.dmcollection.server.jooq.generated.Tables.CARD;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SNAPSHOT;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SUMMARY;
+import static net.dmcollection.server.jooq.generated.Tables.PRINTING_SEARCH;
+import static net.dmcollection.server.jooq.generated.Tables.SET_GROUP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.TestFixtureBuilder;
+import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.CollectionService.CollectionCardStub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Writers of one collection in concurrent transactions, which have to commit their data. */
+class CollectionConcurrencyIntegrationTest extends IntegrationTestBase {
+
+  @Autowired CollectionService collectionService;
+  @Autowired TransactionTemplate transactionTemplate;
+
+  private UUID userId;
+  private CardStub first;
+  private CardStub second;
+
+  @BeforeEach
+  void setup() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          var fixtures = new TestFixtureBuilder(dsl, cardTypeResolver);
+          userId = createUser("concurrent").getId();
+          first = fixtures.monoCard("dm01-001", LIGHT);
+          second = fixtures.monoCard("dm01-002", WATER);
+        });
+  }
+
+  @AfterEach
+  void deleteData() {
+    dsl.truncateTable(SET_GROUP).cascade().execute();
+    dsl.truncateTable(CARD).cascade().execute();
+    dsl.truncateTable(ABILITY).cascade().execute();
+    dsl.truncateTable(PRINTING_SEARCH).execute();
+    dsl.deleteFrom(COLLECTION_SNAPSHOT).where(COLLECTION_SNAPSHOT.USER_ID.eq(userId)).execute();
+    dsl.deleteFrom(COLLECTION_SUMMARY).where(COLLECTION_SUMMARY.USER_ID.eq(userId)).execute();
+    dsl.deleteFrom(APP_USER).where(APP_USER.ID.eq(userId)).execute();
+  }
+
+  @Test
+  void laterWriterWaitsSoVersionsCommitInOrder() throws Exception {
+    var firstWritten = new CountDownLatch(1);
+    var commitFirst = new CountDownLatch(1);
+    var firstWriter =
+        CompletableFuture.runAsync(
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      collectionService.setCardAmounts(
+                          userId, List.of(new CollectionCardStub(first.id(), 1)));
+                      firstWritten.countDown();
+                      await(commitFirst);
+                    }));
+    await(firstWritten);
+
+    var secondWriter =
+        CompletableFuture.supplyAsync(
+            () ->
+                transactionTemplate.execute(
+                    status -> collectionService.setCardAmountOnStub(userId, second.id(), 2, null)));
+    Thread.sleep(500);
+    // Had the second writer taken its history id and committed now, a client reading this version
+    // would later miss the first writer's entry with the lower id
+    assertThat(secondWriter).isNotDone();
+    assertThat(collectionService.getStubChanges(userId, null).version()).isZero();
+
+    commitFirst.countDown();
+    firstWriter.get(10, TimeUnit.SECONDS);
+    long firstVersion =
+        dsl.select(COLLECTION_HISTORY_ENTRY.ID)
+            .from(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .and(COLLECTION_HISTORY_ENTRY.PRINTING_ID.eq(first.id().intValue()))
+            .fetchSingle(COLLECTION_HISTORY_ENTRY.ID);
+
+    var secondVersion = secondWriter.get(10, TimeUnit.SECONDS).orElseThrow().version();
+    assertThat(secondVersion).isGreaterThan(firstVersion);
+    assertThat(collectionService.getStubChanges(userId, firstVersion).amounts())
+        .containsOnly(Map.entry(second.id(), 2));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -12,8 +12,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 import net.dmcollection.server.IntegrationTestBase;
 import net.dmcollection.server.TestFixtureBuilder;
 import net.dmcollection.server.card.CardService.CardStub;
@@ -24,6 +26,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -120,12 +123,70 @@ class CollectionControllerIntegrationTest extends IntegrationTestBase {
   }
 
   @Test
-  void setCardAmountOnStubReturnsMap() throws Exception {
+  void setCardAmountOnStubReturnsChange() throws Exception {
     CardStub card = fixtures.monoCard("coll-ctrl-4", Civilization.DARK);
 
     putRequest("/api/collectionStub", "{\"cardId\":" + card.id() + ",\"amount\":2}")
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$." + card.id()).value(2));
+        .andExpect(jsonPath("$.version").isNumber())
+        .andExpect(jsonPath("$.amounts.length()").value(1))
+        .andExpect(jsonPath("$.amounts." + card.id()).value(2));
+  }
+
+  @Test
+  void getStubChangesReturnsChangesSinceVersion() throws Exception {
+    CardStub card1 = fixtures.monoCard("coll-ctrl-delta-1", Civilization.DARK);
+    CardStub card2 = fixtures.monoCard("coll-ctrl-delta-2", Civilization.FIRE);
+    putRequest("/api/collectionStub/cards/" + card1.id(), "{\"amount\":1}");
+    String full =
+        mockMvc
+            .perform(get("/api/collectionStub").with(user(testUser)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.amounts." + card1.id()).value(1))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    long version = objectMapper.readTree(full).get("version").asLong();
+
+    putRequest("/api/collectionStub/cards/" + card2.id(), "{\"amount\":3}");
+
+    mockMvc
+        .perform(get("/api/collectionStub").param("since", "" + version).with(user(testUser)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").isNumber())
+        .andExpect(jsonPath("$.amounts.length()").value(1))
+        .andExpect(jsonPath("$.amounts." + card2.id()).value(3));
+  }
+
+  @Test
+  void setCardAmountsUpdatesAllCards() throws Exception {
+    CardStub card1 = fixtures.monoCard("coll-batch-1", Civilization.LIGHT);
+    CardStub card2 = fixtures.monoCard("coll-batch-2", Civilization.WATER);
+
+    putRequest(
+            "/api/collection/batch",
+            "{\"cards\":[{\"cardId\":"
+                + card1.id()
+                + ",\"amount\":2},{\"cardId\":"
+                + card2.id()
+                + ",\"amount\":3}]}")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].cardId").value(card1.id()))
+        .andExpect(jsonPath("$[0].amount").value(2))
+        .andExpect(jsonPath("$[1].amount").value(3));
+
+    assertThat(fetchHistory(testUser.getId(), card2.id())).hasSize(1);
+  }
+
+  @Test
+  void setCardAmountsRejectsNegativeAmounts() throws Exception {
+    CardStub card = fixtures.monoCard("coll-batch-3", Civilization.LIGHT);
+
+    putRequest(
+            "/api/collection/batch",
+            "{\"cards\":[{\"cardId\":" + card.id() + ",\"amount\":-1}]}")
+        .andExpect(status().isBadRequest());
   }
 
   @Test
@@ -156,6 +217,32 @@ class CollectionControllerIntegrationTest extends IntegrationTestBase {
     assertThat(export.cards().getFirst().prints().getFirst().amount()).isEqualTo(3);
   }
 
+  @Test
+  void exportIsGzippedWhenAccepted() throws Exception {
+    CardStub card = fixtures.monoCard("coll-ctrl-5", Civilization.NATURE);
+
+    putRequest("/api/collection/cards/" + card.id(), "{\"amount\":3}");
+
+    byte[] responseBytes =
+        mockMvc
+            .perform(
+                get("/api/collection/export")
+                    .with(user(testUser))
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string("Content-Type", "application/json"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    try (var in = new GZIPInputStream(new ByteArrayInputStream(responseBytes))) {
+      V2CollectionExport export = objectMapper.readValue(in, V2CollectionExport.class);
+      assertThat(export.cards()).hasSize(1);
+      assertThat(export.cards().getFirst().prints().getFirst().amount()).isEqualTo(3);
+    }
+  }
+
   @Test
   void importAndExportRoundTripThroughHttp() throws Exception {
     CardStub card1 = fixtures.monoCard("coll-ctrl-6a", Civilization.LIGHT);
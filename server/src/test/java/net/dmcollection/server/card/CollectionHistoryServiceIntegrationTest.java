@@ -0,0 +1,231 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.card.Civilization.FIRE;
+import static net.dmcollection.server.card.Civilization.LIGHT;
+import static net.dmcollection.server.card.Civilization.WATER;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SNAPSHOT;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SUMMARY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.jooq.impl.DSL.val;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.TestFixtureBuilder;
+import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.CollectionHistoryService.Bucket;
+import net.dmcollection.server.card.CollectionHistoryService.Timeline;
+import net.dmcollection.server.card.CollectionHistoryService.TimelineBucket;
+import net.dmcollection.server.card.CollectionService.CollectionCardStub;
+import net.dmcollection.server.card.internal.CollectionHistoryMaintenance;
+import net.dmcollection.server.jooq.generated.tables.records.CollectionHistoryEntryRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@TestPropertySource(properties = {"dmcollection.collection-history.snapshot-interval=2"})
+class CollectionHistoryServiceIntegrationTest extends IntegrationTestBase {
+
+  // A Monday, so that all changes fall into the same week
+  private static final OffsetDateTime MONDAY = OffsetDateTime.parse("2026-01-05T10:00:00Z");
+  private static final OffsetDateTime MONDAY_LATER = MONDAY.plusHours(5);
+  private static final OffsetDateTime WEDNESDAY = MONDAY.plusDays(2);
+
+  @Autowired CollectionService collectionService;
+  @Autowired CollectionHistoryService historyService;
+
+  private UUID userId;
+
+  private CardStub light;
+  private CardStub water;
+  private CardStub fire;
+
+  @BeforeEach
+  void setup() {
+    var fixtures = new TestFixtureBuilder(dsl, cardTypeResolver);
+    userId = createUser("testuser").getId();
+
+    light = fixtures.monoCard("dm01-001", LIGHT);
+    water = fixtures.monoCard("dm01-002", WATER);
+    fire = fixtures.monoCard("dm01-003", FIRE);
+
+    change(MONDAY, light, 2, water, 1);
+    change(MONDAY_LATER, light, 0, fire, 3);
+    change(WEDNESDAY, water, 5);
+  }
+
+  /**
+   * Sets amounts given as pairs of card and amount, and dates the changes to {@code at}. All
+   * writes of a test share one transaction and with it one {@code now()}.
+   */
+  private void change(OffsetDateTime at, Object... cardsAndAmounts) {
+    List<CollectionCardStub> changes = new ArrayList<>();
+    for (int i = 0; i < cardsAndAmounts.length; i += 2) {
+      changes.add(
+          new CollectionCardStub(
+              ((CardStub) cardsAndAmounts[i]).id(), (Integer) cardsAndAmounts[i + 1]));
+    }
+    collectionService.setCardAmounts(userId, changes);
+    dsl.update(COLLECTION_HISTORY_ENTRY)
+        .set(COLLECTION_HISTORY_ENTRY.CHANGED_AT, at)
+        .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+        .and(COLLECTION_HISTORY_ENTRY.CHANGED_AT.gt(at))
+        .execute();
+    dsl.update(COLLECTION_SNAPSHOT)
+        .set(COLLECTION_SNAPSHOT.TAKEN_AT, at)
+        .where(COLLECTION_SNAPSHOT.USER_ID.eq(userId))
+        .and(COLLECTION_SNAPSHOT.TAKEN_AT.gt(at))
+        .execute();
+  }
+
+  @Test
+  void rebuildsTheCollectionAtAnyTime() {
+    assertThat(dsl.fetchCount(COLLECTION_SNAPSHOT, COLLECTION_SNAPSHOT.USER_ID.eq(userId)))
+        .isEqualTo(2);
+    // The change after the second snapshot counts toward the next one
+    assertThat(
+            dsl.select(COLLECTION_SUMMARY.SINCE_SNAPSHOT)
+                .from(COLLECTION_SUMMARY)
+                .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+                .fetchSingle(COLLECTION_SUMMARY.SINCE_SNAPSHOT))
+        .isEqualTo(1L);
+
+    var before = historyService.getCollectionAt(userId, MONDAY.minusSeconds(1));
+    assertThat(before.version()).isZero();
+    assertThat(before.amounts()).isEmpty();
+    assertThat(historyService.getCollectionAt(userId, MONDAY).amounts())
+        .containsOnly(Map.entry(light.id(), 2), Map.entry(water.id(), 1));
+    assertThat(historyService.getCollectionAt(userId, MONDAY_LATER.plusHours(1)).amounts())
+        .containsOnly(Map.entry(water.id(), 1), Map.entry(fire.id(), 3));
+
+    var now = historyService.getCollectionAt(userId, OffsetDateTime.now());
+    assertThat(now.amounts()).isEqualTo(collectionService.getPrimaryStub(userId));
+    assertThat(now.version()).isEqualTo(collectionService.getStubChanges(userId, null).version());
+
+    // Without snapshots the whole history is replayed to the same result
+    dsl.deleteFrom(COLLECTION_SNAPSHOT).where(COLLECTION_SNAPSHOT.USER_ID.eq(userId)).execute();
+    assertThat(historyService.getCollectionAt(userId, MONDAY_LATER).amounts())
+        .containsOnly(Map.entry(water.id(), 1), Map.entry(fire.id(), 3));
+  }
+
+  @Test
+  void pagesThroughTheTimeline() {
+    OffsetDateTime thursday = OffsetDateTime.parse("2026-01-08T00:00:00Z");
+    Timeline newest = historyService.getTimeline(userId, Bucket.DAY, thursday, 2);
+    assertThat(newest.buckets())
+        .containsExactly(new TimelineBucket(WEDNESDAY.withHour(0), 1, 4, 0));
+    assertThat(newest.nextBefore()).isEqualTo(OffsetDateTime.parse("2026-01-06T00:00:00Z"));
+
+    Timeline older = historyService.getTimeline(userId, Bucket.DAY, newest.nextBefore(), 2);
+    assertThat(older.buckets()).containsExactly(new TimelineBucket(MONDAY.withHour(0), 4, 6, 2));
+    assertThat(older.nextBefore()).isNull();
+
+    // Pages skip the empty buckets between changes
+    Timeline empty =
+        historyService.getTimeline(
+            userId, Bucket.DAY, OffsetDateTime.parse("2026-03-01T00:00:00Z"), 2);
+    assertThat(empty.buckets()).isEmpty();
+    assertThat(empty.nextBefore()).isEqualTo(OffsetDateTime.parse("2026-01-08T00:00:00Z"));
+
+    Timeline weeks =
+        historyService.getTimeline(
+            userId, Bucket.WEEK, OffsetDateTime.parse("2026-02-01T00:00:00Z"), 10);
+    assertThat(weeks.buckets()).containsExactly(new TimelineBucket(MONDAY.withHour(0), 5, 10, 2));
+  }
+
+  @Test
+  void compactsADayIntoNetChanges() {
+    var maintenance =
+        new CollectionHistoryMaintenance(dsl, 3, Duration.ofDays(90), Duration.ofDays(31));
+    var expected = historyService.getCollectionAt(userId, WEDNESDAY.withHour(0)).amounts();
+
+    assertThat(maintenance.compact(MONDAY.withHour(0), MONDAY.withHour(0).plusDays(1)))
+        .isEqualTo(1);
+
+    var history =
+        dsl.selectFrom(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .fetch();
+    assertThat(history)
+        .extracting(
+            CollectionHistoryEntryRecord::getPrintingId,
+            CollectionHistoryEntryRecord::getPreviousQty,
+            CollectionHistoryEntryRecord::getNewQty,
+            r -> r.getChangedAt().toInstant())
+        .containsExactlyInAnyOrder(
+            tuple(water.id().intValue(), 0, 1, MONDAY.toInstant()),
+            tuple(light.id().intValue(), 0, 0, MONDAY_LATER.toInstant()),
+            tuple(fire.id().intValue(), 0, 3, MONDAY_LATER.toInstant()),
+            tuple(water.id().intValue(), 1, 5, WEDNESDAY.toInstant()));
+
+    // Collections at the end of a compacted day stay the same, also without snapshots
+    dsl.deleteFrom(COLLECTION_SNAPSHOT).where(COLLECTION_SNAPSHOT.USER_ID.eq(userId)).execute();
+    assertThat(historyService.getCollectionAt(userId, WEDNESDAY.withHour(0)).amounts())
+        .isEqualTo(expected);
+    assertThat(maintenance.compact(MONDAY.withHour(0), WEDNESDAY.plusDays(1))).isZero();
+  }
+
+  @Test
+  void createsUpcomingPartitions() {
+    var maintenance =
+        new CollectionHistoryMaintenance(dsl, 6, Duration.ofDays(90), Duration.ofDays(31));
+    String partition =
+        OffsetDateTime.now(ZoneOffset.UTC)
+            .truncatedTo(ChronoUnit.DAYS)
+            .withDayOfMonth(1)
+            .plusMonths(6)
+            .format(DateTimeFormatter.ofPattern("'collection_history_entry_y'yyyy'm'MM"));
+
+    maintenance.createPartitions();
+
+    assertThat(dsl.fetchValue("select to_regclass({0})::text", val(partition)))
+        .isEqualTo(partition);
+  }
+
+  @Test
+  void movesEntriesCaughtByDefaultPartitionIntoNewPartition() {
+    var maintenance =
+        new CollectionHistoryMaintenance(dsl, 6, Duration.ofDays(90), Duration.ofDays(31));
+    OffsetDateTime month =
+        OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+    String partition =
+        month
+            .plusMonths(6)
+            .format(DateTimeFormatter.ofPattern("'collection_history_entry_y'yyyy'm'MM"));
+    long id =
+        dsl.insertInto(COLLECTION_HISTORY_ENTRY)
+            .set(COLLECTION_HISTORY_ENTRY.USER_ID, userId)
+            .set(COLLECTION_HISTORY_ENTRY.PRINTING_ID, light.id().intValue())
+            .set(COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY, 0)
+            .set(COLLECTION_HISTORY_ENTRY.NEW_QTY, 1)
+            .set(COLLECTION_HISTORY_ENTRY.CHANGED_AT, month.plusMonths(6).plusDays(3))
+            .returning(COLLECTION_HISTORY_ENTRY.ID)
+            .fetchSingle()
+            .getId();
+    var defaultPartition = COLLECTION_HISTORY_ENTRY.rename("collection_history_entry_default");
+    assertThat(dsl.fetchCount(defaultPartition, defaultPartition.ID.eq(id))).isOne();
+
+    maintenance.createPartitions();
+
+    var created = COLLECTION_HISTORY_ENTRY.rename(partition);
+    assertThat(dsl.fetchCount(created, created.ID.eq(id))).isOne();
+    assertThat(dsl.fetchCount(defaultPartition, defaultPartition.ID.eq(id))).isZero();
+    assertThat(
+            dsl.fetchValue(
+                "select relispartition from pg_class where oid = to_regclass({0})",
+                val("collection_history_entry_default")))
+        .isEqualTo(true);
+  }
+}
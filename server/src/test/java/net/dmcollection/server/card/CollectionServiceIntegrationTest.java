@@ -7,23 +7,38 @@ import static net.dmcollection.server.card.Civilization.ZERO;
 import static net.dmcollection.server.card.serialization.collection.V2Importer.HISTORY_LABEL_IMPORT;
 import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_ENTRY;
 import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_HISTORY_ENTRY;
+import static net.dmcollection.server.jooq.generated.Tables.COLLECTION_SUMMARY;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.max;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import net.dmcollection.server.IntegrationTestBase;
 import net.dmcollection.server.TestFixtureBuilder;
 import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.CollectionService.CollectionCardStub;
+import net.dmcollection.server.card.CollectionService.CollectionInfo;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
+import net.dmcollection.server.card.internal.SummaryCounters;
 import net.dmcollection.server.card.serialization.collection.format.v1.V1CollectionCardExport;
 import net.dmcollection.server.card.serialization.collection.format.v1.V1CollectionExport;
 import net.dmcollection.server.card.serialization.collection.format.v2.V2CollectionExport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional
@@ -31,6 +46,8 @@ class CollectionServiceIntegrationTest extends IntegrationTestBase {
 
   @Autowired CollectionService collectionService;
   @Autowired ObjectMapper objectMapper;
+  @Autowired SummaryCounters summaryCounters;
+  @Autowired OwnedPrintingCache ownedPrintingCache;
 
   private TestFixtureBuilder fixtures;
   private UUID userId;
@@ -142,6 +159,149 @@ class CollectionServiceIntegrationTest extends IntegrationTestBase {
     assertThat(otherStub).hasSize(2).containsEntry(card1.id(), 3).containsEntry(card2.id(), 7);
   }
 
+  @Test
+  void streamedExportMatchesExport() throws Exception {
+    CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub card2 = fixtures.monoCard("dm02-002", WATER);
+    CardStub card3 = fixtures.twinpact("dm03-003", Set.of(FIRE), Set.of(ZERO));
+    collectionService.setCardAmount(userId, card1.id(), 3);
+    collectionService.setCardAmount(userId, card2.id(), 7);
+    collectionService.setCardAmount(userId, card3.id(), 1);
+
+    var out = new ByteArrayOutputStream();
+    collectionService.exportCollection(userId, out);
+
+    V2CollectionExport streamed =
+        objectMapper.readValue(out.toByteArray(), V2CollectionExport.class);
+    V2CollectionExport export = collectionService.exportCollection(userId);
+    assertThat(streamed.version().version()).isEqualTo(2);
+    assertThat(streamed.meta()).isEqualTo(export.meta());
+    assertThat(streamed.cards()).isEqualTo(export.cards());
+  }
+
+  @Test
+  void streamedExportOfEmptyCollection() throws Exception {
+    var out = new ByteArrayOutputStream();
+    collectionService.exportCollection(userId, out);
+
+    V2CollectionExport streamed =
+        objectMapper.readValue(out.toByteArray(), V2CollectionExport.class);
+    assertThat(streamed.meta().cardCount()).isZero();
+    assertThat(streamed.cards()).isEmpty();
+  }
+
+  @Test
+  void importFileReadsV1AndV2() throws Exception {
+    CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub card2 = fixtures.monoCard("dm02-002", WATER);
+    collectionService.setCardAmount(userId, card1.id(), 5);
+
+    String v1 =
+        """
+        {"version": 1, "title": "collection", "cards": [
+          {"name": "Card 1", "shortName": "dm01-001", "amount": 2},
+          {"name": "Unknown", "shortName": "tab\\tand\\\\backslash", "amount": 1}
+        ]}
+        """;
+    collectionService.importCollection(userId, toStream(v1));
+    assertThat(collectionService.getPrimaryStub(userId)).containsOnly(Map.entry(card1.id(), 2));
+
+    String v2 =
+        """
+        {"version": {"version": 2, "type": "collection"}, "meta": null, "cards": [
+          {"cardName": "Card 1", "prints": [{"id": "dm01-001", "amount": 0}]},
+          {"cardName": "Card 2", "prints": [{"id": "dm02-002", "amount": 3}]},
+          {"cardName": "Card 2 again", "prints": [{"id": "dm02-002", "amount": 1}]}
+        ]}
+        """;
+    collectionService.importCollection(userId, toStream(v2));
+    assertThat(collectionService.getPrimaryStub(userId)).containsOnly(Map.entry(card2.id(), 4));
+    assertThat(collectionService.setCardAmount(userId, card2.id(), 4))
+        .contains(new CollectionInfo(1, 4, userId));
+  }
+
+  @Test
+  void importWritesOnlyChangedEntries() {
+    CardStub unchanged = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub changed = fixtures.monoCard("dm02-002", WATER);
+    collectionService.setCardAmount(userId, unchanged.id(), 3);
+    collectionService.setCardAmount(userId, changed.id(), 1);
+    String unchangedRow = rowLocation(unchanged);
+    String changedRow = rowLocation(changed);
+
+    collectionService.importCollection(
+        userId,
+        new V1CollectionExport(
+            1,
+            LocalDateTime.now(),
+            "collection",
+            5,
+            2,
+            List.of(
+                new V1CollectionCardExport("Card 1", "dm01-001", 3),
+                new V1CollectionCardExport("Card 2", "dm02-002", 2))));
+
+    assertThat(rowLocation(unchanged)).isEqualTo(unchangedRow);
+    assertThat(rowLocation(changed)).isNotEqualTo(changedRow);
+    assertThat(collectionService.getPrimaryStub(userId))
+        .containsOnly(Map.entry(unchanged.id(), 3), Map.entry(changed.id(), 2));
+  }
+
+  /** Physical location of the entry, which changes whenever the row is rewritten. */
+  private String rowLocation(CardStub card) {
+    return dsl.select(field("ctid::text", String.class))
+        .from(COLLECTION_ENTRY)
+        .where(COLLECTION_ENTRY.USER_ID.eq(userId))
+        .and(COLLECTION_ENTRY.PRINTING_ID.eq(card.id().intValue()))
+        .fetchOne(0, String.class);
+  }
+
+  @Test
+  void importFileRejectsUnknownFormat() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+    collectionService.setCardAmount(userId, card.id(), 5);
+
+    String unknown =
+        """
+        {"cards": [{"name": "Card 1", "shortName": "dm01-001", "amount": 2}]}
+        """;
+    assertThatThrownBy(() -> collectionService.importCollection(userId, toStream(unknown)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(collectionService.getPrimaryStub(userId)).containsOnly(Map.entry(card.id(), 5));
+  }
+
+  @Test
+  void changesAndImportsRefreshOwnedPrintings() {
+    CardStub light = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub water = fixtures.monoCard("dm02-002", WATER);
+    assertThat(ownedPrintingCache.get(userId).printingIds().isEmpty()).isTrue();
+
+    collectionService.setCardAmount(userId, light.id(), 2);
+    assertThat(ownedPrintingCache.get(userId).amount(light.id().intValue())).isEqualTo(2);
+
+    collectionService.setCardAmounts(
+        userId,
+        List.of(new CollectionCardStub(light.id(), 0), new CollectionCardStub(water.id(), 1)));
+    var owned = ownedPrintingCache.get(userId);
+    assertThat(owned.contains(light.id().intValue())).isFalse();
+    assertThat(owned.amount(water.id().intValue())).isEqualTo(1);
+
+    String v1 =
+        """
+        {"version": 1, "title": "collection", "cards": [
+          {"name": "Card 1", "shortName": "dm01-001", "amount": 4}
+        ]}
+        """;
+    collectionService.importCollection(userId, toStream(v1));
+    owned = ownedPrintingCache.get(userId);
+    assertThat(owned.amount(light.id().intValue())).isEqualTo(4);
+    assertThat(owned.contains(water.id().intValue())).isFalse();
+  }
+
+  private static InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
   @Test
   void importV1isSupported() {
     CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
@@ -266,4 +426,274 @@ class CollectionServiceIntegrationTest extends IntegrationTestBase {
     assertThat(history.get(1).getPreviousQty()).isEqualTo(3);
     assertThat(history.get(1).getNewQty()).isEqualTo(5);
   }
+
+  @Test
+  void historyOnlyWrittenWhenQuantityChanges() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+
+    collectionService.setSingleCardAmount(userId, card.id(), 2);
+    collectionService.setSingleCardAmount(userId, card.id(), 2);
+    var removed = collectionService.setSingleCardAmount(userId, card.id(), 0);
+    collectionService.setSingleCardAmount(userId, card.id(), 0);
+
+    assertThat(removed).contains(new CollectionCardStub(card.id(), 0));
+    var history =
+        dsl.selectFrom(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .orderBy(COLLECTION_HISTORY_ENTRY.ID.asc())
+            .fetch();
+    assertThat(history).hasSize(2);
+    assertThat(history.get(0).getPreviousQty()).isZero();
+    assertThat(history.get(0).getNewQty()).isEqualTo(2);
+    assertThat(history.get(1).getPreviousQty()).isEqualTo(2);
+    assertThat(history.get(1).getNewQty()).isZero();
+  }
+
+  @Test
+  void stubChangesContainOnlyPrintingsChangedSinceVersion() {
+    CardStub kept = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub changed = fixtures.monoCard("dm01-002", WATER);
+    CardStub removed = fixtures.monoCard("dm01-003", FIRE);
+    collectionService.setCardAmount(userId, kept.id(), 1);
+    collectionService.setCardAmount(userId, changed.id(), 1);
+    collectionService.setCardAmount(userId, removed.id(), 1);
+    var before = collectionService.getStubChanges(userId, null);
+    assertThat(before.amounts()).hasSize(3);
+
+    collectionService.setCardAmount(userId, changed.id(), 2);
+    collectionService.setCardAmount(userId, changed.id(), 4);
+    var afterRemove = collectionService.setCardAmountOnStub(userId, removed.id(), 0, null);
+
+    assertThat(afterRemove)
+        .hasValueSatisfying(
+            delta -> {
+              assertThat(delta.version()).isGreaterThan(before.version());
+              assertThat(delta.amounts()).containsOnly(Map.entry(removed.id(), 0));
+            });
+    var since = collectionService.getStubChanges(userId, before.version());
+    assertThat(since.version()).isEqualTo(afterRemove.get().version());
+    assertThat(since.amounts())
+        .containsOnly(Map.entry(changed.id(), 4), Map.entry(removed.id(), 0));
+    assertThat(collectionService.getStubChanges(userId, since.version()).amounts()).isEmpty();
+  }
+
+  @Test
+  void versionIsTheLatestHistoryIdAfterEveryWrite() {
+    CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub card2 = fixtures.monoCard("dm01-002", WATER);
+
+    var single = collectionService.setCardAmountOnStub(userId, card1.id(), 2, null);
+    assertThat(single.orElseThrow().version()).isEqualTo(latestHistoryId());
+    // Unchanged amounts keep the version
+    assertThat(collectionService.setCardAmountOnStub(userId, card1.id(), 2, null))
+        .hasValueSatisfying(
+            unchanged -> assertThat(unchanged.version()).isEqualTo(single.get().version()));
+
+    collectionService.setCardAmounts(
+        userId,
+        List.of(new CollectionCardStub(card2.id(), 1), new CollectionCardStub(card1.id(), 0)));
+    assertThat(collectionService.getStubChanges(userId, null).version())
+        .isEqualTo(latestHistoryId());
+
+    collectionService.importCollection(
+        userId,
+        new V1CollectionExport(
+            2,
+            LocalDateTime.now(),
+            "collection",
+            3,
+            1,
+            List.of(new V1CollectionCardExport("Card 1", "dm01-001", 3))));
+    assertThat(collectionService.getStubChanges(userId, null).version())
+        .isEqualTo(latestHistoryId());
+  }
+
+  private long latestHistoryId() {
+    return dsl.select(max(COLLECTION_HISTORY_ENTRY.ID))
+        .from(COLLECTION_HISTORY_ENTRY)
+        .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+        .fetchSingle()
+        .value1();
+  }
+
+  @Test
+  void setCardAmountsAppliesAllChangesWithHistory() {
+    CardStub kept = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub changed = fixtures.monoCard("dm01-002", WATER);
+    CardStub removed = fixtures.monoCard("dm01-003", FIRE);
+    CardStub added = fixtures.monoCard("dm01-004", ZERO);
+    collectionService.setCardAmount(userId, kept.id(), 2);
+    collectionService.setCardAmount(userId, changed.id(), 2);
+    collectionService.setCardAmount(userId, removed.id(), 2);
+    dsl.deleteFrom(COLLECTION_HISTORY_ENTRY).execute();
+
+    var result =
+        collectionService.setCardAmounts(
+            userId,
+            List.of(
+                new CollectionCardStub(kept.id(), 2),
+                new CollectionCardStub(changed.id(), 1),
+                new CollectionCardStub(changed.id(), 4),
+                new CollectionCardStub(removed.id(), 0),
+                new CollectionCardStub(added.id(), 3)));
+
+    assertThat(result)
+        .contains(
+            List.of(
+                new CollectionCardStub(kept.id(), 2),
+                new CollectionCardStub(changed.id(), 4),
+                new CollectionCardStub(removed.id(), 0),
+                new CollectionCardStub(added.id(), 3)));
+    assertThat(collectionService.getPrimaryStub(userId))
+        .containsOnly(
+            Map.entry(kept.id(), 2), Map.entry(changed.id(), 4), Map.entry(added.id(), 3));
+
+    var history =
+        dsl.select(
+                COLLECTION_HISTORY_ENTRY.PRINTING_ID,
+                COLLECTION_HISTORY_ENTRY.PREVIOUS_QTY,
+                COLLECTION_HISTORY_ENTRY.NEW_QTY)
+            .from(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .fetch(r -> List.of(r.value1().longValue(), (long) r.value2(), (long) r.value3()));
+    assertThat(history)
+        .containsExactlyInAnyOrder(
+            List.of(changed.id(), 2L, 4L),
+            List.of(removed.id(), 2L, 0L),
+            List.of(added.id(), 0L, 3L));
+  }
+
+  @Test
+  void setCardAmountsChangesNothingForUnknownPrinting() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+
+    var result =
+        collectionService.setCardAmounts(
+            userId,
+            List.of(
+                new CollectionCardStub(card.id(), 3),
+                new CollectionCardStub(-1, 1)));
+
+    assertThat(result).isEmpty();
+    assertThat(collectionService.getPrimaryStub(userId)).isEmpty();
+  }
+
+  @Test
+  void summaryCountersFollowAllWrites() {
+    CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub card2 = fixtures.monoCard("dm01-002", WATER);
+    CardStub card3 = fixtures.monoCard("dm01-003", FIRE);
+
+    collectionService.setCardAmount(userId, card1.id(), 3);
+    assertThat(collectionService.setCardAmount(userId, card2.id(), 2))
+        .contains(new CollectionInfo(2, 5, userId));
+    assertThat(collectionService.setCardAmount(userId, card1.id(), 0))
+        .contains(new CollectionInfo(1, 2, userId));
+
+    collectionService.setCardAmounts(
+        userId,
+        List.of(new CollectionCardStub(card2.id(), 4), new CollectionCardStub(card3.id(), 1)));
+    assertThat(collectionService.setCardAmount(userId, card3.id(), 1))
+        .contains(new CollectionInfo(2, 5, userId));
+
+    collectionService.importCollection(
+        userId,
+        new V1CollectionExport(
+            2,
+            LocalDateTime.now(),
+            "collection",
+            7,
+            1,
+            List.of(new V1CollectionCardExport("Card 1", "dm01-001", 7))));
+    assertThat(collectionService.setCardAmount(userId, card1.id(), 7))
+        .contains(new CollectionInfo(1, 7, userId));
+  }
+
+  @Test
+  void repairRecomputesWrongSummaryCounters() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+    collectionService.setCardAmount(userId, card.id(), 3);
+    UUID emptyUser = createUser("emptyuser").getId();
+    summaryCounters.setCollection(emptyUser, 1, 1);
+    dsl.update(COLLECTION_SUMMARY)
+        .set(COLLECTION_SUMMARY.TOTAL_COUNT, 100L)
+        .where(COLLECTION_SUMMARY.USER_ID.eq(userId))
+        .execute();
+
+    assertThat(summaryCounters.repair()).isGreaterThanOrEqualTo(2);
+
+    assertThat(collectionService.setCardAmount(userId, card.id(), 3))
+        .contains(new CollectionInfo(1, 3, userId));
+    assertThat(collectionService.setCardAmount(emptyUser, card.id(), 0))
+        .contains(new CollectionInfo(0, 0, emptyUser));
+    assertThat(summaryCounters.repair()).isZero();
+  }
+
+  @Test
+  void writeBufferWritesLastAmountOnce() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+    var buffer = new CollectionWriteBuffer(collectionService, true, Duration.ofHours(1), 50);
+
+    for (int amount = 1; amount <= 4; amount++) {
+      assertThat(buffer.setSingleCardAmount(userId, card.id(), amount))
+          .contains(new CollectionCardStub(card.id(), amount));
+    }
+    assertThat(buffer.setSingleCardAmount(userId, -1L, 1)).isEmpty();
+    buffer.flushDue();
+    assertThat(collectionService.getPrimaryStub(userId)).isEmpty();
+
+    buffer.flush(userId);
+
+    assertThat(collectionService.getPrimaryStub(userId)).containsExactly(Map.entry(card.id(), 4));
+    var history =
+        dsl.selectFrom(COLLECTION_HISTORY_ENTRY)
+            .where(COLLECTION_HISTORY_ENTRY.USER_ID.eq(userId))
+            .fetch();
+    assertThat(history).hasSize(1);
+    assertThat(history.getFirst().getPreviousQty()).isZero();
+    assertThat(history.getFirst().getNewQty()).isEqualTo(4);
+    assertThat(buffer.hasPending()).isFalse();
+  }
+
+  @Test
+  void writeBufferFlushesWhenFullOrDue() {
+    CardStub card1 = fixtures.monoCard("dm01-001", LIGHT);
+    CardStub card2 = fixtures.monoCard("dm01-002", WATER);
+    var full = new CollectionWriteBuffer(collectionService, true, Duration.ofHours(1), 2);
+    var due = new CollectionWriteBuffer(collectionService, true, Duration.ZERO, 50);
+
+    full.setSingleCardAmount(userId, card1.id(), 1);
+    assertThat(collectionService.getPrimaryStub(userId)).isEmpty();
+    full.setSingleCardAmount(userId, card2.id(), 2);
+    assertThat(collectionService.getPrimaryStub(userId))
+        .containsOnly(Map.entry(card1.id(), 1), Map.entry(card2.id(), 2));
+
+    due.setSingleCardAmount(userId, card1.id(), 0);
+    due.flushDue();
+    assertThat(collectionService.getPrimaryStub(userId)).containsOnly(Map.entry(card2.id(), 2));
+  }
+
+  @Test
+  void writeBufferKeepsAmountsWhoseWriteFailed() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+    var buffer = new CollectionWriteBuffer(collectionService, true, Duration.ofHours(1), 50);
+    // Entries of a user that does not exist violate the foreign key
+    UUID unknownUser = UUID.randomUUID();
+    buffer.setSingleCardAmount(unknownUser, card.id(), 2);
+
+    assertThatThrownBy(() -> buffer.flush(unknownUser)).isInstanceOf(DataAccessException.class);
+
+    assertThat(buffer.hasPending()).isTrue();
+  }
+
+  @Test
+  void disabledWriteBufferWritesRightAway() {
+    CardStub card = fixtures.monoCard("dm01-001", LIGHT);
+    var buffer = new CollectionWriteBuffer(collectionService, false, Duration.ofHours(1), 50);
+
+    assertThat(buffer.setSingleCardAmount(userId, card.id(), 2))
+        .contains(new CollectionCardStub(card.id(), 2));
+    assertThat(buffer.hasPending()).isFalse();
+    assertThat(collectionService.getPrimaryStub(userId)).containsExactly(Map.entry(card.id(), 2));
+  }
 }
@@ -104,6 +104,21 @@ class DeckServiceIntegrationTest extends IntegrationTestBase {
     assertThat(result.get().info().uniqueCardCount()).isEqualTo(3);
   }
 
+  @Test
+  void countsFollowChangedAmounts() {
+    var info = deckService.createDeck(userId, "New Deck");
+    deckService.setCardAmount(userId, info.id(), lightCard.id(), 3);
+    deckService.setCardAmount(userId, info.id(), lightCard.id(), 1);
+    deckService.setCardAmount(userId, info.id(), fireCard.id(), 2);
+    var result = deckService.setCardAmount(userId, info.id(), fireCard.id(), 0);
+    assertThat(result)
+        .hasValueSatisfying(
+            deck -> {
+              assertThat(deck.uniqueCardCount()).isEqualTo(1);
+              assertThat(deck.totalCardCount()).isEqualTo(1);
+            });
+  }
+
   @Test
   void deckCanBeRetrieved() {
     var deckInfo = deckService.createDeck(userId, "New Deck");
@@ -0,0 +1,122 @@
+package net.dmcollection.server.card;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.card.ImportJobService.ImportJobStatus;
+import net.dmcollection.server.card.ImportJobService.State;
+import net.dmcollection.server.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@AutoConfigureMockMvc
+@Transactional
+class ImportJobControllerIntegrationTest extends IntegrationTestBase {
+
+  @Autowired MockMvc mockMvc;
+  @Autowired ObjectMapper objectMapper;
+
+  User testUser;
+
+  @BeforeEach
+  void setup() {
+    testUser = createUser("importJobTest-");
+  }
+
+  @Test
+  void collectionImportJobReportsProgress() throws Exception {
+    String file =
+        """
+        {"version": {"version": 2, "type": "collection"}, "cards": [
+          {"cardName": "Unknown", "prints": [
+            {"id": "job-unknown-1", "amount": 1}, {"id": "job-unknown-2", "amount": 2}
+          ]}
+        ]}
+        """;
+
+    String location = submit("/api/collection/import/jobs", file, testUser);
+    ImportJobStatus job = awaitJob(location, testUser);
+
+    assertThat(job.state()).isEqualTo(State.DONE);
+    assertThat(job.type()).isEqualTo(ImportJobService.Type.COLLECTION);
+    assertThat(job.parsed()).isEqualTo(2);
+    assertThat(job.matched()).isZero();
+    assertThat(job.unmatched()).isEqualTo(2);
+    assertThat(job.written()).isZero();
+  }
+
+  @Test
+  void unreadableFileFailsJob() throws Exception {
+    String location = submit("/api/decks/import/jobs", "\"not a deck\"", testUser);
+    ImportJobStatus job = awaitJob(location, testUser);
+
+    assertThat(job.state()).isEqualTo(State.FAILED);
+    assertThat(job.error()).isNotBlank();
+  }
+
+  @Test
+  void jobsAreOnlyVisibleToTheirOwner() throws Exception {
+    String location = submit("/api/decks/import/jobs", "[]", testUser);
+    User otherUser = createUser("importJobOther-");
+
+    mockMvc.perform(get(location).with(user(otherUser))).andExpect(status().isNotFound());
+    awaitJob(location, testUser);
+  }
+
+  @Test
+  void submittingRequiresAuthentication() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/collection/import/jobs")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("{}"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  private String submit(String path, String file, User owner) throws Exception {
+    return mockMvc
+        .perform(
+            post(path)
+                .with(user(owner))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(file.getBytes(StandardCharsets.UTF_8)))
+        .andExpect(status().isAccepted())
+        .andExpect(header().exists("Location"))
+        .andReturn()
+        .getResponse()
+        .getHeader("Location");
+  }
+
+  private ImportJobStatus awaitJob(String location, User owner) throws Exception {
+    for (int attempt = 0; attempt < 100; attempt++) {
+      String body =
+          mockMvc
+              .perform(get(location).with(user(owner)))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      ImportJobStatus job = objectMapper.readValue(body, ImportJobStatus.class);
+      if (job.state() != State.QUEUED && job.state() != State.RUNNING) {
+        return job;
+      }
+      Thread.sleep(100);
+    }
+    throw new AssertionError("Import job at " + location + " did not finish");
+  }
+}
@@ -0,0 +1,164 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.card.Civilization.FIRE;
+import static net.dmcollection.server.card.Civilization.LIGHT;
+import static net.dmcollection.server.card.Civilization.WATER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.TestFixtureBuilder;
+import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.TagService.TagInfo;
+import net.dmcollection.server.card.internal.CardQueryService;
+import net.dmcollection.server.card.internal.CatalogIndex;
+import net.dmcollection.server.card.internal.CatalogVersion;
+import net.dmcollection.server.card.internal.OwnedPrintingCache;
+import net.dmcollection.server.card.internal.PrivateTagCache;
+import net.dmcollection.server.card.internal.RarityService;
+import net.dmcollection.server.card.internal.SearchFilter;
+import net.dmcollection.server.card.internal.SearchFilter.TagMatch;
+import net.dmcollection.server.card.internal.SearchTotalsCache;
+import net.dmcollection.server.card.internal.SummaryCounters;
+import net.dmcollection.server.card.internal.query.SearchFilterTranslator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+class TagServiceIntegrationTest extends IntegrationTestBase {
+
+  @Autowired TagService tagService;
+  @Autowired SearchFilterTranslator searchFilterTranslator;
+  @Autowired RarityService rarityService;
+  @Autowired PrivateTagCache privateTagCache;
+  @Autowired OwnedPrintingCache ownedPrintingCache;
+  @Autowired SummaryCounters summaryCounters;
+
+  private UUID userId;
+
+  private CardStub lightCard;
+  private CardStub lightReprint;
+  private CardStub fireCard;
+  private CardStub waterCard;
+
+  @BeforeEach
+  void setup() {
+    var fixtures = new TestFixtureBuilder(dsl, cardTypeResolver);
+
+    userId = createUser("testuser").getId();
+
+    lightCard = fixtures.monoCard("dm01-001", LIGHT);
+    lightReprint = fixtures.reprint(lightCard, "dm02-001", 2);
+    fireCard = fixtures.monoCard("dm01-002", FIRE);
+    waterCard = fixtures.monoCard("dm01-003", WATER);
+  }
+
+  private int createTag(String name) {
+    return tagService.createTag(userId, name).orElseThrow().id();
+  }
+
+  /** Searches via SQL and via a freshly built catalog index, asserting that both agree. */
+  private List<Long> search(TagMatch match, Integer... tagIds) {
+    SearchFilter filter =
+        TestFixtureBuilder.search()
+            .setTagFilter(match, tagIds)
+            .build()
+            .withCollectionFilter(userId, false);
+    CatalogIndex unloaded = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    List<Long> viaSql = searchWith(unloaded, filter);
+
+    CatalogIndex loaded = new CatalogIndex(dsl, cardTypeResolver, rarityService, privateTagCache);
+    loaded.rebuild();
+    assertThat(searchWith(loaded, filter)).containsExactlyElementsOf(viaSql);
+    return viaSql;
+  }
+
+  private List<Long> searchWith(CatalogIndex catalogIndex, SearchFilter filter) {
+    return new CardQueryService(
+            dsl,
+            searchFilterTranslator,
+            catalogIndex,
+            new SearchTotalsCache(new CatalogVersion()),
+            ownedPrintingCache,
+            summaryCounters,
+            0,
+            0)
+        .search(filter)
+        .pageOfCards()
+        .map(CardStub::id)
+        .getContent();
+  }
+
+  @Test
+  void createRenameAndDeleteTags() {
+    int favorites = createTag("Favorites");
+    int trade = createTag("Trade");
+
+    assertThat(tagService.createTag(userId, "Favorites")).isEmpty();
+    assertThat(tagService.renameTag(userId, trade, "Favorites")).isEmpty();
+    assertThat(tagService.renameTag(userId, trade, "Binder"))
+        .contains(new TagInfo(trade, "Binder", 0, 0));
+    assertThat(tagService.getTags(userId))
+        .extracting(TagInfo::name)
+        .containsExactly("Binder", "Favorites");
+
+    UUID otherUser = createUser("otheruser").getId();
+    assertThat(tagService.deleteTag(otherUser, favorites)).isFalse();
+    assertThat(tagService.setTagged(otherUser, favorites, List.of(fireCard.id()), false, true))
+        .isEmpty();
+    assertThat(tagService.deleteTag(userId, favorites)).isTrue();
+    assertThat(tagService.getTags(userId)).hasSize(1);
+  }
+
+  @Test
+  void tagsAndUntagsPrintingsAndCardsInBulk() {
+    int tag = createTag("Favorites");
+
+    assertThat(
+            tagService.setTagged(
+                userId, tag, List.of(fireCard.id(), waterCard.id(), -1L), false, true))
+        .contains(new TagInfo(tag, "Favorites", 2, 0));
+    assertThat(tagService.setTagged(userId, tag, List.of(fireCard.id()), false, true))
+        .contains(new TagInfo(tag, "Favorites", 2, 0));
+    assertThat(tagService.setTagged(userId, tag, List.of(lightCard.id()), true, true))
+        .contains(new TagInfo(tag, "Favorites", 2, 1));
+    assertThat(tagService.setTagged(userId, tag, List.of(waterCard.id()), false, false))
+        .contains(new TagInfo(tag, "Favorites", 1, 1));
+    assertThat(tagService.setTagged(userId, tag, List.of(lightReprint.id()), true, false))
+        .contains(new TagInfo(tag, "Favorites", 1, 0));
+  }
+
+  @Test
+  void searchesByTags() {
+    int favorites = createTag("Favorites");
+    int trade = createTag("Trade");
+    tagService.setTagged(userId, favorites, List.of(lightCard.id()), true, true);
+    tagService.setTagged(userId, favorites, List.of(fireCard.id()), false, true);
+    tagService.setTagged(userId, trade, List.of(fireCard.id(), waterCard.id()), false, true);
+
+    assertThat(search(TagMatch.ANY, favorites))
+        .containsExactlyInAnyOrder(lightCard.id(), lightReprint.id(), fireCard.id());
+    assertThat(search(TagMatch.ANY, favorites, trade))
+        .containsExactlyInAnyOrder(
+            lightCard.id(), lightReprint.id(), fireCard.id(), waterCard.id());
+    assertThat(search(TagMatch.ALL, favorites, trade)).containsExactly(fireCard.id());
+    assertThat(search(TagMatch.NONE, trade))
+        .containsExactlyInAnyOrder(lightCard.id(), lightReprint.id());
+
+    tagService.setTagged(userId, favorites, List.of(lightReprint.id()), true, false);
+    assertThat(search(TagMatch.ANY, favorites)).containsExactly(fireCard.id());
+  }
+
+  @Test
+  void tagsOfOtherUsersMatchNothing() {
+    int favorites = createTag("Favorites");
+    tagService.setTagged(userId, favorites, List.of(fireCard.id()), false, true);
+    userId = createUser("otheruser").getId();
+
+    assertThat(search(TagMatch.ANY, favorites)).isEmpty();
+    assertThat(search(TagMatch.NONE, favorites)).hasSize(4);
+  }
+}
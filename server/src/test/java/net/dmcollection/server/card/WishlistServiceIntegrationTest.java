@@ -0,0 +1,152 @@
+package net.dmcollection.server.card;
+
+import static net.dmcollection.server.card.Civilization.FIRE;
+import static net.dmcollection.server.card.Civilization.LIGHT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.UUID;
+import net.dmcollection.server.IntegrationTestBase;
+import net.dmcollection.server.TestFixtureBuilder;
+import net.dmcollection.server.card.CardService.CardStub;
+import net.dmcollection.server.card.WishlistService.WishlistCard;
+import net.dmcollection.server.card.WishlistService.WishlistDto;
+import net.dmcollection.server.card.WishlistService.WishlistInfo;
+import net.dmcollection.server.card.internal.SearchFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+class WishlistServiceIntegrationTest extends IntegrationTestBase {
+
+  @Autowired WishlistService wishlistService;
+  @Autowired CollectionService collectionService;
+
+  private TestFixtureBuilder fixtures;
+  private UUID userId;
+
+  private CardStub lightCard;
+  private CardStub lightReprint;
+  private CardStub fireCard;
+
+  @BeforeEach
+  void setup() {
+    fixtures = new TestFixtureBuilder(dsl, cardTypeResolver);
+
+    userId = createUser("testuser").getId();
+
+    lightCard = fixtures.monoCard("dm01-001", LIGHT);
+    lightReprint = fixtures.reprint(lightCard, "dm02-001", 2);
+    fireCard = fixtures.monoCard("dm01-002", 5, FIRE);
+  }
+
+  private int createWishlist(String name) {
+    return wishlistService.createWishlist(userId, name).orElseThrow().id();
+  }
+
+  private WishlistDto cards(int wishlistId, SearchFilter filter, boolean onlyMissing) {
+    return wishlistService.getWishlistCards(userId, wishlistId, filter, onlyMissing).orElseThrow();
+  }
+
+  @Test
+  void createRenameAndDeleteWishlists() {
+    int wants = createWishlist("Wants");
+    int other = createWishlist("Other");
+
+    assertThat(wishlistService.createWishlist(userId, "Wants")).isEmpty();
+    assertThat(wishlistService.renameWishlist(userId, other, "Wants")).isEmpty();
+    assertThat(wishlistService.renameWishlist(userId, other, "Later"))
+        .contains(new WishlistInfo(other, "Later", 0, userId));
+    assertThat(wishlistService.getWishlists(userId))
+        .extracting(WishlistInfo::name)
+        .containsExactly("Later", "Wants");
+
+    UUID otherUser = createUser("otheruser").getId();
+    assertThat(wishlistService.deleteWishlist(otherUser, wants)).isFalse();
+    assertThat(wishlistService.getWishlistCards(otherUser, wants, null, false)).isEmpty();
+    assertThat(wishlistService.deleteWishlist(userId, wants)).isTrue();
+    assertThat(wishlistService.getWishlists(userId)).hasSize(1);
+  }
+
+  @Test
+  void setCardAmountAddsUpdatesAndRemovesEntries() {
+    int wishlistId = createWishlist("Wants");
+
+    assertThat(wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), false, 1))
+        .map(WishlistInfo::entryCount)
+        .contains(1);
+    assertThat(wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), true, 2))
+        .map(WishlistInfo::entryCount)
+        .contains(2);
+    assertThat(wishlistService.setCardAmount(userId, wishlistId, lightReprint.id(), true, 3))
+        .map(WishlistInfo::entryCount)
+        .contains(2);
+    assertThat(wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), false, 0))
+        .map(WishlistInfo::entryCount)
+        .contains(1);
+    assertThat(wishlistService.setCardAmount(userId, wishlistId, -1L, false, 1)).isEmpty();
+    assertThat(wishlistService.setCardAmount(userId, wishlistId + 1000, lightCard.id(), false, 1))
+        .isEmpty();
+
+    var entries = cards(wishlistId, TestFixtureBuilder.search().build(), false);
+    assertThat(entries.cardPage().getContent())
+        .singleElement()
+        .satisfies(
+            card -> {
+              assertThat(card.anyPrinting()).isTrue();
+              assertThat(card.wanted()).isEqualTo(3);
+            });
+  }
+
+  @Test
+  void missingCardsSubtractTheCollection() {
+    int wishlistId = createWishlist("Wants");
+    wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), false, 2);
+    wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), true, 4);
+    wishlistService.setCardAmount(userId, wishlistId, fireCard.id(), false, 1);
+    collectionService.setCardAmount(userId, lightCard.id(), 1);
+    collectionService.setCardAmount(userId, lightReprint.id(), 2);
+    collectionService.setCardAmount(userId, fireCard.id(), 1);
+
+    WishlistDto missing = cards(wishlistId, TestFixtureBuilder.search().build(), true);
+
+    assertThat(missing.totalMissing()).isEqualTo(2);
+    assertThat(missing.cardPage().getContent())
+        .extracting(WishlistCard::anyPrinting, WishlistCard::wanted, WishlistCard::owned)
+        .containsExactlyInAnyOrder(tuple(false, 2, 1), tuple(true, 4, 3));
+    assertThat(missing.cardPage().getContent())
+        .filteredOn(WishlistCard::anyPrinting)
+        .singleElement()
+        .satisfies(card -> assertThat(card.card().id()).isEqualTo(lightReprint.id()));
+
+    WishlistDto all = cards(wishlistId, TestFixtureBuilder.search().build(), false);
+    assertThat(all.totalMissing()).isEqualTo(2);
+    assertThat(all.cardPage().getContent())
+        .extracting(WishlistCard::missing)
+        .containsExactlyInAnyOrder(1, 1, 0);
+  }
+
+  @Test
+  void wishlistCardsFollowSearchFilterAndPaging() {
+    int wishlistId = createWishlist("Wants");
+    wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), false, 1);
+    wishlistService.setCardAmount(userId, wishlistId, lightCard.id(), true, 1);
+    wishlistService.setCardAmount(userId, wishlistId, fireCard.id(), false, 1);
+
+    WishlistDto fire =
+        cards(wishlistId, TestFixtureBuilder.search().addIncludedCivs(FIRE).build(), true);
+    assertThat(fire.totalMissing()).isEqualTo(1);
+    assertThat(fire.cardPage().getContent())
+        .singleElement()
+        .satisfies(card -> assertThat(card.card().id()).isEqualTo(fireCard.id()));
+
+    SearchFilter paged = TestFixtureBuilder.search().setPageable(PageRequest.of(0, 2)).build();
+    WishlistDto firstPage = cards(wishlistId, paged, true);
+    assertThat(firstPage.cardPage().getContent()).hasSize(2);
+    assertThat(firstPage.cardPage().getMetadata().totalElements()).isEqualTo(3);
+    assertThat(firstPage.totalMissing()).isEqualTo(3);
+  }
+}
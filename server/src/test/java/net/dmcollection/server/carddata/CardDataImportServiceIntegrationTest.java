@@ -12,6 +12,7 @@ import static net.dmcollection.server.jooq.generated.Tables.DECK;
 import static net.dmcollection.server.jooq.generated.Tables.DECK_VERSION;
 import static net.dmcollection.server.jooq.generated.Tables.DECK_VERSION_ENTRY;
 import static net.dmcollection.server.jooq.generated.Tables.PRINTING;
+import static net.dmcollection.server.jooq.generated.Tables.PRINTING_SEARCH;
 import static net.dmcollection.server.jooq.generated.Tables.PRINTING_SIDE;
 import static net.dmcollection.server.jooq.generated.Tables.PRINTING_SIDE_ABILITY;
 import static net.dmcollection.server.jooq.generated.Tables.PRIVATE_TAG;
@@ -57,6 +58,7 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
     dsl.truncateTable(SET_GROUP).cascade().execute();
     dsl.truncateTable(CARD).cascade().execute();
     dsl.truncateTable(ABILITY).cascade().execute();
+    dsl.truncateTable(PRINTING_SEARCH).execute();
   }
 
   @Test
@@ -85,6 +87,7 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
     assertThat(sides).hasSize(1);
     assertThat(sides.getFirst().getName()).isEqualTo("天空の守護者グラン・ギューレ");
     assertThat(sides.getFirst().getCivilizationIds()).containsExactly((short) 1);
+    assertThat(sides.getFirst().getCivMask()).isEqualTo((short) 0b10);
 
     // Verify card types
     var types =
@@ -99,6 +102,27 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
     assertThat(civGroups).hasSize(1);
     assertThat(civGroups.getFirst().getCivilizationIds()).containsExactly((short) 1);
     assertThat(civGroups.getFirst().getIncludesColorlessSide()).isFalse();
+    assertThat(civGroups.getFirst().getCivMask()).isEqualTo((short) 0b10);
+  }
+
+  @Test
+  void printingSearchHasOneRowPerPrinting() {
+    assertThat(dsl.fetchCount(PRINTING_SEARCH)).isEqualTo(data.printings().size());
+
+    var card = dsl.selectFrom(CARD).where(CARD.NAME.eq("天空の守護者グラン・ギューレ")).fetchOne();
+    assertThat(card).isNotNull();
+    var rows =
+        dsl.selectFrom(PRINTING_SEARCH).where(PRINTING_SEARCH.CARD_ID.eq(card.getId())).fetch();
+    assertThat(rows).isNotEmpty();
+    for (var row : rows) {
+      assertThat(row.getName()).isEqualTo(card.getName());
+      assertThat(row.getSortCost()).isEqualTo(6);
+      assertThat(row.getIsTwinpact()).isFalse();
+      assertThat(row.getCostFilters()).containsExactly(6);
+      assertThat(row.getTypeIds()).hasSize(1);
+      assertThat(row.getCivMask()).isEqualTo((short) 0b10);
+      assertThat(row.getCivGroupMasks()).containsExactly((short) 0b10);
+    }
   }
 
   @Test
@@ -112,6 +136,7 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
     assertThat(civGroups).hasSize(1);
     assertThat(civGroups.getFirst().getCivilizationIds()).isEmpty();
     assertThat(civGroups.getFirst().getIncludesColorlessSide()).isTrue();
+    assertThat(civGroups.getFirst().getCivMask()).isEqualTo((short) 0b1);
   }
 
   @Test
@@ -124,6 +149,7 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
         dsl.selectFrom(CARD_CIV_GROUP).where(CARD_CIV_GROUP.CARD_ID.eq(card.getId())).fetch();
     assertThat(civGroups).hasSize(1);
     assertThat(civGroups.getFirst().getCivilizationIds()).containsExactly((short) 5);
+    assertThat(civGroups.getFirst().getCivMask()).isEqualTo((short) 0b100000);
   }
 
   @Test
@@ -419,8 +445,8 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
               .fetchOne(APP_USER.ID);
       UUID deckId =
           dsl.insertInto(DECK)
-              .columns(DECK.USER_ID, DECK.NAME)
-              .values(userId, "__test_deck__")
+              .columns(DECK.USER_ID, DECK.NAME, DECK.UNIQUE_COUNT, DECK.TOTAL_COUNT)
+              .values(userId, "__test_deck__", 2L, 5L)
               .returning(DECK.ID)
               .fetchOne(DECK.ID);
       UUID deckVersionId =
@@ -475,6 +501,11 @@ class CardDataImportServiceIntegrationTest extends IntegrationTestBase {
                   DECK_VERSION_ENTRY, DECK_VERSION_ENTRY.DECK_VERSION_ID.eq(deckVersionId)))
           .isEqualTo(1);
 
+      // Deck counts follow the merge
+      var deck = dsl.selectFrom(DECK).where(DECK.ID.eq(deckId)).fetchOne();
+      assertThat(deck.getUniqueCount()).isEqualTo(1L);
+      assertThat(deck.getTotalCount()).isEqualTo(5L);
+
       // Cleanup
       dsl.deleteFrom(DECK).where(DECK.ID.eq(deckId)).execute();
       dsl.deleteFrom(CARD).where(CARD.ID.eq(survivorCardId)).execute();
@@ -0,0 +1,37 @@
+import { api } from '../api';
+
+export type ImportJobState = 'QUEUED' | 'RUNNING' | 'DONE' | 'FAILED';
+
+export interface ImportJobStatus {
+	id: string;
+	type: 'COLLECTION' | 'DECKS';
+	state: ImportJobState;
+	parsed: number;
+	matched: number;
+	unmatched: number;
+	written: number;
+	error: string | null;
+}
+
+const POLL_INTERVAL_MS = 500;
+
+/** Uploads the file as a background import job and resolves with the finished job. */
+export const runImportJob = async (
+	path: string,
+	file: BodyInit
+): Promise<ImportJobStatus | null> => {
+	const response = await api(path, { binary: file });
+	if (!response.ok) {
+		return null;
+	}
+	let job = (await response.json()) as ImportJobStatus;
+	while (job.state === 'QUEUED' || job.state === 'RUNNING') {
+		await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+		const poll = await api(`/api/import/jobs/${job.id}`);
+		if (!poll.ok) {
+			return null;
+		}
+		job = (await poll.json()) as ImportJobStatus;
+	}
+	return job;
+};
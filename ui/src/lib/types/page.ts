@@ -1,6 +1,8 @@
 export type PagedResult<T> = {
 	content: Array<T>;
 	page: Page;
+	/** false if page.totalElements is only an estimate */
+	totalExact?: boolean;
 };
 
 export type Page = {